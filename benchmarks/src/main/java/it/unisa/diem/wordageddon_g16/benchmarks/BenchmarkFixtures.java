@@ -0,0 +1,113 @@
+package it.unisa.diem.wordageddon_g16.benchmarks;
+
+import it.unisa.diem.wordageddon_g16.db.JdbcRepository;
+import it.unisa.diem.wordageddon_g16.db.contracts.DocumentDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.WdmDAO;
+import it.unisa.diem.wordageddon_g16.models.Document;
+import it.unisa.diem.wordageddon_g16.models.WDM;
+import it.unisa.diem.wordageddon_g16.utility.Config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Ambiente isolato su cui vengono eseguiti i benchmark.
+ * <p>
+ * Crea una directory temporanea contenente un database SQLite e una directory per i documenti; lo schema
+ * viene creato da {@link JdbcRepository} all'apertura del database vuoto. Le proprietà {@link Config.Props#DB_URL}
+ * e {@link Config.Props#DOCUMENTS_DIR} vengono reindirizzate tramite proprietà di sistema, così che
+ * il codice dell'applicazione giri invariato senza toccare il database reale.
+ * </p>
+ * Ogni fork di JMH crea il proprio ambiente, che viene eliminato alla chiusura.
+ */
+public final class BenchmarkFixtures implements AutoCloseable {
+    private final Path directory;
+    private final Path documentsDir;
+    private final JdbcRepository repository;
+
+    private BenchmarkFixtures(Path directory) throws IOException {
+        this.directory = directory;
+        this.documentsDir = Files.createDirectory(directory.resolve("documents"));
+        String dbUrl = "jdbc:sqlite:" + directory.resolve("bench.sqlite");
+
+        System.setProperty(Config.Props.DB_URL.get(), dbUrl);
+        System.setProperty(Config.Props.DOCUMENTS_DIR.get(), documentsDir + "/");
+        this.repository = new JdbcRepository();
+    }
+
+    /**
+     * Crea un nuovo ambiente vuoto in una directory temporanea.
+     *
+     * @return l'ambiente creato
+     * @throws IOException se non è possibile creare la directory
+     */
+    public static BenchmarkFixtures create() throws IOException {
+        return new BenchmarkFixtures(Files.createTempDirectory("wordageddon-bench"));
+    }
+
+    /**
+     * Restituisce il repository collegato al database temporaneo.
+     *
+     * @return il repository dell'ambiente
+     */
+    public JdbcRepository repository() {
+        return repository;
+    }
+
+    /**
+     * Scrive il testo indicato nella directory dei documenti.
+     *
+     * @param filename nome del file
+     * @param content  contenuto del documento
+     * @return percorso del file scritto
+     */
+    public Path writeDocument(String filename, String content) {
+        try {
+            return Files.writeString(documentsDir.resolve(filename), content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Aggiunge un documento completo all'ambiente: file, riga in {@code Document} e relativa {@link WDM}.
+     * <p>
+     * Replica il flusso di caricamento del pannello amministratore.
+     *
+     * @param filename  nome del file del documento
+     * @param content   contenuto del documento
+     * @param stopWords stopword da escludere dalla WDM
+     * @return il documento inserito, con il numero di parole calcolato dall'analisi
+     */
+    public Document addDocument(String filename, String content, Set<String> stopWords) {
+        writeDocument(filename, content);
+        WDM wdm = new WDM(new Document(filename, filename, 1), stopWords);
+        Document document = wdm.getDocument();
+        DocumentDAO documentDAO = repository.getDAO("document");
+        WdmDAO wdmDAO = repository.getDAO("wdm");
+        documentDAO.insert(document);
+        wdmDAO.insert(wdm);
+        return document;
+    }
+
+    /**
+     * Chiude la connessione al database ed elimina la directory temporanea.
+     *
+     * @throws IOException se la rimozione dei file fallisce
+     */
+    @Override
+    public void close() throws IOException {
+        repository.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
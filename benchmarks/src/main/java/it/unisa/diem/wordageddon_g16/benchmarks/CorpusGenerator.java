@@ -0,0 +1,166 @@
+package it.unisa.diem.wordageddon_g16.benchmarks;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generatore di corpora sintetici per i benchmark.
+ * <p>
+ * Produce testi "simil-italiani" riproducibili: a parità di seme e dimensione richiesta il testo generato
+ * è sempre identico, così che i risultati dei benchmark siano confrontabili tra esecuzioni diverse.
+ * Le parole sono composte da sillabe italiane e vengono estratte secondo una distribuzione di Zipf,
+ * in modo che le frequenze somiglino a quelle di un testo reale (poche parole molto frequenti,
+ * una lunga coda di parole rare). Punteggiatura, apostrofi e paragrafi esercitano il tokenizer
+ * esattamente come i documenti caricati dagli utenti.
+ * </p>
+ */
+public final class CorpusGenerator {
+    private static final String[] SYLLABLES = {
+            "a", "ca", "co", "ci", "che", "chi", "da", "de", "di", "do", "e", "fa", "fe", "fi", "ga", "gi",
+            "gli", "gno", "i", "la", "le", "li", "lo", "ma", "me", "mi", "mo", "na", "ne", "ni", "no", "o",
+            "pa", "pe", "pi", "po", "qua", "ra", "re", "ri", "ro", "sa", "se", "si", "so", "sta", "ste", "sti",
+            "ta", "te", "ti", "to", "tra", "tre", "u", "va", "ve", "vi", "vo", "za", "ze", "zio", "zione"
+    };
+    private static final String[] STOP_WORDS = {
+            "il", "lo", "la", "i", "gli", "le", "un", "una", "di", "a", "da", "in", "con", "su", "per", "tra",
+            "e", "che", "non", "si", "del", "della", "nel", "nella", "è"
+    };
+
+    /** Numero di parole distinte del vocabolario di default. */
+    public static final int DEFAULT_VOCABULARY_SIZE = 20_000;
+
+    private final long seed;
+    private final String[] vocabulary;
+    private final double[] cumulativeWeights;
+
+    /**
+     * Costruisce un generatore con il seme e la dimensione di vocabolario indicati.
+     *
+     * @param seed           seme della sequenza pseudo-casuale
+     * @param vocabularySize numero di parole distinte del vocabolario
+     */
+    public CorpusGenerator(long seed, int vocabularySize) {
+        this.seed = seed;
+        SplittableRandom random = new SplittableRandom(seed);
+        Set<String> words = new LinkedHashSet<>(Arrays.asList(STOP_WORDS));
+        while (words.size() < vocabularySize) {
+            int syllables = 1 + random.nextInt(4);
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < syllables; i++) {
+                sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words.add(sb.toString());
+        }
+        this.vocabulary = words.toArray(String[]::new);
+
+        // Pesi di Zipf (s = 1): la parola di rango k ha peso 1/k
+        this.cumulativeWeights = new double[vocabulary.length];
+        double sum = 0;
+        for (int k = 0; k < vocabulary.length; k++) {
+            sum += 1.0 / (k + 1);
+            cumulativeWeights[k] = sum;
+        }
+    }
+
+    /**
+     * Costruisce un generatore con il vocabolario di default.
+     *
+     * @param seed seme della sequenza pseudo-casuale
+     */
+    public CorpusGenerator(long seed) {
+        this(seed, DEFAULT_VOCABULARY_SIZE);
+    }
+
+    /**
+     * Genera un testo di circa {@code targetBytes} byte (codifica UTF-8).
+     * <p>
+     * Lo stesso generatore restituisce sempre lo stesso testo per la stessa dimensione.
+     *
+     * @param targetBytes dimensione approssimativa del testo desiderato
+     * @return il testo generato
+     */
+    public String generate(int targetBytes) {
+        SplittableRandom random = new SplittableRandom(seed ^ targetBytes);
+        StringBuilder sb = new StringBuilder(targetBytes + 64);
+        int wordsInSentence = 0;
+        int sentenceLength = 6 + random.nextInt(14);
+        int sentencesInParagraph = 0;
+        boolean capitalize = true;
+        while (sb.length() < targetBytes) {
+            String word = nextWord(random);
+            if (capitalize) {
+                sb.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+                capitalize = false;
+            } else if (random.nextInt(40) == 0 && isVowel(word.charAt(0))) {
+                // Elisione: "l'albero", "dell’acqua"
+                sb.append(random.nextBoolean() ? "l'" : "dell’").append(word);
+            } else {
+                sb.append(word);
+            }
+            if (++wordsInSentence >= sentenceLength) {
+                sb.append(random.nextInt(8) == 0 ? '?' : '.');
+                wordsInSentence = 0;
+                sentenceLength = 6 + random.nextInt(14);
+                capitalize = true;
+                if (++sentencesInParagraph >= 4 + random.nextInt(4)) {
+                    sb.append("\n\n");
+                    sentencesInParagraph = 0;
+                    continue;
+                }
+            } else if (random.nextInt(10) == 0) {
+                sb.append(random.nextInt(5) == 0 ? ";" : ",");
+            }
+            sb.append(' ');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Genera un testo composto da circa {@code wordCount} parole.
+     * <p>
+     * Utile per costruire documenti compatibili con le soglie di parole usate da ciascuna difficoltà.
+     *
+     * @param wordCount numero di parole desiderato
+     * @param variant   variante del testo, per ottenere documenti diversi della stessa lunghezza
+     * @return il testo generato
+     */
+    public String generateWords(int wordCount, int variant) {
+        SplittableRandom random = new SplittableRandom(seed * 31 + variant);
+        StringBuilder sb = new StringBuilder(wordCount * 8);
+        for (int i = 0; i < wordCount; i++) {
+            if (i > 0) sb.append(i % 12 == 0 ? ". " : " ");
+            sb.append(nextWord(random));
+        }
+        return sb.append('.').toString();
+    }
+
+    /**
+     * Restituisce il vocabolario usato dal generatore, ordinato per frequenza attesa decrescente.
+     *
+     * @return copia del vocabolario
+     */
+    public String[] vocabulary() {
+        return vocabulary.clone();
+    }
+
+    /**
+     * Restituisce le parole funzionali (articoli, preposizioni...) usate come stopword nei benchmark.
+     *
+     * @return insieme delle stopword
+     */
+    public static Set<String> stopWords() {
+        return Set.of(STOP_WORDS);
+    }
+
+    private String nextWord(SplittableRandom random) {
+        double r = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, r);
+        return vocabulary[index >= 0 ? index : -index - 1];
+    }
+
+    private static boolean isVowel(char c) {
+        return "aeiou".indexOf(c) >= 0;
+    }
+}
@@ -0,0 +1,52 @@
+package it.unisa.diem.wordageddon_g16.benchmarks;
+
+import it.unisa.diem.wordageddon_g16.services.DistractorGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura la generazione delle opzioni delle domande sulla frequenza assoluta.
+ * <p>
+ * {@code distractorGenerator} usa {@link DistractorGenerator}; {@code rejectionLoop} riproduce il ciclo con scarto
+ * usato in precedenza dalla domanda su tutti i documenti, che per frequenze basse scarta spesso i valori estratti.
+ * Le frequenze vanno da 0 a 10000 per coprire sia le parole rare sia quelle molto frequenti.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistractorBenchmark {
+    @Param({"0", "1", "3", "50", "10000"})
+    public int frequency;
+
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public int[] distractorGenerator() {
+        return DistractorGenerator.options(frequency, frequency / 2 + 2, 4, random);
+    }
+
+    @Benchmark
+    public Set<Integer> rejectionLoop() {
+        Set<Integer> options = new HashSet<>();
+        options.add(frequency);
+        Random rand = new Random();
+        while (options.size() < 4) {
+            int delta = 1 + rand.nextInt(Math.max(1, frequency / 2 + 2));
+            options.add(rand.nextBoolean() ? frequency + delta : Math.max(0, frequency - delta));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,79 @@
+package it.unisa.diem.wordageddon_g16.benchmarks;
+
+import it.unisa.diem.wordageddon_g16.models.*;
+import it.unisa.diem.wordageddon_g16.services.GameEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura il costo di una partita guidata da {@link GameEngine}, senza interfaccia grafica né database.
+ * <p>
+ * {@code fullGame} avvia il motore, risponde a tutte le {@code questions} domande (una su tre errata) e costruisce
+ * il report; {@code fullGameWithSnapshot} salva anche lo stato dopo ogni risposta, come fa il controller alla
+ * chiusura della finestra. L'orologio è fisso, così nessuna risposta risulta fuori tempo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameEngineBenchmark {
+
+    @Param({"10", "20"})
+    public int questions;
+
+    private User user;
+    private GameSession session;
+    private List<Question> questionList;
+    private Clock clock;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        CorpusGenerator generator = new CorpusGenerator(42, 2_000);
+        String[] vocabulary = generator.vocabulary();
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            documents.add(new Document("doc_" + i + ".txt", "Documento di prova " + i, 600));
+        }
+        session = new GameSession(new GameParams(Difficulty.HARD, documents, Duration.ofMinutes(5), questions));
+        questionList = new ArrayList<>();
+        for (int i = 0; i < questions; i++) {
+            List<String> options = List.of(vocabulary[i * 4], vocabulary[i * 4 + 1], vocabulary[i * 4 + 2], vocabulary[i * 4 + 3]);
+            questionList.add(Question.create("Quale di queste parole compare più spesso nel documento \"Documento di prova "
+                    + (i % 7) + "\"?", options, i % 4));
+        }
+        user = new User("demo", "demo-password-hash", false);
+        clock = Clock.fixed(Instant.parse("2026-01-01T10:00:00Z"), ZoneOffset.UTC);
+    }
+
+    @Benchmark
+    public GameReport fullGame() {
+        GameEngine engine = new GameEngine(user, session, questionList, session.getScorePerQuestion(), clock);
+        engine.start();
+        for (int i = 0; !engine.isFinished(); i++) {
+            Question question = engine.currentQuestion();
+            engine.answer(i % 3 == 0 ? (question.correctAnswerIndex() + 1) % 4 : question.correctAnswerIndex());
+        }
+        return engine.finish();
+    }
+
+    @Benchmark
+    public GameReport fullGameWithSnapshot() {
+        GameEngine engine = new GameEngine(user, session, questionList, session.getScorePerQuestion(), clock);
+        engine.start();
+        for (int i = 0; !engine.isFinished(); i++) {
+            Question question = engine.currentQuestion();
+            engine.answer(i % 3 == 0 ? (question.correctAnswerIndex() + 1) % 4 : question.correctAnswerIndex());
+            engine.toState();
+        }
+        return engine.finish();
+    }
+}
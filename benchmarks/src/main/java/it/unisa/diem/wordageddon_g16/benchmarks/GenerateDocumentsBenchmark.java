@@ -0,0 +1,60 @@
+package it.unisa.diem.wordageddon_g16.benchmarks;
+
+import it.unisa.diem.wordageddon_g16.db.contracts.DocumentDAO;
+import it.unisa.diem.wordageddon_g16.models.AppContext;
+import it.unisa.diem.wordageddon_g16.models.Difficulty;
+import it.unisa.diem.wordageddon_g16.models.Document;
+import it.unisa.diem.wordageddon_g16.models.GameSession;
+import it.unisa.diem.wordageddon_g16.services.GameService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura l'inizializzazione di una partita con {@link GameService#newSession(Difficulty)}, dominata dalla selezione
+ * dei documenti ({@code generateDocuments}) sull'intero archivio.
+ * <p>
+ * L'archivio contiene solo le righe della tabella {@code Document}, con un numero di parole distribuito
+ * uniformemente tra le soglie di tutte le difficoltà.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenerateDocumentsBenchmark {
+    @Param({"EASY", "MEDIUM", "HARD"})
+    public Difficulty difficulty;
+
+    @Param({"20", "200", "2000"})
+    public int corpusDocuments;
+
+    private BenchmarkFixtures fixtures;
+    private GameService gameService;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, SQLException {
+        fixtures = BenchmarkFixtures.create();
+        DocumentDAO documentDAO = fixtures.repository().getDAO("document");
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < corpusDocuments; i++) {
+            String filename = "doc_" + i + ".txt";
+            documentDAO.insert(new Document(filename, filename, 30 + random.nextInt(571)));
+        }
+        gameService = new AppContext(fixtures.repository()).getGameService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public GameSession newSession() {
+        return gameService.newSession(difficulty);
+    }
+}
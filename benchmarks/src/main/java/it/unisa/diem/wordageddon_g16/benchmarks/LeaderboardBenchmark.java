@@ -0,0 +1,96 @@
+package it.unisa.diem.wordageddon_g16.benchmarks;
+
+import it.unisa.diem.wordageddon_g16.db.contracts.DocumentDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.GameReportDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.UserDAO;
+import it.unisa.diem.wordageddon_g16.models.*;
+import it.unisa.diem.wordageddon_g16.services.LeaderboardService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura l'aggregazione della classifica di {@link LeaderboardService}, globale e per difficoltà.
+ * <p>
+ * Il database contiene {@code users} utenti, ciascuno con {@code reportsPerUser} partite giocate su
+ * tre documenti, così da includere anche il costo del recupero dei documenti associati ai report.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LeaderboardBenchmark {
+    private static final int DOCUMENTS = 30;
+
+    @Param({"10", "100"})
+    public int users;
+
+    @Param({"10", "50"})
+    public int reportsPerUser;
+
+    private BenchmarkFixtures fixtures;
+    private LeaderboardService leaderboardService;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, SQLException {
+        fixtures = BenchmarkFixtures.create();
+        DocumentDAO documentDAO = fixtures.repository().getDAO("document");
+        UserDAO userDAO = fixtures.repository().getDAO("user");
+        GameReportDAO gameReportDAO = fixtures.repository().getDAO("gameReport");
+
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < DOCUMENTS; i++) {
+            Document document = new Document("doc_" + i + ".txt", "Documento " + i, 100 + i * 10);
+            documentDAO.insert(document);
+            documents.add(document);
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        Difficulty[] difficulties = Difficulty.values();
+        LocalDateTime timestamp = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int u = 0; u < users; u++) {
+            User user = new User("player" + u, "password", u == 0);
+            userDAO.insert(user);
+            for (int r = 0; r < reportsPerUser; r++) {
+                Difficulty difficulty = difficulties[random.nextInt(difficulties.length)];
+                int start = random.nextInt(DOCUMENTS - 3);
+                timestamp = timestamp.plusMinutes(7);
+                gameReportDAO.insert(new GameReport(
+                        user,
+                        documents.subList(start, start + 3),
+                        timestamp,
+                        difficulty,
+                        Duration.ofMinutes(5),
+                        Duration.ofSeconds(60 + random.nextInt(240)),
+                        10,
+                        random.nextInt(Difficulty.getMaxScoreDifficulty(difficulty) + 1)
+                ));
+            }
+        }
+        leaderboardService = new AppContext(fixtures.repository()).getLeaderboardService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public List<LeaderboardService.LeaderboardEntry> globalLeaderboard() {
+        return leaderboardService.getGloablLeaderboard();
+    }
+
+    @Benchmark
+    public List<LeaderboardService.LeaderboardEntry> leaderboardByDifficulty() {
+        return leaderboardService.getLeaderboardByDifficulty(Difficulty.MEDIUM);
+    }
+}
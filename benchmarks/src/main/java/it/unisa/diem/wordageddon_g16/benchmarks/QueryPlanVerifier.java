@@ -0,0 +1,119 @@
+package it.unisa.diem.wordageddon_g16.benchmarks;
+
+import it.unisa.diem.wordageddon_g16.db.JdbcDAO;
+import it.unisa.diem.wordageddon_g16.db.QueryPlans;
+import it.unisa.diem.wordageddon_g16.db.contracts.DailyChallengeDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.DocumentDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.GameReportDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.StopWordDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.UserDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.WdmDAO;
+import it.unisa.diem.wordageddon_g16.models.*;
+import it.unisa.diem.wordageddon_g16.utility.Config;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Stampa il piano di ogni query filtrata eseguita dai DAO, segnalando quelle che non usano un indice.
+ * <p>
+ * Su un database temporaneo creato da {@link BenchmarkFixtures} vengono invocate tutte le operazioni dei DAO,
+ * della classifica, delle sfide del giorno e dello storico del pannello utente. Le query eseguite sono ricavate da
+ * {@link JdbcDAO#executedStatements()}, una per operazione; per ognuna con una clausola {@code WHERE} viene stampato
+ * il piano letto con {@link QueryPlans}.
+ * </p>
+ * È solo un report: la verifica che fa fallire la build è {@code QueryPlanTest}, eseguito da {@code mvn test}.
+ * <br>
+ * Esecuzione: {@code java -cp benchmarks/target/benchmarks.jar it.unisa.diem.wordageddon_g16.benchmarks.QueryPlanVerifier}
+ */
+public class QueryPlanVerifier {
+
+    public static void main(String[] args) throws IOException, SQLException {
+        List<String> violations = new ArrayList<>();
+        try (BenchmarkFixtures fixtures = BenchmarkFixtures.create()) {
+            exercise(fixtures);
+            try (Connection conn = DriverManager.getConnection(Config.get(Config.Props.DB_URL))) {
+                for (Map.Entry<String, String> statement : JdbcDAO.executedStatements().entrySet()) {
+                    String sql = statement.getValue();
+                    if (!sql.toUpperCase(Locale.ROOT).contains(" WHERE ")) {
+                        continue;
+                    }
+                    System.out.println(statement.getKey() + ": " + sql);
+                    QueryPlans.explain(conn, sql).forEach(step -> System.out.println("    " + step));
+                    QueryPlans.fullScans(conn, sql).forEach(step -> violations.add(sql + " → " + step));
+                }
+            }
+        }
+
+        if (violations.isEmpty()) {
+            System.out.println("Tutte le query filtrate usano un indice");
+            return;
+        }
+        System.out.println("Query senza indice:");
+        violations.forEach(violation -> System.out.println("    " + violation));
+    }
+
+    /**
+     * Invoca tutte le operazioni dei DAO che eseguono query filtrate, comprese lettura e classifica delle sfide
+     * del giorno, così che vengano registrate.
+     */
+    private static void exercise(BenchmarkFixtures fixtures) {
+        UserDAO userDAO = fixtures.repository().getDAO("user");
+        DocumentDAO documentDAO = fixtures.repository().getDAO("document");
+        StopWordDAO stopWordDAO = fixtures.repository().getDAO("stopWord");
+        WdmDAO wdmDAO = fixtures.repository().getDAO("wdm");
+        GameReportDAO gameReportDAO = fixtures.repository().getDAO("gameReport");
+        DailyChallengeDAO dailyChallengeDAO = fixtures.repository().getDAO("dailyChallenge");
+
+        stopWordDAO.insert("il");
+        stopWordDAO.selectAll();
+        stopWordDAO.delete("il");
+
+        User admin = new User("admin", "password", true);
+        User player = new User("player", "password", false);
+        userDAO.insert(admin);
+        userDAO.insert(player);
+        userDAO.selectBy(player.getName());
+        userDAO.update(player);
+
+        Document document = fixtures.addDocument("plan.txt", new CorpusGenerator(42).generate(1024), Set.of());
+        documentDAO.selectBy(document.filename());
+        documentDAO.update(document);
+        wdmDAO.selectBy(document).ifPresent(wdmDAO::delete);
+
+        LocalDateTime timestamp = LocalDateTime.of(2025, 1, 1, 0, 0);
+        GameReport report = new GameReport(player, List.of(document), timestamp, Difficulty.EASY,
+                Duration.ofMinutes(5), Duration.ofMinutes(2), 10, 5);
+        gameReportDAO.insert(report);
+        gameReportDAO.selectBy(player, Timestamp.valueOf(timestamp));
+        gameReportDAO.update(report);
+        GameReportPage page = gameReportDAO.selectPageByUser(player, null, 1);
+        gameReportDAO.selectPageByUser(player, timestamp.plusDays(1), 1);
+        System.out.println("Storico: " + page.reports().size() + " partite");
+
+        var leaderboardService = new AppContext(fixtures.repository()).getLeaderboardService();
+        leaderboardService.getGloablLeaderboard();
+        leaderboardService.getLeaderboardByDifficulty(Difficulty.EASY);
+        leaderboardService.getTimeStatsByDifficulty();
+
+        LocalDate day = timestamp.toLocalDate();
+        GameParams params = new GameParams(Difficulty.EASY, List.of(document), Duration.ofMinutes(5), 1, 42L);
+        DailyChallenge challenge = new DailyChallenge(day, params,
+                List.of(Question.create("Domanda?", List.of("1", "2", "3", "4"), 0)));
+        dailyChallengeDAO.insert(challenge);
+        dailyChallengeDAO.selectBy(day, Difficulty.EASY);
+        dailyChallengeDAO.selectLeaderboard(day);
+        dailyChallengeDAO.delete(challenge);
+
+        gameReportDAO.delete(report);
+        documentDAO.delete(document);
+        userDAO.delete(player);
+    }
+}
@@ -0,0 +1,115 @@
+package it.unisa.diem.wordageddon_g16.benchmarks;
+
+import it.unisa.diem.wordageddon_g16.models.*;
+import it.unisa.diem.wordageddon_g16.services.GameService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Misura i singoli generatori di domande di {@link GameService}.
+ * <p>
+ * La partita è fissata (difficoltà {@link Difficulty#HARD}, sette documenti) così che ogni generatore lavori
+ * sempre sulle stesse {@link WDM}; le matrici sono caricate dal database una sola volta, prima della misura.
+ * Il parametro {@code corpusDocuments} controlla quanti documenti esistono in totale nell'archivio, valore che
+ * influenza la ricerca della parola assente.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuestionBenchmark {
+    private static final int GAME_DOCUMENTS = 7;
+
+    @Param({"7", "50"})
+    public int corpusDocuments;
+
+    @Param({"300", "600"})
+    public int wordsPerDocument;
+
+    private BenchmarkFixtures fixtures;
+    private GameService gameService;
+    private GameSession session;
+    /**
+     * Generatore condiviso dalle invocazioni: ognuna genera una domanda diversa, come nella stessa partita.
+     */
+    private RandomGenerator random;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, SQLException {
+        fixtures = BenchmarkFixtures.create();
+        CorpusGenerator generator = new CorpusGenerator(42, 2_000);
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < corpusDocuments; i++) {
+            documents.add(fixtures.addDocument("doc_" + i + ".txt",
+                    generator.generateWords(wordsPerDocument, i), CorpusGenerator.stopWords()));
+        }
+        AppContext context = new AppContext(fixtures.repository());
+        gameService = context.getGameService();
+        // Le WDM della partita vengono caricate fuori dalla misura
+        session = gameService.prepare(gameService.restoreSession(new GameParams(Difficulty.HARD,
+                documents.subList(0, GAME_DOCUMENTS), Duration.ofMinutes(5), 20, 42L)));
+        random = session.getRandom();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public Question absoluteFrequencySingle() {
+        return gameService.generateQuestion(session, Question.QuestionType.ABSOLUTE_FREQUENCY, true, random);
+    }
+
+    @Benchmark
+    public Question absoluteFrequency() {
+        return gameService.generateQuestion(session, Question.QuestionType.ABSOLUTE_FREQUENCY, false, random);
+    }
+
+    @Benchmark
+    public Question whichMoreSingle() {
+        return gameService.generateQuestion(session, Question.QuestionType.WHICH_MORE, true, random);
+    }
+
+    @Benchmark
+    public Question whichMore() {
+        return gameService.generateQuestion(session, Question.QuestionType.WHICH_MORE, false, random);
+    }
+
+    @Benchmark
+    public Question whichLessSingle() {
+        return gameService.generateQuestion(session, Question.QuestionType.WHICH_LESS, true, random);
+    }
+
+    @Benchmark
+    public Question whichLess() {
+        return gameService.generateQuestion(session, Question.QuestionType.WHICH_LESS, false, random);
+    }
+
+    @Benchmark
+    public Question whichDocument() {
+        return gameService.generateQuestion(session, Question.QuestionType.WHICH_DOCUMENT, false, random);
+    }
+
+    @Benchmark
+    public Question whichAbsent() {
+        return gameService.generateQuestion(session, Question.QuestionType.WHICH_ABSENT, false, random);
+    }
+
+    /**
+     * Generazione dell'intero set di domande di una partita, comprensiva del caricamento delle WDM.
+     */
+    @Benchmark
+    public List<Question> fullQuestionSet() {
+        return gameService.generateQuestions(gameService.prepare(gameService.restoreSession(session.getParams())));
+    }
+}
@@ -0,0 +1,127 @@
+package it.unisa.diem.wordageddon_g16.benchmarks;
+
+import it.unisa.diem.wordageddon_g16.models.*;
+import it.unisa.diem.wordageddon_g16.utility.GameSessionCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Confronta il salvataggio delle partite interrotte tramite serializzazione Java e tramite {@link GameSessionCodec}.
+ * <p>
+ * La sessione misurata è quella di una partita difficile a metà: sette documenti, {@code questions} domande
+ * da quattro risposte, di cui metà già affrontate. Le dimensioni dei due formati vengono stampate all'avvio.
+ * I benchmark {@code *File} includono la scrittura su disco: quello del codec comprende anche l'{@code fsync}
+ * e la rinomina atomica, che la serializzazione Java non effettua.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionCodecBenchmark {
+
+    @Param({"10", "20"})
+    public int questions;
+
+    private GameSessionState state;
+    private byte[] serialized;
+    private byte[] encoded;
+    private Path directory;
+    private Path serFile;
+    private Path binFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        state = createState(questions);
+        serialized = javaSerialize();
+        encoded = codecEncode();
+        directory = Files.createTempDirectory("wordageddon-session");
+        serFile = directory.resolve("interruptedSession.ser");
+        binFile = directory.resolve("interruptedSession.bin");
+        System.out.printf("%nSession size: java serialization = %d bytes, codec = %d bytes%n",
+                serialized.length, encoded.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(serFile);
+        Files.deleteIfExists(binFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public byte[] javaSerialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(state);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public GameSessionState javaDeserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return (GameSessionState) in.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] codecEncode() {
+        return GameSessionCodec.encode(state);
+    }
+
+    @Benchmark
+    public GameSessionState codecDecode() throws IOException {
+        return GameSessionCodec.decode(encoded);
+    }
+
+    /**
+     * Salvataggio come avveniva in precedenza in {@code GameController.saveSession}.
+     */
+    @Benchmark
+    public void javaSerializeFile() throws IOException {
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(serFile.toFile()))) {
+            out.writeObject(state);
+        }
+    }
+
+    @Benchmark
+    public void codecWriteFile() throws IOException {
+        GameSessionCodec.write(binFile, state);
+    }
+
+    private static GameSessionState createState(int questionCount) {
+        CorpusGenerator generator = new CorpusGenerator(42, 2_000);
+        String[] vocabulary = generator.vocabulary();
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            documents.add(new Document("doc_" + i + ".txt", "Documento di prova " + i, 600));
+        }
+        GameParams params = new GameParams(Difficulty.HARD, documents, Duration.ofMinutes(5), questionCount);
+
+        List<Question> questions = new ArrayList<>();
+        Map<Question, Integer> answers = new LinkedHashMap<>();
+        for (int i = 0; i < questionCount; i++) {
+            List<String> options = List.of(vocabulary[i * 4], vocabulary[i * 4 + 1], vocabulary[i * 4 + 2], vocabulary[i * 4 + 3]);
+            Question question = Question.create("Quale di queste parole compare più spesso nel documento \"Documento di prova "
+                    + (i % 7) + "\"?", options, i % 4);
+            questions.add(question);
+            if (i < questionCount / 2) {
+                answers.put(question, i % 3 == 0 ? -1 : (i + 1) % 4);
+            }
+        }
+        return new GameSessionState(new User("demo", "demo-password-hash", false), questions, answers,
+                questionCount / 2, LocalDateTime.now(), Difficulty.getMaxScoreDifficulty(Difficulty.HARD) / questionCount, params);
+    }
+}
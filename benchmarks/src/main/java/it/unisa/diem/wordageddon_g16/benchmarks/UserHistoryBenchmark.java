@@ -0,0 +1,119 @@
+package it.unisa.diem.wordageddon_g16.benchmarks;
+
+import it.unisa.diem.wordageddon_g16.db.contracts.DocumentDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.GameReportDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.UserDAO;
+import it.unisa.diem.wordageddon_g16.models.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura il caricamento dello storico delle partite mostrato nel pannello utente.
+ * <p>
+ * Il database contiene {@code users} utenti con {@code reportsPerUser} partite ciascuno. Il benchmark
+ * {@code selectAllAndFilter} riproduce il caricamento precedente (tutti i report di tutti gli utenti, filtrati
+ * in Java, più le statistiche calcolate sugli stessi); {@code firstPage} misura l'apertura del pannello con la
+ * paginazione per chiave, statistiche comprese; {@code allPages} scorre l'intero storico dell'utente.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserHistoryBenchmark {
+    private static final int DOCUMENTS = 30;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"20"})
+    public int users;
+
+    @Param({"50", "500"})
+    public int reportsPerUser;
+
+    private BenchmarkFixtures fixtures;
+    private GameReportDAO gameReportDAO;
+    private User player;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, SQLException {
+        fixtures = BenchmarkFixtures.create();
+        DocumentDAO documentDAO = fixtures.repository().getDAO("document");
+        UserDAO userDAO = fixtures.repository().getDAO("user");
+        gameReportDAO = fixtures.repository().getDAO("gameReport");
+
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < DOCUMENTS; i++) {
+            Document document = new Document("doc_" + i + ".txt", "Documento " + i, 100 + i * 10);
+            documentDAO.insert(document);
+            documents.add(document);
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        Difficulty[] difficulties = Difficulty.values();
+        LocalDateTime timestamp = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int u = 0; u < users; u++) {
+            User user = new User("player" + u, "password", u == 0);
+            userDAO.insert(user);
+            for (int r = 0; r < reportsPerUser; r++) {
+                Difficulty difficulty = difficulties[random.nextInt(difficulties.length)];
+                int start = random.nextInt(DOCUMENTS - 3);
+                timestamp = timestamp.plusMinutes(7);
+                gameReportDAO.insert(new GameReport(
+                        user,
+                        documents.subList(start, start + 3),
+                        timestamp,
+                        difficulty,
+                        Duration.ofMinutes(5),
+                        Duration.ofSeconds(60 + random.nextInt(240)),
+                        10,
+                        random.nextInt(Difficulty.getMaxScoreDifficulty(difficulty) + 1)
+                ));
+            }
+        }
+        player = new User("player" + (users / 2), "password", false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public UserStats selectAllAndFilter() {
+        List<GameReport> reports = gameReportDAO.selectAll().stream()
+                .filter(r -> r.user().getName().equals(player.getName()))
+                .toList();
+        List<GameReport> again = gameReportDAO.selectAll().stream()
+                .filter(r -> r.user().getName().equals(player.getName()))
+                .toList();
+        return new UserStats(reports.size(),
+                again.stream().mapToInt(GameReport::score).average().orElse(0.0),
+                again.stream().mapToInt(GameReport::score).max().orElse(0));
+    }
+
+    @Benchmark
+    public GameReportPage firstPage() {
+        return gameReportDAO.selectPageByUser(player, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public int allPages() {
+        int count = 0;
+        GameReportPage page = gameReportDAO.selectPageByUser(player, null, PAGE_SIZE);
+        count += page.reports().size();
+        while (page.hasMore()) {
+            page = gameReportDAO.selectPageByUser(player, page.nextCursor(), PAGE_SIZE);
+            count += page.reports().size();
+        }
+        return count;
+    }
+}
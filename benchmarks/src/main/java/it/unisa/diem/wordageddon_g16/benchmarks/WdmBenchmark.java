@@ -0,0 +1,55 @@
+package it.unisa.diem.wordageddon_g16.benchmarks;
+
+import it.unisa.diem.wordageddon_g16.models.Document;
+import it.unisa.diem.wordageddon_g16.models.WDM;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura la costruzione di una {@link WDM} a partire dal file di un documento, ossia lettura e tokenizzazione
+ * del testo con esclusione delle stopword.
+ * <p>
+ * I documenti vanno da 1 KB a 10 MB, per evidenziare come il costo cresca con la dimensione del testo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WdmBenchmark {
+    @Param({"1024", "65536", "1048576", "10485760"})
+    public int documentBytes;
+
+    private BenchmarkFixtures fixtures;
+    private Document document;
+    private Set<String> stopWords;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, SQLException {
+        fixtures = BenchmarkFixtures.create();
+        String filename = "doc_" + documentBytes + ".txt";
+        fixtures.writeDocument(filename, new CorpusGenerator(42).generate(documentBytes));
+        document = new Document(filename, filename, 1);
+        stopWords = CorpusGenerator.stopWords();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public WDM buildWdm() {
+        return new WDM(document, stopWords);
+    }
+
+    @Benchmark
+    public WDM buildWdmWithoutStopWords() {
+        return new WDM(document, Set.of());
+    }
+}
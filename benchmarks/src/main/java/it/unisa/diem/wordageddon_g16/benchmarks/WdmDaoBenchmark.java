@@ -0,0 +1,82 @@
+package it.unisa.diem.wordageddon_g16.benchmarks;
+
+import it.unisa.diem.wordageddon_g16.db.contracts.WdmDAO;
+import it.unisa.diem.wordageddon_g16.models.Document;
+import it.unisa.diem.wordageddon_g16.models.WDM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura la persistenza delle {@link WDM} tramite {@code JDBCWdmDAO}: inserimento di tutte le righe
+ * di un documento e ricostruzione della matrice a partire dal database.
+ * <p>
+ * La dimensione del documento determina il numero di parole distinte, quindi il numero di righe della tabella {@code WDM}.
+ * {@code selectAll} e {@code scan} confrontano la lettura dell'intera tabella materializzata e tramite cursore.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WdmDaoBenchmark {
+    @Param({"1024", "65536", "1048576"})
+    public int documentBytes;
+
+    private BenchmarkFixtures fixtures;
+    private WdmDAO wdmDAO;
+    private Document document;
+    private WDM wdm;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, SQLException {
+        fixtures = BenchmarkFixtures.create();
+        CorpusGenerator generator = new CorpusGenerator(42);
+        document = fixtures.addDocument("doc.txt", generator.generate(documentBytes), CorpusGenerator.stopWords());
+        wdmDAO = fixtures.repository().getDAO("wdm");
+        wdm = wdmDAO.selectBy(document).orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fixtures.close();
+    }
+
+    /**
+     * Stato ausiliario usato solo dal benchmark di inserimento: svuota le righe del documento prima di ogni
+     * invocazione, così che ogni inserimento parta dallo stesso stato senza influenzare la misura di lettura.
+     */
+    @State(Scope.Benchmark)
+    public static class EmptyTable {
+        @Setup(Level.Invocation)
+        public void clear(WdmDaoBenchmark benchmark) {
+            benchmark.wdmDAO.delete(benchmark.wdm);
+        }
+    }
+
+    @Benchmark
+    public void insert(EmptyTable emptyTable) {
+        wdmDAO.insert(wdm);
+    }
+
+    @Benchmark
+    public Optional<WDM> selectBy() {
+        return wdmDAO.selectBy(document);
+    }
+
+    @Benchmark
+    public Collection<WDM> selectAll() {
+        return wdmDAO.selectAll();
+    }
+
+    @Benchmark
+    public void scan(Blackhole blackhole) {
+        wdmDAO.scan(256, blackhole::consume);
+    }
+}
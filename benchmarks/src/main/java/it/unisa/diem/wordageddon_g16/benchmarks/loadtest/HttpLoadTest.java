@@ -0,0 +1,282 @@
+package it.unisa.diem.wordageddon_g16.benchmarks.loadtest;
+
+import it.unisa.diem.wordageddon_g16.benchmarks.BenchmarkFixtures;
+import it.unisa.diem.wordageddon_g16.benchmarks.CorpusGenerator;
+import it.unisa.diem.wordageddon_g16.db.contracts.UserDAO;
+import it.unisa.diem.wordageddon_g16.models.AppContext;
+import it.unisa.diem.wordageddon_g16.models.Difficulty;
+import it.unisa.diem.wordageddon_g16.models.User;
+import it.unisa.diem.wordageddon_g16.server.GameServer;
+import it.unisa.diem.wordageddon_g16.server.Json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Test di carico della modalità server ({@link GameServer}).
+ * <p>
+ * Avvia il server in-process su un database temporaneo e simula per una durata fissa un numero configurabile di
+ * client, ognuno su un proprio thread virtuale: ogni client effettua il login e gioca partite una dopo l'altra
+ * tramite l'API HTTP (creazione, domanda, risposta fino all'ultima domanda), consultando la classifica a fine
+ * partita. Le richieste passano dal client HTTP della JDK, quindi la misura comprende serializzazione JSON e rete
+ * locale.
+ * </p>
+ * Vengono riportati il throughput sostenuto in richieste al secondo, le partite completate e, per ogni endpoint,
+ * p50, p99 e massimo delle latenze; le risposte con errore sono raggruppate per endpoint e codice HTTP.
+ * <p>
+ * Esecuzione: {@code java -cp benchmarks/target/benchmarks.jar it.unisa.diem.wordageddon_g16.benchmarks.loadtest.HttpLoadTest --clients 200}
+ */
+public class HttpLoadTest {
+    /**
+     * Endpoint misurati.
+     */
+    enum Endpoint {
+        LOGIN, NEW_GAME, QUESTION, ANSWER, LEADERBOARD
+    }
+
+    /**
+     * Risposta con un codice di errore HTTP.
+     */
+    private static final class RequestFailedException extends RuntimeException {
+        private RequestFailedException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private final HttpLoadTestOptions options;
+    private final Map<Endpoint, LatencyRecorder> latencies = new EnumMap<>(Endpoint.class);
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder gamesCompleted = new LongAdder();
+    private final List<String> users = new ArrayList<>();
+    private HttpClient client;
+    private URI baseUri;
+
+    /**
+     * Crea un test di carico con le opzioni indicate.
+     *
+     * @param options parametri del test
+     */
+    public HttpLoadTest(HttpLoadTestOptions options) {
+        this.options = options;
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new LatencyRecorder(endpoint.name()));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        HttpLoadTestOptions options;
+        try {
+            options = HttpLoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(HttpLoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        new HttpLoadTest(options).run();
+    }
+
+    /**
+     * Prepara il database, avvia il server, esegue i client simulati per la durata richiesta e stampa il resoconto.
+     *
+     * @throws Exception se la preparazione del database, l'avvio del server o la scrittura del resoconto falliscono
+     */
+    public void run() throws Exception {
+        try (BenchmarkFixtures fixtures = BenchmarkFixtures.create()) {
+            populate(fixtures);
+            createUsers(fixtures.repository().getDAO("user"));
+            // Ogni client gioca una partita alla volta, ma più client condividono un utente e una partita interrotta da
+            // un errore resta in memoria fino alla scadenza: il limite per utente non è oggetto del test
+            GameServer server = new GameServer(new AppContext(fixtures.repository()), "127.0.0.1", 0,
+                    Duration.ofMinutes(5), options.clients());
+            server.start();
+            baseUri = URI.create("http://127.0.0.1:" + server.getPort() + "/api/");
+            client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            PrintStream out = System.out;
+            if (options.quiet()) {
+                System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            }
+            long start = System.nanoTime();
+            long deadline = start + Duration.ofSeconds(options.durationSeconds()).toNanos();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < options.clients(); i++) {
+                    int clientId = i;
+                    executor.submit(() -> simulate(clientId, deadline));
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            System.setOut(out);
+
+            int activeGames = server.getActiveGames();
+            server.stop();
+            client.close();
+            printReport(elapsed, activeGames);
+            if (options.report() != null) {
+                Files.writeString(options.report(), toJson(elapsed));
+            }
+        }
+    }
+
+    /**
+     * Simula un client: login e partite consecutive fino alla scadenza. Un errore interrompe soltanto la partita
+     * in corso; se fallisce il login il client termina.
+     *
+     * @param clientId identificativo del client simulato
+     * @param deadline istante ({@link System#nanoTime()}) in cui terminare
+     */
+    private void simulate(int clientId, long deadline) {
+        SplittableRandom random = new SplittableRandom(options.seed() + clientId);
+        try {
+            String username = users.get(clientId % users.size());
+            Map<?, ?> login = (Map<?, ?>) call(Endpoint.LOGIN, "POST", "login", null,
+                    Map.of("username", username, "password", "loadtest"));
+            String token = (String) login.get("token");
+
+            while (System.nanoTime() < deadline) {
+                try {
+                    Difficulty difficulty = Difficulty.values()[random.nextInt(Difficulty.values().length)];
+                    Map<?, ?> game = (Map<?, ?>) call(Endpoint.NEW_GAME, "POST", "games", token, Map.of("difficulty", difficulty));
+                    String id = (String) game.get("id");
+                    boolean finished = false;
+                    while (!finished && System.nanoTime() < deadline) {
+                        Map<?, ?> question = (Map<?, ?>) call(Endpoint.QUESTION, "GET", "games/" + id + "/question", token, null);
+                        int answers = ((List<?>) question.get("answers")).size();
+                        Map<?, ?> outcome = (Map<?, ?>) call(Endpoint.ANSWER, "POST", "games/" + id + "/answer", token,
+                                Map.of("answer", random.nextInt(answers)));
+                        finished = Boolean.TRUE.equals(outcome.get("finished"));
+                    }
+                    if (finished) {
+                        gamesCompleted.increment();
+                        call(Endpoint.LEADERBOARD, "GET", "leaderboard", token, null);
+                    }
+                } catch (RequestFailedException | IOException e) {
+                    recordError(e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RequestFailedException | IOException e) {
+            recordError(e);
+        }
+    }
+
+    /**
+     * Conta un errore: per le risposte del server la chiave è endpoint e codice HTTP, altrimenti il tipo di errore.
+     */
+    private void recordError(Exception e) {
+        String key = e instanceof RequestFailedException ? e.getMessage() : e.getClass().getSimpleName();
+        errors.computeIfAbsent(key, _ -> new LongAdder()).increment();
+    }
+
+    /**
+     * Esegue una richiesta registrandone la latenza e restituisce il corpo della risposta interpretato.
+     *
+     * @throws RequestFailedException se il server risponde con un codice di errore
+     */
+    private Object call(Endpoint endpoint, String method, String path, String token, Object body)
+            throws IOException, InterruptedException {
+        if (options.thinkMillis() > 0) {
+            Thread.sleep(options.thinkMillis());
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(Json.write(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        latencies.get(endpoint).record(System.nanoTime() - start);
+        requests.increment();
+        if (response.statusCode() != 200) {
+            throw new RequestFailedException(endpoint.name() + ":" + response.statusCode());
+        }
+        return Json.parse(response.body());
+    }
+
+    /**
+     * Popola il database temporaneo con documenti di lunghezza crescente, così che tutte le difficoltà
+     * trovino documenti nella propria soglia di parole.
+     */
+    private void populate(BenchmarkFixtures fixtures) {
+        CorpusGenerator generator = new CorpusGenerator(options.seed(), 5_000);
+        int documents = options.documents();
+        for (int i = 0; i < documents; i++) {
+            int words = 40 + (documents > 1 ? i * 700 / (documents - 1) : 0);
+            fixtures.addDocument("httptest_" + i + ".txt", generator.generateWords(words, i), CorpusGenerator.stopWords());
+        }
+    }
+
+    private void createUsers(UserDAO userDAO) {
+        for (int i = 0; i < options.users(); i++) {
+            User user = new User("httptest_" + i, "loadtest", false);
+            userDAO.insert(user);
+            users.add(user.getName());
+        }
+    }
+
+    private void printReport(long elapsedNanos, int activeGames) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%nClient: %d, utenti: %d, pausa tra le richieste: %d ms%n",
+                options.clients(), options.users(), options.thinkMillis());
+        System.out.printf("Durata: %.2f s, richieste: %d, throughput: %.1f richieste/s, partite completate: %d (%.1f/s)%n",
+                seconds, requests.sum(), requests.sum() / seconds, gamesCompleted.sum(), gamesCompleted.sum() / seconds);
+        System.out.printf("Partite ancora in memoria sul server: %d%n%n", activeGames);
+        System.out.printf("%-12s %8s %10s %10s %10s %10s%n", "endpoint", "campioni", "p50 ms", "p99 ms", "max ms", "media ms");
+        for (LatencyRecorder recorder : latencies.values()) {
+            if (recorder.getCount() == 0) continue;
+            System.out.printf("%-12s %8d %10.2f %10.2f %10.2f %10.2f%n",
+                    recorder.getName(),
+                    recorder.getCount(),
+                    recorder.percentile(50) / 1e6,
+                    recorder.percentile(99) / 1e6,
+                    recorder.max() / 1e6,
+                    recorder.mean() / 1e6);
+        }
+        System.out.println();
+        System.out.println("Errori: " + (errors.isEmpty() ? "nessuno" : new TreeMap<>(errors)));
+    }
+
+    private String toJson(long elapsedNanos) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("clients", options.clients());
+        report.put("users", options.users());
+        report.put("thinkMillis", options.thinkMillis());
+        report.put("elapsedMillis", elapsedNanos / 1_000_000);
+        report.put("requests", requests.sum());
+        report.put("requestsPerSecond", requests.sum() / (elapsedNanos / 1e9));
+        report.put("gamesCompleted", gamesCompleted.sum());
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (LatencyRecorder recorder : latencies.values()) {
+            endpoints.put(recorder.getName(), Map.of(
+                    "count", recorder.getCount(),
+                    "p50Nanos", recorder.percentile(50),
+                    "p99Nanos", recorder.percentile(99),
+                    "maxNanos", recorder.max()));
+        }
+        report.put("endpoints", endpoints);
+        Map<String, Object> errorCounts = new TreeMap<>();
+        errors.forEach((key, count) -> errorCounts.put(key, count.sum()));
+        report.put("errors", errorCounts);
+        return Json.write(report) + "\n";
+    }
+}
@@ -0,0 +1,82 @@
+package it.unisa.diem.wordageddon_g16.benchmarks.loadtest;
+
+import java.nio.file.Path;
+
+/**
+ * Parametri del test di carico HTTP, letti dalla riga di comando.
+ *
+ * @param clients         numero di client simulati, ognuno con il proprio thread virtuale
+ * @param durationSeconds durata della misura
+ * @param users           numero di utenti distinti a cui vengono attribuiti i client
+ * @param documents       numero di documenti generati nel database temporaneo
+ * @param thinkMillis     pausa di ogni client tra una richiesta e la successiva
+ * @param seed            seme delle scelte dei client simulati
+ * @param report          file JSON in cui salvare i risultati, {@code null} per non salvarli
+ * @param quiet           se {@code true} sopprime i messaggi stampati dall'applicazione durante il test
+ */
+public record HttpLoadTestOptions(
+        int clients,
+        int durationSeconds,
+        int users,
+        int documents,
+        long thinkMillis,
+        long seed,
+        Path report,
+        boolean quiet
+) {
+    static final String USAGE = """
+            Utilizzo: HttpLoadTest [opzioni]
+              --clients N          client simulati (default 200)
+              --duration N         durata della misura in secondi (default 30)
+              --users N            utenti distinti (default 50)
+              --documents N        documenti del database temporaneo (default 40)
+              --think-ms N         pausa tra due richieste di un client in millisecondi (default 0)
+              --seed N             seme delle scelte dei client (default 42)
+              --report FILE        salva i risultati in formato JSON
+              --quiet              sopprime i messaggi dell'applicazione durante il test
+            """;
+
+    /**
+     * Interpreta gli argomenti della riga di comando.
+     *
+     * @param args argomenti ricevuti dal {@code main}
+     * @return le opzioni lette, con i valori di default per quelle assenti
+     * @throws IllegalArgumentException se un'opzione non è riconosciuta o non ha un valore valido
+     */
+    public static HttpLoadTestOptions parse(String[] args) {
+        int clients = 200;
+        int durationSeconds = 30;
+        int users = 50;
+        int documents = 40;
+        long thinkMillis = 0;
+        long seed = 42;
+        Path report = null;
+        boolean quiet = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--quiet")) {
+                quiet = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for option " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--clients" -> clients = Integer.parseInt(value);
+                case "--duration" -> durationSeconds = Integer.parseInt(value);
+                case "--users" -> users = Integer.parseInt(value);
+                case "--documents" -> documents = Integer.parseInt(value);
+                case "--think-ms" -> thinkMillis = Long.parseLong(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--report" -> report = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        if (clients <= 0 || durationSeconds <= 0 || users <= 0 || documents <= 0 || thinkMillis < 0) {
+            throw new IllegalArgumentException("Numeric options must be positive");
+        }
+        return new HttpLoadTestOptions(clients, durationSeconds, users, documents, thinkMillis, seed, report, quiet);
+    }
+}
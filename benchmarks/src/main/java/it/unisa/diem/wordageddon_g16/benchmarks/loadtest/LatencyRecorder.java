@@ -0,0 +1,91 @@
+package it.unisa.diem.wordageddon_g16.benchmarks.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Raccoglie le latenze di una fase del test di carico e ne calcola i percentili.
+ * <p>
+ * I campioni sono conservati integralmente (qualche migliaio per fase), quindi i percentili sono esatti.
+ * La registrazione è sincronizzata: il costo è trascurabile rispetto alla durata delle fasi misurate.
+ */
+public class LatencyRecorder {
+    private final String name;
+    private long[] samples = new long[1024];
+    private int count;
+
+    /**
+     * Crea un registratore vuoto.
+     *
+     * @param name nome della fase misurata
+     */
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Registra un campione.
+     *
+     * @param nanos durata misurata in nanosecondi
+     */
+    public synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    /**
+     * Restituisce il nome della fase misurata.
+     *
+     * @return nome della fase
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Restituisce il numero di campioni registrati.
+     *
+     * @return numero di campioni
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Calcola il percentile richiesto con il metodo nearest-rank.
+     *
+     * @param percentile percentile compreso tra 0 e 100
+     * @return latenza in nanosecondi, oppure 0 se non ci sono campioni
+     */
+    public synchronized long percentile(double percentile) {
+        if (count == 0) return 0;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.max(0, Math.min(count, rank) - 1)];
+    }
+
+    /**
+     * Restituisce la latenza massima registrata.
+     *
+     * @return latenza massima in nanosecondi
+     */
+    public synchronized long max() {
+        long max = 0;
+        for (int i = 0; i < count; i++) max = Math.max(max, samples[i]);
+        return max;
+    }
+
+    /**
+     * Restituisce la latenza media.
+     *
+     * @return media in nanosecondi, oppure 0 se non ci sono campioni
+     */
+    public synchronized double mean() {
+        if (count == 0) return 0;
+        double sum = 0;
+        for (int i = 0; i < count; i++) sum += samples[i];
+        return sum / count;
+    }
+}
@@ -0,0 +1,322 @@
+package it.unisa.diem.wordageddon_g16.benchmarks.loadtest;
+
+import it.unisa.diem.wordageddon_g16.benchmarks.BenchmarkFixtures;
+import it.unisa.diem.wordageddon_g16.benchmarks.CorpusGenerator;
+import it.unisa.diem.wordageddon_g16.db.JdbcRepository;
+import it.unisa.diem.wordageddon_g16.db.contracts.UserDAO;
+import it.unisa.diem.wordageddon_g16.models.*;
+import it.unisa.diem.wordageddon_g16.services.GameEngine;
+import it.unisa.diem.wordageddon_g16.services.GameService;
+import it.unisa.diem.wordageddon_g16.utility.Config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Test di carico headless del livello di servizio.
+ * <p>
+ * Simula migliaia di giocatori che attraversano le fasi di una partita, ossia inizializzazione, lettura dei
+ * documenti, generazione delle domande e salvataggio del report, con un numero configurabile di partite
+ * contemporanee. Ogni giocatore gioca una propria {@link GameSession}; con la connessione condivisa tutti i
+ * giocatori usano lo stesso {@link GameService}, esattamente come le partite dell'applicazione.
+ * </p>
+ * <p>
+ * Per ogni fase vengono riportati p50, p99 e massimo delle latenze. La contesa sul database è descritta dagli
+ * errori di lock di SQLite ({@code SQLITE_BUSY}/{@code SQLITE_LOCKED}) raggruppati per fase, dalla latenza del
+ * salvataggio e dal numero di report salvati senza documenti associati.
+ * </p>
+ * Esecuzione: {@code java -cp benchmarks/target/benchmarks.jar it.unisa.diem.wordageddon_g16.benchmarks.loadtest.LoadTest --players 5000}
+ */
+public class LoadTest {
+    /**
+     * Fasi misurate per ogni giocatore simulato.
+     */
+    enum Phase {
+        CONNECT, INIT, READING, QUESTIONS, SAVE, SESSION
+    }
+
+    private final LoadTestOptions options;
+    private final Map<Phase, LatencyRecorder> latencies = new EnumMap<>(Phase.class);
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final List<User> users = new ArrayList<>();
+    /**
+     * Prefisso dei nomi degli utenti creati da questa esecuzione: su un database esistente esecuzioni successive
+     * non collidono tra loro né con gli utenti reali.
+     */
+    private final String userPrefix = "loadtest_" + Long.toString(System.currentTimeMillis(), 36) + "_";
+    private JdbcRepository sharedRepository;
+    private GameService sharedGameService;
+    private String dbUrl;
+
+    /**
+     * Crea un test di carico con le opzioni indicate.
+     *
+     * @param options parametri del test
+     */
+    public LoadTest(LoadTestOptions options) {
+        this.options = options;
+        for (Phase phase : Phase.values()) {
+            latencies.put(phase, new LatencyRecorder(phase.name()));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        new LoadTest(options).run();
+    }
+
+    /**
+     * Prepara il database, esegue tutte le partite simulate e stampa il resoconto.
+     *
+     * @throws Exception se la preparazione del database o la scrittura del resoconto falliscono
+     */
+    public void run() throws Exception {
+        BenchmarkFixtures fixtures = null;
+        if (options.dbUrl() == null) {
+            fixtures = BenchmarkFixtures.create();
+            populate(fixtures);
+            sharedRepository = fixtures.repository();
+        } else {
+            System.setProperty(Config.Props.DB_URL.get(), options.dbUrl());
+            System.setProperty(Config.Props.DOCUMENTS_DIR.get(), options.docsDir());
+            sharedRepository = new JdbcRepository();
+        }
+        dbUrl = Config.get(Config.Props.DB_URL);
+        sharedGameService = createGameService(sharedRepository);
+        try {
+            createUsers();
+
+            PrintStream out = System.out;
+            if (options.quiet()) {
+                System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            }
+            long start = System.nanoTime();
+            try (ExecutorService executor = Executors.newFixedThreadPool(options.concurrency())) {
+                for (int i = 0; i < options.players(); i++) {
+                    int playerId = i;
+                    executor.submit(() -> play(playerId));
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            System.setOut(out);
+
+            long orphanReports = countOrphanReports();
+            printReport(elapsed, orphanReports);
+            if (options.report() != null) {
+                Files.writeString(options.report(), toJson(elapsed, orphanReports));
+            }
+        } finally {
+            if (fixtures != null) {
+                fixtures.close();
+            } else {
+                deleteUsers();
+                sharedRepository.close();
+            }
+        }
+    }
+
+    /**
+     * Gioca una partita completa per il giocatore indicato, registrando la latenza di ogni fase.
+     *
+     * @param playerId identificativo del giocatore simulato
+     */
+    private void play(int playerId) {
+        SplittableRandom random = new SplittableRandom(options.seed() + playerId);
+        User user = users.get(playerId % users.size());
+        Difficulty difficulty = Difficulty.values()[random.nextInt(Difficulty.values().length)];
+        long sessionStart = System.nanoTime();
+        Phase phase = Phase.CONNECT;
+        JdbcRepository repository = sharedRepository;
+        try {
+            GameService gameService = sharedGameService;
+            if (options.connectionMode() == LoadTestOptions.ConnectionMode.PER_PLAYER) {
+                repository = timed(phase, JdbcRepository::new);
+                gameService = createGameService(repository);
+            }
+            GameService service = gameService;
+
+            phase = Phase.INIT;
+            GameSession session = timed(phase, () -> service.newSession(difficulty));
+
+            phase = Phase.READING;
+            timed(phase, () -> service.setupReadingPhase(session));
+            if (options.readingMillis() > 0) {
+                Thread.sleep(options.readingMillis());
+            }
+
+            phase = Phase.QUESTIONS;
+            List<Question> questions = timed(phase, () -> service.generateQuestions(service.prepare(session)));
+            GameEngine engine = new GameEngine(user, session, questions);
+            engine.start();
+            while (!engine.isFinished()) {
+                engine.answer(random.nextInt(engine.currentQuestion().answers().size()));
+            }
+
+            phase = Phase.SAVE;
+            GameReport report = engine.finish();
+            timed(phase, () -> {
+                service.saveGameReport(report);
+                return null;
+            });
+            completed.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.increment();
+        } catch (RuntimeException e) {
+            errors.computeIfAbsent(phase.name() + ":" + classify(e), _ -> new LongAdder()).increment();
+            failed.increment();
+        } finally {
+            if (repository != sharedRepository) {
+                repository.close();
+            }
+            latencies.get(Phase.SESSION).record(System.nanoTime() - sessionStart);
+        }
+    }
+
+    private static GameService createGameService(JdbcRepository repository) {
+        // Il contesto applicativo non è usato dal GameService
+        return new GameService(null, repository.getDAO("gameReport"), repository.getDAO("wdm"),
+                repository.getDAO("document"), repository.getDAO("stopWord"));
+    }
+
+    private <R> R timed(Phase phase, Supplier<R> action) {
+        long start = System.nanoTime();
+        R result = action.get();
+        latencies.get(phase).record(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Classifica un errore in base al messaggio restituito dal driver SQLite.
+     */
+    private static String classify(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            String message = String.valueOf(t.getMessage());
+            if (message.contains("SQLITE_BUSY")) return "busy";
+            if (message.contains("SQLITE_LOCKED") || message.contains("locked")) return "locked";
+            if (message.contains("SQLITE_CONSTRAINT")) return "constraint";
+        }
+        return e.getClass().getSimpleName();
+    }
+
+    /**
+     * Popola il database temporaneo con documenti di lunghezza crescente, così che tutte le difficoltà
+     * trovino documenti nella propria soglia di parole.
+     */
+    private void populate(BenchmarkFixtures fixtures) {
+        CorpusGenerator generator = new CorpusGenerator(options.seed(), 5_000);
+        int documents = options.documents();
+        for (int i = 0; i < documents; i++) {
+            int words = 40 + (documents > 1 ? i * 700 / (documents - 1) : 0);
+            fixtures.addDocument("loadtest_" + i + ".txt", generator.generateWords(words, i), CorpusGenerator.stopWords());
+        }
+    }
+
+    private void createUsers() {
+        UserDAO userDAO = sharedRepository.getDAO("user");
+        for (int i = 0; i < options.users(); i++) {
+            User user = new User(userPrefix + i, "loadtest", false);
+            userDAO.insert(user);
+            users.add(user);
+        }
+    }
+
+    /**
+     * Rimuove dal database esistente gli utenti creati dal test; i loro report vengono eliminati a cascata.
+     */
+    private void deleteUsers() {
+        UserDAO userDAO = sharedRepository.getDAO("user");
+        for (User user : users) {
+            userDAO.delete(user);
+        }
+    }
+
+    /**
+     * Conta i report privi di righe in {@code Content}: sono il sintomo di salvataggi concorrenti
+     * che si sono scambiati l'identificativo generato del report.
+     */
+    private long countOrphanReports() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(dbUrl);
+             var stmt = conn.prepareStatement("SELECT COUNT(*) FROM GameReport r " +
+                     "WHERE r.user LIKE ? ESCAPE '\\' " +
+                     "AND NOT EXISTS (SELECT 1 FROM Content c WHERE c.report = r.id)")) {
+            stmt.setString(1, userPrefix.replace("_", "\\_") + "%");
+            try (var res = stmt.executeQuery()) {
+                return res.next() ? res.getLong(1) : 0;
+            }
+        }
+    }
+
+    private void printReport(long elapsedNanos, long orphanReports) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%nGiocatori: %d, concorrenza: %d, connessioni: %s%n",
+                options.players(), options.concurrency(), options.connectionMode());
+        System.out.printf("Durata: %.2f s, partite completate: %d, fallite: %d, throughput: %.1f partite/s%n%n",
+                seconds, completed.sum(), failed.sum(), completed.sum() / seconds);
+        System.out.printf("%-10s %8s %10s %10s %10s %10s%n", "fase", "campioni", "p50 ms", "p99 ms", "max ms", "media ms");
+        for (LatencyRecorder recorder : latencies.values()) {
+            if (recorder.getCount() == 0) continue;
+            System.out.printf("%-10s %8d %10.2f %10.2f %10.2f %10.2f%n",
+                    recorder.getName(),
+                    recorder.getCount(),
+                    recorder.percentile(50) / 1e6,
+                    recorder.percentile(99) / 1e6,
+                    recorder.max() / 1e6,
+                    recorder.mean() / 1e6);
+        }
+        System.out.println();
+        System.out.println("Errori per fase: " + (errors.isEmpty() ? "nessuno" : new TreeMap<>(errors)));
+        System.out.println("Report senza documenti associati: " + orphanReports);
+    }
+
+    private String toJson(long elapsedNanos, long orphanReports) {
+        StringBuilder sb = new StringBuilder("{\n");
+        sb.append("  \"players\": ").append(options.players()).append(",\n");
+        sb.append("  \"concurrency\": ").append(options.concurrency()).append(",\n");
+        sb.append("  \"connectionMode\": \"").append(options.connectionMode()).append("\",\n");
+        sb.append("  \"elapsedMillis\": ").append(elapsedNanos / 1_000_000).append(",\n");
+        sb.append("  \"completed\": ").append(completed.sum()).append(",\n");
+        sb.append("  \"failed\": ").append(failed.sum()).append(",\n");
+        sb.append("  \"orphanReports\": ").append(orphanReports).append(",\n");
+        sb.append("  \"phases\": {");
+        String separator = "\n";
+        for (LatencyRecorder recorder : latencies.values()) {
+            sb.append(separator).append("    \"").append(recorder.getName()).append("\": {")
+                    .append("\"count\": ").append(recorder.getCount())
+                    .append(", \"p50Nanos\": ").append(recorder.percentile(50))
+                    .append(", \"p99Nanos\": ").append(recorder.percentile(99))
+                    .append(", \"maxNanos\": ").append(recorder.max())
+                    .append("}");
+            separator = ",\n";
+        }
+        sb.append("\n  },\n  \"errors\": {");
+        separator = "";
+        for (var entry : new TreeMap<>(errors).entrySet()) {
+            sb.append(separator).append("\"").append(entry.getKey()).append("\": ").append(entry.getValue().sum());
+            separator = ", ";
+        }
+        return sb.append("}\n}\n").toString();
+    }
+}
@@ -0,0 +1,111 @@
+package it.unisa.diem.wordageddon_g16.benchmarks.loadtest;
+
+import java.nio.file.Path;
+
+/**
+ * Parametri del test di carico, letti dalla riga di comando.
+ *
+ * @param players        numero totale di giocatori simulati
+ * @param concurrency    numero di partite eseguite contemporaneamente
+ * @param users          numero di utenti distinti a cui vengono attribuite le partite
+ * @param documents      numero di documenti generati quando il database è creato dal test
+ * @param dbUrl          URL JDBC del database da usare, {@code null} per un database temporaneo
+ * @param docsDir        directory dei documenti associata a {@code dbUrl}
+ * @param connectionMode politica di accesso al database
+ * @param readingMillis  tempo di lettura simulato per ogni partita
+ * @param seed           seme delle scelte dei giocatori simulati
+ * @param report         file JSON in cui salvare i risultati, {@code null} per non salvarli
+ * @param quiet          se {@code true} sopprime i messaggi stampati dall'applicazione durante il test
+ */
+public record LoadTestOptions(
+        int players,
+        int concurrency,
+        int users,
+        int documents,
+        String dbUrl,
+        String docsDir,
+        ConnectionMode connectionMode,
+        long readingMillis,
+        long seed,
+        Path report,
+        boolean quiet
+) {
+    /**
+     * Politica con cui i giocatori simulati accedono al database.
+     */
+    public enum ConnectionMode {
+        /** Tutti i giocatori condividono un'unica connessione, come l'applicazione desktop. */
+        SHARED,
+        /** Ogni giocatore apre la propria connessione per la durata della partita. */
+        PER_PLAYER
+    }
+
+    static final String USAGE = """
+            Utilizzo: LoadTest [opzioni]
+              --players N          giocatori simulati (default 2000)
+              --concurrency N      partite contemporanee (default 32)
+              --users N            utenti distinti (default 100)
+              --documents N        documenti del database temporaneo (default 40)
+              --db-url URL         database da usare al posto di quello temporaneo
+              --docs-dir DIR       directory dei documenti di --db-url
+              --connections MODE   shared | per-player (default shared)
+              --reading-ms N       tempo di lettura simulato in millisecondi (default 0)
+              --seed N             seme delle scelte dei giocatori (default 42)
+              --report FILE        salva i risultati in formato JSON
+              --quiet              sopprime i messaggi dell'applicazione durante il test
+            """;
+
+    /**
+     * Interpreta gli argomenti della riga di comando.
+     *
+     * @param args argomenti ricevuti dal {@code main}
+     * @return le opzioni lette, con i valori di default per quelle assenti
+     * @throws IllegalArgumentException se un'opzione non è riconosciuta o non ha un valore valido
+     */
+    public static LoadTestOptions parse(String[] args) {
+        int players = 2000;
+        int concurrency = 32;
+        int users = 100;
+        int documents = 40;
+        String dbUrl = null;
+        String docsDir = null;
+        ConnectionMode connectionMode = ConnectionMode.SHARED;
+        long readingMillis = 0;
+        long seed = 42;
+        Path report = null;
+        boolean quiet = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--quiet")) {
+                quiet = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for option " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--players" -> players = Integer.parseInt(value);
+                case "--concurrency" -> concurrency = Integer.parseInt(value);
+                case "--users" -> users = Integer.parseInt(value);
+                case "--documents" -> documents = Integer.parseInt(value);
+                case "--db-url" -> dbUrl = value;
+                case "--docs-dir" -> docsDir = value;
+                case "--connections" -> connectionMode = ConnectionMode.valueOf(value.toUpperCase().replace('-', '_'));
+                case "--reading-ms" -> readingMillis = Long.parseLong(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--report" -> report = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        if (dbUrl != null && docsDir == null) {
+            throw new IllegalArgumentException("--docs-dir is required together with --db-url");
+        }
+        if (players <= 0 || concurrency <= 0 || users <= 0 || documents <= 0) {
+            throw new IllegalArgumentException("Numeric options must be positive");
+        }
+        return new LoadTestOptions(players, concurrency, users, documents, dbUrl, docsDir, connectionMode,
+                readingMillis, seed, report, quiet);
+    }
+}
@@ -1,3 +1,6 @@
+-- Schema completo all'ultima versione (PRAGMA user_version), usato da SchemaMigrator per inizializzare
+-- un database vuoto. Ogni nuova migrazione in src/main/resources/.../db/migrations va riportata anche qui.
+
 CREATE TABLE User(
                      name TEXT PRIMARY KEY,
                      password TEXT NOT NULL,
@@ -9,21 +12,15 @@ CREATE TABLE GameReport(
                            user TEXT REFERENCES User(name) ON DELETE CASCADE NOT NULL ,
                            timestamp DATETIME DEFAULT  CURRENT_TIMESTAMP NOT NULL ,
                            difficulty TEXT NOT NULL CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD')),
-                           max_time TIME NOT NULL,
-                           used_time TIME NOT NULL,
+                           -- durate in secondi
+                           max_time INTEGER NOT NULL CHECK (typeof(max_time) = 'integer' AND max_time >= 0),
+                           used_time INTEGER NOT NULL CHECK (typeof(used_time) = 'integer' AND used_time >= 0),
                            question_count INTEGER NOT NULL CHECK (question_count > 0),
                            score INTEGER NOT NULL CHECK (score >= 0),
-
-                           CHECK (
-                               max_time LIKE '__:__' AND
-                               substr(max_time, 1, 2) BETWEEN '00' AND '60' AND
-                               substr(max_time, 4, 2) BETWEEN '00' AND '59'
-                               ),
-                           CHECK (
-                               used_time LIKE '__:__' AND
-                               substr(used_time, 1, 2) BETWEEN '00' AND '60' AND
-                               substr(used_time, 4, 2) BETWEEN '00' AND '59'
-                               )
+                           -- seme da cui è stata generata la partita (migrazione V4), NULL se sconosciuto
+                           seed INTEGER,
+                           -- giorno della sfida del giorno giocata (migrazione V6), NULL per le partite normali
+                           challenge_day TEXT
 );
 
 CREATE TABLE Document(
@@ -69,4 +66,26 @@ CREATE TRIGGER ensure_one_admin_before_update
         AND (SELECT COUNT(*) FROM "User" WHERE isAdmin = 1) = 1
 BEGIN
     SELECT RAISE(ABORT, 'Deve esistere almeno un utente admin');
-END;
\ No newline at end of file
+END;
+
+-- Avanzamento delle importazioni di archivi (migrazione V3, vedi HistoryArchive)
+CREATE TABLE ArchiveImport(
+    archive  TEXT PRIMARY KEY,
+    position INTEGER NOT NULL
+);
+
+-- Sfida del giorno (migrazione V5, vedi DailyChallengeService)
+CREATE TABLE DailyChallenge(
+    day        TEXT NOT NULL,
+    difficulty TEXT NOT NULL CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD')),
+    seed       INTEGER NOT NULL,
+    bundle     BLOB NOT NULL,
+    PRIMARY KEY (day, difficulty)
+);
+
+-- Indici secondari (migrazioni V1, V2 e V6, vedi SchemaMigrator)
+CREATE INDEX IF NOT EXISTS idx_gamereport_user_timestamp ON GameReport(user, timestamp);
+CREATE INDEX IF NOT EXISTS idx_gamereport_difficulty_used_time ON GameReport(difficulty, used_time);
+CREATE INDEX IF NOT EXISTS idx_content_report ON Content(report, document);
+CREATE INDEX IF NOT EXISTS idx_gamereport_challenge ON GameReport(challenge_day, difficulty);
+CREATE INDEX IF NOT EXISTS idx_dailychallenge_seed ON DailyChallenge(seed, difficulty);
@@ -0,0 +1,111 @@
+package it.unisa.diem.wordageddon_g16;
+
+import it.unisa.diem.wordageddon_g16.models.AppContext;
+import it.unisa.diem.wordageddon_g16.models.Difficulty;
+import it.unisa.diem.wordageddon_g16.models.GameSession;
+import it.unisa.diem.wordageddon_g16.models.User;
+import it.unisa.diem.wordageddon_g16.services.GameService;
+import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
+import it.unisa.diem.wordageddon_g16.utility.ViewLoader;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Esecuzione di addestramento usata per generare l'archivio AppCDS dell'immagine jlink (profilo Maven {@code appcds}).
+ * <p>
+ * Percorre automaticamente il flusso tipico di un utente (autenticazione → menu → partita → classifica),
+ * così che la JVM carichi le classi di JavaFX, del driver SQLite e dell'applicazione effettivamente usate
+ * all'avvio e durante una partita. Al termine l'applicazione viene chiusa: le classi caricate vengono
+ * salvate nell'archivio all'uscita dalla JVM.
+ * </p>
+ * La partita non viene giocata tramite interfaccia: dopo aver mostrato la vista di gioco vengono preparati
+ * i documenti e generate le domande di una partita facile tramite {@link GameService}. Nessun dato viene salvato
+ * per l'utente fittizio usato durante l'esecuzione.
+ */
+final class TrainingRun {
+    private static final Duration STEP_DELAY = Duration.millis(500);
+
+    private final AppContext context;
+    private final Runnable onFinish;
+    /** Passi dell'esecuzione: ciascuno riceve l'azione da invocare quando è concluso. */
+    private final Deque<Consumer<Runnable>> steps = new ArrayDeque<>();
+
+    private TrainingRun(AppContext context, Runnable onFinish) {
+        this.context = context;
+        this.onFinish = onFinish;
+    }
+
+    /**
+     * Avvia l'esecuzione di addestramento. Deve essere invocato sul JavaFX Application Thread,
+     * dopo che la finestra principale è stata mostrata.
+     *
+     * @param context  contesto dell'applicazione
+     * @param onFinish azione eseguita al termine, responsabile della chiusura dell'applicazione
+     */
+    static void start(AppContext context, Runnable onFinish) {
+        TrainingRun run = new TrainingRun(context, onFinish);
+        run.steps.add(done -> show(ViewLoader.View.AUTH, done));
+        run.steps.add(done -> {
+            context.setCurrentUser(new User("training", null, false));
+            show(ViewLoader.View.MENU, done);
+        });
+        run.steps.add(run::playGame);
+        run.steps.add(done -> show(ViewLoader.View.LEADERBOARD, done));
+        run.next();
+    }
+
+    /**
+     * Esegue il passo successivo, lasciando a JavaFX il tempo di disegnare la vista mostrata dal precedente.
+     */
+    private void next() {
+        Consumer<Runnable> step = steps.poll();
+        if (step == null) {
+            System.out.println("Esecuzione di addestramento completata");
+            onFinish.run();
+            return;
+        }
+        PauseTransition pause = new PauseTransition(STEP_DELAY);
+        pause.setOnFinished(_ -> {
+            try {
+                step.accept(this::next);
+            } catch (RuntimeException e) {
+                SystemLogger.log("Training run step failed", e);
+                next();
+            }
+        });
+        pause.play();
+    }
+
+    private static void show(ViewLoader.View view, Runnable done) {
+        System.out.println("Addestramento: " + view);
+        ViewLoader.load(view);
+        done.run();
+    }
+
+    /**
+     * Mostra la vista di gioco e genera in background le domande di una partita, come al termine della lettura.
+     */
+    private void playGame(Runnable done) {
+        System.out.println("Addestramento: " + ViewLoader.View.GAME);
+        ViewLoader.load(ViewLoader.View.GAME);
+        GameService gameService = context.getGameService();
+        CompletableFuture.supplyAsync(() -> {
+            GameSession session = gameService.newSession(Difficulty.EASY);
+            gameService.setupReadingPhase(session);
+            return gameService.generateQuestions(gameService.prepare(session));
+        }).whenComplete((questions, e) -> {
+            if (e != null) {
+                SystemLogger.log("Training run could not generate questions", e);
+            } else {
+                System.out.println("Addestramento: generate " + questions.size() + " domande");
+            }
+            Platform.runLater(done);
+        });
+    }
+}
@@ -1,12 +1,21 @@
 package it.unisa.diem.wordageddon_g16;
 
 import it.unisa.diem.wordageddon_g16.controllers.*;
+import it.unisa.diem.wordageddon_g16.db.BackupService;
 import it.unisa.diem.wordageddon_g16.db.JdbcRepository;
+import it.unisa.diem.wordageddon_g16.db.exceptions.SchemaMigrationException;
 import it.unisa.diem.wordageddon_g16.models.*;
+import it.unisa.diem.wordageddon_g16.utility.Config;
+import it.unisa.diem.wordageddon_g16.utility.Popup;
 import it.unisa.diem.wordageddon_g16.utility.Resources;
+import it.unisa.diem.wordageddon_g16.utility.StartupTimer;
+import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
 import it.unisa.diem.wordageddon_g16.utility.ViewLoader;
+import it.unisa.diem.wordageddon_g16.utility.metrics.Metrics;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
+import javafx.scene.control.Label;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 import javafx.util.Callback;
@@ -26,17 +35,33 @@ public class WordageddonApp extends Application {
      * Punto di ingresso principale dell'applicazione JavaFX.
      * <p>
      * Inizializza le dipendenze e il repository, costruisce il {@link AppContext} condiviso e imposta
-     * la factory dei controller per la navigazione tra viste.
+     * la factory dei controller per la navigazione tra viste. Se lo schema del database non può essere aggiornato
+     * l'errore viene mostrato e l'applicazione termina.
      * <br>
      * Configura la finestra ({@link Stage}) con dimensioni, icona, e comportamento al termine.
      * Se esiste una sessione utente attiva, apre il menu; altrimenti la schermata di autenticazione.
+     * Viene caricata solo la vista iniziale effettivamente mostrata.
      * </p>
+     * Al primo frame disegnato stampa il riepilogo dei tempi di avvio tramite {@link StartupTimer}; in modalità
+     * di misura dell'avvio ({@link Config.Props#STARTUP_PROFILE}) l'applicazione viene poi chiusa, mentre
+     * con {@link Config.Props#STARTUP_TRAINING} viene avviata la {@link TrainingRun} per la generazione
+     * dell'archivio AppCDS.
      *
      * @param stage finestra primaria dell'applicazione
      */
     @Override
     public void start(Stage stage){
-        var repo = new JdbcRepository();
+        StartupTimer.mark("javafx");
+        Metrics.startReporter();
+        JdbcRepository repo;
+        try {
+            repo = new JdbcRepository();
+        } catch (SchemaMigrationException e) {
+            showStartupError(e);
+            return;
+        }
+        StartupTimer.mark("repository");
+        BackupService.start();
         var context = new AppContext(repo);
 
         Callback<Class<?>,Object> controllerFactory = clazz -> switch (clazz.getSimpleName()) {
@@ -56,27 +81,102 @@ public class WordageddonApp extends Application {
         stage.setScene(new Scene(new StackPane(), 1280, 832));
         stage.setMaximized(true);
 
+        StartupTimer.mark("stage");
+
         ViewLoader.setStage(stage);
         ViewLoader.setControllerFactory(controllerFactory);
-        ViewLoader.load(ViewLoader.View.AUTH);
-
-        if (context.getAuthService().loadSession()) {
-            ViewLoader.load(ViewLoader.View.MENU);
-        } else {
-            ViewLoader.load(ViewLoader.View.AUTH);
-        }
+        boolean loggedIn = context.getAuthService().loadSession();
+        StartupTimer.mark("session");
+        ViewLoader.load(loggedIn ? ViewLoader.View.MENU : ViewLoader.View.AUTH);
+        StartupTimer.mark("view");
 
         // Salvo la sessione alla chiusura nella vista del gioco
         stage.setOnCloseRequest(_ -> {
-            repo.close();
             if (ViewLoader.getCurrentView().equals(ViewLoader.View.GAME)){
                 var controller = (GameController) ViewLoader.getCurrentController();
                 if(controller.getCurrentPaneId().equals("questionPane"))
                     controller.saveSession();
             }
+            context.getDailyChallengeService().stop();
+            release(repo);
         });
         stage.setTitle("Wordageddon");
         stage.show();
+        StartupTimer.mark("show");
+        onFirstFrame(stage.getScene(), () -> {
+            StartupTimer.mark("firstFrame");
+            StartupTimer.report();
+            if (Boolean.parseBoolean(Config.get(Config.Props.STARTUP_TRAINING))) {
+                TrainingRun.start(context, () -> exit(repo));
+            } else if (StartupTimer.isProfiling()) {
+                exit(repo);
+            } else {
+                // Dopo il primo frame, per non rallentare l'avvio: le sfide del giorno saranno pronte alla prima partita
+                context.getDailyChallengeService().start();
+            }
+        });
+    }
+
+    /**
+     * Esegue l'azione indicata una sola volta, al termine del layout del primo impulso di rendering della scena,
+     * ossia quando il primo frame sta per essere disegnato.
+     *
+     * @param scene  scena della finestra principale
+     * @param action azione da eseguire
+     */
+    private static void onFirstFrame(Scene scene, Runnable action) {
+        scene.addPostLayoutPulseListener(new Runnable() {
+            private boolean done;
+
+            @Override
+            public void run() {
+                if (done) {
+                    return;
+                }
+                done = true;
+                // Il listener viene rimosso fuori dall'impulso, durante il quale la scena scorre la lista dei listener
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(this));
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Segnala che il database non può essere aggiornato e termina l'applicazione alla chiusura del messaggio.
+     *
+     * @param e errore della migrazione dello schema
+     */
+    private static void showStartupError(SchemaMigrationException e) {
+        Popup popup = new Popup("Errore", 450, 250);
+        Label message = new Label("Impossibile aggiornare il database: " + e.getMessage());
+        message.setWrapText(true);
+        popup.addAll(message);
+        popup.show();
+        Metrics.stopReporter();
+        SystemLogger.shutdown();
+        Platform.exit();
+    }
+
+    /**
+     * Rilascia le risorse dell'applicazione: backup periodici, connessione al database, metriche e log.
+     *
+     * @param repo repository da chiudere
+     */
+    private static void release(JdbcRepository repo) {
+        BackupService.stop();
+        repo.close();
+        Metrics.stopReporter();
+        SystemLogger.shutdown();
+    }
+
+    /**
+     * Rilascia le risorse e termina l'applicazione senza passare dalla chiusura della finestra.
+     *
+     * @param repo repository da chiudere
+     */
+    private static void exit(JdbcRepository repo) {
+        release(repo);
+        Platform.exit();
     }
 
     /**
@@ -88,6 +188,7 @@ public class WordageddonApp extends Application {
      * @param args argomenti da linea di comando (non utilizzati)
      */
     public static void main(String[] args) {
+        StartupTimer.mark("main");
         launch();
     }
 }
\ No newline at end of file
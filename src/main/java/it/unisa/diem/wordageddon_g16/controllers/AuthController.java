@@ -4,6 +4,7 @@ import it.unisa.diem.wordageddon_g16.models.AppContext;
 import it.unisa.diem.wordageddon_g16.services.AuthService;
 import it.unisa.diem.wordageddon_g16.utility.Config;
 import it.unisa.diem.wordageddon_g16.utility.Resources;
+import it.unisa.diem.wordageddon_g16.utility.ViewLifecycle;
 import it.unisa.diem.wordageddon_g16.utility.ViewLoader;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -21,7 +22,7 @@ import java.util.ResourceBundle;
  * e la validazione dei campi tramite {@link AuthService}. Utilizza {@link ViewLoader} per la navigazione
  * e {@link Resources} per applicare lo stile ai popup di dialogo.
  */
-public class AuthController implements Initializable {
+public class AuthController implements Initializable, ViewLifecycle {
 
     private final AuthService authService;
     @FXML
@@ -50,23 +51,11 @@ public class AuthController implements Initializable {
     /**
      * Inizializza la schermata di autenticazione.
      * <p>
-     * Mostra il pulsante di registrazione se non ci sono utenti, e nasconde il login.
-     * Configura anche il binding tra {@link PasswordField} e {@link TextField} per la visualizzazione della password.
+     * Configura il binding tra {@link PasswordField} e {@link TextField} per la visualizzazione della password.
      */
     @FXML
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        noUsers = authService.noUsers();
-        if (noUsers) {
-            loginBtn.setVisible(false);
-            loginBtn.setManaged(false);
-            registerBtn.setDefaultButton(true);
-            oppureLabel.setVisible(false);
-        }
-        else{
-            loginBtn.setDefaultButton(true);
-        }
-
         passwordPF.visibleProperty().bind(showPasswordCB.selectedProperty().not());
         passwordPF.managedProperty().bind(showPasswordCB.selectedProperty().not());
         passwordTF.visibleProperty().bind(showPasswordCB.selectedProperty());
@@ -74,6 +63,23 @@ public class AuthController implements Initializable {
         passwordTF.textProperty().bindBidirectional(passwordPF.textProperty());
     }
 
+    /**
+     * Invocato ogni volta che la schermata viene mostrata.
+     * <p>
+     * Svuota i campi e mostra il solo pulsante di registrazione se non ci sono utenti, nascondendo il login.
+     */
+    @Override
+    public void onShow() {
+        usernameField.clear();
+        passwordPF.clear();
+        noUsers = authService.noUsers();
+        loginBtn.setVisible(!noUsers);
+        loginBtn.setManaged(!noUsers);
+        oppureLabel.setVisible(!noUsers);
+        loginBtn.setDefaultButton(!noUsers);
+        registerBtn.setDefaultButton(noUsers);
+    }
+
     /**
      * Gestisce il clic sul pulsante di login.
      * <p>
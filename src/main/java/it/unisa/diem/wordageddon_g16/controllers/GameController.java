@@ -1,11 +1,17 @@
 package it.unisa.diem.wordageddon_g16.controllers;
 
 import it.unisa.diem.wordageddon_g16.models.*;
+import it.unisa.diem.wordageddon_g16.services.DailyChallengeService;
+import it.unisa.diem.wordageddon_g16.services.GameEngine;
 import it.unisa.diem.wordageddon_g16.services.GameService;
 import it.unisa.diem.wordageddon_g16.models.Question;
 import it.unisa.diem.wordageddon_g16.utility.Config;
+import it.unisa.diem.wordageddon_g16.utility.GameSessionCodec;
+import it.unisa.diem.wordageddon_g16.utility.SessionJournal;
 import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
+import it.unisa.diem.wordageddon_g16.utility.ViewLifecycle;
 import it.unisa.diem.wordageddon_g16.utility.ViewLoader;
+import it.unisa.diem.wordageddon_g16.utility.jfr.SessionSaveEvent;
 import javafx.animation.*;
 import javafx.application.Platform;
 import javafx.beans.property.*;
@@ -22,13 +28,9 @@ import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
 import javafx.util.Duration;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.net.URL;
-import java.time.LocalDateTime;
-import java.util.LinkedHashMap;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
@@ -45,11 +47,12 @@ import java.util.ResourceBundle;
  * operazioni intensive (generazione domande, caricamento testo).
  * </p>
  */
-public class GameController implements Initializable {
+public class GameController implements Initializable, ViewLifecycle {
     @FXML private StackPane stackPane;
     @FXML private AnchorPane readingPane;
     @FXML private AnchorPane questionPane;
     @FXML private AnchorPane diffSelectionPane;
+    @FXML private CheckBox dailyChallengeCheck;
 
 
     @FXML private TextArea textDisplayArea;
@@ -91,12 +94,6 @@ public class GameController implements Initializable {
      */
     private Map<Document, String> documentToTextMap;
 
-    /**
-     * Indice della domanda attualmente visualizzata dal quiz.
-     * Aggiornato a ogni avanzamento tra le domande.
-     */
-    private SimpleIntegerProperty currentQuestionIndex;
-
     /**
      * Indice del documento attualmente visualizzato nella fase di lettura.
      * Utilizzato dai pulsanti "Successivo" e "Precedente" per navigare tra i documenti.
@@ -108,6 +105,27 @@ public class GameController implements Initializable {
      */
     private final GameService gameService;
 
+    /**
+     * Servizio della sfida del giorno, che fornisce dalla memoria parametri, domande e testi delle sfide.
+     */
+    private final DailyChallengeService dailyChallengeService;
+
+    /**
+     * Sfida del giorno giocata, {@code null} se la partita non è una sfida del giorno.
+     */
+    private DailyChallenge challenge;
+
+    /**
+     * Partita corrente, creata dal {@link GameService} alla selezione della difficoltà o al ripristino di una sessione interrotta.
+     */
+    private GameSession session;
+
+    /**
+     * Giornale delle risposte della partita corrente, aperto alla prima domanda mostrata.
+     * Permette di recuperare la partita anche dopo una chiusura improvvisa dell'applicazione.
+     */
+    private SessionJournal journal;
+
     /**
      * Lista delle domande generate per la sessione corrente.
      */
@@ -140,37 +158,16 @@ public class GameController implements Initializable {
     private Timeline readingTimer;
 
     /**
-     * Punteggio totale ottenuto dal giocatore nella sessione corrente.
-     */
-    private int score;
-
-    /**
-     * Numero di risposte corrette fornite dal giocatore.
-     */
-    private int numeroRisposteCorrette;
-
-    /**
-     * Numero di domande a cui l'utente non ha risposto (scaduto il tempo), ovvero saltate.
-     */
-    private int numeroRisposteSaltate;
-
-    /**
-     * Mappa che tiene traccia, per ogni domanda, dell'indice della risposta fornita dall'utente.
-     * Se l'utente ha saltato la domanda, il valore è -1.
+     * Motore del quiz: domanda corrente, risposte date, punteggio e report finale.
+     * Creato quando le domande sono pronte o al ripristino di una sessione interrotta.
      */
-    private final Map<Question, Integer> domandaRisposte;
+    private GameEngine engine;
 
     /**
      * Contesto applicativo corrente, che collega controller, utente, e servizi condivisi tra le varie schermate.
      */
     private final AppContext appContext;
 
-    /**
-     * Momento in cui è stata visualizzata la prima domanda del quiz.
-     * Serve per misurare il tempo impiegato dall'utente nel rispondere a tutte le domande.
-     */
-    private LocalDateTime questionStartTime;
-
     /**
      * Indica se la generazione asincrona delle domande è stata completata ed è possibile procedere con il quiz.
      */
@@ -181,18 +178,6 @@ public class GameController implements Initializable {
      */
     private final BooleanProperty minTimeElapsed;
 
-    /**
-     * Numero totale di domande da porre nella sessione di gioco.
-     * Impostato in base alla difficoltà o alle impostazioni correnti.
-     */
-    private int questionCount;
-
-    /**
-     * Punteggio assegnato per ogni risposta corretta fornita dal giocatore.
-     * Il valore può dipendere dalla difficoltà selezionata.
-     */
-    private int scorePerQuestion;
-
     /** Tempo minimo per skippare la lettura dei documenti.
      * <p>
      * Questo valore rappresenta il tempo minimo in secondi che deve trascorrere prima che l'utente possa saltare la lettura dei documenti.
@@ -201,14 +186,6 @@ public class GameController implements Initializable {
      */
     private static final int MIN_TIME_FOR_SKIP = 30;
 
-    /** Tempo limite per rispondere a una domanda del quiz.
-     * <p>
-     * Questo valore rappresenta il tempo massimo in secondi che l'utente ha per rispondere a ciascuna domanda del quiz.
-     * Se il tempo scade, la risposta viene considerata saltata e viene mostrata la risposta corretta.
-     * </p>
-     */
-    private static final java.time.Duration QUESTION_TIME_LIMIT = java.time.Duration.ofSeconds(15) ;
-
     /**
      * Controller della sessione di gioco per l'applicazione Wordageddon.
      * <p>
@@ -219,18 +196,12 @@ public class GameController implements Initializable {
      */
     public GameController(AppContext appContext) {
         this.gameService = appContext.getGameService();
+        this.dailyChallengeService = appContext.getDailyChallengeService();
         this.appContext= appContext;
         currentDocumentIndex = new SimpleIntegerProperty(0);
-        currentQuestionIndex = new SimpleIntegerProperty(0);
         elapsedSeconds = new SimpleIntegerProperty(0);
         questionsReady = new SimpleBooleanProperty(false);
         minTimeElapsed = new SimpleBooleanProperty(false);
-        domandaRisposte = new LinkedHashMap<>();
-        score = 0;
-        numeroRisposteCorrette = 0;
-        numeroRisposteSaltate = 0;
-        questionCount = 0;
-        scorePerQuestion = 0;
     }
 
     /**
@@ -243,8 +214,9 @@ public class GameController implements Initializable {
      *   <li>Configura il pulsante di skip durante la lettura dei documenti: viene abilitato automaticamente quando questionsReady è true (ossia le domande sono state generate)
      *       e sono trascorsi almeno 15 secondi dall'inizio del timer (minTimeElapsed)</li>
      *   <li>Istanzia e avvia {@code readingSetupService} per leggere i documenti in modo asincrono e ottenere il testo da mostrare tramite
-     *       {@link GameService#setupReadingPhase()}</li>
-     *   <li>Istanzia {@code questionSetupService} per generare le domande del quiz in background tramite {@link GameService#getQuestions()}</li>
+     *       {@link GameService#setupReadingPhase(GameSession)}</li>
+     *   <li>Istanzia {@code questionSetupService} per generare le domande del quiz in background tramite {@link GameService#generateQuestions(GameSession)}</li>
+     *   <li>Per una sfida del giorno, testi e domande vengono invece presi dal {@link DailyChallengeService}, senza generarli</li>
      *   <li>Aggiorna lo stato questionsReady al completamento della generazione delle domande</li>
      * </ul>
      */
@@ -256,7 +228,6 @@ public class GameController implements Initializable {
             // Recupera stato da sessione
             restoreSession(sessionState);
             appContext.setInterruptedSession(null);
-            new File("interruptedSession.ser").delete();
         } else {
 
             // IL pulsante di skip viene abilitato automaticamente quando la generazione delle domande è completata e sono trascorsi almeno x dall'inizio del timer
@@ -274,10 +245,14 @@ public class GameController implements Initializable {
             readingSetupServiceFX = new Service<>() {
                 @Override
                 protected Task<Map<Document, String>> createTask() {
+                    GameSession current = session;
+                    DailyChallenge currentChallenge = challenge;
                     Task<Map<Document, String>> task = new Task<>() {
                         @Override
                         protected Map<Document, String> call() {
-                            return gameService.setupReadingPhase();
+                            return currentChallenge != null
+                                    ? dailyChallengeService.getTexts(currentChallenge)
+                                    : gameService.setupReadingPhase(current);
                         }
                     };
                     task.setOnSucceeded(_ -> {
@@ -286,7 +261,7 @@ public class GameController implements Initializable {
 
                         // Al termine del task che prepara i documenti alla lettura, parte direttamente la generazione delle domande
                         questionSetupServiceFX.start();
-                        java.time.Duration seconds = gameService.getTimeLimit();
+                        java.time.Duration seconds = session.getTimeLimit();
                         readingTimer = startTimer(seconds, timerLabelRead, timerBar, () -> loadPane(questionPane));
 
                         // Avvia la pausa per abilitare lo skip dopo 15 secondi
@@ -310,10 +285,14 @@ public class GameController implements Initializable {
             questionSetupServiceFX = new Service<>() {
                 @Override
                 protected Task<List<Question>> createTask() {
+                    GameSession current = session;
+                    DailyChallenge currentChallenge = challenge;
                     return new Task<>() {
                         @Override
                         protected List<Question> call() {
-                            return gameService.getQuestions();
+                            return currentChallenge != null
+                                    ? currentChallenge.questions()
+                                    : gameService.generateQuestions(gameService.prepare(current));
                         }
                     };
                 }
@@ -321,8 +300,6 @@ public class GameController implements Initializable {
             questionSetupServiceFX.setOnSucceeded(_ -> {
                 questions = questionSetupServiceFX.getValue();
                 questionsReady.set(true);  // Le domande sono pronte
-                questionCount = gameService.getQuestionCount();
-                scorePerQuestion = gameService.getScorePerQuestion();
             });
             questionSetupServiceFX.setOnFailed(_ -> {
                 throw new RuntimeException("Error during reading setup task: " + questionSetupServiceFX.getException());
@@ -338,7 +315,7 @@ public class GameController implements Initializable {
      * @param i Indice del documento da visualizzare.
      */
     private void setDocument(int i) {
-        Document doc = gameService.getDocuments().get(i);
+        Document doc = session.getDocuments().get(i);
         documentTitleLabel.setText(doc.title());
         textDisplayArea.setText(documentToTextMap.get(doc));
     }
@@ -346,7 +323,8 @@ public class GameController implements Initializable {
     /**
      * Avvia la fase del quiz dopo la lettura.
      * <p>
-     * Se le domande non sono ancora pronte, aspetta un secondo e riprova.
+     * Se le domande non sono ancora pronte, aspetta un secondo e riprova. Alla prima chiamata crea il {@link GameEngine}
+     * della partita, se non è già stato ripristinato da una sessione interrotta, e lo avvia.
      */
     private void switchToQuestions() {
         if (questions == null) {
@@ -359,59 +337,49 @@ public class GameController implements Initializable {
         if (questions.isEmpty()) {
             return;
         }
-        showQuestion(currentQuestionIndex.get());
+        if (engine == null) {
+            engine = new GameEngine(appContext.getCurrentUser(), session, questions);
+        }
+        engine.start();
+        showQuestion();
     }
 
     /**
-     * Visualizza una domanda e le sue risposte nella UI.
+     * Visualizza la domanda corrente del {@link GameEngine} e le sue risposte nella UI.
      * <p>
-     * Gestisce la risposta dell'utente, il controllo correttezza,
+     * Inoltra al motore la risposta dell'utente o, allo scadere del tempo, il salto della domanda, ne mostra l'esito
      * e avanza alla prossima domanda o al report finale se non ci sono piu domande.
-     *
-     * @param index Indice della domanda da mostrare.
      */
-    private void showQuestion(int index) {
-        //Se il l'indice della prossima domanda da visualizzare è maggiore del numero di domande, viene chiamato loadPane(reportPane)
-        if (currentQuestionIndex.get() >= questions.size()) {
+    private void showQuestion() {
+        //Se non ci sono altre domande da visualizzare, viene chiamato loadPane(reportPane)
+        if (engine.isFinished()) {
             loadPane(reportPane);
             return;
         }
-        // alla prima domanda da mostrare, viene segnato il tempo nella variabile questionStartTime.
-        // in generateReport verrà calcolato il tempo che intercorre tra questionStartTime e questionEndTime
-        if (currentQuestionIndex.get() == 0) {
-            questionStartTime = LocalDateTime.now();
+        // Istantanea della partita alla prima domanda mostrata (anche dopo un ripristino)
+        if (journal == null) {
+            openJournal();
         }
 
-        Question q = questions.get(index);
+        int index = engine.getCurrentIndex();
+        Question q = engine.currentQuestion();
         questionText.setText(q.text());
-        questionCountLabel.setText((index + 1) + "/" + questions.size());
+        questionCountLabel.setText((index + 1) + "/" + engine.getQuestions().size());
         List<String> answers = q.answers();
         Button[] buttons = {answer1Btn, answer2Btn, answer3Btn, answer4Btn};
         // Avvia il timer tramite metodo startTimer
         if(questionTimer != null) {
             questionTimer.stop();
         }
-        questionTimer = startTimer(QUESTION_TIME_LIMIT, timerLabelQuestion, timerBarQuestion, () -> Platform.runLater(() -> {
-            domandaRisposte.put(q, -1);
-            // Alla fine del timer, se non è stata data risposta, mostra la risposta corretta
-            numeroRisposteSaltate++;
-            System.out.println("Risposta saltata. Numero risposte saltate: " + numeroRisposteSaltate);
-            // Disabilita tutti i pulsanti
-            for (Button b : buttons) {
-                b.setDisable(true);
+        questionTimer = startTimer(GameEngine.QUESTION_TIME_LIMIT, timerLabelQuestion, timerBarQuestion, () -> Platform.runLater(() -> {
+            // Alla fine del timer, se non è stata data risposta, la domanda è saltata
+            if (engine.isFinished() || engine.getCurrentIndex() != index) {
+                return; // Risposta data mentre lo scadere del timer era in coda
             }
-            // Evidenzia la risposta corretta
-            int correctIndex = q.correctAnswerIndex();
-            if (correctIndex >= 0 && correctIndex < buttons.length) {
-                buttons[correctIndex].setStyle("-fx-background-color: #4CAF50;");
-            }
-            // Dopo 0.5s, mostra la prossima domanda
-            PauseTransition pause = new PauseTransition(Duration.seconds(0.5));
-            pause.setOnFinished(_ -> {
-                currentQuestionIndex.set(currentQuestionIndex.get() + 1);
-                showQuestion(currentQuestionIndex.get());
-            });
-            pause.play();
+            GameEngine.Outcome outcome = engine.skip();
+            recordAnswer(outcome.questionIndex(), outcome.answerIndex());
+            System.out.println("Risposta saltata. Numero risposte saltate: " + engine.getSkippedCount());
+            showOutcome(outcome, null, buttons);
         }));
 
         // Reset stile e stato dei bottoni
@@ -429,44 +397,55 @@ public class GameController implements Initializable {
 
             // GESTIONE EVENTO OnClick su btn che mostra risposta alternativa
             btn.setOnAction(_ -> {
-                domandaRisposte.put(q, answerIndex); //Salva domanda e risposta
                 // Stoppa il timer se in corso
                 if (questionTimer != null) {
                     questionTimer.stop();
                     questionTimer = null;
                 }
-                // Verifica risposta
-                boolean isCorrect = answerIndex == q.correctAnswerIndex();
-                if (isCorrect) {
-                    btn.setStyle("-fx-background-color: #4CAF50;");
-                    score += scorePerQuestion;
-                    numeroRisposteCorrette++;
-                    System.out.println("\nScore: " + score);
-                } else {
-                    btn.setStyle("-fx-background-color: #F44336;");
-                    buttons[q.correctAnswerIndex()].setStyle("-fx-background-color: #4CAF50;");
-                }
-                // Disabilita tutti i bottoni
-                for (Button b : buttons) {
-                    b.setDisable(true);
+                GameEngine.Outcome outcome = engine.answer(answerIndex);
+                recordAnswer(outcome.questionIndex(), outcome.answerIndex());
+                if (outcome.correct()) {
+                    System.out.println("\nScore: " + engine.getScore());
                 }
-                // Pausa di 0.5s prima di mostrare la prossima domanda
-                PauseTransition pause = new PauseTransition(Duration.seconds(0.5));
-                pause.setOnFinished(_ -> {
-                    currentQuestionIndex.set(currentQuestionIndex.get() + 1);
-                    showQuestion(currentQuestionIndex.get());
-                });
-                pause.play();
+                showOutcome(outcome, btn, buttons);
             });
         }
 
     }
 
+    /**
+     * Mostra l'esito di una risposta e, dopo mezzo secondo, la domanda successiva.
+     *
+     * @param outcome esito restituito dal {@link GameEngine}
+     * @param chosen  pulsante della risposta data, {@code null} se la domanda è stata saltata
+     * @param buttons pulsanti delle risposte
+     */
+    private void showOutcome(GameEngine.Outcome outcome, Button chosen, Button[] buttons) {
+        if (chosen != null && !outcome.correct()) {
+            chosen.setStyle("-fx-background-color: #F44336;");
+        }
+        // Evidenzia la risposta corretta
+        int correctIndex = outcome.correctAnswerIndex();
+        if (correctIndex >= 0 && correctIndex < buttons.length) {
+            buttons[correctIndex].setStyle("-fx-background-color: #4CAF50;");
+        }
+        // Disabilita tutti i bottoni
+        for (Button b : buttons) {
+            b.setDisable(true);
+        }
+        // Pausa di 0.5s prima di mostrare la prossima domanda
+        PauseTransition pause = new PauseTransition(Duration.seconds(0.5));
+        pause.setOnFinished(_ -> showQuestion());
+        pause.play();
+    }
+
     /**
      * Salva lo stato corrente della sessione di gioco su disco per consentire all'utente di riprendere la partita successivamente.
      * <p>
-     * La sessione viene serializzata in un file (il cui percorso è ottenuto da {@link Config.Props#INTERRUPTED_SESSION_FILE})
-     * tramite {@link ObjectOutputStream}. Lo stato scritto consiste in un'istanza di {@link GameSessionState}.
+     * La sessione viene scritta in un file (il cui percorso è ottenuto da {@link Config.Props#INTERRUPTED_SESSION_FILE})
+     * tramite {@link GameSessionCodec}, in modo atomico. Lo stato scritto consiste in un'istanza di {@link GameSessionState}.
+     * Se il giornale delle risposte è aperto, il salvataggio ne costituisce un checkpoint: l'istantanea viene riscritta
+     * e il giornale azzerato.
      * <b>Uso tipico:</b> questo metodo viene chiamato quando l'utente interrompe una partita (ad esempio chiudendo l'applicazione mentre é in fase 'quiz')
      * per garantire che tutti i progressi siano salvati e possano essere ripristinati in un secondo momento tramite la funzionalità di "riprendi partita".
      * <p>
@@ -476,20 +455,83 @@ public class GameController implements Initializable {
      * @see #restoreSession(GameSessionState)
      */
     public void saveSession() {
-        GameSessionState state = new GameSessionState(
-                appContext.getCurrentUser(),
-                questions,
-                domandaRisposte,
-                currentQuestionIndex.get(),
-                questionStartTime,
-                scorePerQuestion,
-                gameService.getParams()
-                );
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(Config.get(Config.Props.INTERRUPTED_SESSION_FILE)))) {
-            out.writeObject(state);
+        if (engine == null) {
+            // Nessuna domanda ancora mostrata: la partita non è ancora iniziata
+            return;
+        }
+        GameSessionState state = currentState();
+        SessionSaveEvent event = new SessionSaveEvent();
+        event.begin();
+        try {
+            if (journal != null) {
+                journal.checkpoint(state);
+            } else {
+                GameSessionCodec.write(Path.of(Config.get(Config.Props.INTERRUPTED_SESSION_FILE)), state);
+            }
+            event.success = true;
         } catch (IOException e) {
             SystemLogger.log("Errore durante il salvataggio della sessione: ", e);
             System.out.println("Errore durante il salvataggio della sessione: " + e.getMessage());
+        } finally {
+            if (event.shouldCommit()) {
+                event.user = state.user().getName();
+                event.difficulty = session.getDifficulty().name();
+                event.questionCount = engine.getQuestions().size();
+                event.answered = state.currentQuestionIndex();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Invocato quando si lascia la vista di gioco: chiude il giornale delle risposte, se aperto.
+     * <p>
+     * Istantanea e giornale restano su disco finché la partita non viene conclusa, così che possa essere ripresa.
+     */
+    @Override
+    public void onHide() {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    /**
+     * Costruisce lo stato corrente della partita, così come viene salvato su disco.
+     *
+     * @return lo stato della partita
+     */
+    private GameSessionState currentState() {
+        return engine.toState();
+    }
+
+    /**
+     * Scrive l'istantanea della partita e apre il giornale delle risposte.
+     * <p>
+     * Un errore di scrittura non interrompe la partita: viene registrato e la partita prosegue senza giornale.
+     */
+    private void openJournal() {
+        try {
+            journal = SessionJournal.open(Path.of(Config.get(Config.Props.INTERRUPTED_SESSION_FILE)), currentState());
+        } catch (IOException e) {
+            SystemLogger.log("Errore durante l'apertura del giornale della sessione", e);
+        }
+    }
+
+    /**
+     * Aggiunge al giornale la risposta data (o saltata) a una domanda.
+     *
+     * @param questionIndex indice della domanda
+     * @param answerIndex   indice della risposta, -1 se saltata
+     */
+    private void recordAnswer(int questionIndex, int answerIndex) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(questionIndex, answerIndex);
+        } catch (IOException e) {
+            SystemLogger.log("Errore durante la scrittura del giornale della sessione", e);
         }
     }
 
@@ -497,8 +539,8 @@ public class GameController implements Initializable {
      * Ripristina lo stato della sessione di gioco da un'istanza di GameSessionState.
      * <p>
      * Viene chiamato quando l'utente decide di riprendere una sessione interrotta.
-     * Inizializza il GameService con la difficoltà e i documenti salvati,
-     * ripristina le domande e le risposte date, e carica il pannello delle domande.
+     * Ricrea la partita tramite il GameService con la difficoltà e i documenti salvati,
+     * ripristina il {@link GameEngine} con le domande, le risposte date e il punteggio, e carica il pannello delle domande.
      * </p>
      *
      * @param state Stato della sessione da ripristinare.
@@ -506,81 +548,40 @@ public class GameController implements Initializable {
     public void restoreSession(GameSessionState state) {
         System.out.println("Ripristino da sessione interrotta...");
         GameParams params = state.gameParams();
-        gameService.restoreParams(params);
-        this.questionCount = params.getQuestionCount();
+        session = gameService.restoreSession(params);
         this.questions = state.questions();
-        this.domandaRisposte.clear();
-        this.domandaRisposte.putAll(state.domandaRisposte());
-        this.currentQuestionIndex.set(state.currentQuestionIndex());
-        this.questionStartTime = state.questionStartTime();
-        this.scorePerQuestion = state.scorePerQuestion();
-        this.score = recalculateScore();
+        this.engine = GameEngine.restore(state, session);
+        System.out.println("Punteggio ripristinato: " + engine.getScore());
         loadPane(questionPane);
     }
 
-    /**
-     * Ricalcola il punteggio totale basato sulle risposte date dall'utente.
-     * @return punteggio ricalcolato
-     */
-    private int recalculateScore() {
-        int newScore = 0;
-        numeroRisposteCorrette = 0;
-        numeroRisposteSaltate = 0;
-        for (Map.Entry<Question, Integer> entry : domandaRisposte.entrySet()) {
-            int answerIndex = entry.getValue();
-            Question q = entry.getKey();
-            if (answerIndex == -1) {
-                numeroRisposteSaltate++;
-            } else if (answerIndex == q.correctAnswerIndex()) {
-                System.out.println("Risposta corretta per la domanda: " + q.text());
-                newScore += scorePerQuestion; // Usa il valore ripristinato!
-                numeroRisposteCorrette++;
-            }
-        }
-        System.out.println("NewScore: " + newScore);
-        return newScore;
-    }
-
-
     /**
      * Genera il report di fine partita e aggiorna la UI.
      * <p>
-     * Calcola il tempo impiegato per rispondere alle domande, crea e salva il 'GameReport' registrato, aggiorna le statistiche della nuova vista (score,
+     * Conclude la partita tramite {@link GameEngine#finish()}, che calcola il tempo impiegato e costruisce il 'GameReport',
+     * salva il report, aggiorna le statistiche della nuova vista (score,
      * risposte corrette, risposte sbagliate, percentuale di risposte esatte su quelle date)
      * e popola la tabella che mostra il resoconto della partita tramite il metodo populateAnswerTable() del controller.
      *
      * @see GameController#populateAnswerTable()
      */
     private void generateReport() {
-        // Se il report viene generato, la session é conclusa quindi cancello il file
-        File file = new File(Config.get(Config.Props.INTERRUPTED_SESSION_FILE));
-        if (file.exists()) {
-            boolean deleted = file.delete();
-            if (!deleted) {
-                System.out.println("Errore: impossibile cancellare il file di sessione!");
-            }
+        // Se il report viene generato, la session é conclusa quindi cancello istantanea e giornale
+        if (journal != null) {
+            journal.discard();
+            journal = null;
+        } else {
+            SessionJournal.delete(Path.of(Config.get(Config.Props.INTERRUPTED_SESSION_FILE)));
         }
-        LocalDateTime questionEndTime = LocalDateTime.now();
-        java.time.Duration usedTime = java.time.Duration.between(questionStartTime, questionEndTime);
-        java.time.Duration timeLimit = QUESTION_TIME_LIMIT.multipliedBy(questionCount);
-
-        GameReport report = new GameReport(
-                appContext.getCurrentUser(),
-                gameService.getDocuments(),
-                LocalDateTime.now(),
-                gameService.getDifficulty(),
-                timeLimit,
-                usedTime,
-                questionCount,
-                score
-        );
+        GameReport report = engine.finish();
         gameService.saveGameReport(report);
-        scoreValue.setText(String.valueOf(score));
-        rightValue.setText(String.valueOf(numeroRisposteCorrette));
-        wrongValue.setText(String.valueOf(questionCount - numeroRisposteCorrette));
+        int questionCount = report.questionCount();
+        scoreValue.setText(String.valueOf(report.score()));
+        rightValue.setText(String.valueOf(engine.getCorrectCount()));
+        wrongValue.setText(String.valueOf(questionCount - engine.getCorrectCount()));
         questionNumber.setText(String.valueOf(questionCount));
 
-        int numeroRisposteDate = questionCount - numeroRisposteSaltate;
+        int numeroRisposteDate = questionCount - engine.getSkippedCount();
         double percentualeCompletamento = (double) numeroRisposteDate / questionCount  * 100;
 
         completionValue.setText(String.format("%.2f%%", percentualeCompletamento));
@@ -698,7 +699,8 @@ public class GameController implements Initializable {
      * Gestisce la selezione della difficoltà da parte dell'utente.
      * <p>
      * Metodo chiamato quando l'utente seleziona un livello di difficoltà tramite pulsante.
-     * In base all'ID del pulsante cliccato inizializza il GameService con il livello di difficoltà corrispondente.
+     * In base all'ID del pulsante cliccato crea la partita tramite il GameService con il livello di difficoltà corrispondente
+     * oppure, se è selezionata la sfida del giorno, la partita della sfida di oggi con quella difficoltà, già pronta in memoria.
      * Avvia la fase di lettura dei documenti caricando il relativo pannello ('readingPane').
      * </p>
      *
@@ -706,13 +708,19 @@ public class GameController implements Initializable {
      */
     @FXML
     public void onDifficultySelected(ActionEvent event) {
-        switch (((Button) event.getSource()).getId()) {
-            case "diffEasyBTN" -> gameService.init(Difficulty.EASY);
-            case "diffMediumBTN" -> gameService.init(Difficulty.MEDIUM);
-            case "diffHardBTN" -> gameService.init(Difficulty.HARD);
+        Difficulty difficulty = switch (((Button) event.getSource()).getId()) {
+            case "diffEasyBTN" -> Difficulty.EASY;
+            case "diffMediumBTN" -> Difficulty.MEDIUM;
+            case "diffHardBTN" -> Difficulty.HARD;
             default -> throw new IllegalArgumentException("Difficoltà non riconosciuta");
+        };
+        if (dailyChallengeCheck.isSelected()) {
+            challenge = dailyChallengeService.getChallenge(difficulty);
+            session = dailyChallengeService.newSession(challenge);
+        } else {
+            session = gameService.newSession(difficulty);
         }
-        nextDocumentButton.disableProperty().bind(currentDocumentIndex.isEqualTo(gameService.getDocuments().size() - 1));
+        nextDocumentButton.disableProperty().bind(currentDocumentIndex.isEqualTo(session.getDocuments().size() - 1));
         previousDocumentButton.disableProperty().bind(currentDocumentIndex.isEqualTo(0));
         loadPane(readingPane);
     }
@@ -801,7 +809,7 @@ public class GameController implements Initializable {
     /**
      *Popola la tabella delle risposte visibile a fine partita.
      * Il metodo viene chiamato in {@code generateReport()} per visualizzare il riepilogo
-     * delle risposte date dall'utente. Utilizza la mappa 'domandaRisposte'
+     * delle risposte date dall'utente. Utilizza le risposte registrate dal {@link GameEngine}
      * per mostrare, per ogni domanda:
      * <ul>
      *   <li>Il testo della domanda</li>
@@ -811,7 +819,7 @@ public class GameController implements Initializable {
      * </ul>
      */
     private void populateAnswerTable() {
-        answersTable.getItems().addAll(domandaRisposte.entrySet());
+        answersTable.getItems().addAll(engine.getAnswers().entrySet());
         // Colonna Domanda
         domandaCln.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getKey().text())
         );
@@ -832,7 +840,7 @@ public class GameController implements Initializable {
         // Colonna Punteggio
         punteggioCln.setCellValueFactory(data -> {
             int givenIndex = data.getValue().getValue();
-            int score = (givenIndex == -1) ? 0 : (givenIndex == data.getValue().getKey().correctAnswerIndex() ? gameService.getScorePerQuestion() : 0); //Se Integer è -1 allora la domanda è saltata, se l'indice della risposta data è lo stesso della risposta corretta allora stampo il punteggio altrimenti 0
+            int score = (givenIndex == -1) ? 0 : (givenIndex == data.getValue().getKey().correctAnswerIndex() ? engine.getScorePerQuestion() : 0); //Se Integer è -1 allora la domanda è saltata, se l'indice della risposta data è lo stesso della risposta corretta allora stampo il punteggio altrimenti 0
             return new SimpleStringProperty(String.valueOf(score));
         });
 
@@ -1,26 +1,51 @@
 package it.unisa.diem.wordageddon_g16.controllers;
 
 import it.unisa.diem.wordageddon_g16.models.AppContext;
+import it.unisa.diem.wordageddon_g16.models.DailyChallengeEntry;
 import it.unisa.diem.wordageddon_g16.models.Difficulty;
+import it.unisa.diem.wordageddon_g16.models.DifficultyTimeStats;
+import it.unisa.diem.wordageddon_g16.services.DailyChallengeService;
 import it.unisa.diem.wordageddon_g16.services.LeaderboardService;
+import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
+import it.unisa.diem.wordageddon_g16.utility.ViewLifecycle;
 import it.unisa.diem.wordageddon_g16.utility.ViewLoader;
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.scene.control.Label;
+import javafx.scene.control.TabPane;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 
 import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 /**
  * Controller responsabile della gestione e visualizzazione della schermata di classifica.
  * <p>
  * Carica dinamicamente le classifiche globali e filtrate per difficoltà nella rispettiva {@link TableView}.
  * Utilizza {@link LeaderboardService} per ottenere i dati di gioco e {@link ViewLoader} per la navigazione.
+ * <p>
+ * Le quattro classifiche vengono calcolate in parallelo in background, senza bloccare l'interfaccia:
+ * quella della scheda selezionata viene richiesta per prima e ogni tabella viene popolata non appena
+ * la relativa classifica è pronta. Lasciando la vista i caricamenti ancora in corso vengono annullati.
+ * <p>
+ * L'ultima scheda mostra la classifica separata delle sfide del giorno, fornita da {@link DailyChallengeService}.
  */
-public class LeaderboardController implements Initializable {
+public class LeaderboardController implements Initializable, ViewLifecycle {
+
+    @FXML
+    private TabPane tabPane;
 
     @FXML
     private TableView<LeaderboardService.LeaderboardEntry> globalTW;
@@ -34,28 +59,80 @@ public class LeaderboardController implements Initializable {
     @FXML
     private TableView<LeaderboardService.LeaderboardEntry> hardTW;
 
+    @FXML
+    private TableView<DailyChallengeEntry> dailyTW;
+
+    @FXML
+    private Label easyTimeLbl;
+
+    @FXML
+    private Label mediumTimeLbl;
+
+    @FXML
+    private Label hardTimeLbl;
+
     /**
      * Servizio di classifica utilizzato per ottenere i dati delle classifiche.
      */
     private final LeaderboardService leaderboardService;
 
     /**
-     * Costruttore del controller utilizzando il {@link AppContext} per recuperare il {@link LeaderboardService}.
+     * Servizio della sfida del giorno, utilizzato per ottenerne la classifica.
+     */
+    private final DailyChallengeService dailyChallengeService;
+
+    /**
+     * Tempo dopo il quale un thread di caricamento inattivo termina.
+     */
+    private static final Duration LOADER_KEEP_ALIVE = Duration.ofSeconds(30);
+
+    /**
+     * Esecutore dei caricamenti delle classifiche, con un thread per scheda, condiviso da tutte le istanze del
+     * controller. I thread inattivi terminano dopo {@link #LOADER_KEEP_ALIVE}, così che il pool non occupi risorse
+     * mentre la vista non è visualizzata.
+     */
+    private static final ExecutorService LOADER = newLoader();
+
+    /**
+     * Caricamenti avviati e non ancora conclusi, da annullare se la vista viene lasciata.
+     */
+    private final List<Task<?>> pending = new ArrayList<>();
+
+    /**
+     * Costruttore del controller utilizzando il {@link AppContext} per recuperare il {@link LeaderboardService}
+     * e il {@link DailyChallengeService}.
      *
-     * @param context contesto applicativo condiviso con il servizio di classifica
+     * @param context contesto applicativo condiviso con i servizi di classifica
      */
     public LeaderboardController(AppContext context) {
         this.leaderboardService = context.getLeaderboardService();
+        this.dailyChallengeService = context.getDailyChallengeService();
     }
+
     /**
-     * Inizializza la schermata di classifica e popola le tabelle con i dati ottenuti da {@link LeaderboardService}.
+     * Crea l'esecutore condiviso dei caricamenti, con thread daemon che terminano quando restano inattivi.
+     *
+     * @return l'esecutore dei caricamenti
+     */
+    private static ExecutorService newLoader() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(5, 5, LOADER_KEEP_ALIVE.toMillis(), TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "leaderboard-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+    /**
+     * Inizializza la schermata di classifica.
      *
      * Per ogni {@link TableView} (globale e per difficoltà):
      * <ul>
      *   <li>Configura la colonna dell'indice con un {@link TableCell} personalizzato</li>
      *   <li>Collega le colonne ai campi di {@link LeaderboardService.LeaderboardEntry}</li>
-     *   <li>Popola i dati con {@code FXCollections.observableList(...)} per la difficoltà corrispondente</li>
      * </ul>
+     * I dati vengono caricati in {@link #onShow()}, a ogni visualizzazione.
      *
      *
      * @param url non utilizzato
@@ -64,7 +141,7 @@ public class LeaderboardController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         for (TableView<LeaderboardService.LeaderboardEntry> tableView : new TableView[]{globalTW, easyTW, mediumTW, hardTW}) {
-            tableView.setPlaceholder(new javafx.scene.control.Label("Nessun dato disponibile"));
+            tableView.setPlaceholder(new Label("Nessun dato disponibile"));
 
             var indexCol = (TableColumn<LeaderboardService.LeaderboardEntry, Integer>) tableView.getColumns().getFirst();
             indexCol.setCellFactory(_ -> new TableCell<>() {
@@ -95,11 +172,155 @@ public class LeaderboardController implements Initializable {
             ((TableColumn<LeaderboardService.LeaderboardEntry, Integer>) tableView.getColumns().get(i)).setCellValueFactory(data -> new javafx.beans.property.SimpleIntegerProperty(data.getValue().gamesPlayed()).asObject());
 
         }
-        globalTW.setItems(FXCollections.observableList(leaderboardService.getGloablLeaderboard()));
-        easyTW.setItems(FXCollections.observableList(leaderboardService.getLeaderboardByDifficulty(Difficulty.EASY)));
-        mediumTW.setItems(FXCollections.observableList(leaderboardService.getLeaderboardByDifficulty(Difficulty.MEDIUM)));
-        hardTW.setItems(FXCollections.observableList(leaderboardService.getLeaderboardByDifficulty(Difficulty.HARD)));
+
+        dailyTW.setPlaceholder(new Label("Nessuna sfida giocata oggi"));
+        var dailyColumns = dailyTW.getColumns();
+        ((TableColumn<DailyChallengeEntry, String>) dailyColumns.get(0)).setCellValueFactory(data -> new SimpleStringProperty(data.getValue().difficulty().name()));
+        ((TableColumn<DailyChallengeEntry, String>) dailyColumns.get(1)).setCellValueFactory(data -> new SimpleStringProperty(data.getValue().username()));
+        ((TableColumn<DailyChallengeEntry, Integer>) dailyColumns.get(2)).setCellValueFactory(data -> new javafx.beans.property.SimpleIntegerProperty(data.getValue().score()).asObject());
+        ((TableColumn<DailyChallengeEntry, String>) dailyColumns.get(3)).setCellValueFactory(data -> new SimpleStringProperty(formatDuration(data.getValue().usedTime())));
+        ((TableColumn<DailyChallengeEntry, Integer>) dailyColumns.get(4)).setCellValueFactory(data -> new javafx.beans.property.SimpleIntegerProperty(data.getValue().attempts()).asObject());
     }
+
+    /**
+     * Avvia in background il caricamento delle quattro classifiche, a partire da quella della scheda selezionata,
+     * e della classifica delle sfide del giorno.
+     * <p>
+     * Eventuali caricamenti precedenti ancora in corso vengono annullati. Fino al termine del caricamento
+     * ogni tabella mostra i dati della visita precedente oppure, se vuota, un messaggio di attesa.
+     */
+    @Override
+    public void onShow() {
+        cancelPending();
+        List<TableView<LeaderboardService.LeaderboardEntry>> tables = List.of(globalTW, easyTW, mediumTW, hardTW);
+        Difficulty[] difficulties = {null, Difficulty.EASY, Difficulty.MEDIUM, Difficulty.HARD};
+        int selected = Math.max(tabPane.getSelectionModel().getSelectedIndex(), 0);
+
+        boolean dailySelected = selected >= tables.size();
+        if (dailySelected) {
+            loadDaily();
+        } else {
+            load(tables.get(selected), difficulties[selected]);
+        }
+        for (int i = 0; i < tables.size(); i++) {
+            if (i != selected) {
+                load(tables.get(i), difficulties[i]);
+            }
+        }
+        if (!dailySelected) {
+            loadDaily();
+        }
+        loadTimeStats();
+    }
+
+    /**
+     * Annulla i caricamenti ancora in corso: i loro risultati non verranno mostrati.
+     */
+    @Override
+    public void onHide() {
+        cancelPending();
+    }
+
+    /**
+     * Calcola in background una classifica e, al termine, la mostra nella tabella indicata.
+     *
+     * @param table      tabella da popolare
+     * @param difficulty difficoltà della classifica, {@code null} per la classifica globale
+     */
+    private void load(TableView<LeaderboardService.LeaderboardEntry> table, Difficulty difficulty) {
+        table.setPlaceholder(new Label("Caricamento..."));
+        Task<List<LeaderboardService.LeaderboardEntry>> task = new Task<>() {
+            @Override
+            protected List<LeaderboardService.LeaderboardEntry> call() {
+                return difficulty == null
+                        ? leaderboardService.getGloablLeaderboard()
+                        : leaderboardService.getLeaderboardByDifficulty(difficulty);
+            }
+        };
+        task.setOnSucceeded(_ -> {
+            pending.remove(task);
+            table.setItems(FXCollections.observableList(task.getValue()));
+            table.setPlaceholder(new Label("Nessun dato disponibile"));
+        });
+        task.setOnFailed(_ -> {
+            pending.remove(task);
+            SystemLogger.log("Could not load leaderboard " + (difficulty == null ? "GLOBAL" : difficulty), task.getException());
+            table.setPlaceholder(new Label("Impossibile caricare la classifica"));
+        });
+        pending.add(task);
+        LOADER.execute(task);
+    }
+
+    /**
+     * Calcola in background la classifica delle sfide di oggi e, al termine, la mostra nella relativa tabella.
+     */
+    private void loadDaily() {
+        dailyTW.setPlaceholder(new Label("Caricamento..."));
+        Task<List<DailyChallengeEntry>> task = new Task<>() {
+            @Override
+            protected List<DailyChallengeEntry> call() {
+                return dailyChallengeService.getLeaderboard();
+            }
+        };
+        task.setOnSucceeded(_ -> {
+            pending.remove(task);
+            dailyTW.setItems(FXCollections.observableList(task.getValue()));
+            dailyTW.setPlaceholder(new Label("Nessuna sfida giocata oggi"));
+        });
+        task.setOnFailed(_ -> {
+            pending.remove(task);
+            SystemLogger.log("Could not load daily challenge leaderboard", task.getException());
+            dailyTW.setPlaceholder(new Label("Impossibile caricare la classifica"));
+        });
+        pending.add(task);
+        LOADER.execute(task);
+    }
+
+    /**
+     * Calcola in background le statistiche sui tempi di risposta e le mostra sopra le classifiche per difficoltà.
+     */
+    private void loadTimeStats() {
+        Task<Map<Difficulty, DifficultyTimeStats>> task = new Task<>() {
+            @Override
+            protected Map<Difficulty, DifficultyTimeStats> call() {
+                return leaderboardService.getTimeStatsByDifficulty();
+            }
+        };
+        task.setOnSucceeded(_ -> {
+            pending.remove(task);
+            Map<Difficulty, DifficultyTimeStats> stats = task.getValue();
+            easyTimeLbl.setText(formatTimeStats(stats.get(Difficulty.EASY)));
+            mediumTimeLbl.setText(formatTimeStats(stats.get(Difficulty.MEDIUM)));
+            hardTimeLbl.setText(formatTimeStats(stats.get(Difficulty.HARD)));
+        });
+        task.setOnFailed(_ -> {
+            pending.remove(task);
+            SystemLogger.log("Could not load time statistics", task.getException());
+        });
+        pending.add(task);
+        LOADER.execute(task);
+    }
+
+    private static String formatTimeStats(DifficultyTimeStats stats) {
+        if (stats == null) {
+            return "";
+        }
+        return "Tempo medio: " + formatDuration(stats.averageUsedTime())
+                + "   Tempo migliore: " + formatDuration(stats.bestUsedTime())
+                + "   Partite: " + stats.games();
+    }
+
+    private static String formatDuration(Duration duration) {
+        return String.format("%02d:%02d", duration.toMinutes(), duration.toSecondsPart());
+    }
+
+    private void cancelPending() {
+        for (Task<?> task : pending) {
+            task.cancel(true);
+        }
+        pending.clear();
+    }
+
     /**
      * Gestisce il click sul pulsante "Indietro" e ritorna al menu principale.
      *
@@ -3,30 +3,27 @@ package it.unisa.diem.wordageddon_g16.controllers;
 import it.unisa.diem.wordageddon_g16.db.contracts.DocumentDAO;
 import it.unisa.diem.wordageddon_g16.models.AppContext;
 import it.unisa.diem.wordageddon_g16.models.Document;
-import it.unisa.diem.wordageddon_g16.models.GameSessionState;
 import it.unisa.diem.wordageddon_g16.models.User;
 import it.unisa.diem.wordageddon_g16.utility.Config;
+import it.unisa.diem.wordageddon_g16.utility.SessionJournal;
 import it.unisa.diem.wordageddon_g16.utility.Resources;
 import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
+import it.unisa.diem.wordageddon_g16.utility.ViewLifecycle;
 import it.unisa.diem.wordageddon_g16.utility.ViewLoader;
+import it.unisa.diem.wordageddon_g16.utility.jfr.SessionRestoreEvent;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.net.URL;
-import java.util.ResourceBundle;
 
 /**
  * Controller della schermata principale del menu dell'applicazione Wordageddon.
  * Gestisce l'inizializzazione della vista, il caricamento dell'utente corrente,
  * il recupero di sessioni di gioco precedenti e la navigazione verso altre viste.
  */
-public class MainMenuController implements Initializable {
+public class MainMenuController implements ViewLifecycle {
 
     @FXML
     private Label usernameLabel;
@@ -46,25 +43,32 @@ public class MainMenuController implements Initializable {
     }
 
     /**
-     * Metodo di inizializzazione chiamato automaticamente da JavaFX.
+     * Invocato ogni volta che il menu viene mostrato.
      * Imposta il nome dell'utente loggato nella label e verifica la presenza
      * di una sessione di gioco salvata.
-     *
-     * @param url URL di inizializzazione (non utilizzato).
-     * @param resourceBundle Risorse internazionalizzate (non utilizzato).
      */
     @Override
-    public void initialize(URL url, ResourceBundle resourceBundle) {
+    public void onShow() {
         User user = context.getCurrentUser();
         usernameLabel.setText(user.getName());
 
         File interruptedSessionFile = new File(Config.get(Config.Props.INTERRUPTED_SESSION_FILE));
         if (interruptedSessionFile.exists()) {
-            try (var in = new ObjectInputStream(new FileInputStream(Config.get(Config.Props.INTERRUPTED_SESSION_FILE)))) {
+            SessionRestoreEvent event = new SessionRestoreEvent();
+            event.begin();
+            try {
                 System.out.println("File di sessione interrotta trovato: " + interruptedSessionFile.getName());
-                var gameSessionState = (GameSessionState) in.readObject();
+                var gameSessionState = SessionJournal.recover(interruptedSessionFile.toPath());
+                event.success = true;
+                if (event.shouldCommit()) {
+                    event.user = gameSessionState.user().getName();
+                    event.difficulty = gameSessionState.gameParams().getDifficulty().name();
+                    event.questionCount = gameSessionState.questions().size();
+                    event.answered = gameSessionState.currentQuestionIndex();
+                }
                 User foundUser = gameSessionState.user();
                 if (foundUser.equals(user)) {
+                    event.outcome = SessionRestoreEvent.OFFERED;
                     System.out.println("Rilevata sessione interrotta per l'utente: " + foundUser.getName());
 
                     // Mostra Alert di conferma nella JavaFX Application Thread
@@ -84,16 +88,22 @@ public class MainMenuController implements Initializable {
                                 ViewLoader.load(ViewLoader.View.GAME);
                             } else {
                                 // Se l’utente rifiuta, elimina il file di sessione interrotta
-                                interruptedSessionFile.delete();
+                                SessionJournal.delete(interruptedSessionFile.toPath());
                             }
                         });
                     });
                 } else {
                     // Sessione di un altro utente: elimina il file
-                    interruptedSessionFile.delete();
+                    event.outcome = SessionRestoreEvent.OTHER_USER;
+                    SessionJournal.delete(interruptedSessionFile.toPath());
                 }
-            } catch (IOException | ClassNotFoundException e) {
-                SystemLogger.log("Errore durante la deserializzazione del file " + interruptedSessionFile.getName(), e);
+            } catch (IOException e) {
+                // File illeggibile, corrotto o in un formato non supportato: la partita non è recuperabile
+                event.outcome = SessionRestoreEvent.UNREADABLE;
+                SystemLogger.log("Errore durante la lettura del file " + interruptedSessionFile.getName(), e);
+                SessionJournal.delete(interruptedSessionFile.toPath());
+            } finally {
+                event.commit();
             }
         }
     }
@@ -5,7 +5,9 @@ import it.unisa.diem.wordageddon_g16.models.*;
 import it.unisa.diem.wordageddon_g16.utility.Popup;
 import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
 import it.unisa.diem.wordageddon_g16.services.UserPanelService;
+import it.unisa.diem.wordageddon_g16.utility.ViewLifecycle;
 import it.unisa.diem.wordageddon_g16.utility.ViewLoader;
+import it.unisa.diem.wordageddon_g16.utility.jfr.StopWordRecalculationEvent;
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyObjectWrapper;
@@ -16,7 +18,9 @@ import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -30,9 +34,9 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.file.FileAlreadyExistsException;
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -46,7 +50,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * fornisce gli strumenti per la gestione degli utenti.
  * </p>
  */
-public class UserPanelController implements Initializable {
+public class UserPanelController implements Initializable, ViewLifecycle {
     private final UserPanelService service;
 
     @FXML
@@ -84,7 +88,7 @@ public class UserPanelController implements Initializable {
     /**
      * Riferimento all’utente attualmente autenticato nell'applicazione.
      */
-    private final User currentUser;
+    private User currentUser;
     /**
      * Riferimento al contesto applicativo che fornisce accesso ai servizi e alle risorse condivise.
      */
@@ -107,6 +111,35 @@ public class UserPanelController implements Initializable {
      */
     ExecutorService threadPool;
 
+    /**
+     * Numero di partite lette per ogni pagina dello storico.
+     */
+    private static final int HISTORY_PAGE_SIZE = 50;
+
+    /**
+     * Esecutore in background del caricamento delle pagine dello storico delle partite.
+     */
+    private final ExecutorService historyLoader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "history-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Caricamento in corso di una pagina dello storico, {@code null} se nessuno.
+     */
+    private Task<GameReportPage> historyTask;
+
+    /**
+     * Timestamp dell'ultima partita caricata nello storico, da cui riprendere con la pagina successiva.
+     */
+    private LocalDateTime historyCursor;
+
+    /**
+     * Indica se tutte le partite dell'utente sono già state caricate nello storico.
+     */
+    private boolean historyComplete;
+
     /**
      * Costruttore del controller.
      *
@@ -322,6 +355,8 @@ public class UserPanelController implements Initializable {
     @FXML
     private void handleLogOut() {
         appContext.getAuthService().logout();
+        // Le viste in cache si riferiscono all'utente appena uscito
+        ViewLoader.invalidateCache();
         ViewLoader.load(ViewLoader.View.AUTH);
     }
 
@@ -471,6 +506,8 @@ public class UserPanelController implements Initializable {
      * Il metodo assicura che il ricalcolo non avvenga in parallelo ad altri ricalcoli
      * tramite il flag {@code isRecalculatingWDMs}, mentre eventuali richieste successive
      * vengono accodate tramite {@code needsRecalculation}.
+     * <p>
+     * Se abilitato, l'intero ricalcolo viene registrato tramite l'evento JFR {@link StopWordRecalculationEvent}.
      */
     private void reCalculateWDMs() {
         System.out.println("Rilevata cancellazione di una stopword, ricalcolo la WDM per tutti i documenti...");
@@ -481,6 +518,9 @@ public class UserPanelController implements Initializable {
             return;
         }
 
+        StopWordRecalculationEvent event = new StopWordRecalculationEvent();
+        event.begin();
+
         // Lista dei task
         List<Callable<Void>> taskList = new ArrayList<>();
         for (Document doc : allDocs) {
@@ -489,11 +529,24 @@ public class UserPanelController implements Initializable {
                 return null;
             });
         }
+        int failed = 0;
         try {
-            threadPool.invokeAll(taskList);
+            for (Future<Void> future : threadPool.invokeAll(taskList)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failed++;
+                }
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
+        if (event.shouldCommit()) {
+            event.documentCount = allDocs.size();
+            event.stopWordCount = service.getStopwords().size();
+            event.failedDocuments = failed;
+            event.commit();
+        }
     }
 
     /**
@@ -517,14 +570,8 @@ public class UserPanelController implements Initializable {
     /**
      * Metodo di inizializzazione del controller, invocato automaticamente da JavaFX.
      * <p>
-     * Imposta i contenuti iniziali dell’interfaccia utente, tra cui:
-     * <ul>
-     *  <li>Nome utente</li>
-     *  <li>Visualizzazione dell' adminPanel solo se l’utente è un amministratore </li>
-     *  <li> Popolamento della tabella {@code userTableView} con i {@link GameReport} tramite la chiamata al metodo {@link UserPanelService#getCurrentUserReports()}</li>
-     *  <li>Calcolo attraverso il metodo {@link UserPanelService#getCurrentUserReports()} e visualizzazione delle statistiche dell’utente corrente come punteggio massimo, media, numero di partite giocate
-     * </ul>
-     * <p>
+     * Configura il layout e le colonne della tabella dei report. I dati dell'utente vengono caricati
+     * in {@link #onShow()}, a ogni visualizzazione del pannello.
      */
     @FXML
     @Override
@@ -539,29 +586,101 @@ public class UserPanelController implements Initializable {
             stackMedio.setLayoutY(centerY);
         });
 
-
-        var isAdmin = currentUser.isAdmin();
-        if (!isAdmin) {
-            adminPanel.setVisible(false);
-        }
-
-        usernameLabel.setText(currentUser.getName());
-
         livelloClm.setCellValueFactory(report -> new SimpleStringProperty(report.getValue().difficulty().toString()));
         punteggioClm.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().score()));
         tempoClm.setCellValueFactory(report -> {
             Duration dur = report.getValue().usedTime();
-            String formatted = String.format("%02d:%02d", dur.toMinutesPart(), dur.toSecondsPart());
+            String formatted = String.format("%02d:%02d", dur.toMinutes(), dur.toSecondsPart());
             return new SimpleStringProperty(formatted);
         });
 
-        List<GameReport> reports = service.getCurrentUserReports();
-        userTableView.getItems().setAll(reports);
+        // Carica la pagina successiva dello storico quando la tabella viene scorsa vicino al fondo.
+        // La barra di scorrimento esiste solo dopo la creazione della skin della tabella.
+        userTableView.skinProperty().addListener((_, _, skin) -> {
+            if (skin != null) {
+                Platform.runLater(this::watchHistoryScroll);
+            }
+        });
+    }
+
+    private void watchHistoryScroll() {
+        for (Node node : userTableView.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((_, _, value) -> {
+                    if (value.doubleValue() >= bar.getMax() * 0.9) {
+                        loadHistoryPage();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Carica in background la pagina successiva dello storico delle partite e la aggiunge alla tabella.
+     * <p>
+     * Non ha effetto se un caricamento è già in corso o se lo storico è completo. La prima pagina aggiorna anche
+     * le statistiche dell'utente. La dimensione della pagina supera le righe visibili nella tabella, così che
+     * la prima pagina la renda sempre scorrevole.
+     */
+    private void loadHistoryPage() {
+        if (historyTask != null || historyComplete) {
+            return;
+        }
+        LocalDateTime cursor = historyCursor;
+        Task<GameReportPage> task = new Task<>() {
+            @Override
+            protected GameReportPage call() {
+                return service.getCurrentUserReportPage(cursor, HISTORY_PAGE_SIZE);
+            }
+        };
+        task.setOnSucceeded(_ -> {
+            historyTask = null;
+            GameReportPage page = task.getValue();
+            userTableView.getItems().addAll(page.reports());
+            if (page.stats() != null) {
+                UserStats stats = page.stats();
+                totalGameLabel.setText(String.valueOf(stats.totalGames()));
+                avgScoreLabel.setText(String.format("%.1f", stats.averageScore()));
+                maxScoreLabel.setText(String.valueOf(stats.maxScore()));
+            }
+            historyComplete = !page.hasMore();
+            historyCursor = page.nextCursor();
+        });
+        task.setOnFailed(_ -> {
+            historyTask = null;
+            SystemLogger.log("Could not load game history", task.getException());
+        });
+        historyTask = task;
+        historyLoader.execute(task);
+    }
 
+    /**
+     * Invocato ogni volta che il pannello utente viene mostrato.
+     * <p>
+     * Aggiorna i contenuti dell’interfaccia utente, tra cui:
+     * <ul>
+     *  <li>Nome utente</li>
+     *  <li>Visualizzazione dell' adminPanel solo se l’utente è un amministratore </li>
+     *  <li>Caricamento in background della prima pagina dello storico delle partite nella tabella {@code userTableView},
+     *  insieme alle statistiche dell’utente corrente (punteggio massimo, media, numero di partite giocate),
+     *  tramite {@link UserPanelService#getCurrentUserReportPage(LocalDateTime, int)}. Le pagine successive vengono
+     *  caricate scorrendo la tabella.</li>
+     * </ul>
+     */
+    @Override
+    public void onShow() {
+        currentUser = appContext.getCurrentUser();
+        adminPanel.setVisible(currentUser.isAdmin());
 
-        Map<String, Object> stats = service.getUserStatsForCurrentUser();
-        totalGameLabel.setText(String.valueOf(stats.get("totalGames")));
-        avgScoreLabel.setText(String.format("%.1f", stats.get("averageScore")));
-        maxScoreLabel.setText(String.valueOf(stats.get("maxScore")));
+        usernameLabel.setText(currentUser.getName());
+
+        if (historyTask != null) {
+            historyTask.cancel(true);
+            historyTask = null;
+        }
+        userTableView.getItems().clear();
+        historyCursor = null;
+        historyComplete = false;
+        loadHistoryPage();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+package it.unisa.diem.wordageddon_g16.db;
+
+import it.unisa.diem.wordageddon_g16.utility.Config;
+import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
+import it.unisa.diem.wordageddon_g16.utility.metrics.Metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Backup periodico del database durante l'esecuzione dell'applicazione.
+ * <p>
+ * Se abilitato tramite {@link Config.Props#BACKUP_ENABLED}, un thread in background copia il database ogni
+ * {@link Config.Props#BACKUP_INTERVAL} minuti nella directory {@link Config.Props#BACKUP_DIR}, conservando
+ * soltanto gli ultimi {@link Config.Props#BACKUP_RETENTION} backup.
+ * </p>
+ * <p>
+ * La copia usa l'API di backup online di SQLite tramite il comando {@code backup to} del driver, su una connessione
+ * dedicata: le pagine vengono copiate a piccoli gruppi e il lock in lettura sul database viene rilasciato tra un
+ * gruppo e l'altro, così le scritture della partita in corso non restano bloccate. Se il database viene modificato
+ * durante la copia, SQLite la riprende dall'inizio: il backup ottenuto è sempre un'istantanea coerente.
+ * Il file viene scritto con estensione {@code .tmp} e rinominato solo a copia completata.
+ * </p>
+ * Metriche registrate in {@link Metrics}: il timer {@code backup.duration}, i contatori {@code backup.bytes}
+ * (byte copiati), {@code backup.completed} e {@code backup.failed}.
+ */
+public final class BackupService {
+    private static final String PREFIX = "db-";
+    private static final String SUFFIX = ".sqlite";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static ScheduledExecutorService scheduler;
+
+    /**
+     * Costruttore privato per impedire l'istanziazione della classe di utilità.
+     */
+    private BackupService() {}
+
+    /**
+     * Avvia i backup periodici, se abilitati in configurazione. Il primo backup viene eseguito dopo un intervallo,
+     * per non sovrapporsi all'avvio dell'applicazione.
+     * <p>
+     * Chiamate successive alla prima non hanno effetto.
+     */
+    public static synchronized void start() {
+        if (scheduler != null || !Boolean.parseBoolean(Config.get(Config.Props.BACKUP_ENABLED))) {
+            return;
+        }
+        long interval = Long.parseLong(Config.get(Config.Props.BACKUP_INTERVAL));
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-backup");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(BackupService::backupQuietly, interval, interval, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Arresta i backup periodici. Un backup in corso viene completato dal thread in background.
+     */
+    public static synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        scheduler = null;
+    }
+
+    /**
+     * Esegue subito un backup del database e rimuove i backup in eccesso.
+     *
+     * @return percorso del backup creato
+     * @throws SQLException se la copia fallisce
+     * @throws IOException  se la gestione dei file di backup fallisce
+     */
+    public static Path backup() throws SQLException, IOException {
+        Path dir = Path.of(Config.get(Config.Props.BACKUP_DIR));
+        Files.createDirectories(dir);
+        Path target = dir.resolve(PREFIX + LocalDateTime.now().format(NAME_FORMAT) + SUFFIX).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        long start = Metrics.timer("backup.duration").start();
+        try (Connection conn = DriverManager.getConnection(Config.get(Config.Props.DB_URL));
+             var stmt = conn.createStatement()) {
+            // Comando del driver sqlite-jdbc: il percorso tra virgolette può contenere spazi
+            stmt.executeUpdate("backup to \"" + temp + "\"");
+        } catch (SQLException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Metrics.timer("backup.duration").stop(start);
+        Metrics.counter("backup.bytes").add(Files.size(target));
+        Metrics.counter("backup.completed").increment();
+
+        prune(dir, Integer.parseInt(Config.get(Config.Props.BACKUP_RETENTION)));
+        return target;
+    }
+
+    /**
+     * Esegue un backup dal thread in background, registrando gli errori senza interrompere la pianificazione.
+     */
+    private static void backupQuietly() {
+        try {
+            Path target = backup();
+            System.out.println("Backup del database completato: " + target);
+        } catch (SQLException | IOException | RuntimeException e) {
+            Metrics.counter("backup.failed").increment();
+            SystemLogger.log("Database backup failed: ", e);
+        }
+    }
+
+    /**
+     * Elimina i backup più vecchi oltre il numero da conservare. Il nome contiene data e ora, quindi l'ordine
+     * alfabetico coincide con quello cronologico.
+     */
+    private static void prune(Path dir, int retention) throws IOException {
+        List<Path> backups;
+        try (Stream<Path> files = Files.list(dir)) {
+            backups = files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        }
+        for (Path old : backups.subList(Math.min(Math.max(retention, 1), backups.size()), backups.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+}
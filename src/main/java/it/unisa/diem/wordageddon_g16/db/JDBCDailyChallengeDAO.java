@@ -0,0 +1,200 @@
+package it.unisa.diem.wordageddon_g16.db;
+
+import it.unisa.diem.wordageddon_g16.db.contracts.DailyChallengeDAO;
+import it.unisa.diem.wordageddon_g16.db.exceptions.QueryFailedException;
+import it.unisa.diem.wordageddon_g16.models.DailyChallenge;
+import it.unisa.diem.wordageddon_g16.models.DailyChallengeEntry;
+import it.unisa.diem.wordageddon_g16.models.Difficulty;
+import it.unisa.diem.wordageddon_g16.utility.GameSessionCodec;
+import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Implementazione JDBC del {@link DailyChallengeDAO}, che gestisce le partite della sfida del giorno.
+ * <p>
+ * Le sfide sono salvate nella tabella {@code DailyChallenge}: il giorno in formato ISO, la difficoltà, il seme
+ * e parametri e domande codificati da {@link GameSessionCodec#encodeChallenge(DailyChallenge)} nella colonna
+ * {@code bundle}. Le partite giocate non hanno una tabella propria: sono i {@code GameReport} con il giorno e la
+ * difficoltà della sfida nelle colonne {@code challenge_day} e {@code difficulty}, registrati al salvataggio.
+ * Tutte le interazioni con il database sono gestite tramite {@link JdbcDAO}, con logging automatico via {@link SystemLogger}.
+ */
+public class JDBCDailyChallengeDAO extends JdbcDAO<DailyChallenge> implements DailyChallengeDAO {
+
+    /**
+     * Costruisce un nuovo {@code JDBCDailyChallengeDAO} utilizzando la connessione specificata.
+     *
+     * @param conn la connessione al database da utilizzare per le operazioni
+     */
+    public JDBCDailyChallengeDAO(Connection conn) {
+        super(conn);
+    }
+
+    /**
+     * Recupera la sfida di un giorno con la difficoltà indicata.
+     *
+     * @param day        giorno della sfida
+     * @param difficulty difficoltà della sfida
+     * @return un {@code Optional} contenente la sfida, vuoto se non è ancora stata generata
+     * @throws QueryFailedException se la query fallisce o la sfida salvata non è leggibile
+     */
+    @Override
+    public Optional<DailyChallenge> selectBy(LocalDate day, Difficulty difficulty) {
+        String query = "SELECT bundle FROM DailyChallenge WHERE day = ? AND difficulty = ?";
+        return executeQuery("selectBy", query, res -> {
+            try {
+                return res.next() ? Optional.of(decode(res)) : Optional.<DailyChallenge>empty();
+            } catch (SQLException e) {
+                SystemLogger.log("Error trying to get daily challenge " + day + " " + difficulty, e);
+                throw new QueryFailedException(e.getMessage());
+            }
+        }, day.toString(), difficulty.name());
+    }
+
+    /**
+     * Recupera tutte le sfide salvate, in ordine di giorno.
+     *
+     * @return lista delle sfide
+     * @throws QueryFailedException se la query fallisce o una sfida salvata non è leggibile
+     */
+    @Override
+    public List<DailyChallenge> selectAll() {
+        String query = "SELECT bundle FROM DailyChallenge ORDER BY day, difficulty";
+        return executeQuery("selectAll", query, res -> {
+            List<DailyChallenge> challenges = new ArrayList<>();
+            try {
+                while (res.next()) {
+                    challenges.add(decode(res));
+                }
+            } catch (SQLException e) {
+                SystemLogger.log("Error trying to get all daily challenges", e);
+                throw new QueryFailedException(e.getMessage());
+            }
+            return challenges;
+        });
+    }
+
+    /**
+     * Scorre tutte le sfide tramite cursore, in ordine di giorno.
+     *
+     * @param fetchSize numero di righe lette a ogni accesso al database, 0 per il valore predefinito
+     * @param action    azione invocata per ogni sfida
+     * @throws QueryFailedException se la query fallisce o una sfida salvata non è leggibile
+     */
+    @Override
+    public void scan(int fetchSize, Consumer<? super DailyChallenge> action) {
+        scanRows("scan", "SELECT bundle FROM DailyChallenge ORDER BY day, difficulty", fetchSize, JDBCDailyChallengeDAO::decode, action);
+    }
+
+    /**
+     * Salva una nuova sfida.
+     * <p>
+     * Se esiste già una sfida per lo stesso giorno e la stessa difficoltà, ad esempio generata nel frattempo da
+     * un'altra istanza dell'applicazione, non viene eseguita alcuna operazione grazie all'uso di {@code INSERT OR IGNORE}:
+     * la sfida già salvata resta quella valida per tutti.
+     *
+     * @param challenge la sfida da salvare
+     * @throws QueryFailedException se si verifica un errore durante l'inserimento
+     */
+    @Override
+    public void insert(DailyChallenge challenge) {
+        String query = "INSERT OR IGNORE INTO DailyChallenge (day, difficulty, seed, bundle) VALUES (?, ?, ?, ?)";
+        try {
+            executeUpdate("insert", query, challenge.day().toString(), challenge.difficulty().name(), challenge.seed(),
+                    GameSessionCodec.encodeChallenge(challenge));
+        } catch (SQLException e) {
+            SystemLogger.log("Error trying to insert daily challenge " + challenge.day() + " " + challenge.difficulty(), e);
+            throw new QueryFailedException(e.getMessage());
+        }
+    }
+
+    /**
+     * Operazione non supportata: una sfida già proposta ai giocatori non può cambiare.
+     *
+     * @param challenge la sfida da aggiornare (non utilizzata)
+     * @throws UnsupportedOperationException sempre sollevata, perché l'operazione è disabilitata
+     */
+    @Override
+    public void update(DailyChallenge challenge) {
+        throw new UnsupportedOperationException("This operation is not implemented as it cannot be used in this context.");
+    }
+
+    /**
+     * Elimina una sfida. Le partite giocate restano nello storico, ma non compaiono più in una classifica della sfida.
+     *
+     * @param challenge la sfida da eliminare
+     * @throws QueryFailedException se si verifica un errore durante la cancellazione
+     */
+    @Override
+    public void delete(DailyChallenge challenge) {
+        String query = "DELETE FROM DailyChallenge WHERE day = ? AND difficulty = ?";
+        try {
+            executeUpdate("delete", query, challenge.day().toString(), challenge.difficulty().name());
+        } catch (SQLException e) {
+            SystemLogger.log("Error trying to delete daily challenge " + challenge.day() + " " + challenge.difficulty(), e);
+            throw new QueryFailedException(e.getMessage());
+        }
+    }
+
+    /**
+     * Calcola la classifica delle sfide di un giorno.
+     * <p>
+     * Le partite di ogni giocatore vengono raggruppate per sfida: con l'aggregato {@code MIN(timestamp)} SQLite
+     * restituisce le altre colonne dalla riga del primo tentativo, di cui vengono riportati punteggio e tempo.
+     *
+     * @param day giorno delle sfide
+     * @return le voci della classifica, per difficoltà e poi per punteggio decrescente e tempo crescente
+     * @throws QueryFailedException se la query fallisce
+     */
+    @Override
+    public List<DailyChallengeEntry> selectLeaderboard(LocalDate day) {
+        String query = "SELECT g.user, g.difficulty, g.score, g.used_time, MIN(g.timestamp) AS first_played, COUNT(*) AS attempts"
+                + " FROM DailyChallenge c JOIN GameReport g ON g.challenge_day = c.day AND g.difficulty = c.difficulty"
+                + " WHERE c.day = ?"
+                + " GROUP BY g.difficulty, g.user"
+                + " ORDER BY g.score DESC, g.used_time, first_played";
+        return executeQuery("selectLeaderboard", query, res -> {
+            List<DailyChallengeEntry> entries = new ArrayList<>();
+            try {
+                while (res.next()) {
+                    entries.add(new DailyChallengeEntry(
+                            res.getString("user"),
+                            Difficulty.valueOf(res.getString("difficulty")),
+                            res.getInt("score"),
+                            Duration.ofSeconds(res.getLong("used_time")),
+                            res.getInt("attempts")
+                    ));
+                }
+            } catch (SQLException e) {
+                SystemLogger.log("Error trying to get daily challenge leaderboard " + day, e);
+                throw new QueryFailedException(e.getMessage());
+            }
+            // Ordinamento stabile: all'interno di ogni difficoltà resta quello della query
+            entries.sort(Comparator.comparing(DailyChallengeEntry::difficulty));
+            return entries;
+        }, day.toString());
+    }
+
+    /**
+     * Decodifica la sfida della riga corrente.
+     *
+     * @throws SQLException se la lettura fallisce o il contenuto non è una sfida valida
+     */
+    private static DailyChallenge decode(ResultSet res) throws SQLException {
+        try {
+            return GameSessionCodec.decodeChallenge(res.getBytes("bundle"));
+        } catch (IOException e) {
+            throw new SQLException("Unreadable daily challenge bundle", e);
+        }
+    }
+}
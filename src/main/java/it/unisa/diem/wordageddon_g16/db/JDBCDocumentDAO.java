@@ -12,6 +12,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Implementazione JDBC del {@link DocumentDAO}, che gestisce le operazioni sui documenti.
@@ -58,19 +59,19 @@ public class JDBCDocumentDAO extends JdbcDAO<Document> implements DocumentDAO {
             }
             return Optional.empty();
         };
-        return executeQuery(query, callback, filename);
+        return executeQuery("selectBy", query, callback, filename);
     }
 
 
     /**
-     * Recupera tutti i documenti presenti nella tabella {@code Document}.
+     * Recupera tutti i documenti presenti nella tabella {@code Document}, in ordine di identificativo.
      *
      * @return lista di {@link Document} recuperati dal database
      * @throws QueryFailedException se l'esecuzione della query fallisce
      */
     @Override
     public List<Document> selectAll() {
-        String query = "SELECT * FROM Document";
+        String query = "SELECT * FROM Document ORDER BY id";
         Callback<ResultSet,List<Document>> callback = res -> {
             try {
                 if (res == null) {
@@ -90,7 +91,21 @@ public class JDBCDocumentDAO extends JdbcDAO<Document> implements DocumentDAO {
                 throw new QueryFailedException(e.getMessage());
             }
         };
-        return executeQuery(query, callback);
+        return executeQuery("selectAll", query, callback);
+    }
+
+    /**
+     * Scorre tutti i documenti della tabella {@code Document} tramite cursore.
+     *
+     * @param fetchSize numero di righe lette a ogni accesso al database, 0 per il valore predefinito
+     * @param action    azione invocata per ogni documento
+     * @throws QueryFailedException se si verifica un errore durante la query
+     */
+    @Override
+    public void scan(int fetchSize, Consumer<? super Document> action) {
+        scanRows("scan", "SELECT * FROM Document", fetchSize,
+                res -> new Document(res.getString("id"), res.getString("title"), res.getInt("word_count")),
+                action);
     }
 
     /**
@@ -103,7 +118,7 @@ public class JDBCDocumentDAO extends JdbcDAO<Document> implements DocumentDAO {
     public void insert(Document document) {
         String query = "INSERT OR IGNORE INTO Document (title, id, word_count) VALUES (?, ?, ?)";
         try {
-            executeUpdate(query, document.title(), document.filename(), document.wordCount());
+            executeUpdate("insert", query, document.title(), document.filename(), document.wordCount());
         } catch (Exception e) {
             SystemLogger.log("Error trying to insert document: " + document, e);
             throw new QueryFailedException(e.getMessage());
@@ -120,7 +135,7 @@ public class JDBCDocumentDAO extends JdbcDAO<Document> implements DocumentDAO {
     public void update(Document document) {
         String query = "UPDATE Document SET title = ?, word_count = ? WHERE id = ?";
         try {
-            executeUpdate(query, document.title(), document.wordCount(), document.filename());
+            executeUpdate("update", query, document.title(), document.wordCount(), document.filename());
         } catch (Exception e) {
             SystemLogger.log("Error trying to update document: " + document, e);
             throw new UpdateFailedException(e.getMessage());
@@ -139,7 +154,7 @@ public class JDBCDocumentDAO extends JdbcDAO<Document> implements DocumentDAO {
     public void delete(Document document) {
         String query = "DELETE FROM Document WHERE id = ?";
         try {
-            executeUpdate(query, document.filename());
+            executeUpdate("delete", query, document.filename());
         } catch (Exception e) {
             SystemLogger.log("Error trying to delete document: " + document, e);
             throw new UpdateFailedException(e.getMessage());
@@ -14,8 +14,12 @@ import java.sql.*;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Implementazione JDBC del {@link DocumentDAO}, che gestisce le operazioni sui report.
@@ -58,7 +62,7 @@ public class JDBCGameReportDAO extends JdbcDAO<GameReport> implements GameReport
      */
     @Override
     public Optional<GameReport> selectBy(User user, Timestamp timestamp) {
-        return selectWhere("user = ? AND timestamp = ?", user, timestamp).stream().findFirst();
+        return selectBase("selectBy", "SELECT * FROM GameReport WHERE user = ? AND timestamp = ?", user.getName(), timestamp).stream().findFirst();
     }
 
     /**
@@ -69,7 +73,64 @@ public class JDBCGameReportDAO extends JdbcDAO<GameReport> implements GameReport
      */
     @Override
     public List<GameReport> selectAll() {
-        return selectBase("SELECT * FROM GameReport");
+        return selectBase("selectAll", "SELECT * FROM GameReport");
+    }
+
+    /**
+     * Scorre tutti i report di gioco tramite cursore, uno alla volta.
+     * <p>
+     * Utente e documenti di ogni report sono letti con un'unica query: le righe del join sono ordinate per
+     * identificativo del report, per cui quelle di uno stesso report sono consecutive e in memoria è presente
+     * un solo report alla volta. Come in {@link #selectAll()}, i report di utenti non più esistenti vengono saltati.
+     *
+     * @param fetchSize numero di righe lette a ogni accesso al database, 0 per il valore predefinito
+     * @param action    azione invocata per ogni report
+     * @throws QueryFailedException se si verifica un errore durante la query
+     */
+    @Override
+    public void scan(int fetchSize, Consumer<? super GameReport> action) {
+        String query = "SELECT g.id, g.timestamp, g.difficulty, g.max_time, g.used_time, g.question_count, g.score, g.seed,"
+                + " u.name, u.password, u.isAdmin, d.id AS document, d.title, d.word_count"
+                + " FROM GameReport g JOIN User u ON u.name = g.user"
+                + " LEFT JOIN Content c ON c.report = g.id LEFT JOIN Document d ON d.id = CAST(c.document AS TEXT)"
+                + " ORDER BY g.id";
+        executeScan("scan", query, fetchSize, res -> {
+            long count = 0;
+            long currentId = -1;
+            GameReport current = null;
+            List<Document> documents = null;
+            while (res.next()) {
+                long id = res.getLong("id");
+                if (current == null || id != currentId) {
+                    if (current != null) {
+                        action.accept(current);
+                        count++;
+                    }
+                    currentId = id;
+                    documents = new ArrayList<>();
+                    current = new GameReport(
+                            new User(res.getString("name"), res.getString("password"), res.getBoolean("isAdmin")),
+                            documents,
+                            new Timestamp(res.getLong("timestamp")).toLocalDateTime(),
+                            Difficulty.valueOf(res.getString("difficulty")),
+                            Duration.ofSeconds(res.getLong("max_time")),
+                            Duration.ofSeconds(res.getLong("used_time")),
+                            res.getInt("question_count"),
+                            res.getInt("score"),
+                            seed(res)
+                    );
+                }
+                String document = res.getString("document");
+                if (document != null) {
+                    documents.add(new Document(document, res.getString("title"), res.getInt("word_count")));
+                }
+            }
+            if (current != null) {
+                action.accept(current);
+                count++;
+            }
+            return count;
+        });
     }
 
     /**
@@ -82,19 +143,20 @@ public class JDBCGameReportDAO extends JdbcDAO<GameReport> implements GameReport
      */
     public List<GameReport> selectWhere(String sqlClause, Object... params) {
         String query = "SELECT * FROM GameReport WHERE " + sqlClause;
-        return selectBase(query, params);
+        return selectBase("selectWhere", query, params);
     }
 
     /**
      * Metodo interno di utilità per eseguire una query di selezione e mappare i risultati in oggetti {@link GameReport}.
      * Recupera anche i documenti associati tramite la tabella {@code Content}.
      *
-     * @param query  la query SQL completa da eseguire
-     * @param params i parametri da usare nella query
+     * @param operation nome dell'operazione, usato per la metrica
+     * @param query     la query SQL completa da eseguire
+     * @param params    i parametri da usare nella query
      * @return una lista di {@link GameReport} risultanti
      * @throws QueryFailedException se si verifica un errore durante l'elaborazione dei risultati
      */
-    private List<GameReport> selectBase(String query, Object... params) {
+    private List<GameReport> selectBase(String operation, String query, Object... params) {
         var result = new ArrayList<GameReport>();
         Callback<ResultSet,List<GameReport>> callback = res -> {
             try {
@@ -103,7 +165,7 @@ public class JDBCGameReportDAO extends JdbcDAO<GameReport> implements GameReport
                 }
                 while (res.next()) {
                     var user = userDAO.selectBy(res.getString("user"));
-                    var docList = executeQuery(
+                    var docList = executeQuery("selectContent", 
                             "SELECT document FROM Content WHERE report = ?",
                             docs -> {
                                 List<Document> documents = new ArrayList<>();
@@ -119,12 +181,8 @@ public class JDBCGameReportDAO extends JdbcDAO<GameReport> implements GameReport
                             },
                             res.getLong("id")
                     );
-                    String[] maxParts = res.getString("max_time").split(":");
-                    Duration maxTime = Duration.ofMinutes(Long.parseLong(maxParts[0]))
-                            .plusSeconds(Long.parseLong(maxParts[1]));
-                    String[] usedParts = res.getString("used_time").split(":");
-                    Duration usedTime = Duration.ofMinutes(Long.parseLong(usedParts[0]))
-                            .plusSeconds(Long.parseLong(usedParts[1]));
+                    Duration maxTime = Duration.ofSeconds(res.getLong("max_time"));
+                    Duration usedTime = Duration.ofSeconds(res.getLong("used_time"));
                     LocalDateTime timestamp = new Timestamp(res.getLong("timestamp")).toLocalDateTime();
                     if (user.isPresent()) {
                         result.add(new GameReport(
@@ -135,7 +193,8 @@ public class JDBCGameReportDAO extends JdbcDAO<GameReport> implements GameReport
                                 maxTime,
                                 usedTime,
                                 res.getInt("question_count"),
-                                res.getInt("score")
+                                res.getInt("score"),
+                                seed(res)
                         ));
                     }
                 }
@@ -145,62 +204,214 @@ public class JDBCGameReportDAO extends JdbcDAO<GameReport> implements GameReport
             }
             return result;
         };
-        return executeQuery(query, callback, params);
+        return executeQuery(operation, query, callback, params);
+    }
+
+    /**
+     * Recupera una pagina dello storico delle partite di un utente, dalla più recente.
+     * <p>
+     * La paginazione è per chiave sul timestamp, che identifica la partita insieme all'utente: ogni pagina
+     * riparte dalle partite precedenti al cursore invece di scorrere e scartare le righe già lette, come
+     * farebbe un {@code OFFSET}. Viene letta una riga oltre il limite per sapere se esistono altre pagine.
+     * </p>
+     * Nella prima pagina numero di partite, punteggio medio e massimo di tutte le partite dell'utente vengono
+     * calcolati dalla stessa query, in una CTE materializzata una sola volta e unita a ogni riga della pagina.
+     * La CTE è posta a destra di un {@code CROSS JOIN}, così che le partite vengano lette dall'indice
+     * {@code (user, timestamp)} già nell'ordine richiesto, senza un ordinamento aggiuntivo.
+     * I documenti delle partite della pagina vengono letti con un'unica query aggiuntiva.
+     *
+     * @param user   l'utente di cui leggere lo storico
+     * @param before cursore restituito dalla pagina precedente, {@code null} per la prima pagina
+     * @param limit  numero massimo di partite della pagina
+     * @return la pagina richiesta
+     * @throws IllegalArgumentException se {@code limit} non è positivo
+     * @throws QueryFailedException     se si verifica un errore durante la query
+     */
+    @Override
+    public GameReportPage selectPageByUser(User user, LocalDateTime before, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + limit);
+        }
+        boolean firstPage = before == null;
+        String columns = "g.id, g.timestamp, g.difficulty, g.max_time, g.used_time, g.question_count, g.score, g.seed";
+        String query = firstPage
+                ? "WITH stats AS (SELECT COUNT(*) AS total_games, AVG(score) AS average_score, MAX(score) AS max_score"
+                        + " FROM GameReport WHERE user = ?)"
+                        + " SELECT " + columns + ", s.total_games, s.average_score, s.max_score"
+                        + " FROM GameReport g CROSS JOIN stats s WHERE g.user = ? ORDER BY g.timestamp DESC LIMIT ?"
+                : "SELECT " + columns + " FROM GameReport g WHERE g.user = ? AND g.timestamp < ? ORDER BY g.timestamp DESC LIMIT ?";
+        Object[] params = firstPage
+                ? new Object[]{user.getName(), user.getName(), limit + 1}
+                : new Object[]{user.getName(), Timestamp.valueOf(before), limit + 1};
+
+        // Le liste dei documenti vengono riempite dopo la lettura della pagina
+        Map<Long, List<Document>> documents = new LinkedHashMap<>();
+        UserStats[] stats = {firstPage ? UserStats.EMPTY : null};
+        List<GameReport> reports = executeQuery(firstPage ? "selectFirstPageByUser" : "selectPageByUser", query, res -> {
+            List<GameReport> page = new ArrayList<>();
+            try {
+                while (res.next()) {
+                    if (stats[0] != null && page.isEmpty()) {
+                        stats[0] = new UserStats(res.getInt("total_games"), res.getDouble("average_score"), res.getInt("max_score"));
+                    }
+                    List<Document> docs = new ArrayList<>();
+                    documents.put(res.getLong("id"), docs);
+                    page.add(new GameReport(
+                            user,
+                            docs,
+                            new Timestamp(res.getLong("timestamp")).toLocalDateTime(),
+                            Difficulty.valueOf(res.getString("difficulty")),
+                            Duration.ofSeconds(res.getLong("max_time")),
+                            Duration.ofSeconds(res.getLong("used_time")),
+                            res.getInt("question_count"),
+                            res.getInt("score"),
+                            seed(res)
+                    ));
+                }
+            } catch (SQLException e) {
+                SystemLogger.log("Error trying to get game report page", e);
+                throw new QueryFailedException(e.getMessage());
+            }
+            return page;
+        }, params);
+
+        boolean hasMore = reports.size() > limit;
+        if (hasMore) {
+            reports = reports.subList(0, limit);
+        }
+        if (!reports.isEmpty()) {
+            selectDocuments(user, reports.getLast().timestamp(), reports.getFirst().timestamp(), documents);
+        }
+        return new GameReportPage(List.copyOf(reports), hasMore, stats[0]);
+    }
+
+    /**
+     * Legge con un'unica query i documenti delle partite di un utente comprese nell'intervallo di timestamp indicato
+     * e li aggiunge alle liste dei rispettivi report. Le partite dell'intervallo non presenti nella mappa vengono ignorate.
+     *
+     * @param user      l'utente delle partite
+     * @param from      timestamp della partita meno recente dell'intervallo
+     * @param to        timestamp della partita più recente dell'intervallo
+     * @param documents liste dei documenti da riempire, indicizzate per id del report
+     * @throws QueryFailedException se si verifica un errore durante la query
+     */
+    private void selectDocuments(User user, LocalDateTime from, LocalDateTime to, Map<Long, List<Document>> documents) {
+        // Content.document è dichiarata INTEGER mentre Document.id è TEXT: senza il CAST la differenza di affinità
+        // impedisce l'uso della chiave primaria di Document e la query ne scorre l'intero indice
+        String query = "SELECT c.report, d.id, d.title, d.word_count FROM GameReport g"
+                + " JOIN Content c ON c.report = g.id JOIN Document d ON d.id = CAST(c.document AS TEXT)"
+                + " WHERE g.user = ? AND g.timestamp BETWEEN ? AND ?";
+        executeQuery("selectDocuments", query, res -> {
+            try {
+                while (res.next()) {
+                    List<Document> docs = documents.get(res.getLong("report"));
+                    if (docs != null) {
+                        docs.add(new Document(res.getString("id"), res.getString("title"), res.getInt("word_count")));
+                    }
+                }
+            } catch (SQLException e) {
+                SystemLogger.log("Error trying to get documents", e);
+                throw new QueryFailedException(e.getMessage());
+            }
+            return documents;
+        }, user.getName(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Calcola le statistiche sui tempi di risposta per ogni difficoltà.
+     * <p>
+     * L'aggregazione è svolta da SQLite sulle durate in secondi e, grazie all'indice {@code (difficulty, used_time)},
+     * legge soltanto l'indice, che fornisce le righe già raggruppate per difficoltà.
+     *
+     * @return le statistiche, in ordine di difficoltà
+     * @throws QueryFailedException se si verifica un errore durante la query
+     */
+    @Override
+    public List<DifficultyTimeStats> selectTimeStatsByDifficulty() {
+        String query = "SELECT difficulty, COUNT(*) AS games, AVG(used_time) AS average_used_time,"
+                + " MIN(used_time) AS best_used_time FROM GameReport GROUP BY difficulty";
+        return executeQuery("selectTimeStatsByDifficulty", query, res -> {
+            List<DifficultyTimeStats> stats = new ArrayList<>();
+            try {
+                while (res.next()) {
+                    stats.add(new DifficultyTimeStats(
+                            Difficulty.valueOf(res.getString("difficulty")),
+                            res.getInt("games"),
+                            Duration.ofSeconds((long) res.getDouble("average_used_time")),
+                            Duration.ofSeconds(res.getLong("best_used_time"))
+                    ));
+                }
+            } catch (SQLException e) {
+                SystemLogger.log("Error trying to get time statistics", e);
+                throw new QueryFailedException(e.getMessage());
+            }
+            stats.sort(Comparator.comparing(DifficultyTimeStats::difficulty));
+            return stats;
+        });
     }
 
     /**
      * Inserisce un nuovo {@link GameReport} nel database e associa i documenti
      * tramite la tabella {@code Content}.
+     * <p>
+     * Report e righe di {@code Content} vengono scritti in un'unica transazione. La connessione è condivisa tra
+     * i thread che salvano partite diverse: l'inserimento è sincronizzato su di essa, così che l'identificativo
+     * generato letto per le righe di {@code Content} sia proprio quello del report appena inserito.
+     * </p>
+     * <p>
+     * Se la partita è stata generata dal seme di una sfida del giorno con la stessa difficoltà, nella colonna
+     * {@code challenge_day} viene registrato il giorno della sfida: queste partite compaiono soltanto nella classifica
+     * della sfida e non in quelle globale e per difficoltà. Il giorno resta registrato anche se la sfida viene eliminata.
+     * </p>
      *
      * @param gameReport il report da salvare
      * @throws QueryFailedException se si verifica un errore durante l'inserimento
      */
     @Override
     public void insert(GameReport gameReport) {
-        String insertReport = "INSERT INTO GameReport (user, timestamp, difficulty, max_time, used_time, question_count, score) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String insertReport = "INSERT INTO GameReport (user, timestamp, difficulty, max_time, used_time, question_count, score, seed, challenge_day)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, (SELECT day FROM DailyChallenge WHERE seed = ? AND difficulty = ?))";
         String insertContent = "INSERT INTO Content (report, document) VALUES (?, ?)";
-        try {
-            long usedTotalSeconds = gameReport.usedTime().getSeconds();
-            String usedTimeFormatted = preFormatTime(usedTotalSeconds);
-            long maxTotalSeconds = gameReport.maxTime().getSeconds();
-            String maxTimeFormatted = preFormatTime(maxTotalSeconds);
-            long reportId=executeUpdate(insertReport,
-                    gameReport.user().getName(),
-                    Timestamp.valueOf(gameReport.timestamp()),
-                    gameReport.difficulty().name(),
-                    maxTimeFormatted,
-                    usedTimeFormatted,
-                    gameReport.questionCount(),
-                    gameReport.score()
-            );
+        synchronized (connection) {
+            try {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    long reportId = executeUpdate("insert", insertReport,
+                            gameReport.user().getName(),
+                            Timestamp.valueOf(gameReport.timestamp()),
+                            gameReport.difficulty().name(),
+                            gameReport.maxTime().toSeconds(),
+                            gameReport.usedTime().toSeconds(),
+                            gameReport.questionCount(),
+                            gameReport.score(),
+                            gameReport.seed(),
+                            gameReport.seed(),
+                            gameReport.difficulty().name()
+                    );
 
-            for (Document document : gameReport.documents()) {
-                executeUpdate(insertContent, reportId, document.filename());
+                    for (Document document : gameReport.documents()) {
+                        executeUpdate("insertContent", insertContent, reportId, document.filename());
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException e) {
+                SystemLogger.log("Error trying to insert game report", e);
+                throw new QueryFailedException(e.getMessage());
             }
-        } catch (SQLException e) {
-            SystemLogger.log("Error trying to insert game report", e);
-            throw new QueryFailedException(e.getMessage());
         }
     }
-    /**
-     * Formatta un valore temporale (in secondi) in una stringa nel formato MM:SS.
-     * Garantisce che il tempo formattato rispetti i vincoli del database:
-     * @param time il tempo da formattare
-     * @return una {@code String} nel formato "MM:SS" che rappresenta il tempo normalizzato
-     */
-    private String preFormatTime(long time) {
-        long minutes = Math.min(time / 60, 60);
-        long seconds = time % 60;
-        //Duration contiene frazioni di secondo, che vengono troncate per i vincoli del db
-        if (minutes == 60 && seconds > 0) {
-            seconds = 0;
-        }
-        return String.format("%02d:%02d", minutes, seconds);
-    }
 
     /**
      * Aggiorna un {@link GameReport} esistente nel database.
      * <p>
+     * Come in {@link #selectBy(User, Timestamp)} e {@link #delete(GameReport)}, il report è identificato da utente
+     * e timestamp, che quindi non vengono modificati.
      * Nota: questa operazione modifica solo la tabella {@code GameReport},
      * non la tabella {@code Content}.
      *
@@ -209,16 +420,18 @@ public class JDBCGameReportDAO extends JdbcDAO<GameReport> implements GameReport
      */
     @Override
     public void update(GameReport gameReport) {
-        String update = "UPDATE GameReport SET user = ?, timestamp = ?, difficulty = ?, max_time = ?, used_time = ?, question_count = ?, score = ? WHERE id = ?";
+        String update = "UPDATE GameReport SET difficulty = ?, max_time = ?, used_time = ?, question_count = ?, score = ?, seed = ?"
+                + " WHERE user = ? AND timestamp = ?";
         try {
-            executeUpdate(update,
-                    gameReport.user().getName(),
-                    gameReport.timestamp(),
+            executeUpdate("update", update,
                     gameReport.difficulty().name(),
-                    gameReport.maxTime().toString(),
-                    gameReport.usedTime().toString(),
+                    gameReport.maxTime().toSeconds(),
+                    gameReport.usedTime().toSeconds(),
                     gameReport.questionCount(),
-                    gameReport.score()
+                    gameReport.score(),
+                    gameReport.seed(),
+                    gameReport.user().getName(),
+                    Timestamp.valueOf(gameReport.timestamp())
             );
         } catch (SQLException e) {
             SystemLogger.log("Error trying to update game report", e);
@@ -239,10 +452,22 @@ public class JDBCGameReportDAO extends JdbcDAO<GameReport> implements GameReport
     public void delete(GameReport gameReport) {
         String updateOnReport = "DELETE FROM GameReport WHERE user = ? AND timestamp = ?";
         try {
-            executeUpdate(updateOnReport, gameReport.user().getName(), Timestamp.valueOf(gameReport.timestamp()));
+            executeUpdate("delete", updateOnReport, gameReport.user().getName(), Timestamp.valueOf(gameReport.timestamp()));
         } catch (SQLException e) {
             SystemLogger.log("Error trying to delete game report", e);
             throw new UpdateFailedException(e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Legge il seme della partita dalla riga corrente.
+     *
+     * @param res risultato posizionato su una riga di {@code GameReport}
+     * @return il seme, oppure {@code null} per le partite registrate senza seme
+     * @throws SQLException se la lettura fallisce
+     */
+    private static Long seed(ResultSet res) throws SQLException {
+        long seed = res.getLong("seed");
+        return res.wasNull() ? null : seed;
+    }
+}
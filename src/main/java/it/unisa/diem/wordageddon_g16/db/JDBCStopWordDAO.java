@@ -11,6 +11,7 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Implementazione JDBC del {@link StopWordDAO}, che gestisce le operazioni sulle stopwords.
@@ -50,7 +51,19 @@ public class JDBCStopWordDAO extends JdbcDAO<String> implements StopWordDAO {
                 throw new QueryFailedException(e.getMessage());
             }
         };
-        return executeQuery(query, callback);
+        return executeQuery("selectAll", query, callback);
+    }
+
+    /**
+     * Scorre tutte le stopword tramite cursore.
+     *
+     * @param fetchSize numero di righe lette a ogni accesso al database, 0 per il valore predefinito
+     * @param action    azione invocata per ogni stopword
+     * @throws QueryFailedException se si verifica un errore durante la query
+     */
+    @Override
+    public void scan(int fetchSize, Consumer<? super String> action) {
+        scanRows("scan", "SELECT word FROM StopWord", fetchSize, res -> res.getString("word"), action);
     }
 
     /**
@@ -65,7 +78,7 @@ public class JDBCStopWordDAO extends JdbcDAO<String> implements StopWordDAO {
     public void insert(String s) {
         String query = "INSERT OR IGNORE INTO StopWord (word) VALUES (?)";
         try {
-            executeUpdate(query, s);
+            executeUpdate("insert", query, s);
         } catch (SQLException e) {
             SystemLogger.log("Error trying to insert stop word: " + s, e);
             throw new QueryFailedException(e.getMessage());
@@ -93,7 +106,7 @@ public class JDBCStopWordDAO extends JdbcDAO<String> implements StopWordDAO {
     public void delete(String s) {
         String query = "DELETE FROM StopWord WHERE word = ?";
         try {
-            executeUpdate(query, s);
+            executeUpdate("delete", query, s);
         } catch (SQLException e) {
             SystemLogger.log("Error trying to delete stop word: " + s, e);
             throw new QueryFailedException(e.getMessage());
@@ -14,6 +14,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Implementazione JDBC del {@link UserDAO}, che gestisce le operazioni Dao sullo user.
@@ -58,7 +59,7 @@ public class JDBCUserDAO extends JdbcDAO<User> implements UserDAO {
                 throw new QueryFailedException(e.getMessage());
             }
         };
-        return executeQuery(query, callback, username);
+        return executeQuery("selectBy", query, callback, username);
     }
 
     /**
@@ -89,7 +90,21 @@ public class JDBCUserDAO extends JdbcDAO<User> implements UserDAO {
                 throw new QueryFailedException(e.getMessage());
             }
         };
-        return executeQuery(query, callback);
+        return executeQuery("selectAll", query, callback);
+    }
+
+    /**
+     * Scorre tutti gli utenti della tabella {@code User} tramite cursore.
+     *
+     * @param fetchSize numero di righe lette a ogni accesso al database, 0 per il valore predefinito
+     * @param action    azione invocata per ogni utente
+     * @throws QueryFailedException se si verifica un errore durante la query
+     */
+    @Override
+    public void scan(int fetchSize, Consumer<? super User> action) {
+        scanRows("scan", "SELECT * FROM User", fetchSize,
+                res -> new User(res.getString("name"), res.getString("password"), res.getBoolean("isAdmin")),
+                action);
     }
     /**
      * Inserisce un nuovo utente nella tabella {@code User}.
@@ -103,7 +118,7 @@ public class JDBCUserDAO extends JdbcDAO<User> implements UserDAO {
     public void insert(User user) {
         String query = "INSERT OR IGNORE INTO User (name, password, isAdmin) VALUES (?, ?, ?)";
         try {
-            executeUpdate(query, user.getName(), user.getPassword(), user.isAdmin());
+            executeUpdate("insert", query, user.getName(), user.getPassword(), user.isAdmin());
         } catch (SQLException e) {
             SystemLogger.log("Error inserting user: " + user.getName(), e);
             throw new UpdateFailedException(e.getMessage());
@@ -120,7 +135,7 @@ public class JDBCUserDAO extends JdbcDAO<User> implements UserDAO {
     public void update(User user) {
         String query = "UPDATE User SET password = ?, isAdmin = ? WHERE name = ?";
         try {
-            executeUpdate(query, user.getPassword(), user.isAdmin(), user.getName());
+            executeUpdate("update", query, user.getPassword(), user.isAdmin(), user.getName());
         } catch (SQLException e) {
             SystemLogger.log("Error updating user: " + user.getName(), e);
             throw new UpdateFailedException(e.getMessage());
@@ -140,7 +155,7 @@ public class JDBCUserDAO extends JdbcDAO<User> implements UserDAO {
     public void delete(User user) {
         String query = "DELETE FROM User WHERE name = ?";
         try {
-            executeUpdate(query, user.getName());               // Delete on User also deletes all GameReports associated with the user due to integrity constraints (ON DELETE CASCADE)
+            executeUpdate("delete", query, user.getName());               // Delete on User also deletes all GameReports associated with the user due to integrity constraints (ON DELETE CASCADE)
         } catch (SQLException e) {
             SystemLogger.log("Error deleting user: " + user.getName(), e);
             throw new UpdateFailedException(e.getMessage());
@@ -13,6 +13,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Implementazione JDBC del {@link WdmDAO}, che gestisce le operazioni sulla matrice parola-documento (WDM).
@@ -47,7 +48,7 @@ public class JDBCWdmDAO extends JdbcDAO<WDM> implements WdmDAO {
      */
     @Override
     public Optional<WDM> selectBy(Document document) {
-        return selectWhere("document = ?", (document).filename()).stream().findFirst();
+        return selectBase("selectBy", "SELECT * FROM WDM WHERE document = ?", document.filename()).stream().findFirst();
     }
 
 
@@ -60,7 +61,46 @@ public class JDBCWdmDAO extends JdbcDAO<WDM> implements WdmDAO {
      */
     @Override
     public List<WDM> selectAll() {
-        return selectBase("SELECT * FROM WDM");
+        return selectBase("selectAll", "SELECT * FROM WDM");
+    }
+
+    /**
+     * Scorre tutte le WDM tramite cursore, una alla volta.
+     * <p>
+     * Le righe vengono lette ordinate per documento, nell'ordine della chiave primaria {@code (document, word)},
+     * così che le parole di un documento siano consecutive: ogni WDM viene passata all'azione non appena
+     * compare la prima riga del documento successivo e in memoria è presente una sola WDM alla volta.
+     * Il documento è letto con un join, senza una query aggiuntiva per ogni riga.
+     *
+     * @param fetchSize numero di righe lette a ogni accesso al database, 0 per il valore predefinito
+     * @param action    azione invocata per ogni WDM
+     * @throws QueryFailedException se si verifica un errore durante la query
+     */
+    @Override
+    public void scan(int fetchSize, Consumer<? super WDM> action) {
+        String query = "SELECT w.document, w.word, w.occurrences, d.title, d.word_count"
+                + " FROM WDM w JOIN Document d ON d.id = w.document ORDER BY w.document";
+        executeScan("scan", query, fetchSize, res -> {
+            long count = 0;
+            WDM current = null;
+            while (res.next()) {
+                String filename = res.getString("document");
+                if (current == null || !current.getDocument().filename().equals(filename)) {
+                    if (current != null) {
+                        action.accept(current);
+                        count++;
+                    }
+                    Document document = new Document(filename, res.getString("title"), res.getInt("word_count"));
+                    current = new WDM(document, new HashMap<>());
+                }
+                current.getWords().put(res.getString("word"), res.getInt("occurrences"));
+            }
+            if (current != null) {
+                action.accept(current);
+                count++;
+            }
+            return count;
+        });
     }
 
     /**
@@ -72,7 +112,7 @@ public class JDBCWdmDAO extends JdbcDAO<WDM> implements WdmDAO {
      */
     public List<WDM> selectWhere(String sqlClause, Object... params) {
         String query = "SELECT * FROM WDM WHERE " + sqlClause;
-        return selectBase(query, params);
+        return selectBase("selectWhere", query, params);
     }
 
     /**
@@ -80,12 +120,13 @@ public class JDBCWdmDAO extends JdbcDAO<WDM> implements WdmDAO {
      * <p>
      * Costruisce dinamicamente le istanze WDM aggregando le parole e le frequenze associate a ciascun documento.
      *
+     * @param operation nome dell'operazione, usato per la metrica
      * @param query la query SQL da eseguire
      * @param params i parametri da sostituire nella query
      * @return una lista di oggetti WDM ottenuti dai risultati della query
      * @throws QueryFailedException se si verifica un errore durante l'elaborazione
      */
-    private List<WDM> selectBase(String query, Object... params) {
+    private List<WDM> selectBase(String operation, String query, Object... params) {
         Callback<ResultSet, List<WDM>> callback = res -> {
             try {
                 if (res == null) {
@@ -105,7 +146,7 @@ public class JDBCWdmDAO extends JdbcDAO<WDM> implements WdmDAO {
                 throw new QueryFailedException(e.getMessage());
             }
         };
-        return executeQuery(query, callback, params);
+        return executeQuery(operation, query, callback, params);
     }
 
     /**
@@ -118,7 +159,7 @@ public class JDBCWdmDAO extends JdbcDAO<WDM> implements WdmDAO {
     public void delete(WDM wdm) {
         String query = "DELETE FROM WDM WHERE document = ?";
         try {
-            executeUpdate(query, wdm.getDocument().filename());
+            executeUpdate("delete", query, wdm.getDocument().filename());
         } catch (Exception e) {
             throw new QueryFailedException(e.getMessage());
         }
@@ -151,7 +192,7 @@ public class JDBCWdmDAO extends JdbcDAO<WDM> implements WdmDAO {
         String query = "INSERT INTO WDM (document, word, occurrences) VALUES (?, ?, ?)";
         try{
             for (Map.Entry<String, Integer> entry : wdm.getWords().entrySet()) {
-                executeUpdate(query, wdm.getDocument().filename(), entry.getKey(), entry.getValue());
+                executeUpdate("insert", query, wdm.getDocument().filename(), entry.getKey(), entry.getValue());
             }
         } catch (Exception e) {
             throw new QueryFailedException(e.getMessage());
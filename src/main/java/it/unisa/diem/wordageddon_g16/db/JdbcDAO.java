@@ -3,12 +3,21 @@ package it.unisa.diem.wordageddon_g16.db;
 import it.unisa.diem.wordageddon_g16.db.contracts.DAO;
 import it.unisa.diem.wordageddon_g16.db.exceptions.QueryFailedException;
 import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
+import it.unisa.diem.wordageddon_g16.utility.jfr.DaoQueryEvent;
+import it.unisa.diem.wordageddon_g16.utility.metrics.Metrics;
+import it.unisa.diem.wordageddon_g16.utility.metrics.Timer;
 import javafx.util.Callback;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Classe astratta di supporto per la realizzazione di DAO (Data Access Object) basati su JDBC.
@@ -28,6 +37,11 @@ import java.sql.Statement;
  *       per l’elaborazione flessibile dei risultati dalla query SQL (ResultSet).</li>
  *   <li>Gestione centralizzata delle eccezioni e logging automatico in caso di errore.</li>
  *   <li>Metodi utility per operazioni semplici e frequenti (es. verifica se una tabella è vuota).</li>
+ *   <li>Scansione di grandi risultati tramite cursore, un oggetto alla volta, per le implementazioni di
+ *       {@link DAO#scan(int, Consumer)}.</li>
+ *   <li>Misura della durata di ogni query e aggiornamento tramite {@link Metrics}, raggruppata per DAO e operazione
+ *       ({@code db.<DAO>.<operazione>}), e, se abilitato, emissione dell'evento JFR {@link DaoQueryEvent}.</li>
+ *   <li>Aggiornamenti e transazioni esplicite serializzati sul lock della connessione condivisa.</li>
  * </ul>
  *
  * @param <T> tipo dell'entità gestita dal DAO concreto
@@ -39,6 +53,26 @@ public abstract class JdbcDAO<T> implements DAO<T> {
      */
     protected final Connection connection;
 
+    /**
+     * Ultima query eseguita da ciascuna operazione, indicizzata per nome della metrica. Le chiavi sono limitate
+     * dal numero di operazioni dei DAO, anche per le query costruite dinamicamente.
+     */
+    private static final Map<String, String> statements = new ConcurrentHashMap<>();
+
+    /**
+     * Metriche delle operazioni di questo DAO, indicizzate per nome dell'operazione.
+     */
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    /**
+     * Nome della metrica e timer di un'operazione.
+     *
+     * @param name  nome della metrica, {@code db.<DAO>.<operazione>}
+     * @param timer timer della metrica
+     */
+    private record OperationMetrics(String name, Timer timer) {
+    }
+
     /**
      * Costruisce un nuovo JdbcDAO utilizzando la connessione specificata.
      *
@@ -51,41 +85,147 @@ public abstract class JdbcDAO<T> implements DAO<T> {
     /**
      * Esegue una query SQL con parametri e applica una {@link Callback} per elaborare il {@link ResultSet}.
      *
-     * @param <R>    tipo di dato restituito dalla callback
-     * @param sql    query SQL parametrizzata
-     * @param cb     callback che processa il risultato della query
-     * @param params parametri da sostituire nella query
+     * @param <R>       tipo di dato restituito dalla callback
+     * @param operation nome dell'operazione, usato per la metrica
+     * @param sql       query SQL parametrizzata
+     * @param cb        callback che processa il risultato della query
+     * @param params    parametri da sostituire nella query
      * @return risultato ottenuto dalla callback
      * @throws QueryFailedException se la query fallisce durante l'esecuzione
      */
-    protected <R> R executeQuery(String sql, Callback<ResultSet, R> cb, Object... params) {
+    protected <R> R executeQuery(String operation, String sql, Callback<ResultSet, R> cb, Object... params) {
         // Callback consente di passare un metodo come parametro per elaborare il ResultSet
+        OperationMetrics metrics = metricsFor(operation, sql);
+        Timer timer = metrics.timer();
+        long start = timer.start();
+        DaoQueryEvent event = new DaoQueryEvent();
+        event.begin();
         try (var stm = connection.prepareStatement(sql)) {
             if (params.length > 0)
                 for (int i = 0; i < params.length; i++)
                     stm.setObject(i + 1, params[i]);
-            return cb.call(stm.executeQuery());
+            R result = cb.call(stm.executeQuery());
+            event.rowCount = rowCount(result);
+            event.success = true;
+            return result;
         } catch (SQLException e) {
+            Metrics.counter("db.errors").increment();
             SystemLogger.log("Error trying to execute query: " + sql, e);
             throw new QueryFailedException(e.getMessage());
+        } finally {
+            timer.stop(start);
+            commit(event, metrics, sql, false);
+        }
+    }
+
+    /**
+     * Lettura di un {@link ResultSet} che può fallire con una {@link SQLException}, gestita da chi la esegue.
+     *
+     * @param <R> tipo del valore letto
+     */
+    @FunctionalInterface
+    protected interface ResultSetReader<R> {
+        /**
+         * Legge un valore dal {@link ResultSet}.
+         *
+         * @param res risultato della query
+         * @return il valore letto
+         * @throws SQLException se la lettura fallisce
+         */
+        R read(ResultSet res) throws SQLException;
+    }
+
+    /**
+     * Esegue una query scorrendone il risultato tramite un cursore, senza materializzarlo.
+     * <p>
+     * Il {@link ResultSet} resta aperto soltanto durante la chiamata a {@code reader}, che deve consumarlo
+     * e restituire il numero di oggetti prodotti. Eventuali eccezioni non controllate lanciate dal lettore
+     * (ad esempio dall'azione del chiamante) interrompono la scansione e vengono propagate dopo la chiusura
+     * del cursore.
+     *
+     * @param operation nome dell'operazione, usato per la metrica
+     * @param sql       query SQL da eseguire
+     * @param fetchSize numero di righe che il driver legge a ogni accesso al database, 0 per il valore predefinito
+     * @param reader    lettore che scorre il risultato
+     * @throws IllegalArgumentException se {@code fetchSize} è negativo
+     * @throws QueryFailedException     se la query o la lettura falliscono
+     */
+    protected void executeScan(String operation, String sql, int fetchSize, ResultSetReader<Long> reader) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("Fetch size cannot be negative: " + fetchSize);
+        }
+        OperationMetrics metrics = metricsFor(operation, sql);
+        Timer timer = metrics.timer();
+        long start = timer.start();
+        DaoQueryEvent event = new DaoQueryEvent();
+        event.begin();
+        try (var stm = connection.createStatement()) {
+            stm.setFetchSize(fetchSize);
+            try (ResultSet res = stm.executeQuery(sql)) {
+                event.rowCount = reader.read(res);
+            }
+            event.success = true;
+        } catch (SQLException e) {
+            Metrics.counter("db.errors").increment();
+            SystemLogger.log("Error trying to scan query: " + sql, e);
+            throw new QueryFailedException(e.getMessage());
+        } finally {
+            timer.stop(start);
+            commit(event, metrics, sql, false);
         }
     }
 
+    /**
+     * Scorre il risultato di una query in cui ogni riga corrisponde a un oggetto, passando ciascun oggetto all'azione.
+     *
+     * @param <R>       tipo degli oggetti letti
+     * @param operation nome dell'operazione, usato per la metrica
+     * @param sql       query SQL da eseguire
+     * @param fetchSize numero di righe che il driver legge a ogni accesso al database, 0 per il valore predefinito
+     * @param mapper    conversione della riga corrente in un oggetto
+     * @param action    azione invocata per ogni oggetto
+     * @throws QueryFailedException se la query o la lettura falliscono
+     * @see #executeScan(String, String, int, ResultSetReader)
+     */
+    protected <R> void scanRows(String operation, String sql, int fetchSize, ResultSetReader<R> mapper, Consumer<? super R> action) {
+        executeScan(operation, sql, fetchSize, res -> {
+            long count = 0;
+            while (res.next()) {
+                action.accept(mapper.read(res));
+                count++;
+            }
+            return count;
+        });
+    }
+
     /**
      * Esegue una query SQL semplice (senza parametri) e ne elabora il risultato tramite {@link Callback}.
      *
-     * @param <R> tipo di risultato prodotto dalla callback
-     * @param sql query SQL da eseguire
-     * @param cb  callback che processa il {@link ResultSet}
+     * @param <R>       tipo di risultato prodotto dalla callback
+     * @param operation nome dell'operazione, usato per la metrica
+     * @param sql       query SQL da eseguire
+     * @param cb        callback che processa il {@link ResultSet}
      * @return risultato ottenuto dalla callback
      * @throws QueryFailedException se la query fallisce
      */
-    protected <R> R executeQuery(String sql, Callback<ResultSet, R> cb) {
+    protected <R> R executeQuery(String operation, String sql, Callback<ResultSet, R> cb) {
+        OperationMetrics metrics = metricsFor(operation, sql);
+        Timer timer = metrics.timer();
+        long start = timer.start();
+        DaoQueryEvent event = new DaoQueryEvent();
+        event.begin();
         try (var stm = connection.createStatement()) {
-            return cb.call(stm.executeQuery(sql));
+            R result = cb.call(stm.executeQuery(sql));
+            event.rowCount = rowCount(result);
+            event.success = true;
+            return result;
         } catch (SQLException e) {
+            Metrics.counter("db.errors").increment();
             SystemLogger.log("Error trying to execute query: " + sql, e);
             throw new QueryFailedException(e.getMessage());
+        } finally {
+            timer.stop(start);
+            commit(event, metrics, sql, false);
         }
     }
 
@@ -93,19 +233,39 @@ public abstract class JdbcDAO<T> implements DAO<T> {
      * Esegue un'operazione di modifica (INSERT, UPDATE, DELETE) sul database.
      * <p>
      * Se l'operazione è una INSERT, restituisce l'ID generato dalla riga appena inserita.
+     * <p>
+     * La connessione è condivisa tra i thread: l'aggiornamento viene eseguito sotto il lock della connessione,
+     * lo stesso che i DAO tengono per tutta la durata di una transazione esplicita. Così un aggiornamento di un
+     * altro thread non viene incluso nella transazione in corso, né annullato dal suo eventuale rollback,
+     * ma attende che termini.
      *
-     * @param sql    istruzione SQL da eseguire
-     * @param params parametri per l'inserimento
+     * @param operation nome dell'operazione, usato per la metrica
+     * @param sql       istruzione SQL da eseguire
+     * @param params    parametri per l'inserimento
      * @return ID generato, oppure {@code -1} se assente
      * @throws SQLException se l'esecuzione fallisce
      */
-    protected long executeUpdate(String sql, Object... params) throws SQLException {
-        try (var stm = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            if (params.length > 0)
-                for (int i = 0; i < params.length; i++)
-                    stm.setObject(i + 1, params[i]);
-            stm.executeUpdate();
-            return stm.getGeneratedKeys().next() ? stm.getGeneratedKeys().getLong(1) : -1;
+    protected long executeUpdate(String operation, String sql, Object... params) throws SQLException {
+        OperationMetrics metrics = metricsFor(operation, sql);
+        Timer timer = metrics.timer();
+        long start = timer.start();
+        DaoQueryEvent event = new DaoQueryEvent();
+        event.begin();
+        synchronized (connection) {
+            try (var stm = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                if (params.length > 0)
+                    for (int i = 0; i < params.length; i++)
+                        stm.setObject(i + 1, params[i]);
+                event.rowCount = stm.executeUpdate();
+                event.success = true;
+                return stm.getGeneratedKeys().next() ? stm.getGeneratedKeys().getLong(1) : -1;
+            } catch (SQLException e) {
+                Metrics.counter("db.errors").increment();
+                throw e;
+            } finally {
+                timer.stop(start);
+                commit(event, metrics, sql, true);
+            }
         }
     }
 
@@ -125,4 +285,69 @@ public abstract class JdbcDAO<T> implements DAO<T> {
             return false;
         }
     }
+
+    /**
+     * Restituisce le metriche dell'operazione indicata e ne ricorda la query eseguita.
+     *
+     * @param operation nome dell'operazione
+     * @param sql       query SQL eseguita
+     * @return metriche {@code db.<DAO>.<operazione>}
+     */
+    private OperationMetrics metricsFor(String operation, String sql) {
+        OperationMetrics metrics = operations.computeIfAbsent(operation, _ -> {
+            String name = "db." + getClass().getSimpleName() + "." + operation;
+            return new OperationMetrics(name, Metrics.timer(name));
+        });
+        // Le query costanti sono sempre la stessa istanza: la mappa condivisa viene scritta solo se la query cambia
+        if (statements.get(metrics.name()) != sql) {
+            statements.put(metrics.name(), sql);
+        }
+        return metrics;
+    }
+
+    /**
+     * Restituisce, per ogni operazione eseguita finora, la forma dell'ultima query eseguita.
+     * <p>
+     * Consente di ispezionare le query dei DAO, ad esempio per verificarne il piano di esecuzione.
+     *
+     * @return forma delle query indicizzata per nome della metrica dell'operazione
+     * @see Metrics#sqlShape(String)
+     */
+    public static Map<String, String> executedStatements() {
+        Map<String, String> shapes = new TreeMap<>();
+        statements.forEach((name, sql) -> shapes.put(name, Metrics.sqlShape(sql)));
+        return shapes;
+    }
+
+    /**
+     * Completa e registra l'evento JFR di una query, se la registrazione è abilitata.
+     *
+     * @param event   evento iniziato prima dell'esecuzione
+     * @param metrics metriche dell'operazione
+     * @param sql     query eseguita
+     * @param update  {@code true} se si tratta di un aggiornamento
+     */
+    private static void commit(DaoQueryEvent event, OperationMetrics metrics, String sql, boolean update) {
+        if (event.shouldCommit()) {
+            event.operation = metrics.name();
+            event.sql = Metrics.sqlShape(sql);
+            event.update = update;
+            event.commit();
+        }
+    }
+
+    /**
+     * Deduce il numero di righe restituite da una query a partire dal risultato prodotto dalla callback.
+     *
+     * @param result risultato della callback
+     * @return dimensione della collezione o della mappa, 0 o 1 per un {@link Optional}, -1 negli altri casi
+     */
+    private static long rowCount(Object result) {
+        return switch (result) {
+            case Collection<?> collection -> collection.size();
+            case Map<?, ?> map -> map.size();
+            case Optional<?> optional -> optional.isPresent() ? 1 : 0;
+            case null, default -> -1;
+        };
+    }
 }
\ No newline at end of file
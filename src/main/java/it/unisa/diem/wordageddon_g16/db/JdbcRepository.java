@@ -2,6 +2,7 @@ package it.unisa.diem.wordageddon_g16.db;
 
 import it.unisa.diem.wordageddon_g16.db.contracts.DAO;
 import it.unisa.diem.wordageddon_g16.db.contracts.Repository;
+import it.unisa.diem.wordageddon_g16.db.exceptions.SchemaMigrationException;
 import it.unisa.diem.wordageddon_g16.utility.Config;
 import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
 
@@ -31,9 +32,14 @@ public class JdbcRepository implements Repository {
      *   <li>{@code stopWord} – {@link JDBCStopWordDAO}</li>
      *   <li>{@code gameReport} – {@link JDBCGameReportDAO}</li>
      *   <li>{@code wdm} – {@link JDBCWdmDAO}</li>
+     *   <li>{@code dailyChallenge} – {@link JDBCDailyChallengeDAO}</li>
      * </ul>
-     * Abilita le foreign key con {@code PRAGMA foreign_keys = ON}.
-     * In caso di errore, registra l'evento tramite {@link SystemLogger}.
+     * Abilita le foreign key con {@code PRAGMA foreign_keys = ON} e crea o aggiorna lo schema tramite {@link SchemaMigrator}.
+     * In caso di errore di connessione, registra l'evento tramite {@link SystemLogger}. Una migrazione fallita
+     * interrompe invece l'avvio: con lo schema precedente ogni lettura e scrittura delle DAO fallirebbe.
+     *
+     * @throws SchemaMigrationException se lo schema non può essere portato all'ultima versione; la connessione
+     *                                  viene chiusa
      */
     public JdbcRepository() {
         try {
@@ -42,6 +48,13 @@ public class JdbcRepository implements Repository {
             try (var stmt = conn.createStatement()) {
                 stmt.execute("PRAGMA foreign_keys = ON;");
             }
+            try {
+                SchemaMigrator.migrate(conn);
+            } catch (SQLException e) {
+                SystemLogger.log("Could not migrate the database schema: ", e);
+                close();
+                throw new SchemaMigrationException("Could not migrate the database schema: " + e.getMessage(), e);
+            }
             var userDAO = new JDBCUserDAO(conn);
             var documentDAO = new JDBCDocumentDAO(conn);
             daos.put("user", userDAO);
@@ -49,6 +62,7 @@ public class JdbcRepository implements Repository {
             daos.put("stopWord", new JDBCStopWordDAO(conn));
             daos.put("gameReport", new JDBCGameReportDAO(conn, documentDAO, userDAO));
             daos.put("wdm", new JDBCWdmDAO(conn, documentDAO));
+            daos.put("dailyChallenge", new JDBCDailyChallengeDAO(conn));
         } catch (SQLException e) {
             SystemLogger.log("Could not establish a connection to the database: ", e);
         }
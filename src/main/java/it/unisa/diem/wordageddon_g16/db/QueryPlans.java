@@ -0,0 +1,104 @@
+package it.unisa.diem.wordageddon_g16.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lettura dei piani di esecuzione delle query con {@code EXPLAIN QUERY PLAN}.
+ * <p>
+ * Consente di verificare che le query dei DAO, ricavate da {@link JdbcDAO#executedStatements()}, usino un indice:
+ * un passo {@code SCAN} su una tabella del database che non usa un indice indica una lettura completa della tabella.
+ * Le scansioni di CTE e sottoquery, che non sono tabelle del database, sono ammesse.
+ */
+public final class QueryPlans {
+    private static final Pattern TABLE_REF = Pattern.compile(
+            "\\b(?:FROM|JOIN|UPDATE|INTO)\\s+(\\w+)(?:\\s+(?:AS\\s+)?(\\w+))?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SCAN = Pattern.compile("^SCAN (\\w++)(?! USING (?:COVERING )?INDEX)");
+
+    /**
+     * Costruttore privato per impedire l'istanziazione della classe di utilità.
+     */
+    private QueryPlans() {}
+
+    /**
+     * Restituisce il piano della query; i parametri (compresi i letterali sostituiti da {@code ?} nella forma della
+     * query) valgono {@code NULL}, dato che non influiscono sulla scelta degli indici.
+     *
+     * @param conn connessione al database
+     * @param sql  query da analizzare
+     * @return i passi del piano, nell'ordine restituito da SQLite
+     * @throws SQLException se la query non è valida
+     */
+    public static List<String> explain(Connection conn, String sql) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            int params = stmt.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= params; i++) {
+                stmt.setObject(i, null);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    plan.add(rs.getString("detail"));
+                }
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Restituisce i passi del piano della query che leggono un'intera tabella del database senza usare un indice.
+     *
+     * @param conn connessione al database
+     * @param sql  query da analizzare
+     * @return i passi {@code SCAN} senza indice, vuota se la query usa solo indici
+     * @throws SQLException se la query non è valida
+     */
+    public static List<String> fullScans(Connection conn, String sql) throws SQLException {
+        Set<String> tables = tables(conn);
+        Map<String, String> aliases = aliases(sql);
+        List<String> scans = new ArrayList<>();
+        for (String step : explain(conn, sql)) {
+            Matcher scan = SCAN.matcher(step);
+            if (scan.find() && tables.contains(aliases.getOrDefault(scan.group(1), scan.group(1)))) {
+                scans.add(step);
+            }
+        }
+        return scans;
+    }
+
+    private static Set<String> tables(Connection conn) throws SQLException {
+        Set<String> tables = new HashSet<>();
+        try (var stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT name FROM sqlite_master WHERE type = 'table'")) {
+            while (rs.next()) {
+                tables.add(rs.getString(1));
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Associa gli alias usati nella query al nome della tabella, che compare nei piani al posto dell'alias.
+     */
+    private static Map<String, String> aliases(String sql) {
+        Map<String, String> aliases = new HashMap<>();
+        Matcher matcher = TABLE_REF.matcher(sql);
+        while (matcher.find()) {
+            String alias = matcher.group(2);
+            if (alias != null && !alias.equalsIgnoreCase("WHERE") && !alias.equalsIgnoreCase("ON")) {
+                aliases.put(alias, matcher.group(1));
+            }
+        }
+        return aliases;
+    }
+}
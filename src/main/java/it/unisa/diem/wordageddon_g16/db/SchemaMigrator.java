@@ -0,0 +1,290 @@
+package it.unisa.diem.wordageddon_g16.db;
+
+import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Crea o aggiorna lo schema del database all'apertura della connessione.
+ * <p>
+ * La versione corrente dello schema è memorizzata nel database stesso tramite {@code PRAGMA user_version}
+ * (0 per un database mai migrato). Le migrazioni sono script SQL nella risorsa
+ * {@code /it/unisa/diem/wordageddon_g16/db/migrations/} e vengono applicate in ordine di versione:
+ * </p>
+ * <ul>
+ *   <li>{@link ScriptMigration}: lo script è eseguito in una transazione insieme all'aggiornamento della
+ *       versione, quindi in caso di errore lo schema resta alla versione precedente;</li>
+ *   <li>{@link ChunkedMigration}: ricostruzione di una tabella con molte righe (SQLite non permette di cambiare
+ *       tipo o vincoli di una colonna). Le righe vengono copiate nella nuova tabella a blocchi, ciascuno in una
+ *       transazione propria: tra un blocco e l'altro il lock di scrittura di SQLite viene rilasciato e
+ *       un'interruzione non annulla il lavoro già fatto, perché all'avvio successivo la copia riprende dalle righe
+ *       mancanti. Solo la sostituzione finale della tabella avviene in una transazione breve, insieme
+ *       all'aggiornamento della versione.</li>
+ * </ul>
+ * Le transazioni che ricostruiscono una tabella vengono eseguite con le foreign key disabilitate, altrimenti
+ * l'eliminazione della tabella originale cancellerebbe a cascata le righe che la riferiscono; prima del commit
+ * {@code PRAGMA foreign_key_check} verifica che tutti i riferimenti siano ancora validi.
+ * <p>
+ * Un database vuoto viene inizializzato direttamente con lo schema completo di {@code docs/db/dbSchema.sql}
+ * (copiato tra le risorse in fase di build) e portato all'ultima versione senza eseguire le migrazioni:
+ * lo schema di riferimento va quindi aggiornato insieme a ogni nuova migrazione.
+ */
+public final class SchemaMigrator {
+    private static final String MIGRATIONS_DIR = "/it/unisa/diem/wordageddon_g16/db/migrations/";
+    private static final String BASELINE_SCRIPT = "dbSchema.sql";
+
+    /**
+     * Migrazione dello schema.
+     */
+    sealed interface Migration permits ScriptMigration, ChunkedMigration {
+        /**
+         * @return versione dello schema raggiunta applicando la migrazione
+         */
+        int version();
+
+        /**
+         * @return descrizione della migrazione
+         */
+        String description();
+    }
+
+    /**
+     * Migrazione eseguita come un unico script in una transazione.
+     *
+     * @param version     versione dello schema raggiunta applicando la migrazione
+     * @param description descrizione della migrazione
+     * @param script      nome dello script SQL nella directory delle migrazioni
+     * @param rebuild     {@code true} se lo script ricostruisce tabelle riferite da foreign key
+     */
+    record ScriptMigration(int version, String description, String script, boolean rebuild) implements Migration {}
+
+    /**
+     * Ricostruzione di una tabella con copia delle righe a blocchi.
+     * <p>
+     * Lo script di copia contiene una sola istruzione con un parametro {@code ?}, il numero massimo di righe da
+     * copiare, e deve copiare soltanto le righe successive all'ultima già presente nella nuova tabella, ad esempio
+     * {@code INSERT INTO t_new SELECT ... FROM t WHERE id > (SELECT COALESCE(MAX(id), 0) FROM t_new) ORDER BY id LIMIT ?}.
+     * L'istruzione viene ripetuta finché non copia più alcuna riga.
+     *
+     * @param version      versione dello schema raggiunta al termine della ricostruzione
+     * @param description  descrizione della migrazione
+     * @param createScript script che crea la nuova tabella, se non esiste già da un'esecuzione interrotta
+     * @param copyScript   istruzione che copia il blocco successivo di righe
+     * @param swapScript   script che sostituisce la tabella originale con la nuova e ne ricrea gli indici
+     * @param chunkSize    numero massimo di righe copiate in una transazione
+     */
+    record ChunkedMigration(int version, String description, String createScript, String copyScript,
+                            String swapScript, int chunkSize) implements Migration {}
+
+    /** Migrazioni note, in ordine di versione crescente. */
+    private static final List<Migration> MIGRATIONS = List.of(
+            new ScriptMigration(1, "indici secondari su GameReport e Content", "V1__secondary_indexes.sql", false),
+            new ChunkedMigration(2, "durate di GameReport in secondi interi", "V2__integer_durations_create.sql",
+                    "V2__integer_durations_copy.sql", "V2__integer_durations_swap.sql", 5_000),
+            new ScriptMigration(3, "avanzamento delle importazioni di archivi", "V3__archive_import.sql", false),
+            new ScriptMigration(4, "seme delle partite in GameReport", "V4__game_report_seed.sql", false),
+            new ScriptMigration(5, "partite della sfida del giorno", "V5__daily_challenge.sql", false),
+            new ScriptMigration(6, "partite della sfida del giorno separate dalle classifiche", "V6__daily_challenge_games.sql", false)
+    );
+
+    /**
+     * Costruttore privato per impedire l'istanziazione della classe di utilità.
+     */
+    private SchemaMigrator() {}
+
+    /**
+     * Restituisce la versione più recente dello schema conosciuta dall'applicazione.
+     *
+     * @return numero dell'ultima migrazione
+     */
+    public static int latestVersion() {
+        return MIGRATIONS.getLast().version();
+    }
+
+    /**
+     * Legge la versione dello schema memorizzata nel database.
+     *
+     * @param conn connessione al database
+     * @return versione corrente dello schema
+     * @throws SQLException se la lettura fallisce
+     */
+    public static int currentVersion(Connection conn) throws SQLException {
+        try (var stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Porta lo schema del database all'ultima versione: inizializza un database vuoto con lo schema completo,
+     * altrimenti applica le migrazioni mancanti.
+     * <p>
+     * Un database con una versione più recente di quella conosciuta (creato da una versione successiva
+     * dell'applicazione) non viene modificato.
+     *
+     * @param conn connessione al database, in modalità auto-commit
+     * @throws SQLException se una migrazione fallisce; le migrazioni precedenti restano applicate
+     */
+    public static void migrate(Connection conn) throws SQLException {
+        int current = currentVersion(conn);
+        if (current > latestVersion()) {
+            SystemLogger.log("Database schema version " + current + " is newer than the supported version "
+                    + latestVersion(), null);
+            return;
+        }
+        if (current == 0 && isEmpty(conn)) {
+            System.out.println("Inizializzazione dello schema alla versione " + latestVersion());
+            runScript(conn, load(BASELINE_SCRIPT), latestVersion(), false);
+            return;
+        }
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version() <= current) {
+                continue;
+            }
+            System.out.println("Migrazione dello schema alla versione " + migration.version() + ": " + migration.description());
+            switch (migration) {
+                case ScriptMigration script -> runScript(conn, load(script.script()), script.version(), script.rebuild());
+                case ChunkedMigration chunked -> runChunked(conn, chunked);
+            }
+        }
+    }
+
+    private static boolean isEmpty(Connection conn) throws SQLException {
+        try (var stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT 1 FROM sqlite_master WHERE type = 'table' LIMIT 1")) {
+            return !rs.next();
+        }
+    }
+
+    /**
+     * Esegue lo script e imposta la versione indicata in un'unica transazione.
+     */
+    private static void runScript(Connection conn, String script, int version, boolean rebuild) throws SQLException {
+        inTransaction(conn, version, rebuild, stmt -> stmt.executeUpdate(script));
+    }
+
+    /**
+     * Crea la nuova tabella, vi copia le righe a blocchi riprendendo da quelle mancanti, poi sostituisce la tabella
+     * originale e imposta la versione.
+     * <p>
+     * La transazione finale copia anche le righe eventualmente aggiunte alla tabella originale dopo l'ultimo blocco.
+     */
+    private static void runChunked(Connection conn, ChunkedMigration migration) throws SQLException {
+        try (var stmt = conn.createStatement()) {
+            stmt.executeUpdate(load(migration.createScript()));
+        }
+        String swap = load(migration.swapScript());
+        long total = 0;
+        int rows;
+        try (var copy = conn.prepareStatement(load(migration.copyScript()))) {
+            copy.setInt(1, migration.chunkSize());
+            do {
+                conn.setAutoCommit(false);
+                try {
+                    rows = copy.executeUpdate();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Migration to version " + migration.version() + " failed after "
+                            + total + " rows", e);
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                total += rows;
+            } while (rows > 0);
+
+            inTransaction(conn, migration.version(), true, stmt -> {
+                // LIMIT negativo: nessun limite
+                copy.setInt(1, -1);
+                copy.executeUpdate();
+                stmt.executeUpdate(swap);
+            });
+        }
+        System.out.println("Copiate " + total + " righe");
+    }
+
+    /**
+     * Operazione di una migrazione, eseguita all'interno della sua transazione.
+     */
+    @FunctionalInterface
+    private interface MigrationStep {
+        void run(Statement stmt) throws SQLException;
+    }
+
+    /**
+     * Esegue l'operazione e imposta la versione indicata in un'unica transazione.
+     * <p>
+     * Con {@code rebuild} le foreign key vengono disabilitate per la durata della transazione: il {@code PRAGMA}
+     * non ha effetto all'interno di una transazione e va quindi impostato prima. L'operazione deve copiare le righe
+     * con i loro identificativi, così che i riferimenti delle altre tabelle restino validi: se
+     * {@code PRAGMA foreign_key_check} trova riferimenti non validi la transazione viene annullata.
+     */
+    private static void inTransaction(Connection conn, int version, boolean rebuild, MigrationStep step)
+            throws SQLException {
+        if (rebuild) {
+            setForeignKeys(conn, false);
+        }
+        conn.setAutoCommit(false);
+        try (var stmt = conn.createStatement()) {
+            step.run(stmt);
+            if (rebuild) {
+                checkForeignKeys(stmt);
+            }
+            setVersion(conn, version);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration to version " + version + " failed", e);
+        } finally {
+            conn.setAutoCommit(true);
+            if (rebuild) {
+                setForeignKeys(conn, true);
+            }
+        }
+    }
+
+    /**
+     * Verifica che tutte le foreign key del database siano rispettate.
+     *
+     * @throws SQLException se almeno una riga riferisce una riga inesistente
+     */
+    private static void checkForeignKeys(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA foreign_key_check")) {
+            if (rs.next()) {
+                throw new SQLException("Foreign key violation in table " + rs.getString("table")
+                        + " (rowid " + rs.getLong("rowid") + ", parent " + rs.getString("parent") + ")");
+            }
+        }
+    }
+
+    private static void setForeignKeys(Connection conn, boolean enabled) throws SQLException {
+        try (var stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = " + (enabled ? "ON" : "OFF"));
+        }
+    }
+
+    private static void setVersion(Connection conn, int version) throws SQLException {
+        try (var stmt = conn.createStatement()) {
+            // PRAGMA non accetta parametri: la versione è un intero noto, non un dato esterno
+            stmt.executeUpdate("PRAGMA user_version = " + version);
+        }
+    }
+
+    private static String load(String script) throws SQLException {
+        try (InputStream input = SchemaMigrator.class.getResourceAsStream(MIGRATIONS_DIR + script)) {
+            if (input == null) {
+                throw new SQLException("Could not find migration " + script + " in classpath");
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Could not read migration " + script, e);
+        }
+    }
+}
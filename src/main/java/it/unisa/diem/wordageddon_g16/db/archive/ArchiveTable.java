@@ -0,0 +1,72 @@
+package it.unisa.diem.wordageddon_g16.db.archive;
+
+/**
+ * Tabelle incluse in un archivio, nell'ordine in cui vengono esportate e importate.
+ * <p>
+ * L'ordine rispetta le foreign key: ogni tabella viene importata dopo quelle che riferisce.
+ * Le righe orfane (report di utenti eliminati, righe di {@code Content} o {@code WDM} senza documento),
+ * già ignorate dai DAO, non vengono esportate: non potrebbero essere importate con le foreign key attive.
+ * </p>
+ * Le tabelle con chiave naturale vengono unite a quelle del database di destinazione ({@code INSERT OR IGNORE});
+ * i report mantengono il proprio identificativo, a cui fanno riferimento le righe di {@code Content}.
+ */
+enum ArchiveTable {
+    USER("User", "INSERT OR IGNORE", "", "name", "password", "isAdmin"),
+    DOCUMENT("Document", "INSERT OR IGNORE", "", "id", "title", "word_count"),
+    STOP_WORD("StopWord", "INSERT OR IGNORE", "", "word"),
+    WDM("WDM", "INSERT OR IGNORE",
+            "WHERE EXISTS (SELECT 1 FROM Document d WHERE d.id = WDM.document)",
+            "document", "word", "occurrences"),
+    GAME_REPORT("GameReport", "INSERT",
+            "WHERE EXISTS (SELECT 1 FROM User u WHERE u.name = GameReport.user)",
+            "id", "user", "timestamp", "difficulty", "max_time", "used_time", "question_count", "score", "seed",
+            "challenge_day"),
+    CONTENT("Content", "INSERT",
+            "WHERE EXISTS (SELECT 1 FROM GameReport g JOIN User u ON u.name = g.user WHERE g.id = Content.report)"
+                    + " AND EXISTS (SELECT 1 FROM Document d WHERE d.id = CAST(Content.document AS TEXT))",
+            "document", "report");
+
+    private final String name;
+    private final String insert;
+    private final String filter;
+    private final String[] columns;
+
+    ArchiveTable(String name, String insert, String filter, String... columns) {
+        this.name = name;
+        this.insert = insert;
+        this.filter = filter;
+        this.columns = columns;
+    }
+
+    /**
+     * @return numero di colonne esportate
+     */
+    int columnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Query di esportazione: le righe sono lette nell'ordine del {@code rowid}, che non richiede ordinamenti.
+     *
+     * @return la query di esportazione
+     */
+    String selectSql() {
+        return "SELECT " + String.join(", ", columns) + " FROM " + name
+                + (filter.isEmpty() ? "" : " " + filter) + " ORDER BY rowid";
+    }
+
+    /**
+     * @return l'istruzione di inserimento di una riga
+     */
+    String insertSql() {
+        return insert + " INTO " + name + " (" + String.join(", ", columns) + ") VALUES ("
+                + "?, ".repeat(columns.length - 1) + "?)";
+    }
+
+    /**
+     * @return nome della tabella nel database
+     */
+    String tableName() {
+        return name;
+    }
+}
@@ -0,0 +1,88 @@
+package it.unisa.diem.wordageddon_g16.db.archive;
+
+import it.unisa.diem.wordageddon_g16.db.SchemaMigrator;
+import it.unisa.diem.wordageddon_g16.utility.Config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Esportazione e importazione da riga di comando della cronologia del database definito in
+ * {@link Config.Props#DB_URL}, tramite {@link HistoryArchive}.
+ * <p>
+ * Utilizzo: {@code ArchiveTool export|import <file> [--threads N]}; per default usa un thread per core.
+ * Al termine stampa le righe per tabella, la durata e il throughput sul file.
+ * </p>
+ * Non dipende da JavaFX e non passa dai DAO: può essere eseguito con il solo driver SQLite nel classpath.
+ */
+public final class ArchiveTool {
+
+    /**
+     * Costruttore privato per impedire l'istanziazione della classe di utilità.
+     */
+    private ArchiveTool() {}
+
+    public static void main(String[] args) throws IOException, SQLException {
+        if (args.length != 2 && !(args.length == 4 && args[2].equals("--threads"))
+                || !(args[0].equals("export") || args[0].equals("import"))) {
+            usage();
+            System.exit(2);
+            return;
+        }
+        Path file = Path.of(args[1]);
+        int threads;
+        try {
+            threads = args.length == 4 ? parseThreads(args[3]) : Runtime.getRuntime().availableProcessors();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            usage();
+            System.exit(2);
+            return;
+        }
+
+        try (Connection conn = DriverManager.getConnection(Config.get(Config.Props.DB_URL))) {
+            try (var stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA foreign_keys = ON;");
+            }
+            SchemaMigrator.migrate(conn);
+
+            long start = System.nanoTime();
+            Map<String, Long> rows = args[0].equals("export")
+                    ? HistoryArchive.export(conn, file, threads)
+                    : HistoryArchive.importArchive(conn, file, threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double megabytes = Files.size(file) / (1024.0 * 1024.0);
+            rows.forEach((table, count) -> System.out.printf("%-12s %,12d righe%n", table, count));
+            System.out.printf("%.1f MB in %.2f s (%.1f MB/s, %d thread)%n", megabytes, seconds, megabytes / seconds, threads);
+        }
+    }
+
+    /**
+     * Interpreta il valore dell'opzione {@code --threads}.
+     *
+     * @param value valore ricevuto dalla riga di comando
+     * @return il numero di thread
+     * @throws IllegalArgumentException se il valore non è un intero positivo
+     */
+    private static int parseThreads(String value) {
+        int threads;
+        try {
+            threads = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for --threads: " + value);
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("--threads must be positive: " + value);
+        }
+        return threads;
+    }
+
+    private static void usage() {
+        System.err.println("Utilizzo: ArchiveTool export|import <file> [--threads N]");
+    }
+}
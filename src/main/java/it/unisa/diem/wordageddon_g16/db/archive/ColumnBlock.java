@@ -0,0 +1,293 @@
+package it.unisa.diem.wordageddon_g16.db.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Blocco di righe consecutive di una tabella, memorizzate per colonna.
+ * <p>
+ * Ogni colonna del blocco è codificata in base ai valori che contiene:
+ * </p>
+ * <ul>
+ *   <li>se sono tutti interi, come differenze rispetto al valore precedente in formato varint zigzag: identificativi,
+ *       timestamp e contatori letti in ordine diventano così pochi byte per riga;</li>
+ *   <li>altrimenti come testo: prima le lunghezze in UTF-8 di tutti i valori (0 per {@code NULL}), poi i byte dei valori.</li>
+ * </ul>
+ * La disposizione per colonna avvicina valori simili (difficoltà, nomi utente, documenti ripetuti), che la successiva
+ * compressione Deflate riduce a pochi byte. Codifica e decodifica non dipendono da altri blocchi e possono essere
+ * eseguite in parallelo.
+ *
+ * @param table   tabella a cui appartengono le righe
+ * @param rows    numero di righe del blocco
+ * @param columns valori per colonna: {@link Long}, {@link String} o {@code null}
+ */
+record ColumnBlock(ArchiveTable table, int rows, Object[][] columns) {
+    private static final int INTEGER = 0;
+    private static final int TEXT = 1;
+    private static final int MAX_VARINT_BYTES = 10;
+
+    /**
+     * Dimensione massima del contenuto non compresso di un blocco. {@link #read(ResultSet, ArchiveTable, int)}
+     * chiude il blocco prima di superarla, così che l'importazione possa rifiutare lunghezze maggiori senza allocarle.
+     */
+    static final int MAX_RAW_BYTES = 32 << 20;
+
+    /**
+     * Blocco codificato e compresso, pronto per essere scritto nell'archivio.
+     *
+     * @param table     tabella a cui appartengono le righe
+     * @param rows      numero di righe
+     * @param rawLength lunghezza del contenuto non compresso
+     * @param data      contenuto compresso
+     * @param crc       CRC32 del contenuto compresso
+     */
+    record Encoded(ArchiveTable table, int rows, int rawLength, byte[] data, int crc) {}
+
+    /**
+     * Legge dal cursore al più {@code maxRows} righe.
+     * <p>
+     * Il blocco viene chiuso prima anche quando la stima per eccesso del contenuto non compresso raggiunge metà di
+     * {@link #MAX_RAW_BYTES}: solo una riga di oltre 16 MiB può quindi produrre un blocco che supera il limite.
+     *
+     * @param res     cursore della query di esportazione della tabella
+     * @param table   tabella letta
+     * @param maxRows numero massimo di righe del blocco
+     * @return il blocco letto, con 0 righe se il cursore è esaurito
+     * @throws SQLException se la lettura fallisce
+     */
+    static ColumnBlock read(ResultSet res, ArchiveTable table, int maxRows) throws SQLException {
+        Object[][] columns = new Object[table.columnCount()][maxRows];
+        int rows = 0;
+        long size = columns.length;
+        while (rows < maxRows && size < MAX_RAW_BYTES / 2 && res.next()) {
+            for (int c = 0; c < columns.length; c++) {
+                Object value = res.getObject(c + 1);
+                columns[c][rows] = switch (value) {
+                    case null -> null;
+                    case Integer i -> (long) i;
+                    case Long l -> l;
+                    default -> res.getString(c + 1);
+                };
+                // Al più tre byte UTF-8 per carattere, oltre alla lunghezza o al valore intero in varint
+                size += MAX_VARINT_BYTES + (columns[c][rows] instanceof String text ? 3L * text.length() : 0);
+            }
+            rows++;
+        }
+        return new ColumnBlock(table, rows, columns);
+    }
+
+    /**
+     * Codifica e comprime il blocco.
+     *
+     * @return il blocco codificato
+     * @throws IOException se il contenuto non compresso supera {@link #MAX_RAW_BYTES}
+     */
+    Encoded encode() throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(rows * columns.length * 4);
+        try (DataOutputStream out = new DataOutputStream(raw)) {
+            for (Object[] column : columns) {
+                writeColumn(out, column);
+            }
+        } catch (IOException e) {
+            // Non può accadere scrivendo in memoria
+            throw new UncheckedIOException(e);
+        }
+        byte[] input = raw.toByteArray();
+        if (input.length > MAX_RAW_BYTES) {
+            throw new IOException("Block of table " + table.tableName() + " is too large: " + input.length + " bytes");
+        }
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setInput(input);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(input.length / 2 + 64);
+        byte[] buffer = new byte[64 * 1024];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        byte[] data = compressed.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return new Encoded(table, rows, input.length, data, (int) crc.getValue());
+    }
+
+    /**
+     * Lunghezza massima del contenuto compresso di un blocco, secondo il limite conservativo di zlib
+     * ({@code deflateBound}): Deflate può espandere di poco un contenuto non comprimibile.
+     *
+     * @param rawLength lunghezza del contenuto non compresso
+     * @return la lunghezza massima del contenuto compresso
+     */
+    static long maxCompressedLength(int rawLength) {
+        return rawLength + ((rawLength + 7L) >> 3) + ((rawLength + 63L) >> 6) + 5 + 6;
+    }
+
+    /**
+     * Verifica, decomprime e decodifica un blocco letto dall'archivio.
+     *
+     * @param encoded blocco codificato
+     * @return il blocco decodificato
+     * @throws IOException se il blocco è corrotto o dichiara lunghezze non valide
+     */
+    static ColumnBlock decode(Encoded encoded) throws IOException {
+        if (encoded.rows() < 0 || encoded.rawLength() < 0 || encoded.rawLength() > MAX_RAW_BYTES) {
+            throw new IOException("Invalid block of table " + encoded.table().tableName() + ": " + encoded.rows()
+                    + " rows, " + encoded.rawLength() + " bytes");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(encoded.data());
+        if ((int) crc.getValue() != encoded.crc()) {
+            throw new IOException("Corrupted block of table " + encoded.table().tableName());
+        }
+        byte[] raw = new byte[encoded.rawLength()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(encoded.data());
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int read = inflater.inflate(raw, length, raw.length - length);
+                if (read == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != raw.length) {
+                throw new IOException("Truncated block of table " + encoded.table().tableName());
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted block of table " + encoded.table().tableName(), e);
+        } finally {
+            inflater.end();
+        }
+
+        int rows = encoded.rows();
+        Object[][] columns = new Object[encoded.table().columnCount()][];
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw))) {
+            for (int c = 0; c < columns.length; c++) {
+                columns[c] = readColumn(in, rows);
+            }
+        }
+        return new ColumnBlock(encoded.table(), rows, columns);
+    }
+
+    /**
+     * Imposta i parametri dell'istruzione di inserimento con i valori di una riga.
+     *
+     * @param statement istruzione restituita da {@link ArchiveTable#insertSql()}
+     * @param row       indice della riga nel blocco
+     * @throws SQLException se l'impostazione di un parametro fallisce
+     */
+    void bind(PreparedStatement statement, int row) throws SQLException {
+        for (int c = 0; c < columns.length; c++) {
+            switch (columns[c][row]) {
+                case null -> statement.setNull(c + 1, Types.NULL);
+                case Long value -> statement.setLong(c + 1, value);
+                case Object value -> statement.setString(c + 1, value.toString());
+            }
+        }
+    }
+
+    private void writeColumn(DataOutputStream out, Object[] column) throws IOException {
+        boolean integers = true;
+        for (int r = 0; r < rows && integers; r++) {
+            integers = column[r] instanceof Long;
+        }
+        if (integers) {
+            out.writeByte(INTEGER);
+            long previous = 0;
+            for (int r = 0; r < rows; r++) {
+                long value = (Long) column[r];
+                writeVarLong(out, zigzag(value - previous));
+                previous = value;
+            }
+            return;
+        }
+        out.writeByte(TEXT);
+        byte[][] values = new byte[rows][];
+        for (int r = 0; r < rows; r++) {
+            values[r] = column[r] == null ? null : column[r].toString().getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, values[r] == null ? 0 : values[r].length + 1L);
+        }
+        for (int r = 0; r < rows; r++) {
+            if (values[r] != null) {
+                out.write(values[r]);
+            }
+        }
+    }
+
+    private static Object[] readColumn(DataInputStream in, int rows) throws IOException {
+        Object[] column = new Object[rows];
+        int kind = in.readUnsignedByte();
+        switch (kind) {
+            case INTEGER -> {
+                long previous = 0;
+                for (int r = 0; r < rows; r++) {
+                    previous += unzigzag(readVarLong(in));
+                    column[r] = previous;
+                }
+            }
+            case TEXT -> {
+                int[] lengths = new int[rows];
+                for (int r = 0; r < rows; r++) {
+                    long length = readVarLong(in);
+                    if (length < 0 || length - 1 > in.available()) {
+                        throw new IOException("Invalid text length: " + length);
+                    }
+                    lengths[r] = (int) length;
+                }
+                for (int r = 0; r < rows; r++) {
+                    if (lengths[r] > 0) {
+                        byte[] value = new byte[lengths[r] - 1];
+                        in.readFully(value);
+                        column[r] = new String(value, StandardCharsets.UTF_8);
+                    }
+                }
+            }
+            default -> throw new IOException("Unknown column encoding: " + kind);
+        }
+        return column;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
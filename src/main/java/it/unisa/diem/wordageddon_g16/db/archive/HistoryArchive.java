@@ -0,0 +1,309 @@
+package it.unisa.diem.wordageddon_g16.db.archive;
+
+import it.unisa.diem.wordageddon_g16.db.SchemaMigrator;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Esportazione e importazione della cronologia di gioco e dei corpora in un archivio binario compresso per colonne.
+ * <p>
+ * L'archivio contiene le tabelle di {@link ArchiveTable} suddivise in blocchi di al più {@value #BLOCK_ROWS} righe
+ * e {@value ColumnBlock#MAX_RAW_BYTES} byte non compressi (vedi {@link ColumnBlock}). Struttura del file:
+ * </p>
+ * <pre>
+ *   magic (4 byte, "WGAR")
+ *   versione del formato (1 byte)
+ *   identificativo dell'archivio (16 byte)
+ *   versione dello schema del database esportato (4 byte)
+ *   blocchi: tabella (1 byte), righe (4 byte), lunghezza non compressa (4 byte),
+ *            lunghezza compressa (4 byte), CRC32 (4 byte), contenuto compresso
+ *   fine (1 byte, 0xFF)
+ * </pre>
+ * <p>
+ * Entrambe le operazioni sono in streaming, con un numero limitato di blocchi in memoria: la lettura dal database
+ * (o dal file) e la scrittura sul file (o nel database) sono sequenziali, mentre codifica e compressione
+ * (o decompressione e decodifica) dei blocchi sono svolte in parallelo da un pool di thread, conservando l'ordine.
+ * Con abbastanza thread il tempo dipende quindi dalla velocità del disco e di SQLite, non dalla compressione.
+ * </p>
+ * <p>
+ * L'esportazione legge tutte le tabelle in un'unica transazione, quindi da un'istantanea coerente del database,
+ * e scrive su un file temporaneo rinominato sulla destinazione solo al termine. L'importazione è riprendibile:
+ * ogni blocco viene inserito in una transazione che registra anche la posizione raggiunta nel file nella tabella
+ * {@code ArchiveImport}; un'importazione interrotta, ripetuta sullo stesso archivio, riparte dal blocco successivo
+ * all'ultimo completato.
+ * </p>
+ */
+public final class HistoryArchive {
+    private static final int MAGIC = 0x57474152; // "WGAR"
+    /** Versione corrente del formato. */
+    public static final int VERSION = 1;
+    private static final int BLOCK_ROWS = 8192;
+    private static final int END = 0xFF;
+    private static final int HEADER_BYTES = Integer.BYTES + 1 + 2 * Long.BYTES + Integer.BYTES;
+    private static final int BLOCK_HEADER_BYTES = 1 + 4 * Integer.BYTES;
+    private static final int IO_BUFFER = 1 << 20;
+
+    /**
+     * Costruttore privato per impedire l'istanziazione della classe di utilità.
+     */
+    private HistoryArchive() {}
+
+    /**
+     * Esporta le tabelle del database nel file indicato.
+     *
+     * @param conn    connessione al database, in modalità auto-commit
+     * @param file    file di destinazione; se esiste viene sostituito solo al termine dell'esportazione
+     * @param threads numero di thread di codifica
+     * @return numero di righe esportate per tabella
+     * @throws IOException  se la scrittura del file fallisce
+     * @throws SQLException se la lettura del database fallisce
+     */
+    public static Map<String, Long> export(Connection conn, Path file, int threads) throws IOException, SQLException {
+        Map<String, Long> rows = new LinkedHashMap<>();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        ExecutorService pool = newPool(threads, "archive-encoder");
+        // Transazione di sola lettura: tutte le tabelle vengono lette dalla stessa istantanea
+        conn.setAutoCommit(false);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), IO_BUFFER))) {
+            UUID id = UUID.randomUUID();
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(id.getMostSignificantBits());
+            out.writeLong(id.getLeastSignificantBits());
+            out.writeInt(SchemaMigrator.currentVersion(conn));
+
+            Deque<Future<ColumnBlock.Encoded>> pending = new ArrayDeque<>();
+            for (ArchiveTable table : ArchiveTable.values()) {
+                long count = 0;
+                try (var stmt = conn.createStatement()) {
+                    stmt.setFetchSize(BLOCK_ROWS);
+                    try (ResultSet res = stmt.executeQuery(table.selectSql())) {
+                        ColumnBlock block;
+                        while ((block = ColumnBlock.read(res, table, BLOCK_ROWS)).rows() > 0) {
+                            pending.add(pool.submit(block::encode));
+                            count += block.rows();
+                            while (pending.size() >= threads * 2) {
+                                writeBlock(out, await(pending.poll()));
+                            }
+                        }
+                    }
+                }
+                rows.put(table.tableName(), count);
+            }
+            while (!pending.isEmpty()) {
+                writeBlock(out, await(pending.poll()));
+            }
+            out.writeByte(END);
+        } catch (IOException | SQLException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            pool.shutdownNow();
+            conn.rollback();
+            conn.setAutoCommit(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rows;
+    }
+
+    /**
+     * Importa un archivio nel database, riprendendo un'eventuale importazione interrotta dello stesso archivio.
+     * <p>
+     * Utenti, documenti, stopword e WDM già presenti vengono mantenuti. I report conservano il proprio
+     * identificativo: per non confonderli con quelli esistenti, un nuovo archivio può essere importato soltanto
+     * in un database senza report.
+     *
+     * @param conn    connessione al database, in modalità auto-commit, con lo schema aggiornato
+     * @param file    archivio da importare
+     * @param threads numero di thread di decodifica
+     * @return numero di righe importate per tabella in questa esecuzione
+     * @throws IOException           se l'archivio non è valido, è corrotto o ha uno schema diverso dal database
+     * @throws SQLException          se l'inserimento fallisce; i blocchi già importati restano salvati
+     * @throws IllegalStateException se il database contiene già dei report
+     */
+    public static Map<String, Long> importArchive(Connection conn, Path file, int threads) throws IOException, SQLException {
+        Map<String, Long> rows = new LinkedHashMap<>();
+        ExecutorService pool = newPool(threads, "archive-decoder");
+        Map<ArchiveTable, PreparedStatement> inserts = new EnumMap<>(ArchiveTable.class);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            DataInputStream header = new DataInputStream(Channels.newInputStream(channel));
+            if (header.readInt() != MAGIC) {
+                throw new IOException("Not a Wordageddon archive: " + file);
+            }
+            int version = header.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported archive version: " + version);
+            }
+            String id = new UUID(header.readLong(), header.readLong()).toString();
+            int schema = header.readInt();
+            if (schema != SchemaMigrator.currentVersion(conn)) {
+                throw new IOException("Archive schema version " + schema + " does not match database version "
+                        + SchemaMigrator.currentVersion(conn));
+            }
+
+            long position = HEADER_BYTES;
+            Optional<Long> progress = progress(conn, id);
+            if (progress.isPresent()) {
+                if (progress.get() < 0) {
+                    System.out.println("Archivio " + id + " già importato");
+                    return rows;
+                }
+                position = progress.get();
+                System.out.println("Ripresa dell'importazione dal byte " + position);
+            } else if (hasReports(conn)) {
+                throw new IllegalStateException("The database already contains game reports");
+            }
+            channel.position(position);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), IO_BUFFER));
+
+            record Pending(Future<ColumnBlock> block, long end) {}
+            Deque<Pending> pending = new ArrayDeque<>();
+            ArchiveTable[] tables = ArchiveTable.values();
+            int tableIndex;
+            while ((tableIndex = in.readUnsignedByte()) != END) {
+                if (tableIndex >= tables.length) {
+                    throw new IOException("Unknown table index: " + tableIndex);
+                }
+                int count = in.readInt();
+                int rawLength = in.readInt();
+                int length = in.readInt();
+                // Lunghezze verificate prima di allocare: il CRC è controllato solo dopo la lettura del blocco
+                if (count <= 0 || count > BLOCK_ROWS || rawLength < 0 || rawLength > ColumnBlock.MAX_RAW_BYTES
+                        || length <= 0 || length > ColumnBlock.maxCompressedLength(rawLength)) {
+                    throw new IOException("Invalid block header at byte " + position + ": " + count + " rows, "
+                            + rawLength + " bytes, " + length + " compressed bytes");
+                }
+                byte[] data = new byte[length];
+                int crc = in.readInt();
+                in.readFully(data);
+                position += BLOCK_HEADER_BYTES + data.length;
+
+                var encoded = new ColumnBlock.Encoded(tables[tableIndex], count, rawLength, data, crc);
+                pending.add(new Pending(pool.submit(() -> ColumnBlock.decode(encoded)), position));
+                while (pending.size() >= threads * 2) {
+                    Pending next = pending.poll();
+                    insert(conn, inserts, id, await(next.block()), next.end(), rows);
+                }
+            }
+            while (!pending.isEmpty()) {
+                Pending next = pending.poll();
+                insert(conn, inserts, id, await(next.block()), next.end(), rows);
+            }
+            saveProgress(conn, id, -1);
+        } finally {
+            pool.shutdownNow();
+            for (PreparedStatement statement : inserts.values()) {
+                statement.close();
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Inserisce le righe di un blocco e registra la posizione raggiunta nell'archivio, in un'unica transazione.
+     */
+    private static void insert(Connection conn, Map<ArchiveTable, PreparedStatement> inserts, String id,
+                               ColumnBlock block, long end, Map<String, Long> rows) throws SQLException {
+        PreparedStatement statement = inserts.get(block.table());
+        if (statement == null) {
+            statement = conn.prepareStatement(block.table().insertSql());
+            inserts.put(block.table(), statement);
+        }
+        conn.setAutoCommit(false);
+        try {
+            for (int r = 0; r < block.rows(); r++) {
+                block.bind(statement, r);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            saveProgress(conn, id, end);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        rows.merge(block.table().tableName(), (long) block.rows(), Long::sum);
+    }
+
+    /**
+     * Legge la posizione raggiunta da un'importazione precedente dell'archivio: -1 se è stata completata.
+     */
+    private static Optional<Long> progress(Connection conn, String id) throws SQLException {
+        try (var stmt = conn.prepareStatement("SELECT position FROM ArchiveImport WHERE archive = ?")) {
+            stmt.setString(1, id);
+            try (ResultSet res = stmt.executeQuery()) {
+                return res.next() ? Optional.of(res.getLong(1)) : Optional.empty();
+            }
+        }
+    }
+
+    private static void saveProgress(Connection conn, String id, long position) throws SQLException {
+        try (var stmt = conn.prepareStatement("INSERT INTO ArchiveImport (archive, position) VALUES (?, ?)"
+                + " ON CONFLICT (archive) DO UPDATE SET position = excluded.position")) {
+            stmt.setString(1, id);
+            stmt.setLong(2, position);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static boolean hasReports(Connection conn) throws SQLException {
+        try (var stmt = conn.createStatement();
+             ResultSet res = stmt.executeQuery("SELECT 1 FROM GameReport LIMIT 1")) {
+            return res.next();
+        }
+    }
+
+    private static void writeBlock(DataOutputStream out, ColumnBlock.Encoded block) throws IOException {
+        out.writeByte(block.table().ordinal());
+        out.writeInt(block.rows());
+        out.writeInt(block.rawLength());
+        out.writeInt(block.data().length);
+        out.writeInt(block.crc());
+        out.write(block.data());
+    }
+
+    /**
+     * Attende il risultato di un blocco, propagando le eccezioni della codifica o della decodifica.
+     */
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Archive operation interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static ExecutorService newPool(int threads, String name) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
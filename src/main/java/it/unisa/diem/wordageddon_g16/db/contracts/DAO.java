@@ -1,7 +1,7 @@
 package it.unisa.diem.wordageddon_g16.db.contracts;
 
 import java.util.Collection;
-import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Interfaccia generica per il pattern Data Access Object (DAO).
@@ -22,6 +22,19 @@ public interface DAO<T> {
      */
     Collection<T> selectAll();
 
+    /**
+     * Scorre tutti gli oggetti gestiti dal DAO uno alla volta, senza caricarli tutti in memoria.
+     * <p>
+     * A differenza di {@link #selectAll()}, gli oggetti vengono costruiti man mano che il cursore avanza e,
+     * se l'azione non li conserva, la memoria occupata non dipende dal numero di righe: il metodo è pensato
+     * per analisi ed esportazioni di tabelle di grandi dimensioni. Il cursore viene chiuso al ritorno del
+     * metodo; un'eccezione lanciata dall'azione interrompe la scansione e viene propagata al chiamante.
+     *
+     * @param fetchSize numero di righe che il driver legge a ogni accesso alla sorgente dati, 0 per il valore predefinito
+     * @param action    azione invocata per ogni oggetto
+     */
+    void scan(int fetchSize, Consumer<? super T> action);
+
     /**
      * Inserisce un nuovo oggetto nel database.
      * <p>
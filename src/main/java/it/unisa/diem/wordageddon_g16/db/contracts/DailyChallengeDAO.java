@@ -0,0 +1,34 @@
+package it.unisa.diem.wordageddon_g16.db.contracts;
+
+import it.unisa.diem.wordageddon_g16.models.DailyChallenge;
+import it.unisa.diem.wordageddon_g16.models.DailyChallengeEntry;
+import it.unisa.diem.wordageddon_g16.models.Difficulty;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interfaccia per la gestione delle partite della sfida del giorno.
+ * <p>
+ * Ogni sfida è identificata dal giorno e dalla difficoltà; una volta salvata non viene più modificata.
+ */
+public interface DailyChallengeDAO extends DAO<DailyChallenge> {
+
+    /**
+     * Recupera la sfida di un giorno con la difficoltà indicata.
+     *
+     * @param day        giorno della sfida
+     * @param difficulty difficoltà della sfida
+     * @return un {@code Optional} contenente la sfida, vuoto se non è ancora stata generata
+     */
+    Optional<DailyChallenge> selectBy(LocalDate day, Difficulty difficulty);
+
+    /**
+     * Calcola la classifica delle sfide di un giorno, considerando il primo tentativo di ogni giocatore.
+     *
+     * @param day giorno delle sfide
+     * @return le voci della classifica, per difficoltà e poi per punteggio decrescente e tempo crescente
+     */
+    List<DailyChallengeEntry> selectLeaderboard(LocalDate day);
+}
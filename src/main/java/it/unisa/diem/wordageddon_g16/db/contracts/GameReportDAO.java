@@ -1,9 +1,13 @@
 package it.unisa.diem.wordageddon_g16.db.contracts;
 
+import it.unisa.diem.wordageddon_g16.models.DifficultyTimeStats;
 import it.unisa.diem.wordageddon_g16.models.GameReport;
+import it.unisa.diem.wordageddon_g16.models.GameReportPage;
 import it.unisa.diem.wordageddon_g16.models.User;
 
 import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,4 +26,23 @@ public interface GameReportDAO extends DAO<GameReport> {
      * @return un {@code Optional} contenente il {@link GameReport} se esistente, altrimenti vuoto
      */
     Optional<GameReport> selectBy(User user, Timestamp timestamp);
+
+    /**
+     * Recupera una pagina dello storico delle partite di un utente, ordinato dalla partita più recente.
+     * <p>
+     * La prima pagina ({@code before} nullo) contiene anche le statistiche su tutte le partite dell'utente.
+     *
+     * @param user   l'utente di cui leggere lo storico
+     * @param before cursore restituito dalla pagina precedente, {@code null} per la prima pagina
+     * @param limit  numero massimo di partite della pagina
+     * @return la pagina richiesta
+     */
+    GameReportPage selectPageByUser(User user, LocalDateTime before, int limit);
+
+    /**
+     * Calcola numero di partite, tempo medio e tempo minimo impiegati per ogni difficoltà giocata almeno una volta.
+     *
+     * @return le statistiche, in ordine di difficoltà
+     */
+    List<DifficultyTimeStats> selectTimeStatsByDifficulty();
 }
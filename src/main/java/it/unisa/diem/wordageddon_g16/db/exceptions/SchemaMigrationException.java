@@ -0,0 +1,16 @@
+package it.unisa.diem.wordageddon_g16.db.exceptions;
+
+/**
+ * The type Schema migration exception.
+ */
+public class SchemaMigrationException extends RuntimeException {
+    /**
+     * Instantiates a new Schema migration exception.
+     *
+     * @param message the message
+     * @param cause   the cause
+     */
+    public SchemaMigrationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
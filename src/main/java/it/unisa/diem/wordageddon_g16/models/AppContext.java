@@ -2,6 +2,7 @@ package it.unisa.diem.wordageddon_g16.models;
 
 import it.unisa.diem.wordageddon_g16.db.contracts.Repository;
 import it.unisa.diem.wordageddon_g16.services.*;
+import it.unisa.diem.wordageddon_g16.utility.Lazy;
 
 import java.io.Serializable;
 
@@ -10,6 +11,9 @@ import java.io.Serializable;
  * <p>
  * Fornisce un punto di accesso condiviso a tutti le classi service e DAO, mantenendo anche
  * lo stato globale dell'app, come l'utente corrente e il report di gioco attivo.
+ * <p>
+ * I servizi vengono costruiti pigramente, al primo accesso, tramite {@link Lazy}: all'avvio viene creato
+ * soltanto ciò che serve alla prima vista mostrata.
  */
 public class AppContext implements Serializable {
     /**
@@ -19,19 +23,23 @@ public class AppContext implements Serializable {
     /**
      * AuthService per l'autenticazione e la gestione degli utenti.
      */
-    private final AuthService authService;
+    private final Lazy<AuthService> authService;
     /**
      * Servizio per la gestione della leaderboard.
      */
-    private final LeaderboardService leaderboardService;
+    private final Lazy<LeaderboardService> leaderboardService;
     /**
      * Servizio per la gestione del pannello utente.
      */
-    public final UserPanelService userPanelService;
+    private final Lazy<UserPanelService> userPanelService;
     /**
      * Servizio per la logica di gioco, gestione domande e risultati.
      */
-    private final GameService gameService;
+    private final Lazy<GameService> gameService;
+    /**
+     * Servizio della sfida del giorno.
+     */
+    private final Lazy<DailyChallengeService> dailyChallengeService;
 
     /**
      * Utente attualmente autenticato nel sistema.
@@ -44,17 +52,19 @@ public class AppContext implements Serializable {
     private GameSessionState interruptedSession;
 
     /**
-     * Costruisce un nuovo contesto dell'applicazione inizializzando tutte le classi service
-     * con i rispettivi DAO dal repository.
+     * Costruisce un nuovo contesto dell'applicazione.
+     * <p>
+     * Le classi service, con i rispettivi DAO dal repository, vengono create al primo accesso.
      *
      * @param repo il repository contenente i DAO per l'accesso al database
      */
     public AppContext(Repository repo) {
         this.repo = repo;
-        authService = new AuthService(this, repo.getDAO("user"));
-        leaderboardService = new LeaderboardService(this, repo.getDAO("gameReport"), repo.getDAO("user"));
-        userPanelService = new UserPanelService(repo.getDAO("gameReport"), repo.getDAO("user"), repo.getDAO("document"), repo.getDAO("stopWord"), repo.getDAO("wdm"), this);
-        gameService = new GameService(this, repo.getDAO("gameReport"), repo.getDAO("wdm"), repo.getDAO("document"), repo.getDAO("stopWord"));
+        authService = new Lazy<>(() -> new AuthService(this, repo.getDAO("user")));
+        leaderboardService = new Lazy<>(() -> new LeaderboardService(this, repo.getDAO("gameReport"), repo.getDAO("user")));
+        userPanelService = new Lazy<>(() -> new UserPanelService(repo.getDAO("gameReport"), repo.getDAO("user"), repo.getDAO("document"), repo.getDAO("stopWord"), repo.getDAO("wdm"), this));
+        gameService = new Lazy<>(() -> new GameService(this, repo.getDAO("gameReport"), repo.getDAO("wdm"), repo.getDAO("document"), repo.getDAO("stopWord")));
+        dailyChallengeService = new Lazy<>(() -> new DailyChallengeService(this, getGameService(), repo.getDAO("dailyChallenge")));
     }
 
     /**
@@ -83,7 +93,7 @@ public class AppContext implements Serializable {
      * @return il servizio {@link AuthService}
      */
     public AuthService getAuthService() {
-        return authService;
+        return authService.get();
     }
 
     /**
@@ -92,7 +102,7 @@ public class AppContext implements Serializable {
      * @return il servizio {@link LeaderboardService}
      */
     public LeaderboardService getLeaderboardService() {
-        return leaderboardService;
+        return leaderboardService.get();
     }
 
     /**
@@ -101,7 +111,7 @@ public class AppContext implements Serializable {
      * @return il servizio {@link UserPanelService}
      */
     public UserPanelService getUserPanelService() {
-        return userPanelService;
+        return userPanelService.get();
     }
 
     /**
@@ -110,7 +120,16 @@ public class AppContext implements Serializable {
      * @return il servizio {@link GameService}
      */
     public GameService getGameService() {
-        return gameService;
+        return gameService.get();
+    }
+
+    /**
+     * Restituisce il servizio della sfida del giorno.
+     *
+     * @return il servizio {@link DailyChallengeService}
+     */
+    public DailyChallengeService getDailyChallengeService() {
+        return dailyChallengeService.get();
     }
 
     /**
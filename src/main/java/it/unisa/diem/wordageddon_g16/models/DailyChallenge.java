@@ -0,0 +1,38 @@
+package it.unisa.diem.wordageddon_g16.models;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Partita della sfida del giorno: la stessa per tutti i giocatori in un giorno e con una difficoltà.
+ * <p>
+ * Contiene i parametri della partita, compreso il seme, e le domande già generate: per giocarla non serve
+ * caricare le WDM né generare le domande. Le partite giocate vengono riconosciute dal seme e dalla difficoltà
+ * salvati nel {@link GameReport}.
+ *
+ * @param day       giorno della sfida
+ * @param params    parametri della partita
+ * @param questions domande della partita
+ */
+public record DailyChallenge(LocalDate day, GameParams params, List<Question> questions) {
+    public DailyChallenge {
+        if (day == null || params == null || params.getSeed() == null) {
+            throw new IllegalArgumentException("Day and seeded params cannot be null");
+        }
+        questions = List.copyOf(questions);
+    }
+
+    /**
+     * @return difficoltà della sfida
+     */
+    public Difficulty difficulty() {
+        return params.getDifficulty();
+    }
+
+    /**
+     * @return seme della partita della sfida
+     */
+    public long seed() {
+        return params.getSeed();
+    }
+}
@@ -0,0 +1,17 @@
+package it.unisa.diem.wordageddon_g16.models;
+
+import java.time.Duration;
+
+/**
+ * Voce della classifica di una sfida del giorno.
+ * <p>
+ * Conta soltanto il primo tentativo del giocatore: i tentativi successivi ripetono le stesse domande.
+ *
+ * @param username   nome del giocatore
+ * @param difficulty difficoltà della sfida
+ * @param score      punteggio del primo tentativo
+ * @param usedTime   tempo impiegato nel primo tentativo
+ * @param attempts   numero di tentativi
+ */
+public record DailyChallengeEntry(String username, Difficulty difficulty, int score, Duration usedTime, int attempts) {
+}
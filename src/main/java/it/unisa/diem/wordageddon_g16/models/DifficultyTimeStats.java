@@ -0,0 +1,14 @@
+package it.unisa.diem.wordageddon_g16.models;
+
+import java.time.Duration;
+
+/**
+ * Statistiche sui tempi di risposta di tutte le partite giocate con una difficoltà.
+ *
+ * @param difficulty      difficoltà delle partite
+ * @param games           numero di partite giocate
+ * @param averageUsedTime tempo medio impiegato per rispondere alle domande, troncato al secondo
+ * @param bestUsedTime    tempo minimo impiegato per rispondere alle domande
+ */
+public record DifficultyTimeStats(Difficulty difficulty, int games, Duration averageUsedTime, Duration bestUsedTime) {
+}
@@ -5,7 +5,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Classe che incapsula i parametri di una partita.
@@ -13,13 +13,16 @@ import java.util.Random;
  * Rappresenta i parametri generati automaticamente per una partita in corso in base alla difficoltà scelta.
  * Contiene difficoltà, timer, documenti selezionati e numero di domande.
  * </p>
+ * I parametri generati da {@link it.unisa.diem.wordageddon_g16.services.GameService} contengono anche il seme da cui
+ * derivano: a parità di documenti disponibili, lo stesso seme e la stessa difficoltà producono gli stessi parametri
+ * e le stesse domande, per cui la partita può essere rigenerata in seguito.
  */
 public class GameParams implements Serializable {
-    private static final Random random = new Random();
     private final Duration timer;
     private final List<Document> documents;
     private final int questionCount;
     private final Difficulty difficulty;
+    private final Long seed;
 
     public Duration getTimer() {
         return timer;
@@ -37,6 +40,16 @@ public class GameParams implements Serializable {
         return difficulty;
     }
 
+    /**
+     * Restituisce il seme da cui sono stati generati i parametri e le domande della partita.
+     *
+     * @return il seme, oppure {@code null} se i parametri non derivano da un seme
+     *         (partita interrotta salvata da una versione precedente dell'applicazione)
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
     /**
      * Classe di supporto per la gestione della difficoltà.
      * <p>
@@ -44,12 +57,16 @@ public class GameParams implements Serializable {
      * </p>
      */
     public static class DifficultyIndex {
+        private final RandomGenerator random;
         private  float value;
 
         /**
          * Costruisce un nuovo DifficultyIndex.
+         *
+         * @param random generatore di numeri casuali della generazione della partita
          */
-        public DifficultyIndex() {
+        public DifficultyIndex(RandomGenerator random) {
+            this.random = random;
             this.value = 1;
         }
 
@@ -76,7 +93,8 @@ public class GameParams implements Serializable {
     }
 
     /**
-     * Costruisce i parametri di gioco con valori specifici. Viene utilizzato per il restore di una partita interrotta.
+     * Costruisce i parametri di gioco con valori specifici, senza seme. Viene utilizzato per il restore di una
+     * partita interrotta salvata prima dell'introduzione del seme.
      *
      * @param difficulty    difficoltà della partita
      * @param documents     lista di documenti selezionati per la partita
@@ -84,10 +102,23 @@ public class GameParams implements Serializable {
      * @param questionCount numero di domande da generare per la partita
      */
     public GameParams(Difficulty difficulty, List<Document> documents, Duration timer, int questionCount) {
+        this(difficulty, documents, timer, questionCount, null);
+    }
+
+    /**
+     * Costruisce i parametri di gioco con valori specifici e il seme da cui sono stati generati.
+     *
+     * @param difficulty    difficoltà della partita
+     * @param documents     lista di documenti selezionati per la partita
+     * @param timer         durata del timer per la partita
+     * @param questionCount numero di domande da generare per la partita
+     * @param seed          seme della partita, oppure {@code null} se sconosciuto
+     */
+    public GameParams(Difficulty difficulty, List<Document> documents, Duration timer, int questionCount, Long seed) {
         this.difficulty = difficulty;
-        var di = new DifficultyIndex();
         this.documents = Collections.unmodifiableList(new ArrayList<>(documents));
         this.timer = timer;
         this.questionCount = questionCount;
+        this.seed = seed;
     }
 }
@@ -20,6 +20,7 @@ import java.util.List;
  * @param usedTime      tempo effettivamente impiegato nel rispondere alle domande
  * @param questionCount numero totale di domande generate
  * @param score         punteggio ottenuto alla fine della sessione
+ * @param seed          seme da cui è stata generata la partita, oppure {@code null} se sconosciuto
  */
 public record GameReport (
     User user,
@@ -29,7 +30,8 @@ public record GameReport (
     Duration maxTime,
     Duration usedTime,
     int questionCount,
-    int score
+    int score,
+    Long seed
 ){
     /**
      * Costruttore compatto per il record {@code GameReport}.
@@ -43,6 +45,23 @@ public record GameReport (
         }
     }
 
+    /**
+     * Costruisce un report di una partita di cui non è noto il seme.
+     *
+     * @param user          utente che ha effettuato la sessione
+     * @param documents     lista dei documenti selezionati per la partita
+     * @param timestamp     data e ora di fine sessione di gioco
+     * @param difficulty    livello di difficoltà della sessione
+     * @param maxTime       tempo massimo previsto per rispondere alle domande
+     * @param usedTime      tempo effettivamente impiegato nel rispondere alle domande
+     * @param questionCount numero totale di domande generate
+     * @param score         punteggio ottenuto alla fine della sessione
+     */
+    public GameReport(User user, List<Document> documents, LocalDateTime timestamp, Difficulty difficulty,
+                      Duration maxTime, Duration usedTime, int questionCount, int score) {
+        this(user, documents, timestamp, difficulty, maxTime, usedTime, questionCount, score, null);
+    }
+
     /**
      * Restituisce l’utente che ha giocato la partita.
      *
@@ -122,4 +141,15 @@ public record GameReport (
     public int score() {
         return score;
     }
-}
\ No newline at end of file
+
+    /**
+     * Restituisce il seme da cui è stata generata la partita: con lo stesso seme e la stessa difficoltà
+     * la partita può essere rigenerata.
+     *
+     * @return il seme, oppure {@code null} per le partite registrate prima dell'introduzione del seme
+     */
+    @Override
+    public Long seed() {
+        return seed;
+    }
+}
@@ -0,0 +1,26 @@
+package it.unisa.diem.wordageddon_g16.models;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Pagina dello storico delle partite di un utente, ordinato dalla più recente.
+ * <p>
+ * La paginazione è per chiave (keyset): la pagina successiva si richiede a partire da {@link #nextCursor()},
+ * il timestamp dell'ultima partita della pagina, invece che tramite un offset. Il costo di ogni pagina
+ * resta quindi costante indipendentemente da quante partite sono già state lette.
+ *
+ * @param reports partite della pagina, dalla più recente
+ * @param hasMore {@code true} se esistono partite meno recenti da caricare
+ * @param stats   statistiche su tutte le partite dell'utente, presenti solo nella prima pagina ({@code null} nelle altre)
+ */
+public record GameReportPage(List<GameReport> reports, boolean hasMore, UserStats stats) {
+    /**
+     * Restituisce il cursore da cui richiedere la pagina successiva.
+     *
+     * @return timestamp dell'ultima partita della pagina, {@code null} se la pagina è vuota
+     */
+    public LocalDateTime nextCursor() {
+        return reports.isEmpty() ? null : reports.getLast().timestamp();
+    }
+}
@@ -0,0 +1,203 @@
+package it.unisa.diem.wordageddon_g16.models;
+
+import it.unisa.diem.wordageddon_g16.services.GameService;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Rappresenta una singola partita in Wordageddon.
+ * <p>
+ * Una {@code GameSession} è immutabile: contiene i {@link GameParams} della partita e, una volta preparata,
+ * le {@link WDM} dei documenti selezionati. Viene creata dal {@link GameService}, che non conserva alcuno stato
+ * tra una chiamata e l'altra; di conseguenza più partite possono essere preparate, giocate e salvate
+ * contemporaneamente su thread diversi (ad esempio preparando la partita successiva mentre l'utente gioca quella corrente).
+ * </p>
+ * Le WDM vengono caricate dal database per ogni sessione e non sono condivise con altre partite:
+ * dopo la preparazione vengono soltanto lette. Alla preparazione vengono costruite anche le {@link WordTable}
+ * di ogni documento e quella con le frequenze complessive, da cui i generatori di domande estraggono le parole.
+ * <p>
+ * Il generatore di numeri casuali delle domande ({@link #getRandom()}) viene creato nuovo a ogni richiesta dal seme
+ * dei {@link GameParams}: la sessione non contiene stato modificabile, e a parità di seme e di WDM le domande generate
+ * sono le stesse, comunque e da qualunque thread la sessione sia stata usata in precedenza.
+ * </p>
+ */
+public final class GameSession {
+    private final GameParams params;
+    private final Map<Document, WDM> wdms;
+    private final Map<Document, WordTable> tables;
+    private final WordTable allWords;
+    private final long questionSeed;
+
+    /**
+     * Crea una sessione non ancora preparata, ossia priva delle WDM dei documenti.
+     * <p>
+     * Se i parametri non hanno un seme, ne viene estratto uno casuale, fisso per la sessione.
+     *
+     * @param params parametri della partita
+     */
+    public GameSession(GameParams params) {
+        this(params, Map.of(), Map.of(), new WordTable(Map.of()), questionSeed(params));
+    }
+
+    private static long questionSeed(GameParams params) {
+        if (params == null || params.getSeed() == null) {
+            return ThreadLocalRandom.current().nextLong();
+        }
+        return params.getSeed();
+    }
+
+    private GameSession(GameParams params, Map<Document, WDM> wdms, Map<Document, WordTable> tables,
+                        WordTable allWords, long questionSeed) {
+        if (params == null) {
+            throw new IllegalArgumentException("Game params cannot be null");
+        }
+        this.params = params;
+        this.wdms = wdms;
+        this.tables = tables;
+        this.allWords = allWords;
+        this.questionSeed = questionSeed;
+    }
+
+    /**
+     * Restituisce una nuova sessione con gli stessi parametri, lo stesso seme delle domande e le WDM indicate,
+     * costruendo le tabelle delle parole dei documenti e della partita.
+     *
+     * @param wdms mappa documento → WDM per tutti i documenti della partita
+     * @return la sessione preparata
+     */
+    public GameSession withWdms(Map<Document, WDM> wdms) {
+        Map<Document, WordTable> tables = new LinkedHashMap<>();
+        Map<String, Integer> cumulative = new HashMap<>();
+        for (Map.Entry<Document, WDM> entry : wdms.entrySet()) {
+            Map<String, Integer> words = entry.getValue().getWords();
+            tables.put(entry.getKey(), new WordTable(words));
+            words.forEach((word, count) -> cumulative.merge(word, count, Integer::sum));
+        }
+        return new GameSession(params, Collections.unmodifiableMap(new LinkedHashMap<>(wdms)),
+                Collections.unmodifiableMap(tables), new WordTable(cumulative), questionSeed);
+    }
+
+    /**
+     * Indica se le WDM dei documenti della partita sono già state caricate.
+     *
+     * @return {@code true} se la sessione è pronta per la generazione delle domande
+     */
+    public boolean isPrepared() {
+        return !wdms.isEmpty();
+    }
+
+    /**
+     * Restituisce i parametri della partita, utili per il salvataggio di una sessione interrotta.
+     *
+     * @return i parametri della partita
+     */
+    public GameParams getParams() {
+        return params;
+    }
+
+    /**
+     * Restituisce la difficoltà della partita.
+     *
+     * @return la difficoltà selezionata
+     */
+    public Difficulty getDifficulty() {
+        return params.getDifficulty();
+    }
+
+    /**
+     * Restituisce il tempo limite per la fase di lettura.
+     *
+     * @return la durata massima concessa per la lettura
+     */
+    public Duration getTimeLimit() {
+        return params.getTimer();
+    }
+
+    /**
+     * Restituisce la lista (non modificabile) dei documenti selezionati per la partita.
+     *
+     * @return lista dei documenti utilizzati nella partita
+     */
+    public List<Document> getDocuments() {
+        return params.getDocuments();
+    }
+
+    /**
+     * Restituisce il numero di domande della partita.
+     *
+     * @return numero di domande da generare
+     */
+    public int getQuestionCount() {
+        return params.getQuestionCount();
+    }
+
+    /**
+     * Calcola il punteggio assegnato per ogni singola domanda in base alla
+     * difficoltà della partita e al numero totale di domande.
+     *
+     * @return il punteggio per ogni domanda
+     */
+    public int getScorePerQuestion() {
+        return Difficulty.getMaxScoreDifficulty(getDifficulty()) / getQuestionCount();
+    }
+
+    /**
+     * Restituisce la WDM di un documento della partita.
+     *
+     * @param document documento della partita
+     * @return la WDM del documento, oppure {@code null} se la sessione non è preparata o il documento non ne fa parte
+     */
+    public WDM getWdm(Document document) {
+        return wdms.get(document);
+    }
+
+    /**
+     * Restituisce tutte le WDM della partita.
+     *
+     * @return mappa non modificabile documento → WDM
+     */
+    public Map<Document, WDM> getWdms() {
+        return wdms;
+    }
+
+    /**
+     * Restituisce le parole di un documento della partita.
+     *
+     * @param document documento della partita
+     * @return la tabella delle parole del documento, oppure {@code null} se la sessione non è preparata
+     *         o il documento non ne fa parte
+     */
+    public WordTable getWords(Document document) {
+        return tables.get(document);
+    }
+
+    /**
+     * Restituisce le parole di tutti i documenti della partita con le frequenze complessive.
+     *
+     * @return la tabella delle parole della partita, vuota se la sessione non è preparata
+     */
+    public WordTable getAllWords() {
+        return allWords;
+    }
+
+    /**
+     * Restituisce un nuovo generatore di numeri casuali per le domande della partita.
+     * <p>
+     * Il generatore è un flusso derivato ({@link SplittableRandom#split()}) dal seme della partita, indipendente da
+     * quello usato per generare i parametri; ogni chiamata ne restituisce uno nuovo nello stato iniziale, da usare
+     * per un'intera generazione delle domande.
+     *
+     * @return il generatore usato per generare le domande
+     */
+    public RandomGenerator getRandom() {
+        return new SplittableRandom(questionSeed).split();
+    }
+}
@@ -11,8 +11,8 @@ import java.util.Map;
 /**
  * Rappresenta lo stato temporaneo di una sessione di gioco interrotta in Wordageddon.
  * <p>
- * Questa record viene serializzato per permettere il salvataggio e il recupero preciso
- * della partita nel punto in cui l'utente ha interrotto.
+ * Questa record viene salvata su disco tramite {@link it.unisa.diem.wordageddon_g16.utility.GameSessionCodec}
+ * per permettere il recupero preciso della partita nel punto in cui l'utente ha interrotto.
  * </p>
  *
  * @param user                L'utente a cui appartiene la sessione
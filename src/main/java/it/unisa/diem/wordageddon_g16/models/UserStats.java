@@ -0,0 +1,15 @@
+package it.unisa.diem.wordageddon_g16.models;
+
+/**
+ * Statistiche aggregate delle partite di un utente, mostrate nel pannello utente.
+ *
+ * @param totalGames   numero di partite giocate
+ * @param averageScore punteggio medio, 0 se l'utente non ha ancora giocato
+ * @param maxScore     punteggio massimo, 0 se l'utente non ha ancora giocato
+ */
+public record UserStats(int totalGames, double averageScore, int maxScore) {
+    /**
+     * Statistiche di un utente che non ha ancora giocato.
+     */
+    public static final UserStats EMPTY = new UserStats(0, 0.0, 0);
+}
@@ -2,6 +2,9 @@ package it.unisa.diem.wordageddon_g16.models;
 
 import it.unisa.diem.wordageddon_g16.utility.Resources;
 import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
+import it.unisa.diem.wordageddon_g16.utility.jfr.WdmBuildEvent;
+import it.unisa.diem.wordageddon_g16.utility.metrics.Metrics;
+import it.unisa.diem.wordageddon_g16.utility.metrics.Timer;
 
 import java.io.*;
 import java.util.*;
@@ -43,12 +46,18 @@ public class WDM {
      * <p>
      * Vengono escluse le parole presenti nella lista di stopword. Il contenuto viene letto
      * dal file associato al documento tramite la classe {@link Resources}.
+     * La durata dell'analisi e il numero di parole significative vengono registrati in {@link Metrics}
+     * e, se abilitato, tramite l'evento JFR {@link WdmBuildEvent}.
      *
      * @param doc        il documento da analizzare
      * @param stopWords  l'insieme delle parole da ignorare durante l'analisi
      * @throws RuntimeException se si verifica un errore durante la lettura del contenuto del documento
      */
     public WDM(Document doc, Set<String> stopWords) {
+        Timer timer = Metrics.timer("wdm.build");
+        long start = timer.start();
+        WdmBuildEvent event = new WdmBuildEvent();
+        event.begin();
         String filename = doc.filename();
         String title = doc.title();
         words = new HashMap<>();
@@ -65,6 +74,16 @@ public class WDM {
         } catch (IOException e) {
             SystemLogger.log("Errore durante l'analisi del documento " + filename, e);
             throw new RuntimeException(e);
+        } finally {
+            timer.stop(start);
+        }
+        Metrics.histogram("wdm.words").record(wordCount);
+        if (event.shouldCommit()) {
+            event.documentId = filename;
+            event.wordCount = wordCount;
+            event.distinctWords = words.size();
+            event.stopWordCount = stopWords.size();
+            event.commit();
         }
 
         this.document = new Document(filename, title, wordCount);
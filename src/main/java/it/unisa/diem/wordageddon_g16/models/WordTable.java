@@ -0,0 +1,69 @@
+package it.unisa.diem.wordageddon_g16.models;
+
+import it.unisa.diem.wordageddon_g16.utility.IndexSampler;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Parole e frequenze di una {@link WDM} o dell'intera partita, accessibili per indice.
+ * <p>
+ * Le parole sono memorizzate in due array paralleli, così che i generatori di domande possano sceglierne alcune
+ * a caso con {@link IndexSampler} senza copiare il vocabolario; la mappa di partenza resta disponibile per
+ * verificare la presenza di una parola. La tabella è immutabile e viene costruita una sola volta per partita,
+ * alla preparazione della {@link GameSession}.
+ * </p>
+ */
+public final class WordTable {
+    private final String[] words;
+    private final int[] counts;
+    private final Map<String, Integer> frequencies;
+
+    /**
+     * Costruisce la tabella a partire dalla mappa delle frequenze, che non deve essere più modificata.
+     *
+     * @param frequencies mappa parola → numero di occorrenze
+     */
+    public WordTable(Map<String, Integer> frequencies) {
+        this.frequencies = Collections.unmodifiableMap(frequencies);
+        this.words = new String[frequencies.size()];
+        this.counts = new int[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            words[i] = entry.getKey();
+            counts[i] = entry.getValue();
+            i++;
+        }
+    }
+
+    /**
+     * @return numero di parole distinte
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * @param index indice della parola, in {@code [0, size())}
+     * @return la parola
+     */
+    public String word(int index) {
+        return words[index];
+    }
+
+    /**
+     * @param index indice della parola, in {@code [0, size())}
+     * @return il numero di occorrenze della parola
+     */
+    public int count(int index) {
+        return counts[index];
+    }
+
+    /**
+     * @param word parola da cercare
+     * @return {@code true} se la parola è presente
+     */
+    public boolean contains(String word) {
+        return frequencies.containsKey(word);
+    }
+}
@@ -0,0 +1,583 @@
+package it.unisa.diem.wordageddon_g16.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import it.unisa.diem.wordageddon_g16.db.BackupService;
+import it.unisa.diem.wordageddon_g16.db.JdbcRepository;
+import it.unisa.diem.wordageddon_g16.db.exceptions.QueryFailedException;
+import it.unisa.diem.wordageddon_g16.models.*;
+import it.unisa.diem.wordageddon_g16.services.GameEngine;
+import it.unisa.diem.wordageddon_g16.services.GameService;
+import it.unisa.diem.wordageddon_g16.services.LeaderboardService;
+import it.unisa.diem.wordageddon_g16.utility.Config;
+import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
+import it.unisa.diem.wordageddon_g16.utility.metrics.Metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modalità server di Wordageddon: espone le partite tramite un'API HTTP/JSON, senza interfaccia JavaFX.
+ * <p>
+ * Usa il server HTTP della JDK ({@code com.sun.net.httpserver}) con un thread virtuale per richiesta: le attese sul
+ * database e sulla rete non occupano thread di piattaforma, quindi un'unica macchina può servire un'intera classe.
+ * Tutti i client condividono lo stesso {@link AppContext} e quindi gli stessi servizi e la stessa connessione al
+ * database; l'utente di ogni richiesta è ricavato dal token ottenuto con il login. Per default il server accetta
+ * connessioni soltanto dalla macchina locale ({@link Config.Props#SERVER_HOST}): per servire una rete va indicato
+ * esplicitamente l'indirizzo su cui ascoltare.
+ * </p>
+ * Endpoint (corpi e risposte in JSON, le richieste autenticate con l'header {@code Authorization: Bearer <token>}):
+ * <ul>
+ *   <li>{@code POST /api/login} – {@code {"username", "password"}} → {@code {"token"}}</li>
+ *   <li>{@code POST /api/games} – {@code {"difficulty"}} → identificativo, documenti da leggere e tempo di lettura</li>
+ *   <li>{@code GET /api/games/{id}/question} – domanda corrente; alla prima chiamata inizia il quiz</li>
+ *   <li>{@code POST /api/games/{id}/answer} – {@code {"answer"}} (indice, oppure {@code null} per saltare) → esito</li>
+ *   <li>{@code GET /api/leaderboard[?difficulty=EASY]} – classifica globale o per difficoltà</li>
+ * </ul>
+ * <p>
+ * Le partite in corso sono tenute in memoria e guidate da un {@link GameEngine}; le richieste sulla stessa partita
+ * sono serializzate sulla partita stessa, quelle su partite diverse procedono in parallelo. Alla risposta
+ * all'ultima domanda il report viene salvato e la partita rimossa. Ogni utente può avere al più
+ * {@link Config.Props#SERVER_MAX_GAMES_PER_USER} partite in corso. Ogni login rilascia un nuovo token; token e partite
+ * inattivi da più di {@link Config.Props#SERVER_IDLE_TIMEOUT} minuti vengono scartati, le partite senza salvarne
+ * il report.
+ * </p>
+ * Metriche registrate in {@link Metrics}: un timer {@code server.<endpoint>} per endpoint, i contatori
+ * {@code server.requests} ed {@code server.errors} e i contatori {@code server.games.started},
+ * {@code server.games.completed}, {@code server.games.unsaved}, {@code server.games.expired}, {@code server.games.rejected} e
+ * {@code server.sessions.expired}.
+ */
+public class GameServer {
+    /**
+     * Connessioni in attesa di essere accettate: il valore predefinito (50) è basso per una classe che si collega
+     * tutta insieme.
+     */
+    private static final int BACKLOG = 512;
+    /**
+     * Dimensione massima del corpo di una richiesta: login e risposte sono di poche decine di byte.
+     */
+    private static final int MAX_BODY = 4096;
+    private static final String PREFIX = "/api/";
+
+    private final AppContext context;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService sweeper;
+    private final long idleTimeoutNanos;
+    private final int maxGamesPerUser;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, ServerSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, ServerGame> games = new ConcurrentHashMap<>();
+    /**
+     * Numero di partite in corso per nome utente; gli utenti senza partite non compaiono.
+     */
+    private final Map<String, Integer> activeGames = new ConcurrentHashMap<>();
+
+    /**
+     * Sessione aperta da un login, identificata dal suo token.
+     */
+    private static final class ServerSession {
+        private final User user;
+        private volatile long lastAccess = System.nanoTime();
+
+        private ServerSession(User user) {
+            this.user = user;
+        }
+    }
+
+    /**
+     * Partita in corso di un client.
+     */
+    private static final class ServerGame {
+        private final User user;
+        private final GameEngine engine;
+        private volatile long lastAccess = System.nanoTime();
+
+        private ServerGame(User user, GameEngine engine) {
+            this.user = user;
+            this.engine = engine;
+        }
+    }
+
+    /**
+     * Errore da restituire al client con il codice HTTP indicato.
+     */
+    private static final class RequestException extends RuntimeException {
+        private final int status;
+
+        private RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Crea il server sull'indirizzo e sulla porta indicati, senza avviarlo.
+     *
+     * @param context         contesto applicativo condiviso da tutti i client
+     * @param host            indirizzo su cui ascoltare, ad esempio {@code 127.0.0.1} per la sola macchina locale
+     *                        o {@code 0.0.0.0} per tutte le interfacce
+     * @param port            porta TCP, {@code 0} per una porta libera qualsiasi
+     * @param idleTimeout     inattività dopo la quale una partita o un token vengono scartati
+     * @param maxGamesPerUser numero massimo di partite in corso per utente
+     * @throws IllegalArgumentException se {@code maxGamesPerUser} non è positivo
+     * @throws IOException              se l'indirizzo o la porta non sono disponibili
+     */
+    public GameServer(AppContext context, String host, int port, Duration idleTimeout, int maxGamesPerUser) throws IOException {
+        if (maxGamesPerUser <= 0) {
+            throw new IllegalArgumentException("Max games per user must be positive: " + maxGamesPerUser);
+        }
+        this.context = context;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxGamesPerUser = maxGamesPerUser;
+        this.server = HttpServer.create(new InetSocketAddress(host, port), BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "server-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(PREFIX, this::handle);
+    }
+
+    /**
+     * Avvia il server e la rimozione periodica di partite e token inattivi.
+     */
+    public void start() {
+        long period = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(idleTimeoutNanos) / 4);
+        sweeper.scheduleWithFixedDelay(this::expireIdle, period, period, TimeUnit.SECONDS);
+        server.start();
+    }
+
+    /**
+     * Arresta il server, attendendo al più un secondo le richieste in corso. Le partite non concluse vanno perse.
+     */
+    public void stop() {
+        server.stop(1);
+        sweeper.shutdownNow();
+        executor.close();
+    }
+
+    /**
+     * @return l'indirizzo su cui il server è in ascolto
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * @return la porta su cui il server è in ascolto
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return numero di partite in corso
+     */
+    public int getActiveGames() {
+        return games.size();
+    }
+
+    /**
+     * Avvia il server sul database, sull'indirizzo e sulla porta definiti in configurazione, fino alla terminazione
+     * del processo.
+     *
+     * @param args non usati: indirizzo, porta e database si impostano con {@code -Dserver.host=...},
+     *             {@code -Dserver.port=...} e {@code -Ddb.url=...}
+     * @throws IOException se l'indirizzo o la porta non sono disponibili
+     */
+    public static void main(String[] args) throws IOException {
+        Metrics.startReporter();
+        JdbcRepository repo = new JdbcRepository();
+        BackupService.start();
+        GameServer gameServer = new GameServer(new AppContext(repo),
+                Config.get(Config.Props.SERVER_HOST),
+                Integer.parseInt(Config.get(Config.Props.SERVER_PORT)),
+                Duration.ofMinutes(Long.parseLong(Config.get(Config.Props.SERVER_IDLE_TIMEOUT))),
+                Integer.parseInt(Config.get(Config.Props.SERVER_MAX_GAMES_PER_USER)));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            gameServer.stop();
+            BackupService.stop();
+            repo.close();
+            Metrics.stopReporter();
+            SystemLogger.shutdown();
+        }, "server-shutdown"));
+        gameServer.start();
+        System.out.println("Server Wordageddon in ascolto su " + gameServer.getAddress().getHostString() + ":" + gameServer.getPort());
+    }
+
+    /**
+     * Gestisce una richiesta sul thread virtuale che le è stato assegnato, convertendo gli errori in risposte JSON.
+     */
+    private void handle(HttpExchange exchange) {
+        long start = System.nanoTime();
+        Metrics.counter("server.requests").increment();
+        String endpoint = "unknown";
+        int status = 200;
+        Object body;
+        try {
+            List<String> path = path(exchange);
+            endpoint = endpoint(path);
+            body = route(exchange, endpoint, path);
+        } catch (RequestException e) {
+            status = e.status;
+            body = Map.of("error", e.getMessage());
+        } catch (RuntimeException e) {
+            SystemLogger.log("Server request failed: " + exchange.getRequestMethod() + " " + exchange.getRequestURI(), e);
+            status = 500;
+            body = Map.of("error", "Internal server error");
+        }
+        if (status >= 400) {
+            Metrics.counter("server.errors").increment();
+        }
+        send(exchange, status, body);
+        Metrics.timer("server." + endpoint).stop(start);
+    }
+
+    private static List<String> path(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath().substring(PREFIX.length());
+        return Arrays.stream(path.split("/")).filter(segment -> !segment.isEmpty()).toList();
+    }
+
+    private static String endpoint(List<String> path) {
+        return switch (path.size()) {
+            case 1 -> switch (path.getFirst()) {
+                case "login" -> "login";
+                case "games" -> "newGame";
+                case "leaderboard" -> "leaderboard";
+                default -> throw new RequestException(404, "Not found");
+            };
+            case 3 -> switch (path.get(2)) {
+                case "question" -> "question";
+                case "answer" -> "answer";
+                default -> throw new RequestException(404, "Not found");
+            };
+            default -> throw new RequestException(404, "Not found");
+        };
+    }
+
+    private Object route(HttpExchange exchange, String endpoint, List<String> path) {
+        return switch (endpoint) {
+            case "login" -> {
+                requireMethod(exchange, "POST");
+                yield login(readBody(exchange));
+            }
+            case "newGame" -> {
+                requireMethod(exchange, "POST");
+                User user = authenticate(exchange);
+                yield newGame(user, readBody(exchange));
+            }
+            case "question" -> {
+                requireMethod(exchange, "GET");
+                yield question(game(authenticate(exchange), path.get(1)));
+            }
+            case "answer" -> {
+                requireMethod(exchange, "POST");
+                User user = authenticate(exchange);
+                yield answer(path.get(1), game(user, path.get(1)), readBody(exchange));
+            }
+            case "leaderboard" -> {
+                requireMethod(exchange, "GET");
+                authenticate(exchange);
+                yield leaderboard(query(exchange).get("difficulty"));
+            }
+            default -> throw new IllegalStateException("Unhandled endpoint " + endpoint);
+        };
+    }
+
+    /**
+     * Verifica le credenziali e apre una nuova sessione, restituendone il token. Ogni login riceve un token diverso,
+     * che resta valido finché viene usato e scade dopo il tempo di inattività configurato.
+     */
+    private Map<String, Object> login(Map<String, Object> body) {
+        String username = stringField(body, "username");
+        String password = stringField(body, "password");
+        User user = context.getAuthService().authenticate(username, password)
+                .orElseThrow(() -> new RequestException(401, "Invalid credentials"));
+        String token = newId();
+        sessions.put(token, new ServerSession(user));
+        return Map.of("token", token);
+    }
+
+    /**
+     * Crea una partita: genera subito le domande, così le richieste successive non toccano il database fino al
+     * salvataggio del report. La partita viene riservata prima della generazione, così che un utente oltre il
+     * limite di partite in corso non occupi il server.
+     */
+    private Map<String, Object> newGame(User user, Map<String, Object> body) {
+        Difficulty difficulty = difficulty(stringField(body, "difficulty"));
+        reserveGame(user);
+        GameService gameService = context.getGameService();
+        GameSession session;
+        Map<Document, String> texts;
+        List<Question> questions;
+        try {
+            session = gameService.newSession(difficulty);
+            texts = gameService.setupReadingPhase(session);
+            questions = gameService.generateQuestions(gameService.prepare(session));
+        } catch (RuntimeException e) {
+            releaseGame(user);
+            throw e;
+        }
+
+        String id = newId();
+        games.put(id, new ServerGame(user, new GameEngine(user, session, questions)));
+        Metrics.counter("server.games.started").increment();
+
+        List<Map<String, Object>> documents = new ArrayList<>();
+        for (Document document : session.getDocuments()) {
+            documents.add(Map.of("title", document.title(), "text", texts.getOrDefault(document, "")));
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", id);
+        response.put("difficulty", difficulty);
+        response.put("readingSeconds", session.getTimeLimit().toSeconds());
+        response.put("questionCount", questions.size());
+        response.put("documents", documents);
+        return response;
+    }
+
+    private Map<String, Object> question(ServerGame game) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        synchronized (game) {
+            GameEngine engine = game.engine;
+            engine.start();
+            Question question = engine.currentQuestion();
+            response.put("index", engine.getCurrentIndex());
+            response.put("questionCount", engine.getQuestions().size());
+            response.put("text", question.text());
+            response.put("answers", question.answers());
+            response.put("timeLimitSeconds", GameEngine.QUESTION_TIME_LIMIT.toSeconds());
+        }
+        return response;
+    }
+
+    /**
+     * Registra la risposta alla domanda corrente. All'ultima risposta il report viene salvato fuori dal lock della
+     * partita dalla sola richiesta che lo ha prodotto con {@link GameEngine#finish()}, anche se nel frattempo la
+     * partita è stata scartata per inattività; il campo {@code saved} indica se il salvataggio è riuscito.
+     */
+    private Map<String, Object> answer(String id, ServerGame game, Map<String, Object> body) {
+        Object answer = body.get("answer");
+        if (answer != null && !(answer instanceof Long)) {
+            throw new RequestException(400, "Field 'answer' must be an integer or null");
+        }
+        GameEngine.Outcome outcome;
+        GameReport report = null;
+        Map<String, Object> response = new LinkedHashMap<>();
+        synchronized (game) {
+            GameEngine engine = game.engine;
+            if (engine.isFinished()) {
+                throw new RequestException(409, "Game already finished");
+            }
+            engine.start();
+            engine.currentQuestion();
+            try {
+                outcome = answer == null ? engine.skip() : engine.answer(Math.toIntExact((Long) answer));
+            } catch (IndexOutOfBoundsException | ArithmeticException e) {
+                throw new RequestException(400, "Answer " + answer + " does not exist");
+            }
+            if (engine.isFinished()) {
+                report = engine.finish();
+            }
+            response.put("correct", outcome.correct());
+            response.put("skipped", outcome.skipped());
+            response.put("timedOut", outcome.timedOut());
+            response.put("correctAnswer", outcome.correctAnswerIndex());
+            response.put("points", outcome.points());
+            response.put("score", engine.getScore());
+            response.put("finished", report != null);
+        }
+        if (report != null) {
+            // Se la partita è già stata scartata, il conteggio delle partite in corso è già stato aggiornato
+            if (games.remove(id, game)) {
+                releaseGame(game.user);
+            }
+            try {
+                context.getGameService().saveGameReport(report);
+                Metrics.counter("server.games.completed").increment();
+                response.put("saved", true);
+            } catch (QueryFailedException e) {
+                Metrics.counter("server.games.unsaved").increment();
+                response.put("saved", false);
+            }
+            response.put("usedSeconds", report.usedTime().toSeconds());
+            response.put("maxSeconds", report.maxTime().toSeconds());
+        }
+        return response;
+    }
+
+    private List<Map<String, Object>> leaderboard(String difficulty) {
+        LeaderboardService service = context.getLeaderboardService();
+        List<LeaderboardService.LeaderboardEntry> entries = difficulty == null
+                ? service.getGloablLeaderboard()
+                : service.getLeaderboardByDifficulty(difficulty(difficulty));
+        List<Map<String, Object>> response = new ArrayList<>();
+        for (LeaderboardService.LeaderboardEntry entry : entries) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("username", entry.username());
+            row.put("favouriteDifficulty", entry.favouriteDifficulty());
+            row.put("averageScore", entry.averageScore());
+            row.put("totalScore", entry.totalScore());
+            row.put("gamesPlayed", entry.gamesPlayed());
+            response.add(row);
+        }
+        return response;
+    }
+
+    /**
+     * Scarta partite e token inattivi da più del tempo configurato, ad esempio quelli di un browser chiuso.
+     */
+    private void expireIdle() {
+        long now = System.nanoTime();
+        games.entrySet().removeIf(entry -> {
+            boolean expired = now - entry.getValue().lastAccess > idleTimeoutNanos;
+            if (expired) {
+                releaseGame(entry.getValue().user);
+                Metrics.counter("server.games.expired").increment();
+            }
+            return expired;
+        });
+        sessions.entrySet().removeIf(entry -> {
+            boolean expired = now - entry.getValue().lastAccess > idleTimeoutNanos;
+            if (expired) {
+                Metrics.counter("server.sessions.expired").increment();
+            }
+            return expired;
+        });
+    }
+
+    /**
+     * Conta una nuova partita in corso dell'utente.
+     *
+     * @throws RequestException se l'utente ha già il numero massimo di partite in corso
+     */
+    private void reserveGame(User user) {
+        activeGames.compute(user.getName(), (_, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxGamesPerUser) {
+                Metrics.counter("server.games.rejected").increment();
+                throw new RequestException(429, "Too many active games");
+            }
+            return current + 1;
+        });
+    }
+
+    /**
+     * Toglie una partita dal conteggio di quelle in corso dell'utente.
+     */
+    private void releaseGame(User user) {
+        activeGames.computeIfPresent(user.getName(), (_, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private User authenticate(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        ServerSession session = header != null && header.startsWith("Bearer ")
+                ? sessions.get(header.substring(7).trim())
+                : null;
+        if (session == null) {
+            throw new RequestException(401, "Missing or invalid token");
+        }
+        session.lastAccess = System.nanoTime();
+        return session.user;
+    }
+
+    /**
+     * Restituisce la partita indicata se appartiene all'utente; le partite altrui risultano inesistenti.
+     */
+    private ServerGame game(User user, String id) {
+        ServerGame game = games.get(id);
+        if (game == null || !game.user.getName().equals(user.getName())) {
+            throw new RequestException(404, "Game not found");
+        }
+        game.lastAccess = System.nanoTime();
+        return game;
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) {
+            exchange.getResponseHeaders().set("Allow", method);
+            throw new RequestException(405, "Method not allowed");
+        }
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY + 1);
+        } catch (IOException e) {
+            throw new RequestException(400, "Cannot read request body");
+        }
+        if (bytes.length > MAX_BODY) {
+            throw new RequestException(413, "Request body too large");
+        }
+        try {
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new RequestException(400, "Invalid JSON: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getRawQuery();
+        Map<String, String> params = new HashMap<>();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static String stringField(Map<String, Object> body, String name) {
+        if (!(body.get(name) instanceof String value) || value.isBlank()) {
+            throw new RequestException(400, "Field '" + name + "' is required");
+        }
+        return value;
+    }
+
+    private static Difficulty difficulty(String name) {
+        try {
+            return Difficulty.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RequestException(400, "Unknown difficulty: " + name);
+        }
+    }
+
+    private String newId() {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(status, bytes.length);
+            out.write(bytes);
+        } catch (IOException e) {
+            // Il client ha chiuso la connessione: non c'è nessuno a cui rispondere
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package it.unisa.diem.wordageddon_g16.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lettura e scrittura del JSON scambiato dal {@link GameServer}.
+ * <p>
+ * Copre solo ciò che serve alle richieste e risposte del server: oggetti, array, stringhe, numeri, booleani e
+ * {@code null}. In lettura gli oggetti diventano {@link Map} (con l'ordine dei campi), gli array {@link List},
+ * i numeri interi {@link Long} e gli altri {@link Double}. In scrittura sono accettati anche gli enum, scritti
+ * con il proprio nome.
+ */
+public final class Json {
+    /**
+     * Profondità massima di annidamento accettata in lettura, per non esaurire lo stack con input malevoli.
+     */
+    private static final int MAX_DEPTH = 32;
+
+    private final String text;
+    private int pos;
+
+    /**
+     * Costruttore privato: il parser viene creato soltanto da {@link #parse(String)}.
+     */
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Interpreta un documento JSON.
+     *
+     * @param text testo da interpretare
+     * @return il valore letto
+     * @throws IllegalArgumentException se il testo non è JSON valido
+     */
+    public static Object parse(String text) {
+        Json parser = new Json(text);
+        Object value = parser.value(0);
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw parser.error("Unexpected trailing content");
+        }
+        return value;
+    }
+
+    /**
+     * Interpreta un documento JSON che deve contenere un oggetto.
+     *
+     * @param text testo da interpretare; vuoto equivale a un oggetto senza campi
+     * @return i campi dell'oggetto
+     * @throws IllegalArgumentException se il testo non è JSON valido o non è un oggetto
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String text) {
+        if (text.isBlank()) {
+            return Map.of();
+        }
+        if (!(parse(text) instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("JSON object expected");
+        }
+        return (Map<String, Object>) map;
+    }
+
+    /**
+     * Converte un valore in JSON.
+     *
+     * @param value mappa, collezione, stringa, numero, booleano, enum o {@code null}
+     * @return il testo JSON
+     * @throws IllegalArgumentException se il valore, o uno dei suoi elementi, non è convertibile
+     */
+    public static String write(Object value) {
+        StringBuilder sb = new StringBuilder();
+        write(sb, value);
+        return sb.toString();
+    }
+
+    private static void write(StringBuilder sb, Object value) {
+        switch (value) {
+            case null -> sb.append("null");
+            case String s -> quote(sb, s);
+            case Enum<?> e -> quote(sb, e.name());
+            case Boolean _, Integer _, Long _, Short _, Byte _ -> sb.append(value);
+            case Number n -> {
+                double d = n.doubleValue();
+                if (Double.isNaN(d) || Double.isInfinite(d)) {
+                    throw new IllegalArgumentException("Number not representable in JSON: " + d);
+                }
+                sb.append(d);
+            }
+            case Map<?, ?> map -> {
+                sb.append('{');
+                String separator = "";
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    sb.append(separator);
+                    quote(sb, String.valueOf(entry.getKey()));
+                    sb.append(':');
+                    write(sb, entry.getValue());
+                    separator = ",";
+                }
+                sb.append('}');
+            }
+            case Collection<?> collection -> {
+                sb.append('[');
+                String separator = "";
+                for (Object element : collection) {
+                    sb.append(separator);
+                    write(sb, element);
+                    separator = ",";
+                }
+                sb.append(']');
+            }
+            default -> throw new IllegalArgumentException("Type not supported: " + value.getClass().getName());
+        }
+    }
+
+    private static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    private Object value(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw error("Nesting too deep");
+        }
+        skipWhitespace();
+        if (pos >= text.length()) {
+            throw error("Unexpected end of input");
+        }
+        char c = text.charAt(pos);
+        return switch (c) {
+            case '{' -> object(depth);
+            case '[' -> array(depth);
+            case '"' -> string();
+            case 't' -> literal("true", Boolean.TRUE);
+            case 'f' -> literal("false", Boolean.FALSE);
+            case 'n' -> literal("null", null);
+            default -> {
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    yield number();
+                }
+                throw error("Unexpected character '" + c + "'");
+            }
+        };
+    }
+
+    private Map<String, Object> object(int depth) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        pos++;
+        skipWhitespace();
+        if (consume('}')) {
+            return map;
+        }
+        do {
+            skipWhitespace();
+            if (pos >= text.length() || text.charAt(pos) != '"') {
+                throw error("Field name expected");
+            }
+            String key = string();
+            skipWhitespace();
+            expect(':');
+            map.put(key, value(depth + 1));
+            skipWhitespace();
+        } while (consume(','));
+        expect('}');
+        return map;
+    }
+
+    private List<Object> array(int depth) {
+        List<Object> list = new ArrayList<>();
+        pos++;
+        skipWhitespace();
+        if (consume(']')) {
+            return list;
+        }
+        do {
+            list.add(value(depth + 1));
+            skipWhitespace();
+        } while (consume(','));
+        expect(']');
+        return list;
+    }
+
+    private String string() {
+        StringBuilder sb = new StringBuilder();
+        pos++;
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= text.length()) {
+                break;
+            }
+            char escape = text.charAt(pos++);
+            switch (escape) {
+                case '"', '\\', '/' -> sb.append(escape);
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > text.length()) {
+                        throw error("Truncated unicode escape");
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(text, pos, pos + 4, 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    pos += 4;
+                }
+                default -> throw error("Invalid escape '\\" + escape + "'");
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private Number number() {
+        int start = pos;
+        boolean integral = true;
+        while (pos < text.length()) {
+            char c = text.charAt(pos);
+            if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+            } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+            pos++;
+        }
+        String number = text.substring(start, pos);
+        try {
+            // Niente operatore ternario: con Long e Double promuoverebbe anche gli interi a double
+            if (integral) {
+                return Long.valueOf(number);
+            }
+            return Double.valueOf(number);
+        } catch (NumberFormatException e) {
+            throw error("Invalid number '" + number + "'");
+        }
+    }
+
+    private Object literal(String literal, Object value) {
+        if (!text.startsWith(literal, pos)) {
+            throw error("Invalid literal");
+        }
+        pos += literal.length();
+        return value;
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private boolean consume(char c) {
+        if (pos < text.length() && text.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!consume(c)) {
+            throw error("'" + c + "' expected");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos);
+    }
+}
@@ -7,6 +7,7 @@ import it.unisa.diem.wordageddon_g16.utility.Config;
 import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
 
 import java.io.*;
+import java.util.Optional;
 
 /**
  * Classe di 'servizio' utilizzata per l'autenticazione e la gestione degli utenti nell'applicazione Wordageddon.
@@ -43,8 +44,8 @@ public class AuthService implements Serializable {
      * @return {@code true} se il login ha successo, {@code false} altrimenti
      */
     public boolean login(String username, String password) {
-        var user = userDAO.selectBy(username);
-        if(user.isPresent() && user.get().getPassword().equals(password)) {
+        var user = authenticate(username, password);
+        if(user.isPresent()) {
             context.setCurrentUser(user.get());
             saveSession(user.get());
             return true;
@@ -52,6 +53,19 @@ public class AuthService implements Serializable {
         return false; // User not found or password mismatch
     }
 
+    /**
+     * Verifica le credenziali fornite senza modificare l'utente corrente né la sessione salvata.
+     * <p>
+     * Usato dal {@link it.unisa.diem.wordageddon_g16.server.GameServer}, dove ogni client ha il proprio utente.
+     *
+     * @param username nome utente
+     * @param password password associata
+     * @return l'utente autenticato, oppure {@link Optional#empty()} se le credenziali non sono valide
+     */
+    public Optional<User> authenticate(String username, String password) {
+        return userDAO.selectBy(username).filter(user -> user.getPassword().equals(password));
+    }
+
     /**
      * Registra un nuovo utente con nome e password specificati.
      * <p>
@@ -0,0 +1,230 @@
+package it.unisa.diem.wordageddon_g16.services;
+
+import it.unisa.diem.wordageddon_g16.db.contracts.DailyChallengeDAO;
+import it.unisa.diem.wordageddon_g16.models.*;
+import it.unisa.diem.wordageddon_g16.utility.Lazy;
+import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
+import it.unisa.diem.wordageddon_g16.utility.metrics.Metrics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servizio della sfida del giorno: una partita per difficoltà, uguale per tutti i giocatori, che cambia ogni giorno.
+ * <p>
+ * Ogni sfida viene generata una sola volta dal {@link GameService} con un seme derivato dal giorno e dalla difficoltà,
+ * insieme alle sue domande, e salvata tramite {@link DailyChallengeDAO}: parametri e domande restano gli stessi anche
+ * dopo un riavvio o se i documenti nel database cambiano durante la giornata. Le sfide vengono poi servite dalla
+ * memoria, insieme ai testi dei documenti: avviare una partita della sfida non richiede accessi al database né la
+ * generazione delle domande.
+ * </p>
+ * <p>
+ * {@link #start()} prepara in background le sfide del giorno corrente e di quello successivo e le ricontrolla ogni
+ * ora, così che allo scoccare della mezzanotte le nuove sfide siano già pronte.
+ * </p>
+ * Metriche registrate in {@link Metrics}: i contatori {@code challenge.cache.hit} e {@code challenge.cache.miss}
+ * per le richieste servite dalla memoria o meno, e {@code challenge.generated} per le sfide generate.
+ */
+public class DailyChallengeService {
+    /**
+     * Sfida pronta per essere giocata.
+     *
+     * @param challenge parametri e domande della partita
+     * @param texts     testo di ogni documento della partita
+     */
+    private record Prepared(DailyChallenge challenge, Map<Document, String> texts) {}
+
+    /**
+     * Chiave della cache delle sfide.
+     */
+    private record Key(LocalDate day, Difficulty difficulty) {}
+
+    private final AppContext context;
+    private final GameService gameService;
+    private final DailyChallengeDAO dailyChallengeDAO;
+
+    /**
+     * Sfide in memoria. Il valore pigro garantisce che ogni sfida venga caricata o generata una sola volta anche se
+     * richiesta da più thread contemporaneamente; se la preparazione fallisce verrà ritentata alla richiesta successiva.
+     */
+    private final Map<Key, Lazy<Prepared>> cache = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Costruisce il servizio della sfida del giorno. Non accede al database: le sfide vengono preparate da
+     * {@link #start()} o alla prima richiesta.
+     *
+     * @param context           il contesto applicativo corrente contenente l'utente attivo
+     * @param gameService       servizio di gioco usato per generare le sfide
+     * @param dailyChallengeDAO DAO per le sfide salvate
+     */
+    public DailyChallengeService(AppContext context, GameService gameService, DailyChallengeDAO dailyChallengeDAO) {
+        this.context = context;
+        this.gameService = gameService;
+        this.dailyChallengeDAO = dailyChallengeDAO;
+    }
+
+    /**
+     * Avvia la preparazione in background delle sfide di oggi e di domani, ripetuta ogni ora.
+     * <p>
+     * Chiamate successive alla prima non hanno effetto.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "daily-challenge");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::prepareAhead, 0, 1, TimeUnit.HOURS);
+    }
+
+    /**
+     * Arresta la preparazione in background. Le sfide già in memoria restano disponibili.
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        scheduler = null;
+    }
+
+    /**
+     * Restituisce la sfida di oggi con la difficoltà indicata.
+     *
+     * @param difficulty difficoltà della sfida
+     * @return la sfida del giorno
+     * @see #getChallenge(LocalDate, Difficulty)
+     */
+    public DailyChallenge getChallenge(Difficulty difficulty) {
+        return getChallenge(LocalDate.now(), difficulty);
+    }
+
+    /**
+     * Restituisce la sfida di un giorno con la difficoltà indicata, caricandola dal database o generandola se
+     * non è ancora in memoria.
+     *
+     * @param day        giorno della sfida
+     * @param difficulty difficoltà della sfida
+     * @return la sfida
+     * @throws IllegalArgumentException se non ci sono documenti adatti alla difficoltà
+     * @throws IllegalStateException    se la WDM di un documento della partita non è presente nel database
+     */
+    public DailyChallenge getChallenge(LocalDate day, Difficulty difficulty) {
+        return prepared(day, difficulty).challenge();
+    }
+
+    /**
+     * Crea la sessione di gioco di una sfida. La sessione non è preparata: le domande sono già nella sfida.
+     *
+     * @param challenge la sfida da giocare
+     * @return la nuova sessione di gioco
+     */
+    public GameSession newSession(DailyChallenge challenge) {
+        return gameService.restoreSession(challenge.params());
+    }
+
+    /**
+     * Restituisce il testo dei documenti di una sfida da mostrare nella fase di lettura, letto una sola volta per sfida.
+     *
+     * @param challenge la sfida giocata
+     * @return mappa contenente ogni documento della sfida e il suo contenuto testuale
+     */
+    public Map<Document, String> getTexts(DailyChallenge challenge) {
+        return prepared(challenge.day(), challenge.difficulty()).texts();
+    }
+
+    /**
+     * Restituisce la classifica delle sfide di oggi.
+     * <p>
+     * Per ogni difficoltà i giocatori sono ordinati per punteggio e tempo del primo tentativo;
+     * l'utente corrente è evidenziato apponendo "(Tu)" al nome.
+     *
+     * @return le voci della classifica, per difficoltà
+     */
+    public List<DailyChallengeEntry> getLeaderboard() {
+        return getLeaderboard(LocalDate.now());
+    }
+
+    /**
+     * Restituisce la classifica delle sfide di un giorno.
+     *
+     * @param day giorno delle sfide
+     * @return le voci della classifica, per difficoltà
+     * @see #getLeaderboard()
+     */
+    public List<DailyChallengeEntry> getLeaderboard(LocalDate day) {
+        User currentUser = context.getCurrentUser();
+        List<DailyChallengeEntry> entries = new ArrayList<>();
+        for (DailyChallengeEntry entry : dailyChallengeDAO.selectLeaderboard(day)) {
+            if (currentUser != null && entry.username().equals(currentUser.getName())) {
+                entry = new DailyChallengeEntry(entry.username() + " (Tu)", entry.difficulty(), entry.score(),
+                        entry.usedTime(), entry.attempts());
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Prepara le sfide di oggi e di domani per ogni difficoltà e rimuove dalla memoria quelle dei giorni passati.
+     * <p>
+     * Gli errori vengono registrati senza interrompere la preparazione delle altre sfide: una sfida non preparata
+     * verrà generata alla prima richiesta.
+     */
+    public void prepareAhead() {
+        LocalDate today = LocalDate.now();
+        cache.keySet().removeIf(key -> key.day().isBefore(today));
+        for (LocalDate day : List.of(today, today.plusDays(1))) {
+            for (Difficulty difficulty : Difficulty.values()) {
+                try {
+                    prepared(day, difficulty);
+                } catch (RuntimeException e) {
+                    SystemLogger.log("Could not prepare daily challenge " + day + " " + difficulty, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Restituisce la sfida in memoria, preparandola se necessario.
+     */
+    private Prepared prepared(LocalDate day, Difficulty difficulty) {
+        Lazy<Prepared> entry = cache.computeIfAbsent(new Key(day, difficulty), key -> new Lazy<>(() -> prepare(key)));
+        Metrics.counter(entry.isInitialized() ? "challenge.cache.hit" : "challenge.cache.miss").increment();
+        return entry.get();
+    }
+
+    /**
+     * Carica la sfida dal database o, se non esiste, la genera e la salva. Se nel frattempo un'altra istanza
+     * dell'applicazione ha salvato la stessa sfida, viene usata quella già salvata.
+     */
+    private Prepared prepare(Key key) {
+        DailyChallenge challenge = dailyChallengeDAO.selectBy(key.day(), key.difficulty()).orElse(null);
+        if (challenge == null) {
+            GameSession session = gameService.prepare(gameService.newSession(key.difficulty(), seed(key)));
+            dailyChallengeDAO.insert(new DailyChallenge(key.day(), session.getParams(), gameService.generateQuestions(session)));
+            challenge = dailyChallengeDAO.selectBy(key.day(), key.difficulty()).orElseThrow();
+            Metrics.counter("challenge.generated").increment();
+        }
+        return new Prepared(challenge, Map.copyOf(gameService.setupReadingPhase(newSession(challenge))));
+    }
+
+    /**
+     * Deriva il seme della sfida dal giorno e dalla difficoltà: giorni e difficoltà vicini producono semi scorrelati.
+     */
+    private static long seed(Key key) {
+        return new SplittableRandom(key.day().toEpochDay() * Difficulty.values().length + key.difficulty().ordinal()).nextLong();
+    }
+}
@@ -0,0 +1,89 @@
+package it.unisa.diem.wordageddon_g16.services;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Genera le opzioni di risposta delle domande numeriche: il valore corretto e alcuni valori errati ma plausibili,
+ * vicini a quello corretto.
+ * <p>
+ * I valori errati sono scelti tra gli interi non negativi di una finestra di {@code 2 * maxDelta} candidati attorno
+ * al valore corretto (escluso): {@code [correct - maxDelta, correct + maxDelta]}. Vicino allo zero la finestra
+ * viene spostata verso l'alto anziché tagliata, così da contenere sempre lo stesso numero di candidati.
+ * </p>
+ * I candidati vengono estratti senza ripetizioni con l'algoritmo di Floyd e le opzioni vengono poi mescolate:
+ * il numero di valori casuali richiesti dipende solo dal numero di opzioni, senza tentativi scartati né
+ * strutture di appoggio, per qualunque valore corretto. A parità di generatore il risultato è deterministico.
+ */
+public final class DistractorGenerator {
+
+    /**
+     * Costruttore privato per impedire l'istanziazione della classe di utilità.
+     */
+    private DistractorGenerator() {}
+
+    /**
+     * Restituisce le opzioni di una domanda numerica in ordine casuale.
+     *
+     * @param correct  valore corretto, non negativo
+     * @param maxDelta distanza massima dei valori errati da quello corretto
+     * @param count    numero di opzioni, compresa quella corretta
+     * @param random   generatore di numeri casuali della partita
+     * @return {@code count} valori distinti e non negativi, tra cui {@code correct}
+     * @throws IllegalArgumentException se {@code correct} è negativo o la finestra contiene meno di
+     *                                  {@code count - 1} candidati
+     */
+    public static int[] options(int correct, int maxDelta, int count, RandomGenerator random) {
+        if (correct < 0) {
+            throw new IllegalArgumentException("Correct value cannot be negative: " + correct);
+        }
+        int candidates = 2 * maxDelta;
+        if (count < 1 || candidates < count - 1) {
+            throw new IllegalArgumentException("Cannot pick " + (count - 1) + " distractors within " + maxDelta);
+        }
+        int low = Math.max(0, correct - maxDelta);
+
+        int[] options = new int[count];
+        options[0] = correct;
+        // Algoritmo di Floyd: k indici distinti in [0, candidates) con k estrazioni
+        int k = count - 1;
+        for (int j = candidates - k, n = 1; j < candidates; j++, n++) {
+            int index = random.nextInt(j + 1);
+            if (contains(options, n, low, correct, index)) {
+                index = j;
+            }
+            options[n] = candidate(low, correct, index);
+        }
+
+        // Fisher–Yates: la posizione della risposta corretta e l'ordine dei valori errati sono casuali
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = options[i];
+            options[i] = options[j];
+            options[j] = tmp;
+        }
+        return options;
+    }
+
+    /**
+     * Converte l'indice di un candidato nel valore corrispondente, saltando il valore corretto.
+     */
+    private static int candidate(int low, int correct, int index) {
+        int value = low + index;
+        return value >= correct ? value + 1 : value;
+    }
+
+    /**
+     * Verifica se il candidato di indice {@code index} è già tra le prime {@code size} opzioni (la prima è il valore
+     * corretto, che non è mai un candidato). Le opzioni sono al più poche unità: la scansione lineare è più rapida
+     * di qualunque insieme.
+     */
+    private static boolean contains(int[] options, int size, int low, int correct, int index) {
+        int value = candidate(low, correct, index);
+        for (int i = 1; i < size; i++) {
+            if (options[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,382 @@
+package it.unisa.diem.wordageddon_g16.services;
+
+import it.unisa.diem.wordageddon_g16.models.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Svolgimento della fase delle domande di una partita, indipendente dall'interfaccia grafica.
+ * <p>
+ * Il motore conserva lo stato del quiz (domanda corrente, risposte date, punteggio) e ne applica le regole:
+ * ogni risposta corretta vale {@link GameSession#getScorePerQuestion()} punti, una risposta data oltre il
+ * {@link #QUESTION_TIME_LIMIT tempo limite} della domanda conta come saltata e al termine {@link #finish()}
+ * costruisce il {@link GameReport} della partita. Non usa timer né thread: il tempo viene letto da un {@link Clock}
+ * solo quando serve, e chi lo guida (il {@code GameController}, una simulazione o un server) decide quando mostrare
+ * le domande e quando saltarle allo scadere del tempo.
+ * </p>
+ * Utilizzo tipico:
+ * <pre>{@code
+ *   GameEngine engine = new GameEngine(user, session, questions);
+ *   engine.start();
+ *   while (!engine.isFinished()) {
+ *       Question question = engine.currentQuestion();
+ *       engine.answer(scelta);   // oppure engine.skip() allo scadere del tempo
+ *   }
+ *   GameReport report = engine.finish();
+ * }</pre>
+ * Ogni istanza rappresenta una sola partita e non è thread-safe: chi la condivide tra più thread deve sincronizzarne
+ * l'accesso.
+ */
+public class GameEngine {
+    /**
+     * Tempo limite per rispondere a ciascuna domanda.
+     */
+    public static final Duration QUESTION_TIME_LIMIT = Duration.ofSeconds(15);
+
+    /**
+     * Risposta registrata per le domande saltate, come in {@link GameSessionState#domandaRisposte()}.
+     */
+    public static final int SKIPPED = -1;
+
+    /**
+     * Tolleranza sul tempo limite di una risposta, che compensa il ritardo tra la lettura della domanda tramite
+     * {@link #currentQuestion()} e la sua effettiva visualizzazione.
+     */
+    private static final Duration ANSWER_GRACE = Duration.ofMillis(500);
+
+    /**
+     * Valore di {@link #answers} per le domande non ancora affrontate.
+     */
+    private static final int UNANSWERED = -2;
+
+    /**
+     * Esito della risposta a una domanda.
+     *
+     * @param questionIndex      indice della domanda
+     * @param answerIndex        indice della risposta registrata, {@link #SKIPPED} se saltata o data fuori tempo
+     * @param correctAnswerIndex indice della risposta corretta
+     * @param points             punti ottenuti
+     * @param timedOut           {@code true} se la risposta è arrivata oltre il tempo limite
+     */
+    public record Outcome(int questionIndex, int answerIndex, int correctAnswerIndex, int points, boolean timedOut) {
+        /**
+         * @return {@code true} se la risposta è corretta
+         */
+        public boolean correct() {
+            return answerIndex == correctAnswerIndex;
+        }
+
+        /**
+         * @return {@code true} se la domanda è stata saltata
+         */
+        public boolean skipped() {
+            return answerIndex == SKIPPED;
+        }
+    }
+
+    private final User user;
+    private final GameSession session;
+    private final List<Question> questions;
+    private final int scorePerQuestion;
+    private final Clock clock;
+
+    /**
+     * Risposta registrata per ogni domanda: indice della risposta, {@link #SKIPPED} o {@link #UNANSWERED}.
+     */
+    private final int[] answers;
+    private int current;
+    private int score;
+    private int correctCount;
+    private int skippedCount;
+
+    /**
+     * Istante in cui è iniziato il quiz, {@code null} prima di {@link #start()}.
+     */
+    private LocalDateTime startTime;
+
+    /**
+     * Istante da cui decorre il tempo limite della domanda corrente, {@code null} finché non viene letta.
+     */
+    private LocalDateTime questionShownAt;
+    private GameReport report;
+
+    /**
+     * Crea il motore di una nuova partita, che usa l'orologio di sistema.
+     *
+     * @param user      giocatore
+     * @param session   partita giocata
+     * @param questions domande della partita
+     */
+    public GameEngine(User user, GameSession session, List<Question> questions) {
+        this(user, session, questions, session.getScorePerQuestion(), Clock.systemDefaultZone());
+    }
+
+    /**
+     * Crea il motore di una nuova partita.
+     *
+     * @param user             giocatore
+     * @param session          partita giocata
+     * @param questions        domande della partita
+     * @param scorePerQuestion punti assegnati a ogni risposta corretta
+     * @param clock            orologio da cui leggere il tempo, ad esempio simulato
+     * @throws IllegalArgumentException se non ci sono domande o il punteggio è negativo
+     */
+    public GameEngine(User user, GameSession session, List<Question> questions, int scorePerQuestion, Clock clock) {
+        if (questions == null || questions.isEmpty() || scorePerQuestion < 0) {
+            throw new IllegalArgumentException("A game needs at least one question and a non-negative score");
+        }
+        this.user = user;
+        this.session = session;
+        this.questions = List.copyOf(questions);
+        this.scorePerQuestion = scorePerQuestion;
+        this.clock = clock;
+        this.answers = new int[this.questions.size()];
+        Arrays.fill(answers, UNANSWERED);
+    }
+
+    /**
+     * Ricrea il motore di una partita interrotta, con le risposte già date e il punteggio corrispondente.
+     *
+     * @param state   stato salvato della partita
+     * @param session sessione ricreata dai parametri salvati
+     * @return il motore, posizionato sulla prima domanda non ancora affrontata
+     */
+    public static GameEngine restore(GameSessionState state, GameSession session) {
+        return restore(state, session, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Ricrea il motore di una partita interrotta.
+     *
+     * @param state   stato salvato della partita
+     * @param session sessione ricreata dai parametri salvati
+     * @param clock   orologio da cui leggere il tempo
+     * @return il motore, posizionato sulla prima domanda non ancora affrontata
+     * @see #restore(GameSessionState, GameSession)
+     */
+    public static GameEngine restore(GameSessionState state, GameSession session, Clock clock) {
+        GameEngine engine = new GameEngine(state.user(), session, state.questions(), state.scorePerQuestion(), clock);
+        Map<Question, Integer> given = state.domandaRisposte();
+        for (int i = 0; i < engine.questions.size(); i++) {
+            Integer answer = given.get(engine.questions.get(i));
+            if (answer != null) {
+                engine.record(i, answer);
+            }
+        }
+        engine.current = Math.min(state.currentQuestionIndex(), engine.questions.size());
+        engine.startTime = state.questionStartTime();
+        return engine;
+    }
+
+    /**
+     * Avvia il quiz: da questo momento decorre il tempo impiegato riportato nel report.
+     * Per una partita ripristinata resta valido l'istante di inizio originale.
+     */
+    public void start() {
+        if (startTime == null) {
+            startTime = LocalDateTime.now(clock);
+        }
+    }
+
+    /**
+     * Restituisce la domanda corrente. Alla prima lettura di ogni domanda inizia a decorrere il suo tempo limite.
+     *
+     * @return la domanda corrente
+     * @throws IllegalStateException se il quiz non è avviato o è terminato
+     */
+    public Question currentQuestion() {
+        checkPlaying();
+        if (questionShownAt == null) {
+            questionShownAt = LocalDateTime.now(clock);
+        }
+        return questions.get(current);
+    }
+
+    /**
+     * Registra la risposta alla domanda corrente e passa alla successiva.
+     * <p>
+     * Se il tempo limite della domanda è scaduto la risposta non viene considerata e la domanda risulta saltata.
+     *
+     * @param answerIndex indice della risposta scelta
+     * @return l'esito della risposta
+     * @throws IllegalStateException     se il quiz non è avviato o è terminato
+     * @throws IndexOutOfBoundsException se la risposta non esiste
+     */
+    public Outcome answer(int answerIndex) {
+        checkPlaying();
+        Question question = questions.get(current);
+        if (answerIndex < 0 || answerIndex >= question.answers().size()) {
+            throw new IndexOutOfBoundsException("Answer " + answerIndex + " does not exist");
+        }
+        boolean timedOut = questionShownAt != null
+                && Duration.between(questionShownAt, LocalDateTime.now(clock)).compareTo(QUESTION_TIME_LIMIT.plus(ANSWER_GRACE)) > 0;
+        return advance(timedOut ? SKIPPED : answerIndex, timedOut);
+    }
+
+    /**
+     * Salta la domanda corrente, ad esempio allo scadere del tempo, e passa alla successiva.
+     *
+     * @return l'esito, senza punti
+     * @throws IllegalStateException se il quiz non è avviato o è terminato
+     */
+    public Outcome skip() {
+        checkPlaying();
+        return advance(SKIPPED, false);
+    }
+
+    /**
+     * Conclude la partita e ne costruisce il report. Le domande non affrontate non assegnano punti.
+     * <p>
+     * Il report non viene salvato: se ne occupa chi guida il motore, tramite {@link GameService#saveGameReport(GameReport)}.
+     * Chiamate successive restituiscono lo stesso report.
+     *
+     * @return il report della partita
+     * @throws IllegalStateException se il quiz non è mai stato avviato
+     */
+    public GameReport finish() {
+        if (report == null) {
+            if (startTime == null) {
+                throw new IllegalStateException("Game not started");
+            }
+            Duration usedTime = Duration.between(startTime, LocalDateTime.now(clock));
+            report = new GameReport(
+                    user,
+                    session.getDocuments(),
+                    LocalDateTime.now(clock),
+                    session.getDifficulty(),
+                    QUESTION_TIME_LIMIT.multipliedBy(session.getQuestionCount()),
+                    usedTime.isNegative() ? Duration.ZERO : usedTime,
+                    session.getQuestionCount(),
+                    score,
+                    session.getParams().getSeed()
+            );
+            current = questions.size();
+        }
+        return report;
+    }
+
+    /**
+     * @return {@code true} se tutte le domande sono state affrontate o la partita è stata conclusa
+     */
+    public boolean isFinished() {
+        return current >= questions.size();
+    }
+
+    /**
+     * @return indice della domanda corrente, pari al numero di domande a quiz terminato
+     */
+    public int getCurrentIndex() {
+        return current;
+    }
+
+    /**
+     * @return domande della partita, non modificabili
+     */
+    public List<Question> getQuestions() {
+        return questions;
+    }
+
+    /**
+     * Restituisce le risposte registrate, nell'ordine delle domande.
+     *
+     * @return mappa domanda → indice della risposta ({@link #SKIPPED} se saltata), senza le domande non affrontate
+     */
+    public Map<Question, Integer> getAnswers() {
+        Map<Question, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < answers.length; i++) {
+            if (answers[i] != UNANSWERED) {
+                result.put(questions.get(i), answers[i]);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @return punteggio attuale
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return punti assegnati a ogni risposta corretta
+     */
+    public int getScorePerQuestion() {
+        return scorePerQuestion;
+    }
+
+    /**
+     * @return numero di risposte corrette
+     */
+    public int getCorrectCount() {
+        return correctCount;
+    }
+
+    /**
+     * @return numero di domande saltate
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * @return partita giocata
+     */
+    public GameSession getSession() {
+        return session;
+    }
+
+    /**
+     * Restituisce lo stato del quiz da salvare per riprendere la partita, vedi {@link #restore(GameSessionState, GameSession)}.
+     *
+     * @return lo stato corrente
+     */
+    public GameSessionState toState() {
+        return new GameSessionState(user, new ArrayList<>(questions), new LinkedHashMap<>(getAnswers()), current,
+                startTime, scorePerQuestion, session.getParams());
+    }
+
+    private void checkPlaying() {
+        if (startTime == null) {
+            throw new IllegalStateException("Game not started");
+        }
+        if (isFinished()) {
+            throw new IllegalStateException("Game already finished");
+        }
+    }
+
+    private Outcome advance(int answerIndex, boolean timedOut) {
+        int index = current;
+        int points = record(index, answerIndex);
+        current++;
+        questionShownAt = null;
+        return new Outcome(index, answerIndex, questions.get(index).correctAnswerIndex(), points, timedOut);
+    }
+
+    /**
+     * Registra la risposta a una domanda e aggiorna punteggio e contatori.
+     *
+     * @return punti ottenuti
+     */
+    private int record(int index, int answerIndex) {
+        answers[index] = answerIndex;
+        if (answerIndex == SKIPPED) {
+            skippedCount++;
+            return 0;
+        }
+        if (answerIndex == questions.get(index).correctAnswerIndex()) {
+            correctCount++;
+            score += scorePerQuestion;
+            return scorePerQuestion;
+        }
+        return 0;
+    }
+}
@@ -6,18 +6,36 @@ import it.unisa.diem.wordageddon_g16.db.contracts.GameReportDAO;
 import it.unisa.diem.wordageddon_g16.db.contracts.DocumentDAO;
 import it.unisa.diem.wordageddon_g16.db.contracts.StopWordDAO;
 import it.unisa.diem.wordageddon_g16.models.*;
+import it.unisa.diem.wordageddon_g16.utility.IndexSampler;
 import it.unisa.diem.wordageddon_g16.utility.Resources;
 import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
+import it.unisa.diem.wordageddon_g16.utility.jfr.QuestionGenerationEvent;
+import it.unisa.diem.wordageddon_g16.utility.metrics.Metrics;
+import it.unisa.diem.wordageddon_g16.utility.metrics.Timer;
 
 import java.io.IOException;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 /**
  * Classe di "servizio" per la gestione della logica di gioco in Wordageddon.
  * Fornisce tutte le funzionalità utili al GameController come per inizializzare una partita, generare domande,
  * calcolare punteggi, gestire documenti e salvare i risultati.
+ * <p>
+ * Il servizio non conserva lo stato delle partite: ogni partita è rappresentata da una {@link GameSession}
+ * immutabile, creata da {@link #newSession(Difficulty)} o {@link #restoreSession(GameParams)} e passata ai
+ * metodi successivi. Lo stesso {@code GameService} può quindi essere usato da più thread per partite diverse.
+ * </p>
+ * <p>
+ * Ogni partita è generata a partire da un seme ({@link #newSession(Difficulty, long)}): documenti, timer, numero
+ * di domande e domande dipendono soltanto dal seme, dalla difficoltà e dai documenti presenti nel database.
+ * Il seme viene salvato nel {@link GameReport}, così che una partita possa essere riprodotta per benchmark,
+ * debug o per proporre la stessa partita a più giocatori.
+ * </p>
  */
 
 public class GameService {
@@ -26,9 +44,6 @@ public class GameService {
     private final DocumentDAO documentDAO;
     private final StopWordDAO stopWordDAO;
     private final AppContext context;
-    private GameParams params;
-    private Map<Document, WDM> wdmMap;
-    private static final Random random = new Random();
 
     /**
      * Costruisce un nuovo GameService.
@@ -49,76 +64,81 @@ public class GameService {
     }
 
     /**
-     * Inizializza la partita con la difficoltà specificata.
+     * Crea una nuova partita con la difficoltà specificata e un seme casuale.
      *
      * @param difficulty la difficoltà scelta per la partita
+     * @return la nuova sessione di gioco
+     * @see #newSession(Difficulty, long)
      */
-    public void init(Difficulty difficulty) {
-        GameParams.DifficultyIndex di = new GameParams.DifficultyIndex();
-        params = new GameParams(difficulty, generateDocuments(di.getNext(), difficulty), generateTimer(di.getNext()), generateQuestionCount(di.getRemaining(), difficulty));
-        wdmMap = new HashMap<>();
-    }
-
-    public void restoreParams(GameParams params) {
-        this.params = params;
+    public GameSession newSession(Difficulty difficulty) {
+        return newSession(difficulty, ThreadLocalRandom.current().nextLong());
     }
 
     /**
-     * Restituisce la difficoltà della partita corrente.
-     *
-     * @return la difficoltà selezionata
-     * @throws IllegalStateException se la partita non è stata inizializzata
-     */
-    public Difficulty getDifficulty() {
-        if (params == null) {
-            throw new IllegalStateException("Game not initialized");
-        }
-        return params.getDifficulty();
-    }
-
-    /**
-     * Restituisce il tempo limite della partita corrente.
+     * Crea la partita determinata dal seme e dalla difficoltà specificati.
+     * <p>
+     * Documenti, timer e numero di domande vengono generati in base alla difficoltà con un generatore inizializzato
+     * dal seme; le domande useranno un flusso derivato dallo stesso seme (vedi {@link GameSession}). Con gli stessi
+     * documenti nel database, chiamate con lo stesso seme producono la stessa partita. La sessione restituita
+     * non è ancora preparata: le WDM vengono caricate da {@link #prepare(GameSession)}.
+     * </p>
      *
-     * @return la durata massima concessa per la partita
-     * @throws IllegalStateException se la partita non è stata inizializzata
+     * @param difficulty la difficoltà scelta per la partita
+     * @param seed       seme della partita
+     * @return la nuova sessione di gioco
      */
-    public Duration getTimeLimit() {
-        if (params == null) {
-            throw new IllegalStateException("Game not initialized");
-        }
-        return params.getTimer();
+    public GameSession newSession(Difficulty difficulty, long seed) {
+        return Metrics.timer("game.newSession").time(() -> {
+            RandomGenerator random = new SplittableRandom(seed);
+            GameParams.DifficultyIndex di = new GameParams.DifficultyIndex(random);
+            return new GameSession(new GameParams(difficulty, generateDocuments(di.getNext(), difficulty, random), generateTimer(di.getNext()), generateQuestionCount(di.getRemaining(), difficulty), seed));
+        });
     }
 
     /**
-     * Restituisce la lista dei documenti selezionati per la partita corrente.
+     * Ricrea la sessione di una partita interrotta a partire dai suoi parametri.
      *
-     * @return lista dei documenti utilizzati nella partita
-     * @throws IllegalStateException se la partita non è stata inizializzata
+     * @param params i parametri salvati della partita
+     * @return la sessione di gioco, non ancora preparata
      */
-    public List<Document> getDocuments() {
-        if (params == null) {
-            throw new IllegalStateException("Game not initialized");
-        }
-        return params.getDocuments();
+    public GameSession restoreSession(GameParams params) {
+        return new GameSession(params);
     }
 
     /**
-     * Restituisce il numero di domande della partita corrente.
+     * Prepara la sessione caricando dal database le {@link WDM} dei documenti della partita.
+     * <p>
+     * Se la sessione è già preparata viene restituita invariata; altrimenti viene restituita una nuova sessione.
+     * </p>
      *
-     * @return numero di domande generate per la partita
-     * @throws IllegalStateException se la partita non è stata inizializzata
+     * @param session la sessione da preparare
+     * @return la sessione con le WDM caricate
+     * @throws IllegalStateException se la WDM di un documento non è presente nel database
      */
-    public int getQuestionCount() {
-        if (params == null) {
-            throw new IllegalStateException("Game not initialized");
+    public GameSession prepare(GameSession session) {
+        if (session.isPrepared()) {
+            return session;
+        }
+        Timer timer = Metrics.timer("game.prepare");
+        long start = timer.start();
+        Map<Document, WDM> wdms = new LinkedHashMap<>();
+        for (Document doc : session.getDocuments()) {
+            var optionalWdm = wdmDAO.selectBy(doc);
+            if (optionalWdm.isEmpty()) {
+                throw new IllegalStateException("WDM not found for document: " + doc.title());
+            }
+            wdms.put(doc, optionalWdm.get());
         }
-        return params.getQuestionCount();
+        timer.stop(start);
+        return session.withWdms(wdms);
     }
 
     /**
      * Genera la lista di domande per la sessione di gioco in base ai documenti e alla difficoltà selezionata.
      * <p>
-     * Se {@link #params} non è inizializzato, viene sollevata una {@link IllegalStateException}.
+     * La sessione deve essere già preparata con {@link #prepare(GameSession)}. Le domande usano un generatore
+     * nuovo a ogni chiamata ({@link GameSession#getRandom()}): a parità di sessione il risultato è sempre lo stesso,
+     * indipendentemente da quante volte e da quali thread la sessione sia stata usata.
      * Il metodo definisce i tipi di domanda ammessi in base al numero di documenti disponibili.
      * </p>
      * <ul>
@@ -134,15 +154,17 @@ public class GameService {
      * </ul>
      *
      *
-     * @return lista di {@link Question} generate per la sessione attuale
-     * @throws IllegalStateException se il gioco non è stato inizializzato correttamente
+     * @param session la partita per cui generare le domande, già preparata
+     * @return lista di {@link Question} generate per la sessione
+     * @throws IllegalStateException se la sessione non è stata preparata
      */
-    public List<Question> getQuestions() {
-        Random rand = new Random();
-        if (params == null) throw new IllegalStateException("Game not initialized");
-        loadWdmMap();
+    public List<Question> generateQuestions(GameSession session) {
+        if (!session.isPrepared()) throw new IllegalStateException("Game session not prepared");
+        Timer timer = Metrics.timer("game.generateQuestions");
+        long start = timer.start();
+        RandomGenerator rand = session.getRandom();
         List<Question> questions = new ArrayList<>();
-        int numDocs = params.getDocuments().size();
+        int numDocs = session.getDocuments().size();
 
         // Definisci i tipi di domanda consentiti in base al numero di documenti
         List<Question.QuestionType> allowedTypes = new ArrayList<>();
@@ -158,39 +180,61 @@ public class GameService {
             System.out.println("Il sistema ha selezionato meno di 4 documenti, le domande generate saranno di tipo SINGLE (riguardano un singolo documento)");
         }
 
-        for (int i = 0; i < params.getQuestionCount(); i++) {
+        for (int i = 0; i < session.getQuestionCount(); i++) {
             var type = allowedTypes.get(rand.nextInt(allowedTypes.size()));
-            Question q;
-
-            // Se ci sono meno di 4 documenti, solo domande SINGLE
-            if (numDocs < 4) {
-                q = switch (type) {
-                    case ABSOLUTE_FREQUENCY -> absoluteFrequencyQuestionSingle();
-                    case WHICH_MORE -> whichMoreQuestionSingle();
-                    case WHICH_LESS -> whichLessQuestionSingle();
-                    default -> throw new IllegalStateException("Tipo di domanda non supportato con meno di 4 documenti: " + type);
-                };
-            } else {
-                // Se >= 4 documenti, scegli casualmente tra single e non single
-                q = switch (type) {
-                    case ABSOLUTE_FREQUENCY -> rand.nextBoolean()
-                            ? absoluteFrequencyQuestionSingle()
-                            : absoluteFrequencyQuestion();
-                    case WHICH_MORE -> rand.nextBoolean()
-                            ? whichMoreQuestionSingle()
-                            : whichMoreQuestion();
-                    case WHICH_LESS -> rand.nextBoolean()
-                            ? whichLessQuestionSingle()
-                            : whichLessQuestion();
-                    case WHICH_DOCUMENT -> whichDocumentQuestion();
-                    case WHICH_ABSENT -> whichAbsentQuestion();
-                };
-            }
-            questions.add(q);
+            // Se ci sono meno di 4 documenti, solo domande SINGLE; altrimenti scelta casuale tra single e non single
+            boolean single = numDocs < 4 || rand.nextBoolean();
+            questions.add(generateQuestion(session, type, single, rand));
         }
+        timer.stop(start);
         return questions;
     }
 
+    /**
+     * Genera una singola domanda del tipo indicato per la partita.
+     * <p>
+     * Il parametro {@code single} sceglie tra la variante basata su un singolo documento e quella
+     * che considera tutti i documenti; viene ignorato da {@link Question.QuestionType#WHICH_DOCUMENT}
+     * e {@link Question.QuestionType#WHICH_ABSENT}, che esistono solo nella variante multi-documento.
+     * La durata della generazione viene registrata in {@link Metrics} separatamente per ogni tipologia e variante
+     * e, se abilitato, tramite l'evento JFR {@link QuestionGenerationEvent}.
+     * </p>
+     *
+     * @param session la partita, già preparata con {@link #prepare(GameSession)}
+     * @param type    tipologia di domanda da generare
+     * @param single  {@code true} per la variante relativa a un singolo documento
+     * @param random  generatore di numeri casuali delle domande, ad esempio {@link GameSession#getRandom()}
+     * @return la domanda generata
+     * @throws IllegalStateException se la sessione non è stata preparata
+     */
+    public Question generateQuestion(GameSession session, Question.QuestionType type, boolean single,
+                                     RandomGenerator random) {
+        if (!session.isPrepared()) throw new IllegalStateException("Game session not prepared");
+        boolean singleVariant = single && type != Question.QuestionType.WHICH_DOCUMENT && type != Question.QuestionType.WHICH_ABSENT;
+        Timer timer = Metrics.timer("question." + type.name() + (singleVariant ? ".single" : ""));
+        long start = timer.start();
+        QuestionGenerationEvent event = new QuestionGenerationEvent();
+        event.begin();
+        try {
+            return switch (type) {
+                case ABSOLUTE_FREQUENCY -> single ? absoluteFrequencyQuestionSingle(session, random) : absoluteFrequencyQuestion(session, random);
+                case WHICH_MORE -> single ? whichMoreQuestionSingle(session, random) : whichMoreQuestion(session, random);
+                case WHICH_LESS -> single ? whichLessQuestionSingle(session, random) : whichLessQuestion(session, random);
+                case WHICH_DOCUMENT -> whichDocumentQuestion(session, random);
+                case WHICH_ABSENT -> whichAbsentQuestion(session, random);
+            };
+        } finally {
+            timer.stop(start);
+            if (event.shouldCommit()) {
+                event.questionType = type.name();
+                event.single = singleVariant;
+                event.difficulty = session.getDifficulty().name();
+                event.documentCount = session.getDocuments().size();
+                event.commit();
+            }
+        }
+    }
+
     /**
      * Genera una domanda {@link Question} sulla frequenza assoluta di una parola in un singolo documento.
      * <p>
@@ -198,167 +242,124 @@ public class GameService {
      * Crea quattro opzioni numeriche plausibili e identifica quella corretta in base alla frequenza della parola nel documento.
      * </p>
      *
+     * @param session la partita di cui usare documenti e WDM
+     * @param random  generatore di numeri casuali delle domande della partita
      * @return domanda a scelta multipla relativa alla frequenza di una parola in un singolo documento
      */
-    private Question absoluteFrequencyQuestionSingle() {
+    private Question absoluteFrequencyQuestionSingle(GameSession session, RandomGenerator random) {
         // Seleziona un documento casuale
-        List<Document> docs = getDocuments();
+        List<Document> docs = session.getDocuments();
         Document document = docs.get(random.nextInt(docs.size()));
-        WDM wdm = wdmMap.get(document);
-
-        List<String> words = new ArrayList<>(wdm.getWords().keySet());
+        WordTable words = session.getWords(document);
 
-        // Seleziona una parola casuale tra quelle presenti nel documento a partire dalla sua matrice WDM
-        String chosenWord = words.get(random.nextInt(words.size()));
-        // frequenza della parola nella WDM
-        int correctFrequency = wdm.getWords().get(chosenWord);
+        // Seleziona una parola casuale tra quelle presenti nel documento e la sua frequenza
+        int chosen = random.nextInt(words.size());
+        String chosenWord = words.word(chosen);
+        int correctFrequency = words.count(chosen);
 
-        // Genero 4 risposte plausibili (inclusa quella corretta) e le inserisco nel set
-        Set<Integer> options = new HashSet<>();
-        options.add(correctFrequency);
-
-        Random rand = new Random();
-        while (options.size() < 4) {
-
-            int delta = 1 + rand.nextInt(4); // Delta tra 1 e 4
-            int fakeOption = correctFrequency + (rand.nextBoolean() ? delta : -delta);
-
-            if (fakeOption >= 0 && fakeOption != correctFrequency) {
-                options.add(fakeOption);
-            }
-        }
-
-
-        // Prepara la lista delle risposte e trova l'indice corretto
-        List<Integer> answerOptions = new ArrayList<>(options);
-        Collections.shuffle(answerOptions);
-        int correctIndex = answerOptions.indexOf(correctFrequency);
-
-        // Converte le risposte in stringhe
-        List<String> answers = answerOptions.stream()
-                .map(String::valueOf)
-                .collect(Collectors.toList());
+        // Genero 4 risposte plausibili (inclusa quella corretta), a distanza al più 4 da quella corretta
+        int[] options = DistractorGenerator.options(correctFrequency, 4, 4, random);
 
         // Crea la domanda
         return Question.create(
                 "Quante volte la parola \"" + chosenWord.toUpperCase() + "\" appare nel documento \"" + document.title().toUpperCase() + "\"?",
-                answers,
-                correctIndex
+                answers(options),
+                indexOf(options, correctFrequency)
         );
     }
 
     /**
      * Genera una domanda {@link Question} sulla frequenza assoluta di una parola in tutti i documenti combinati.
      * <p>
-     * Somma le frequenze di tutte le parole attraverso i {@link WDM} dei documenti.
+     * Usa le frequenze di tutte le parole sommate sui documenti, calcolate alla preparazione della partita
+     * ({@link GameSession#getAllWords()}).
      * Seleziona una parola casuale e genera opzioni di risposta basate sulla sua frequenza cumulata.
      * </p>
      *
+     * @param session la partita di cui usare documenti e WDM
+     * @param random  generatore di numeri casuali delle domande della partita
      * @return domanda relativa alla frequenza di una parola aggregata su tutti i documenti
      * @throws IllegalStateException se non ci sono parole disponibili nei documenti
      */
-    private Question absoluteFrequencyQuestion() {
-        // Crea la mappa cumulativa delle frequenze per tutte le parole in tutti i documenti
-        Map<String, Integer> cumulativeFrequency = new HashMap<>();
-        for (WDM wdm : wdmMap.values()) {
-            for (Map.Entry<String, Integer> entry : wdm.getWords().entrySet()) {
-                cumulativeFrequency.merge(entry.getKey(), entry.getValue(), Integer::sum);
-            }
-        }
+    private Question absoluteFrequencyQuestion(GameSession session, RandomGenerator random) {
+        // Frequenze cumulative di tutte le parole in tutti i documenti, calcolate alla preparazione della partita
+        WordTable words = session.getAllWords();
 
         // Se non ci sono parole, lancia eccezione
-        if (cumulativeFrequency.isEmpty()) {
+        if (words.size() == 0) {
             throw new IllegalStateException("Non ci sono parole nei documenti");
         }
 
         // Seleziona una parola casuale tra quelle presenti
-        List<String> words = new ArrayList<>(cumulativeFrequency.keySet());
-        String chosenWord = words.get(random.nextInt(words.size()));
-        int correctFrequency = cumulativeFrequency.get(chosenWord);
-
-        // Genera risposte plausibili (inclusa quella corretta)
-        Set<Integer> options = new HashSet<>();
-        options.add(correctFrequency);
-        Random rand = new Random();
-        while (options.size() < 4) {
-            // Genera un'opzione casuale vicina al valore corretto
-            int delta = 1 + rand.nextInt(Math.max(1, correctFrequency / 2 + 2));
-            int fakeOption = rand.nextBoolean() ? correctFrequency + delta : Math.max(0, correctFrequency - delta);
-            options.add(fakeOption);
-        }
-
-        // Prepara la lista delle risposte e trova l'indice corretto
-        List<Integer> answerOptions = new ArrayList<>(options);
-        Collections.shuffle(answerOptions);
-        int correctIndex = answerOptions.indexOf(correctFrequency);
+        int chosen = random.nextInt(words.size());
+        String chosenWord = words.word(chosen);
+        int correctFrequency = words.count(chosen);
 
-        // Converte le risposte in stringhe
-        List<String> answers = answerOptions.stream()
-                .map(String::valueOf)
-                .collect(Collectors.toList());
+        // Genera risposte plausibili (inclusa quella corretta): lo scarto cresce con la frequenza
+        int[] options = DistractorGenerator.options(correctFrequency, correctFrequency / 2 + 2, 4, random);
 
         // Crea la domanda
         return Question.create(
                 "Quante volte la parola \"" + chosenWord.toUpperCase() + "\" appare in tutti i documenti?",
-                answers,
-                correctIndex
+                answers(options),
+                indexOf(options, correctFrequency)
         );
     }
 
+    /**
+     * Converte le opzioni numeriche di una domanda nelle risposte testuali.
+     *
+     * @param options opzioni generate da {@link DistractorGenerator}
+     * @return le risposte, nello stesso ordine
+     */
+    private static List<String> answers(int[] options) {
+        List<String> answers = new ArrayList<>(options.length);
+        for (int option : options) {
+            answers.add(String.valueOf(option));
+        }
+        return answers;
+    }
+
+    /**
+     * Restituisce la posizione della risposta corretta tra le opzioni numeriche.
+     *
+     * @param options opzioni generate da {@link DistractorGenerator}
+     * @param correct valore corretto
+     * @return indice del valore corretto
+     */
+    private static int indexOf(int[] options, int correct) {
+        for (int i = 0; i < options.length; i++) {
+            if (options[i] == correct) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Correct value not among the options: " + correct);
+    }
+
     /**
      * Genera una domanda {@link Question} in cui si chiede quale parola appare più frequentemente tra un insieme proposto, basata su tutti i documenti.
      * <p>
-     * Accumula le frequenze totali per ogni parola e seleziona casualmente quattro parole tra quelle disponibili.
+     * Usa le frequenze totali di ogni parola ({@link GameSession#getAllWords()}) e seleziona casualmente quattro parole.
      * Identifica quella con la frequenza più alta come risposta corretta.
      * </p>
      *
+     * @param session la partita di cui usare documenti e WDM
+     * @param random  generatore di numeri casuali delle domande della partita
      * @return domanda a scelta multipla sulla parola con frequenza massima complessiva
      * @throws IllegalStateException se il numero di parole disponibili è inferiore a 4
      */
-    private Question whichMoreQuestion() {
-        // Mappa cumulativa delle frequenze di tutte le parole in tutti i documenti
-        Map<String, Integer> cumulativeFrequency = new HashMap<>();
-        List<Document> docs = getDocuments();
-        for (Document doc : docs) {
-            WDM wdm = wdmMap.get(doc);
-            if (wdm != null) {
-                for (Map.Entry<String, Integer> entry : wdm.getWords().entrySet()) {
-                    // accumulo valori associati ad una determinata chiave
-                    cumulativeFrequency.merge(entry.getKey(), entry.getValue(), Integer::sum);
-                }
-            }
-        }
-
-        // Lista delle entry parola-frequenza, mischiate per selezione casuale
-        // Sostanzialmente é una lista contenente le righe della matrice parola-documento
-        List<Map.Entry<String, Integer>> wordFrequency = new ArrayList<>(cumulativeFrequency.entrySet());
-        Collections.shuffle(wordFrequency);
+    private Question whichMoreQuestion(GameSession session, RandomGenerator random) {
+        // Frequenze cumulative di tutte le parole in tutti i documenti
+        WordTable words = session.getAllWords();
 
         // Check: almeno 4 parole disponibili
-        if (wordFrequency.size() < 4) {
+        if (words.size() < 4) {
             throw new IllegalStateException("Non ci sono abbastanza parole per generare la domanda (minimo 4 richieste)");
         }
 
-        // Prendo le prime 4 parole casuali
-        List<Map.Entry<String, Integer>> currentAnswer = new ArrayList<>();
-        for (int y = 0; y < 4; y++) {
-            currentAnswer.add(wordFrequency.get(y));
-        }
-
-        // Trova la parola più frequente tra le 4 selezionate
-        List<String> answers = new ArrayList<>();
-        int correctIndex = 0;
-        int maxFreq = -1;
-        for (int i = 0; i < currentAnswer.size(); i++) {
-            Map.Entry<String, Integer> entry = currentAnswer.get(i);
-            answers.add(entry.getKey());
-            if (entry.getValue() > maxFreq) {
-                maxFreq = entry.getValue();
-                correctIndex = i;
-            }
-        }
-
-        return Question.create("Quale di queste parole appare più frequentemente in tutti i documenti?", answers, correctIndex);
+        // Estraggo 4 parole casuali e trovo la più frequente
+        return extremeFrequencyQuestion("Quale di queste parole appare più frequentemente in tutti i documenti?",
+                words, 4, true, random);
     }
 
     /**
@@ -368,34 +369,18 @@ public class GameService {
      * Identifica la parola con frequenza più alta come risposta corretta.
      * </p>
      *
+     * @param session la partita di cui usare documenti e WDM
+     * @param random  generatore di numeri casuali delle domande della partita
      * @return una Question a scelta multipla relativa alla parola più frequente nel documento selezionato
      */
-    private Question whichMoreQuestionSingle() {
-        List<Document> docs = getDocuments();
+    private Question whichMoreQuestionSingle(GameSession session, RandomGenerator random) {
+        List<Document> docs = session.getDocuments();
         Document document = docs.get(random.nextInt(docs.size()));
-        WDM wdm = wdmMap.get(document);
 
-        List<Map.Entry<String, Integer>> wordFrequency = new ArrayList<>(wdm.getWords().entrySet());
-        Collections.shuffle(wordFrequency);
-
-        List<Map.Entry<String, Integer>> currentAnswer = new ArrayList<>();
-        for (int y = 0; y < 4; y++) {
-            currentAnswer.add(wordFrequency.get(y));
-        }
-
-        List<String> answers = new ArrayList<>();
-        int correctIndex = 0;
-        int maxFreq = -1;
-        for (int i = 0; i < currentAnswer.size(); i++) {
-            Map.Entry<String, Integer> entry = currentAnswer.get(i);
-            answers.add(entry.getKey());
-            if (entry.getValue() > maxFreq) {
-                maxFreq = entry.getValue();
-                correctIndex = i;
-            }
-        }
-        return Question.create("Quale di queste parole appare più frequentemente nel documento \"" + document.title().toUpperCase() + "\"?", answers, correctIndex);
+        return extremeFrequencyQuestion("Quale di queste parole appare più frequentemente nel documento \"" + document.title().toUpperCase() + "\"?",
+                session.getWords(document), 4, true, random);
     }
+
     /**
      * Genera una domanda {@link Question} in cui si chiede quale parola appare meno frequentemente in un singolo documento.
      * <p>
@@ -403,85 +388,68 @@ public class GameService {
      * Individua quella con la frequenza più bassa come risposta corretta.
      * </p>
      *
+     * @param session la partita di cui usare documenti e WDM
+     * @param random  generatore di numeri casuali delle domande della partita
      * @return domanda sulla parola con minore frequenza in un documento specifico
      */
-    private Question whichLessQuestionSingle() {
-        List<Document> docs = getDocuments();
+    private Question whichLessQuestionSingle(GameSession session, RandomGenerator random) {
+        List<Document> docs = session.getDocuments();
         Document document = docs.get(random.nextInt(docs.size()));
-        WDM wdm = wdmMap.get(document);
-
-        List<Map.Entry<String, Integer>> wordFrequency = new ArrayList<>(wdm.getWords().entrySet());
-        Collections.shuffle(wordFrequency);
-
-        List<Map.Entry<String, Integer>> selected = new ArrayList<>();
-        for (int i = 0; i < 4; i++) {
-            selected.add(wordFrequency.get(i));
-        }
 
-        int correctIndex = 0;
-        int minFreq = Integer.MAX_VALUE;
-        for (int i = 0; i < selected.size(); i++) {
-            if (selected.get(i).getValue() < minFreq) {
-                minFreq = selected.get(i).getValue();
-                correctIndex = i;
-            }
-        }
-        List<String> answers = new ArrayList<>();
-        for (var entry : selected) {
-            answers.add(entry.getKey());
-        }
-        return Question.create("Quale delle seguenti parole appare meno frequentemente nel documento \"" + document.title().toUpperCase() + "\"?", answers, correctIndex);
+        return extremeFrequencyQuestion("Quale delle seguenti parole appare meno frequentemente nel documento \"" + document.title().toUpperCase() + "\"?",
+                session.getWords(document), 4, false, random);
     }
 
     /**
      * Genera una domanda {@link Question} che richiede di identificare la parola meno frequente
      * tra un insieme di quattro, basata sui dati cumulativi di tutti i documenti.
      * <p>
-     * Combina le frequenze di tutte le parole usando le rispettive {@link WDM},
+     * Usa le frequenze totali di ogni parola ({@link GameSession#getAllWords()}),
      * ne seleziona quattro casualmente e individua quella con la frequenza più bassa.
      * </p>
      *
+     * @param session la partita di cui usare documenti e WDM
+     * @param random  generatore di numeri casuali delle domande della partita
      * @return domanda a scelta multipla sulla parola con minore frequenza globale
      * @throws IllegalStateException se non sono disponibili abbastanza dati per la generazione
      */
-    private Question whichLessQuestion() {
-        // Mappa cumulativa delle frequenze di tutte le parole in tutti i documenti
-        Map<String, Integer> cumulativeFrequency = new HashMap<>();
-        List<Document> docs = getDocuments();
-        for (Document doc : docs) {
-            WDM wdm = wdmMap.get(doc);
-            if (wdm != null) {
-                for (Map.Entry<String, Integer> entry : wdm.getWords().entrySet()) {
-                    // Accumulo valori associati ad una determinata chiave
-                    cumulativeFrequency.merge(entry.getKey(), entry.getValue(), Integer::sum);
-                }
-            }
-        }
+    private Question whichLessQuestion(GameSession session, RandomGenerator random) {
+        // Frequenze cumulative di tutte le parole in tutti i documenti
+        WordTable words = session.getAllWords();
 
-        // Lista delle entry parola-frequenza, mischiate per selezione casuale
-        List<Map.Entry<String, Integer>> wordFrequency = new ArrayList<>(cumulativeFrequency.entrySet());
-        Collections.shuffle(wordFrequency);
-
-        // Prendi le prime 4 parole casuali
-        List<Map.Entry<String, Integer>> currentAnswer = new ArrayList<>();
-        for (int y = 0; y < 4 && y < wordFrequency.size(); y++) {
-            currentAnswer.add(wordFrequency.get(y));
-        }
+        // Estraggo fino a 4 parole casuali e trovo la MENO frequente
+        return extremeFrequencyQuestion("Quale di queste parole appare meno frequentemente in tutti i documenti?",
+                words, Math.min(4, words.size()), false, random);
+    }
 
-        // Trova la parola MENO frequente tra le 4 selezionate
-        List<String> answers = new ArrayList<>();
+    /**
+     * Costruisce una domanda che chiede quale tra alcune parole estratte a caso sia la più (o la meno) frequente.
+     * <p>
+     * Le parole vengono estratte con {@link IndexSampler}, senza copiare né mescolare la tabella delle parole.
+     * A parità di frequenza è corretta la prima parola estratta.
+     * </p>
+     *
+     * @param text   testo della domanda
+     * @param words  tabella delle parole da cui estrarre le risposte
+     * @param count  numero di risposte
+     * @param most   {@code true} se la risposta corretta è la parola più frequente, {@code false} se la meno frequente
+     * @param random generatore di numeri casuali della partita
+     * @return la domanda a scelta multipla
+     */
+    private static Question extremeFrequencyQuestion(String text, WordTable words, int count, boolean most,
+                                                     RandomGenerator random) {
+        int[] chosen = IndexSampler.sample(words.size(), count, random);
+        List<String> answers = new ArrayList<>(count);
         int correctIndex = 0;
-        int minFreq = Integer.MAX_VALUE;
-        for (int i = 0; i < currentAnswer.size(); i++) {
-            Map.Entry<String, Integer> entry = currentAnswer.get(i);
-            answers.add(entry.getKey());
-            if (entry.getValue() < minFreq) {
-                minFreq = entry.getValue();
+        for (int i = 0; i < chosen.length; i++) {
+            answers.add(words.word(chosen[i]));
+            int frequency = words.count(chosen[i]);
+            int best = words.count(chosen[correctIndex]);
+            if (most ? frequency > best : frequency < best) {
                 correctIndex = i;
             }
         }
-
-        return Question.create("Quale di queste parole appare meno frequentemente in tutti i documenti?", answers, correctIndex);
+        return Question.create(text, answers, correctIndex);
     }
 
     /**
@@ -493,47 +461,37 @@ public class GameService {
      * e costruisce le opzioni di risposta in ordine casuale.
      * </p>
      *
+     * @param session la partita di cui usare documenti e WDM
+     * @param random  generatore di numeri casuali delle domande della partita
      * @return domanda sulla presenza di una parola in uno dei documenti disponibili
      * @throws IllegalStateException se il documento selezionato non contiene parole
      */
-    private Question whichDocumentQuestion() {
-        List<Document> docs = getDocuments();
+    private Question whichDocumentQuestion(GameSession session, RandomGenerator random) {
+        List<Document> docs = session.getDocuments();
         Document document = docs.get(random.nextInt(docs.size()));
-        WDM wdm = wdmMap.get(document);
-
-        List<String> words = new ArrayList<>(wdm.getWords().keySet());
-        if (words.isEmpty()) throw new IllegalStateException("No words available");
+        WordTable words = session.getWords(document);
+        if (words.size() == 0) throw new IllegalStateException("No words available");
 
-        String word = words.get(random.nextInt(words.size()));
+        String word = words.word(random.nextInt(words.size()));
 
-        // Crea una lista di documenti senza duplicati
-        List<Document> docPool = new ArrayList<>(docs);
-        Collections.shuffle(docPool);
-
-        // Assicurati che il documento corretto sia incluso
-        if (!docPool.contains(document)) {
-            docPool.set(0, document); // Forza la presenza del documento corretto
-        }
-
-        // Prendi i primi 4 documenti (tutti diversi)
+        // Prendi il documento corretto e altri 3 documenti diversi, in ordine casuale
         List<Document> docAnswer = new ArrayList<>();
         docAnswer.add(document);
-        for (Document d : docPool) {
-            if (!d.equals(document) && docAnswer.size() < 4) {
+        IndexSampler docPool = new IndexSampler(docs.size(), random);
+        while (docAnswer.size() < 4 && docPool.hasNext()) {
+            Document d = docs.get(docPool.next());
+            if (!d.equals(document)) {
                 docAnswer.add(d);
             }
         }
-
-        Collections.shuffle(docAnswer);
+        // La posizione del documento corretto è casuale, gli altri sono già in ordine casuale
+        int index = random.nextInt(docAnswer.size());
+        docAnswer.set(0, docAnswer.get(index));
+        docAnswer.set(index, document);
 
         List<String> answers = new ArrayList<>();
-        int index = -1;
-        for (int i = 0; i < docAnswer.size(); i++) {
-            Document d = docAnswer.get(i);
+        for (Document d : docAnswer) {
             answers.add(d.title());
-            if (d.equals(document)) {
-                index = i;
-            }
         }
         return Question.create(
                 "In quale di questi documenti appare la parola " + word.toUpperCase() + "?",
@@ -541,6 +499,7 @@ public class GameService {
                 index
         );
     }
+
     /**
      * Genera una domanda {@link Question} che richiede di identificare
      * quale parola tra quattro non è presente in nessun documento.
@@ -549,35 +508,29 @@ public class GameService {
      * Ne seleziona tre esistenti e ne genera una quarta che non compare in alcun documento, utilizzando {@code generateAbsentWord()}.
      * </p>
      *
+     * @param session la partita di cui usare documenti e WDM
+     * @param random  generatore di numeri casuali delle domande della partita
      * @return domanda che verifica l'assenza totale di una parola nei documenti
      * @throws IllegalStateException se non ci sono abbastanza parole per generare la domanda
      */
-    private Question whichAbsentQuestion() {
-        Set<String> allWords = new HashSet<>();
-        for (WDM wdm : wdmMap.values()) {
-            allWords.addAll(wdm.getWords().keySet());
-        }
+    private Question whichAbsentQuestion(GameSession session, RandomGenerator random) {
+        WordTable allWords = session.getAllWords();
         if (allWords.size() < 3) {
             throw new IllegalStateException("Not enough words for the question");
         }
 
-        // Crea una lista di parole presenti e seleziona 3 parole casuali
-        List<String> presentWords = new ArrayList<>(allWords);
-        Collections.shuffle(presentWords);
-
+        // Seleziona 3 parole presenti casuali
         List<String> answers = new ArrayList<>();
-        answers.add(presentWords.get(0));
-        answers.add(presentWords.get(1));
-        answers.add(presentWords.get(2));
+        for (int index : IndexSampler.sample(allWords.size(), 3, random)) {
+            answers.add(allWords.word(index));
+        }
 
         // Genera una parola assente in modo robusto
-        String absentWord = generateAbsentWord(allWords);
-
-        answers.add(absentWord);
+        String absentWord = generateAbsentWord(session, allWords, random);
 
-        // Mischia le risposte e individua l'indice corretto
-        Collections.shuffle(answers);
-        int correctIndex = answers.indexOf(absentWord);
+        // Le parole presenti sono già in ordine casuale: basta inserire quella assente in una posizione casuale
+        int correctIndex = random.nextInt(answers.size() + 1);
+        answers.add(correctIndex, absentWord);
 
         return Question.create(
                 "Quale delle seguenti parole NON è presente in nessun documento?",
@@ -595,17 +548,19 @@ public class GameService {
      * </ul>
      * Se non trova alcuna parola valida, lancia una {@link IllegalStateException}.
      *
+     * @param session la partita di cui usare documenti e WDM
      * @param presentWords insieme di parole già presenti nei documenti usati
+     * @param random generatore di numeri casuali delle domande della partita
      * @return una parola assente da tutti i documenti utilizzati
      * @throws IllegalStateException se non ci sono parole disponibili né nei documenti inutilizzati né nel vocabolario statico
      */
-    private String generateAbsentWord(Set<String> presentWords) {
+    private String generateAbsentWord(GameSession session, WordTable presentWords, RandomGenerator random) {
         // True: la parola è prelevata da un vocabolario statico
         // False: la parola è prelevata dalla WDM di un documento non utilizzato durante la partita
         boolean useVocabulary = false;
 
         // Creo una lista di documenti non utilizzati
-        List<Document> usedDocsList = getDocuments();
+        List<Document> usedDocsList = session.getDocuments();
         List<Document> allDocsList = documentDAO.selectAll().stream().toList();
         List<Document> unusedDocsList = allDocsList.stream()
                 .filter(doc -> !usedDocsList.contains(doc))
@@ -621,24 +576,14 @@ public class GameService {
 
         // Prelevo la parola da un documento inutilizzato
         if (!useVocabulary) {
-            Collections.shuffle(unusedDocsList);
-
-            // Trova una parola valida da una WDM di un documento inutilizzato
-            for (Document unusedDoc : unusedDocsList) {
-                WDM unusedDocWdm = wdmMap.get(unusedDoc);
-                if (unusedDocWdm == null) continue;
-
-                List<String> unusedDocWords = new ArrayList<>(unusedDocWdm.getWords().keySet());
-
-                // Rimuovo le parole già presenti nei documenti utilizzati
-                unusedDocWords.removeIf(presentWords::contains);
-
-                if (!unusedDocWords.isEmpty()) {
-                    // Prelevo una parola casuale da quelle rimaste nella collezione
-                    Collections.shuffle(unusedDocWords);
-                    word = unusedDocWords.getFirst();
-                    break;
-                }
+            // Trova una parola valida dalle parole di un documento inutilizzato, visitando i documenti in ordine casuale
+            IndexSampler unusedDocs = new IndexSampler(unusedDocsList.size(), random);
+            while (word == null && unusedDocs.hasNext()) {
+                WordTable unusedDocWords = session.getWords(unusedDocsList.get(unusedDocs.next()));
+                if (unusedDocWords == null) continue;
+
+                // Prelevo parole casuali finché ne trovo una non presente nei documenti utilizzati
+                word = sampleAbsent(unusedDocWords.size(), unusedDocWords::word, presentWords, random);
             }
 
             // Se non trovata, fallback al vocabolario statico
@@ -648,16 +593,12 @@ public class GameService {
         }
 
         if (useVocabulary) {
-            // Prelevo una parola dal vocabolario statico
-            // Bisogna creare una nuova lista in quanto quella restituita da Resources.getVocabulary() é immutabile
-            // avendola ottenuta mediante il costruttore Arrays.
-            List<String> vocabWords = new ArrayList<>(Resources.getVocabulary());
-            vocabWords.removeIf(presentWords::contains);
-            if (vocabWords.isEmpty()) {
+            // Prelevo una parola dal vocabolario statico, senza copiarlo
+            List<String> vocabWords = Resources.getVocabulary();
+            word = sampleAbsent(vocabWords.size(), vocabWords::get, presentWords, random);
+            if (word == null) {
                 throw new IllegalStateException("Nessuna parola disponibile nel vocabolario statico!");
             }
-            Collections.shuffle(vocabWords);
-            word = vocabWords.getFirst();
         }
 
         System.out.println("Generated Word: " + word);
@@ -666,65 +607,51 @@ public class GameService {
     }
 
     /**
-     * Carica le matrici {@link WDM} associate ai documenti selezionati per la partita nella mappa {@code wdmMap}.
-     * Per ciascun {@link Document} in {@code params.documents}, il metodo:
-     * <ul>
-     *   <li>Recupera la matrice dal database tramite {@code wdmDAO.selectBy(Document)}</li>
-     *   <li>La inserisce nella mappa {@code wdmMap}</li>
-     *   <li>Se la matrice non è disponibile, viene lanciata una {@link IllegalStateException}</li>
-     * </ul>
+     * Estrae parole distinte in ordine casuale finché ne trova una non presente nei documenti della partita.
+     * Poiché di solito quasi tutte le parole candidate sono assenti, bastano poche estrazioni.
+     *
+     * @param size         numero di parole candidate
+     * @param candidates   funzione che restituisce la parola candidata di un indice
+     * @param presentWords parole presenti nei documenti della partita
+     * @param random       generatore di numeri casuali della partita
+     * @return una parola candidata assente, oppure {@code null} se sono tutte presenti
      */
-    private void loadWdmMap() {
-        for (Document doc : params.getDocuments()) {
-            WDM wdm;
-            var optionalWdm = wdmDAO.selectBy(doc);
-            // Se la matrice non esiste nel database, la creo e la salvo al volo
-            if (optionalWdm.isEmpty()) {
-                throw new IllegalStateException("WDM not found for document: " + doc.title());
-            } else {
-                wdm = optionalWdm.get();
+    private static String sampleAbsent(int size, IntFunction<String> candidates, WordTable presentWords,
+                                       RandomGenerator random) {
+        IndexSampler sampler = new IndexSampler(size, random);
+        while (sampler.hasNext()) {
+            String candidate = candidates.apply(sampler.next());
+            if (!presentWords.contains(candidate)) {
+                return candidate;
             }
-            wdmMap.put(doc, wdm);
         }
+        return null;
     }
 
-
-    /**
-     * Calcola il punteggio assegnato per ogni singola domanda in base alla
-     * difficoltà della partita e al numero totale di domande.
-     *
-     * @return il punteggio per ogni domanda
-     */
-    public int getScorePerQuestion() {
-        int totalScore = Difficulty.getMaxScoreDifficulty(getDifficulty());
-        return totalScore / getQuestionCount();
-    }
-
-    public GameParams getParams() {
-        return params;
-    }
-
-
     /**
      * Prepara il contenuto testuale dei documenti per la fase di lettura.
      * <p>
-     * Per ogni {@link Document} restituito da {@link #getDocuments()}, legge il contenuto del file corrispondente
+     * Per ogni {@link Document} della partita, legge il contenuto del file corrispondente
      * tramite {@link Resources#getDocumentContent(String)} usando il nome fornito da {@link Document#filename()}.
      * <br>
      * In caso di errore nella lettura di un file, registra l'eccezione con {@code SystemLogger.log()}.
      * </p>
      *
+     * @param session la partita di cui leggere i documenti
      * @return mappa contenente ogni {@code Document} e il suo contenuto testuale pronto per essere visualizzato
      */
-    public Map<Document,String> setupReadingPhase() {
+    public Map<Document,String> setupReadingPhase(GameSession session) {
+        Timer timer = Metrics.timer("game.readingSetup");
+        long start = timer.start();
         Map<Document,String> result = new HashMap<>();
-        for (Document doc : getDocuments()) {
+        for (Document doc : session.getDocuments()) {
             try {
                 result.put(doc, Resources.getDocumentContent(doc.filename()));
             } catch (IOException e) {
                 SystemLogger.log("Errore nella lettura del documento", e);
             }
         }
+        timer.stop(start);
         return result;
     }
 
@@ -739,17 +666,21 @@ public class GameService {
      */
     public void saveGameReport(GameReport report) {
         System.out.println("Salvataggio Report");
+        Timer timer = Metrics.timer("game.saveReport");
+        long start = timer.start();
         gameReportDAO.insert(report);
+        timer.stop(start);
     }
 
     /**
      * Genera una lista di documenti in base all'influenza della difficoltà.
      *
      * @param influence valore di influenza della difficoltà
+     * @param random    generatore di numeri casuali della generazione della partita
      * @return lista di documenti
      * @throws IllegalArgumentException se non sono disponibili documenti
      */
-    private List<Document> generateDocuments(float influence, Difficulty difficulty) throws IllegalArgumentException {
+    private List<Document> generateDocuments(float influence, Difficulty difficulty, RandomGenerator random) throws IllegalArgumentException {
         final int maxWords;
         final int minWords;
         final int maxDocsNumber;
@@ -778,6 +709,7 @@ public class GameService {
 
         var result = new ArrayList<Document>();
 
+        // I documenti sono letti in ordine di identificativo, così che la scelta dipenda solo dal seme
         var docList = new ArrayList<>(documentDAO.selectAll());
         if (docList.isEmpty()) {
             throw new IllegalStateException("No documents available for the game");
@@ -4,10 +4,12 @@ import it.unisa.diem.wordageddon_g16.db.JDBCGameReportDAO;
 import it.unisa.diem.wordageddon_g16.db.contracts.UserDAO;
 import it.unisa.diem.wordageddon_g16.models.AppContext;
 import it.unisa.diem.wordageddon_g16.models.Difficulty;
+import it.unisa.diem.wordageddon_g16.models.DifficultyTimeStats;
 import it.unisa.diem.wordageddon_g16.models.GameReport;
 import it.unisa.diem.wordageddon_g16.models.User;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 
 /**
@@ -32,20 +34,23 @@ public class LeaderboardService {
         int gamesPlayed
     ){}
     private final JDBCGameReportDAO gameReportDAO;
-    private final Collection<User> users;
-    private final User currentUser;
+    private final UserDAO userDAO;
+    private final AppContext context;
 
     /**
      * Cosstruttore della classe {@code LeaderboardService}.
+     * <p>
+     * Non accede al database: utenti e utente corrente vengono letti a ogni richiesta di classifica,
+     * così che la classifica includa anche gli utenti registrati dopo la creazione del servizio.
      *
      * @param context       il contesto applicativo corrente contenente l'utente attivo
      * @param gameReportDAO DAO per i report di gioco
      * @param userDAO       DAO per la selezione degli utenti
      */
     public LeaderboardService(AppContext context, JDBCGameReportDAO gameReportDAO, UserDAO userDAO) {
-        this.currentUser = context.getCurrentUser();
+        this.context = context;
         this.gameReportDAO = gameReportDAO;
-        this.users = userDAO.selectAll();
+        this.userDAO = userDAO;
     }
 
     /**
@@ -73,23 +78,45 @@ public class LeaderboardService {
         }
         return getLeaderboardBase(difficulty);
     }
+    /**
+     * Restituisce le statistiche sui tempi di risposta di tutte le partite, per difficoltà.
+     * <p>
+     * Le difficoltà mai giocate non sono presenti nella mappa.
+     *
+     * @return statistiche sui tempi indicizzate per difficoltà
+     */
+    public Map<Difficulty, DifficultyTimeStats> getTimeStatsByDifficulty() {
+        Map<Difficulty, DifficultyTimeStats> stats = new EnumMap<>(Difficulty.class);
+        for (DifficultyTimeStats entry : gameReportDAO.selectTimeStatsByDifficulty()) {
+            stats.put(entry.difficulty(), entry);
+        }
+        return stats;
+    }
+
     /**
      * Metodo interno che costruisce la classifica base, utilizzata sia globalmente che per singola difficoltà.
      * <p>
      * Per ogni utente:
      * <ul>
-     *   <li>Recupera i report di gioco filtrati (se richiesto)</li>
+     *   <li>Recupera i report di gioco filtrati (se richiesto), escluse le partite della sfida del giorno,
+     *       che hanno una classifica propria</li>
      *   <li>Calcola media, totale e numero di partite</li>
      *   <li>Determina la difficoltà preferita se non filtrato</li>
      *   <li>Evidenzia l'utente corrente apponendo "(Tu)"</li>
      * </ul>
+     * Se il thread chiamante viene interrotto, il calcolo si ferma prima dell'utente successivo.
      *
      * @param difficulty difficoltà da filtrare, {@code null} per classifica globale
      * @return lista ordinata di {@link LeaderboardEntry}
+     * @throws CancellationException se il thread viene interrotto durante il calcolo
      */
     private List<LeaderboardEntry> getLeaderboardBase(Difficulty difficulty) {
         var result = new ArrayList<LeaderboardEntry>();
-        for (User user : users) {
+        User currentUser = context.getCurrentUser();
+        for (User user : userDAO.selectAll()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Leaderboard computation interrupted");
+            }
             Object[] params;
             if (difficulty != null)
                 params = new Object[]{user.getName(), difficulty.name()};
@@ -97,7 +124,7 @@ public class LeaderboardService {
                 params = new Object[]{user.getName()};
 
             var reports = gameReportDAO.selectWhere(
-                    "user = ?" + (difficulty != null ? " AND difficulty = ?" : ""),
+                    "user = ? AND challenge_day IS NULL" + (difficulty != null ? " AND difficulty = ?" : ""),
                     params
             );
 
@@ -14,6 +14,7 @@ import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
 import java.util.*;
 
 /**
@@ -71,37 +72,17 @@ public class UserPanelService {
     }
 
     /**
-     * Recupera tutti i report di gioco dell'utente attualmente loggato.
-     *
-     * @return {@code List<GameReport>} lista di report
-     */
-    public List<GameReport> getCurrentUserReports() {
-        return gameReportDAO.selectAll().stream()
-                .filter(r -> r.user().getName().equals(appContext.getCurrentUser().getName()))
-                .toList();
-    }
-
-    /**
-     * Restituisce le statistiche (punteggio massimo, medio, numero totale) dell'utente corrente.
+     * Recupera una pagina dello storico delle partite dell'utente attualmente loggato, dalla più recente.
+     * <p>
+     * La prima pagina ({@code before} nullo) contiene anche le statistiche dell'utente (numero di partite,
+     * punteggio medio e massimo), calcolate dal database nella stessa query.
      *
-     * @return {@code Map<String, Object>}
+     * @param before cursore restituito dalla pagina precedente ({@link GameReportPage#nextCursor()}), {@code null} per la prima pagina
+     * @param size   numero massimo di partite della pagina
+     * @return la pagina richiesta
      */
-    public Map<String, Object> getUserStatsForCurrentUser() {
-        List<GameReport> reports = getCurrentUserReports();
-
-        int max = reports.stream().mapToInt(GameReport::score)
-                .max().orElse(0);
-
-        double average = reports.stream().mapToInt(GameReport::score)
-                .average().orElse(0.0);
-
-        int total = reports.size();
-
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("maxScore", max);
-        stats.put("averageScore", average);
-        stats.put("totalGames", total);
-        return stats;
+    public GameReportPage getCurrentUserReportPage(LocalDateTime before, int size) {
+        return gameReportDAO.selectPageByUser(appContext.getCurrentUser(), before, size);
     }
 
     /**
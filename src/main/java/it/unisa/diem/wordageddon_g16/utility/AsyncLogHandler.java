@@ -0,0 +1,228 @@
+package it.unisa.diem.wordageddon_g16.utility;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * {@link Handler} asincrono che disaccoppia i thread chiamanti dall'I/O su disco.
+ * <p>
+ * I record vengono inseriti in un buffer circolare di capacità fissa e scritti sull'handler delegato
+ * (tipicamente un {@link java.util.logging.FileHandler}) da un thread dedicato, a blocchi, con un solo
+ * {@code flush} per blocco. In questo modo chi registra un errore, ad esempio un task JavaFX o una callback
+ * di un DAO, non attende mai la scrittura su file.
+ * </p>
+ * La memoria occupata è limitata dalla capacità del buffer. Quando il buffer è pieno si applica la
+ * {@link OverflowPolicy} scelta; il numero di record scartati viene annotato nel log alla prima scrittura utile.
+ */
+public final class AsyncLogHandler extends Handler {
+
+    /**
+     * Comportamento da adottare quando il buffer è pieno.
+     */
+    public enum OverflowPolicy {
+        /** Scarta il record appena ricevuto. Il chiamante non si blocca mai. */
+        DROP_NEWEST,
+        /** Scarta il record più vecchio del buffer per fare spazio al nuovo. Il chiamante non si blocca mai. */
+        DROP_OLDEST,
+        /** Il chiamante attende che il thread di scrittura liberi spazio (backpressure). Nessun record viene perso. */
+        BLOCK
+    }
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 5_000;
+
+    private final Handler delegate;
+    private final OverflowPolicy policy;
+    private final LogRecord[] buffer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition idle = lock.newCondition();
+    private final Thread flusher;
+
+    private int head;
+    private int size;
+    private boolean writing;
+    private boolean closed;
+    private long dropped;
+    private long totalDropped;
+
+    /**
+     * Crea l'handler e avvia il thread di scrittura.
+     *
+     * @param delegate handler su cui vengono effettivamente scritti i record
+     * @param capacity numero massimo di record in attesa di scrittura
+     * @param policy   comportamento a buffer pieno
+     */
+    public AsyncLogHandler(Handler delegate, int capacity, OverflowPolicy policy) {
+        if (delegate == null || policy == null) {
+            throw new IllegalArgumentException("Delegate handler and overflow policy cannot be null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive");
+        }
+        this.delegate = delegate;
+        this.policy = policy;
+        this.buffer = new LogRecord[capacity];
+        setLevel(delegate.getLevel());
+        this.flusher = new Thread(this::drainLoop, "log-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Accoda un record per la scrittura asincrona.
+     * <p>
+     * Con le politiche {@code DROP_*} il metodo non si blocca mai; con {@code BLOCK} attende
+     * finché il buffer non ha spazio. Dopo la chiusura dell'handler i record vengono ignorati.
+     *
+     * @param record record da registrare
+     */
+    @Override
+    public void publish(LogRecord record) {
+        if (!isLoggable(record)) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (size == buffer.length && !closed) {
+                switch (policy) {
+                    case DROP_NEWEST -> {
+                        dropped++;
+                        return;
+                    }
+                    case DROP_OLDEST -> {
+                        buffer[head] = null;
+                        head = (head + 1) % buffer.length;
+                        size--;
+                        dropped++;
+                    }
+                    case BLOCK -> notFull.awaitUninterruptibly();
+                }
+            }
+            if (closed) {
+                return;
+            }
+            buffer[(head + size) % buffer.length] = record;
+            size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Attende che tutti i record accodati finora siano stati scritti sull'handler delegato.
+     */
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            while ((size > 0 || writing) && flusher.isAlive()) {
+                idle.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Scrive i record ancora in coda, arresta il thread di scrittura e chiude l'handler delegato.
+     * <p>
+     * L'attesa del thread di scrittura è limitata a qualche secondo, per non bloccare la chiusura dell'applicazione.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.close();
+    }
+
+    /**
+     * Restituisce il numero totale di record scartati per buffer pieno dall'avvio dell'handler.
+     *
+     * @return numero di record persi
+     */
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return totalDropped + dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ciclo del thread di scrittura: preleva dal buffer tutti i record presenti e li scrive in un unico blocco.
+     */
+    private void drainLoop() {
+        LogRecord[] batch = new LogRecord[buffer.length];
+        while (true) {
+            int count;
+            long lost;
+            lock.lock();
+            try {
+                while (size == 0 && !closed) {
+                    writing = false;
+                    idle.signalAll();
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (size == 0) {
+                    writing = false;
+                    idle.signalAll();
+                    return;
+                }
+                count = size;
+                for (int i = 0; i < count; i++) {
+                    int index = (head + i) % buffer.length;
+                    batch[i] = buffer[index];
+                    buffer[index] = null;
+                }
+                head = (head + count) % buffer.length;
+                size = 0;
+                lost = dropped;
+                totalDropped += dropped;
+                dropped = 0;
+                writing = true;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            write(batch, count, lost);
+        }
+    }
+
+    private void write(LogRecord[] batch, int count, long lost) {
+        try {
+            if (lost > 0) {
+                LogRecord notice = new LogRecord(Level.SEVERE, lost + " log records dropped: buffer full");
+                notice.setLoggerName(AsyncLogHandler.class.getName());
+                delegate.publish(notice);
+            }
+            for (int i = 0; i < count; i++) {
+                delegate.publish(batch[i]);
+                batch[i] = null;
+            }
+            delegate.flush();
+        } catch (RuntimeException e) {
+            reportError("Could not write log records", e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+}
@@ -28,6 +28,28 @@ public class Config {
      *   <li>{@code SESSION_FILE} → percorso file sessione</li>
      *   <li>{@code INTERRUPTED_SESSION_FILE} → percorso file sessione interrotta</li>
      *   <li>{@code DOCUMENTS_DIR} → directory contenente i documenti del gioco</li>
+     *   <li>{@code SESSION_JOURNAL_FSYNC} → forza su disco ogni record del giornale delle risposte</li>
+     *   <li>{@code VIEW_CACHE_SIZE} → numero massimo di viste mantenute in cache (0 disabilita la cache)</li>
+     *   <li>{@code VIEW_PRELOAD} → abilita il precaricamento in background delle viste</li>
+     *   <li>{@code STARTUP_PROFILE} → modalità di misura dell'avvio: riepilogo dettagliato e chiusura al primo frame</li>
+     *   <li>{@code STARTUP_TRAINING} → esecuzione di addestramento per la generazione dell'archivio AppCDS</li>
+     *   <li>{@code METRICS_ENABLED} → abilita la scrittura periodica delle metriche</li>
+     *   <li>{@code METRICS_FILE} → file in cui vengono scritte le istantanee delle metriche</li>
+     *   <li>{@code METRICS_INTERVAL} → intervallo in secondi tra due istantanee</li>
+     *   <li>{@code LOG_FILE} → schema del nome dei file di log ({@code %g} indica l'indice di rotazione)</li>
+     *   <li>{@code LOG_MAX_BYTES} → dimensione massima in byte di un file di log prima della rotazione</li>
+     *   <li>{@code LOG_FILE_COUNT} → numero di file di log conservati</li>
+     *   <li>{@code LOG_BUFFER_SIZE} → numero massimo di record in attesa di essere scritti</li>
+     *   <li>{@code LOG_OVERFLOW_POLICY} → comportamento a buffer pieno ({@code DROP_NEWEST}, {@code DROP_OLDEST}, {@code BLOCK})</li>
+     *   <li>{@code BACKUP_ENABLED} → abilita il backup periodico del database</li>
+     *   <li>{@code BACKUP_DIR} → directory in cui vengono salvati i backup</li>
+     *   <li>{@code BACKUP_INTERVAL} → intervallo in minuti tra due backup</li>
+     *   <li>{@code BACKUP_RETENTION} → numero di backup conservati</li>
+     *   <li>{@code SERVER_HOST} → indirizzo su cui ascolta la modalità server, per default solo la macchina locale</li>
+     *   <li>{@code SERVER_PORT} → porta TCP della modalità server</li>
+     *   <li>{@code SERVER_IDLE_TIMEOUT} → minuti di inattività dopo i quali una partita o un token del server
+     *       vengono scartati</li>
+     *   <li>{@code SERVER_MAX_GAMES_PER_USER} → numero massimo di partite in corso per utente nella modalità server</li>
      * </ul>
      */
     public enum Props {
@@ -36,7 +58,28 @@ public class Config {
         USR_CHAR_MAX_LENGTH("auth.char_max_length"),
         SESSION_FILE("session.url"),
         INTERRUPTED_SESSION_FILE("interruptedSession.url"),
-        DOCUMENTS_DIR("docs.dir");
+        DOCUMENTS_DIR("docs.dir"),
+        SESSION_JOURNAL_FSYNC("sessionJournal.fsync"),
+        VIEW_CACHE_SIZE("view.cache_size"),
+        VIEW_PRELOAD("view.preload"),
+        STARTUP_PROFILE("startup.profile"),
+        STARTUP_TRAINING("startup.training"),
+        METRICS_ENABLED("metrics.enabled"),
+        METRICS_FILE("metrics.file"),
+        METRICS_INTERVAL("metrics.interval_seconds"),
+        LOG_FILE("log.file"),
+        LOG_MAX_BYTES("log.max_bytes"),
+        LOG_FILE_COUNT("log.file_count"),
+        LOG_BUFFER_SIZE("log.buffer_size"),
+        LOG_OVERFLOW_POLICY("log.overflow_policy"),
+        BACKUP_ENABLED("backup.enabled"),
+        BACKUP_DIR("backup.dir"),
+        BACKUP_INTERVAL("backup.interval_minutes"),
+        BACKUP_RETENTION("backup.retention"),
+        SERVER_HOST("server.host"),
+        SERVER_PORT("server.port"),
+        SERVER_IDLE_TIMEOUT("server.idle_timeout_minutes"),
+        SERVER_MAX_GAMES_PER_USER("server.max_games_per_user");
 
         private final String key;
 
@@ -68,11 +111,17 @@ public class Config {
         }
     }
     /**
-     * Restituisce la chiave testuale associata alla proprietà.
+     * Restituisce il valore associato alla proprietà.
+     * <p>
+     * Una proprietà di sistema con la stessa chiave (es. {@code -Ddb.url=jdbc:sqlite:altro.sqlite}) ha la precedenza
+     * sul valore definito in {@code config.properties}: in questo modo benchmark e strumenti esterni possono
+     * puntare a un database o a una directory dei documenti diversi senza modificare il file di configurazione.
+     * </p>
      *
-     * @return nome della chiave nel file {@code config.properties}
+     * @param key proprietà da leggere
+     * @return valore della proprietà, oppure {@code null} se non definita
      */
     public static String get(Props key) {
-        return PROPS.getProperty(key.get());
+        return System.getProperty(key.get(), PROPS.getProperty(key.get()));
     }
 }
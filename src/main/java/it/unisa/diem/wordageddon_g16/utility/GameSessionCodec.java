@@ -0,0 +1,378 @@
+package it.unisa.diem.wordageddon_g16.utility;
+
+import it.unisa.diem.wordageddon_g16.models.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Codifica binaria compatta e versionata di una {@link GameSessionState}, usata per salvare le partite interrotte,
+ * e di una {@link DailyChallenge}, usata per conservare nel database le partite della sfida del giorno.
+ * <p>
+ * Sostituisce la serializzazione Java: il formato non dipende dalla struttura interna delle classi del modello,
+ * è più piccolo e più veloce da leggere e scrivere, ed è protetto da un checksum CRC32.
+ * </p>
+ * Struttura del file:
+ * <pre>
+ *   magic   (4 byte, "WGSS" per le sessioni, "WGDC" per le sfide del giorno)
+ *   versione (1 byte)
+ *   lunghezza del contenuto (4 byte)
+ *   contenuto
+ *   CRC32 del contenuto (4 byte)
+ * </pre>
+ * Il contenuto memorizza solo i dati necessari al ripristino: dell'utente vengono salvati il nome e il ruolo
+ * (mai la password), le stringhe sono codificate in UTF-8 e gli interi non negativi in formato varint.
+ * Parametri e domande di una sfida del giorno sono codificati come quelli di una sessione.
+ * <p>
+ * La scrittura su file è atomica: il contenuto viene scritto su un file temporaneo nella stessa directory,
+ * forzato su disco e poi rinominato sul file di destinazione. Un crash durante il salvataggio lascia quindi
+ * intatta la versione precedente, mai un file troncato.
+ */
+public final class GameSessionCodec {
+    private static final int MAGIC = 0x57475353; // "WGSS"
+    private static final int CHALLENGE_MAGIC = 0x57474443; // "WGDC"
+    /** Versione corrente del formato delle sfide del giorno. */
+    public static final int CHALLENGE_VERSION = 1;
+    /** Versione corrente del formato: la versione 2 aggiunge il seme della partita ai parametri. */
+    public static final int VERSION = 2;
+
+    private GameSessionCodec() {
+    }
+
+    /**
+     * Codifica lo stato della sessione.
+     *
+     * @param state stato da codificare
+     * @return i byte del formato binario, intestazione e checksum inclusi
+     */
+    public static byte[] encode(GameSessionState state) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(1024);
+        try (DataOutputStream out = new DataOutputStream(payload)) {
+            writeBody(out, state);
+        } catch (IOException e) {
+            // Non può accadere scrivendo in memoria
+            throw new UncheckedIOException(e);
+        }
+        return frame(MAGIC, VERSION, payload.toByteArray());
+    }
+
+    /**
+     * Decodifica uno stato della sessione.
+     *
+     * @param data byte prodotti da {@link #encode(GameSessionState)}
+     * @return lo stato decodificato
+     * @throws IOException se i dati sono troncati, corrotti o in una versione non supportata
+     */
+    public static GameSessionState decode(byte[] data) throws IOException {
+        ByteBuffer buffer = unframe(data, MAGIC, "interrupted session");
+        int version = buffer.get(Integer.BYTES);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, buffer.position(), buffer.remaining()))) {
+            return switch (version) {
+                case 1, 2 -> readBody(in, version);
+                default -> throw new IOException("Unsupported interrupted session format version: " + version);
+            };
+        } catch (EOFException | IllegalArgumentException e) {
+            throw new IOException("Malformed interrupted session file", e);
+        }
+    }
+
+    /**
+     * Codifica la partita di una sfida del giorno.
+     *
+     * @param challenge sfida da codificare
+     * @return i byte del formato binario, intestazione e checksum inclusi
+     */
+    public static byte[] encodeChallenge(DailyChallenge challenge) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(1024);
+        try (DataOutputStream out = new DataOutputStream(payload)) {
+            out.writeLong(challenge.day().toEpochDay());
+            writeParams(out, challenge.params());
+            writeVarInt(out, challenge.questions().size());
+            for (Question question : challenge.questions()) {
+                writeQuestion(out, question);
+            }
+        } catch (IOException e) {
+            // Non può accadere scrivendo in memoria
+            throw new UncheckedIOException(e);
+        }
+        return frame(CHALLENGE_MAGIC, CHALLENGE_VERSION, payload.toByteArray());
+    }
+
+    /**
+     * Decodifica la partita di una sfida del giorno.
+     *
+     * @param data byte prodotti da {@link #encodeChallenge(DailyChallenge)}
+     * @return la sfida decodificata
+     * @throws IOException se i dati sono troncati, corrotti o in una versione non supportata
+     */
+    public static DailyChallenge decodeChallenge(byte[] data) throws IOException {
+        ByteBuffer buffer = unframe(data, CHALLENGE_MAGIC, "daily challenge");
+        int version = buffer.get(Integer.BYTES);
+        if (version != CHALLENGE_VERSION) {
+            throw new IOException("Unsupported daily challenge format version: " + version);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, buffer.position(), buffer.remaining()))) {
+            LocalDate day = LocalDate.ofEpochDay(in.readLong());
+            GameParams params = readParams(in, VERSION);
+            int size = readVarInt(in);
+            List<Question> questions = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                questions.add(readQuestion(in));
+            }
+            return new DailyChallenge(day, params, questions);
+        } catch (EOFException | IllegalArgumentException | DateTimeException e) {
+            throw new IOException("Malformed daily challenge", e);
+        }
+    }
+
+    /**
+     * Aggiunge al contenuto intestazione e checksum.
+     */
+    private static byte[] frame(int magic, int version, byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return ByteBuffer.allocate(Integer.BYTES * 3 + 1 + body.length)
+                .putInt(magic)
+                .put((byte) version)
+                .putInt(body.length)
+                .put(body)
+                .putInt((int) crc.getValue())
+                .array();
+    }
+
+    /**
+     * Verifica intestazione, lunghezza e checksum dei dati.
+     *
+     * @return buffer posizionato all'inizio del contenuto e limitato alla sua fine
+     */
+    private static ByteBuffer unframe(byte[] data, int magic, String kind) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.remaining() < Integer.BYTES * 3 + 1 || buffer.getInt() != magic) {
+            throw new IOException("Not a valid " + kind + " file");
+        }
+        buffer.get();
+        int length = buffer.getInt();
+        if (length < 0 || length != buffer.remaining() - Integer.BYTES) {
+            throw new IOException("Truncated " + kind + " file");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, buffer.position(), length);
+        if ((int) crc.getValue() != buffer.getInt(buffer.position() + length)) {
+            throw new IOException("Corrupted " + kind + " file: checksum mismatch");
+        }
+        return buffer.limit(buffer.position() + length);
+    }
+
+    /**
+     * Scrive atomicamente lo stato della sessione sul file indicato.
+     *
+     * @param file  file di destinazione
+     * @param state stato da salvare
+     * @throws IOException se la scrittura fallisce; in tal caso l'eventuale file precedente resta invariato
+     */
+    public static void write(Path file, GameSessionState state) throws IOException {
+        write(file, encode(state));
+    }
+
+    /**
+     * Scrive atomicamente sul file indicato uno stato già codificato con {@link #encode(GameSessionState)}.
+     *
+     * @param file file di destinazione
+     * @param data stato codificato
+     * @throws IOException se la scrittura fallisce; in tal caso l'eventuale file precedente resta invariato
+     */
+    public static void write(Path file, byte[] data) throws IOException {
+        Path target = file.toAbsolutePath();
+        Path directory = target.getParent();
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        syncDirectory(directory);
+    }
+
+    /**
+     * Legge lo stato della sessione dal file indicato.
+     *
+     * @param file file da leggere
+     * @return lo stato salvato
+     * @throws IOException se il file non è leggibile o non è valido
+     */
+    public static GameSessionState read(Path file) throws IOException {
+        return decode(Files.readAllBytes(file));
+    }
+
+    /**
+     * Forza su disco la voce di directory creata dalla rinomina, dove il sistema operativo lo consente.
+     * <p>
+     * Su alcuni sistemi (ad esempio Windows) non è possibile aprire una directory: la rinomina resta comunque atomica.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException _) {
+            // Best effort
+        }
+    }
+
+    private static void writeBody(DataOutputStream out, GameSessionState state) throws IOException {
+        User user = state.user();
+        writeString(out, user.getName());
+        out.writeBoolean(user.isAdmin());
+
+        writeParams(out, state.gameParams());
+
+        writeVarInt(out, state.currentQuestionIndex());
+        writeVarInt(out, state.scorePerQuestion());
+        LocalDateTime start = state.questionStartTime();
+        out.writeBoolean(start != null);
+        if (start != null) {
+            out.writeLong(start.toLocalDate().toEpochDay());
+            out.writeLong(start.toLocalTime().toNanoOfDay());
+        }
+
+        // Per ogni domanda: 0 = non ancora affrontata, 1 = saltata (-1), n + 2 = risposta n
+        List<Question> questions = state.questions();
+        Map<Question, Integer> answers = state.domandaRisposte();
+        writeVarInt(out, questions.size());
+        for (Question question : questions) {
+            writeQuestion(out, question);
+            Integer given = answers.get(question);
+            writeVarInt(out, given == null ? 0 : given + 2);
+        }
+    }
+
+    private static GameSessionState readBody(DataInputStream in, int version) throws IOException {
+        User user = new User(readString(in), null, in.readBoolean());
+        GameParams params = readParams(in, version);
+
+        int currentQuestionIndex = readVarInt(in);
+        int scorePerQuestion = readVarInt(in);
+        LocalDateTime start = null;
+        if (in.readBoolean()) {
+            start = LocalDateTime.of(LocalDate.ofEpochDay(in.readLong()), LocalTime.ofNanoOfDay(in.readLong()));
+        }
+
+        int size = readVarInt(in);
+        List<Question> questions = new ArrayList<>(size);
+        Map<Question, Integer> answers = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            Question question = readQuestion(in);
+            questions.add(question);
+            int given = readVarInt(in);
+            if (given > 0) {
+                answers.put(question, given - 2);
+            }
+        }
+        return new GameSessionState(user, questions, answers, currentQuestionIndex, start, scorePerQuestion, params);
+    }
+
+    private static void writeParams(DataOutputStream out, GameParams params) throws IOException {
+        writeString(out, params.getDifficulty().name());
+        writeVarInt(out, params.getQuestionCount());
+        out.writeLong(params.getTimer().toMillis());
+        writeVarInt(out, params.getDocuments().size());
+        for (Document document : params.getDocuments()) {
+            writeString(out, document.filename());
+            writeString(out, document.title());
+            writeVarInt(out, document.wordCount() == null ? 0 : document.wordCount() + 1);
+        }
+        out.writeBoolean(params.getSeed() != null);
+        if (params.getSeed() != null) {
+            out.writeLong(params.getSeed());
+        }
+    }
+
+    private static GameParams readParams(DataInputStream in, int version) throws IOException {
+        Difficulty difficulty = Difficulty.valueOf(readString(in));
+        int questionCount = readVarInt(in);
+        Duration timer = Duration.ofMillis(in.readLong());
+        int documentCount = readVarInt(in);
+        List<Document> documents = new ArrayList<>(documentCount);
+        for (int i = 0; i < documentCount; i++) {
+            String filename = readString(in);
+            String title = readString(in);
+            int wordCount = readVarInt(in);
+            documents.add(new Document(filename, title, wordCount == 0 ? null : wordCount - 1));
+        }
+        Long seed = version >= 2 && in.readBoolean() ? in.readLong() : null;
+        return new GameParams(difficulty, documents, timer, questionCount, seed);
+    }
+
+    private static void writeQuestion(DataOutputStream out, Question question) throws IOException {
+        writeString(out, question.text());
+        writeVarInt(out, question.answers().size());
+        for (String answer : question.answers()) {
+            writeString(out, answer);
+        }
+        writeVarInt(out, question.correctAnswerIndex());
+    }
+
+    private static Question readQuestion(DataInputStream in) throws IOException {
+        String text = readString(in);
+        int answerCount = readVarInt(in);
+        List<String> options = new ArrayList<>(answerCount);
+        for (int j = 0; j < answerCount; j++) {
+            options.add(readString(in));
+        }
+        return Question.create(text, options, readVarInt(in));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value cannot be encoded as varint: " + value);
+        }
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
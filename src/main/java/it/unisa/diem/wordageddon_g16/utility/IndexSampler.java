@@ -0,0 +1,90 @@
+package it.unisa.diem.wordageddon_g16.utility;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.random.RandomGenerator;
+
+/**
+ * Estrae indici distinti in ordine casuale da {@code [0, size)}, uno alla volta.
+ * <p>
+ * È un Fisher–Yates parziale su una permutazione virtuale degli indici: l'array della permutazione non viene
+ * creato, ma sono memorizzate soltanto le posizioni scambiate. Estrarre {@code k} indici costa quindi O(k) in tempo
+ * e in memoria, qualunque sia {@code size}: per scegliere poche parole tra quelle di un documento non serve copiare
+ * e mescolare l'intero vocabolario.
+ * </p>
+ * Ogni indice viene restituito una sola volta e tutte le sequenze sono equiprobabili. A parità di generatore
+ * l'ordine di estrazione è deterministico. Un'istanza non è thread-safe.
+ */
+public final class IndexSampler {
+    private final int size;
+    private final RandomGenerator random;
+    /** Posizioni della permutazione virtuale il cui valore è diverso dalla posizione stessa. */
+    private final Map<Integer, Integer> swapped = new HashMap<>();
+    private int drawn;
+
+    /**
+     * Crea un estrattore di indici.
+     *
+     * @param size   numero di indici, non negativo
+     * @param random generatore di numeri casuali
+     */
+    public IndexSampler(int size, RandomGenerator random) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be negative: " + size);
+        }
+        this.size = size;
+        this.random = random;
+    }
+
+    /**
+     * Estrae {@code count} indici distinti da {@code [0, size)}, in ordine casuale.
+     *
+     * @param size   numero di indici
+     * @param count  numero di indici da estrarre
+     * @param random generatore di numeri casuali
+     * @return gli indici estratti
+     * @throws IllegalArgumentException se {@code count} è negativo o maggiore di {@code size}
+     */
+    public static int[] sample(int size, int count, RandomGenerator random) {
+        if (count < 0 || count > size) {
+            throw new IllegalArgumentException("Cannot sample " + count + " distinct indices out of " + size);
+        }
+        IndexSampler sampler = new IndexSampler(size, random);
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = sampler.next();
+        }
+        return indices;
+    }
+
+    /**
+     * Indica se restano indici da estrarre.
+     *
+     * @return {@code true} se non sono ancora stati estratti tutti gli indici
+     */
+    public boolean hasNext() {
+        return drawn < size;
+    }
+
+    /**
+     * Estrae il prossimo indice.
+     *
+     * @return un indice non ancora estratto
+     * @throws NoSuchElementException se tutti gli indici sono già stati estratti
+     */
+    public int next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("All " + size + " indices have been drawn");
+        }
+        // Scambio virtuale tra la prima posizione libera e una posizione casuale tra quelle libere
+        int j = drawn + random.nextInt(size - drawn);
+        int value = swapped.getOrDefault(j, j);
+        Integer first = swapped.remove(drawn);
+        if (j != drawn) {
+            swapped.put(j, first != null ? first : drawn);
+        }
+        drawn++;
+        return value;
+    }
+}
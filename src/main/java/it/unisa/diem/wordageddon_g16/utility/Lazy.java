@@ -0,0 +1,64 @@
+package it.unisa.diem.wordageddon_g16.utility;
+
+import java.util.function.Supplier;
+
+/**
+ * Valore calcolato al primo accesso e poi riutilizzato.
+ * <p>
+ * L'inizializzazione è thread-safe ed eseguita una sola volta, anche se più thread richiedono il valore
+ * contemporaneamente (double-checked locking su un campo {@code volatile}). Dopo l'inizializzazione
+ * l'accesso non richiede sincronizzazione.
+ * </p>
+ * Viene usato da {@link it.unisa.diem.wordageddon_g16.models.AppContext} per costruire i servizi solo
+ * quando una vista ne ha effettivamente bisogno.
+ *
+ * @param <T> tipo del valore
+ */
+public final class Lazy<T> implements Supplier<T> {
+    private final Supplier<? extends T> factory;
+    private volatile T value;
+
+    /**
+     * Crea un valore pigro.
+     *
+     * @param factory funzione che produce il valore, invocata al più una volta; non deve restituire {@code null}
+     */
+    public Lazy(Supplier<? extends T> factory) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Factory cannot be null");
+        }
+        this.factory = factory;
+    }
+
+    /**
+     * Restituisce il valore, calcolandolo se è il primo accesso.
+     *
+     * @return il valore
+     */
+    @Override
+    public T get() {
+        T result = value;
+        if (result == null) {
+            synchronized (this) {
+                result = value;
+                if (result == null) {
+                    result = factory.get();
+                    if (result == null) {
+                        throw new IllegalStateException("Lazy factory returned null");
+                    }
+                    value = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Indica se il valore è già stato calcolato.
+     *
+     * @return {@code true} se {@link #get()} è già stato invocato con successo
+     */
+    public boolean isInitialized() {
+        return value != null;
+    }
+}
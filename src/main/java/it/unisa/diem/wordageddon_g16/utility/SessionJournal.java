@@ -0,0 +1,218 @@
+package it.unisa.diem.wordageddon_g16.utility;
+
+import it.unisa.diem.wordageddon_g16.models.GameSessionState;
+import it.unisa.diem.wordageddon_g16.models.Question;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Giornale append-only delle risposte di una partita in corso, per il recupero dopo un crash.
+ * <p>
+ * La persistenza di una partita è composta da due file:
+ * <ul>
+ *   <li>un'istantanea completa della {@link GameSessionState}, scritta atomicamente con {@link GameSessionCodec}
+ *       all'avvio della fase delle domande e a ogni {@link #checkpoint(GameSessionState) checkpoint};</li>
+ *   <li>un giornale, accanto all'istantanea e con estensione {@code .journal}, a cui viene aggiunto un record
+ *       di pochi byte per ogni risposta data o saltata.</li>
+ * </ul>
+ * Aggiungere un record costa una singola scrittura sequenziale, senza riscrivere lo stato completo.
+ * Il {@link #recover(Path) recupero} rilegge l'istantanea e vi riapplica i record del giornale.
+ * </p>
+ * Il giornale inizia con il CRC32 dell'istantanea a cui si riferisce: se un crash avviene tra la scrittura di una
+ * nuova istantanea e l'azzeramento del giornale, i record obsoleti vengono ignorati. Ogni record è protetto dal
+ * proprio CRC32; un record finale scritto a metà interrompe la rilettura senza invalidare i precedenti.
+ * <p>
+ * Per default ogni record viene forzato su disco con un {@code fsync}, così che le risposte sopravvivano anche
+ * a un'interruzione di corrente: al ritmo di una risposta ogni qualche secondo il costo è trascurabile.
+ * Disabilitando la proprietà {@link Config.Props#SESSION_JOURNAL_FSYNC} i record sopravvivono soltanto alla chiusura
+ * improvvisa del processo.
+ */
+public final class SessionJournal implements AutoCloseable {
+    private static final int MAGIC = 0x5747534A; // "WGSJ"
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final byte ANSWER = 1;
+    private static final int RECORD_BYTES = 1 + Integer.BYTES * 3;
+
+    private final Path snapshotFile;
+    private final boolean fsync;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+
+    private SessionJournal(Path snapshotFile, boolean fsync) {
+        this.snapshotFile = snapshotFile;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Scrive l'istantanea iniziale della partita e apre un giornale vuoto associato.
+     *
+     * @param snapshotFile file dell'istantanea
+     * @param state        stato della partita all'inizio della fase delle domande
+     * @return il giornale aperto
+     * @throws IOException se la scrittura dell'istantanea o del giornale fallisce
+     */
+    public static SessionJournal open(Path snapshotFile, GameSessionState state) throws IOException {
+        SessionJournal journal = new SessionJournal(snapshotFile,
+                Boolean.parseBoolean(Config.get(Config.Props.SESSION_JOURNAL_FSYNC)));
+        journal.checkpoint(state);
+        return journal;
+    }
+
+    /**
+     * Aggiunge al giornale la risposta data a una domanda.
+     *
+     * @param questionIndex indice della domanda nella lista delle domande della partita
+     * @param answerIndex   indice della risposta scelta, oppure -1 se la domanda è stata saltata
+     * @throws IOException se la scrittura fallisce
+     */
+    public synchronized void append(int questionIndex, int answerIndex) throws IOException {
+        ensureOpen();
+        record.clear();
+        record.put(ANSWER).putInt(questionIndex).putInt(answerIndex);
+        crc.reset();
+        crc.update(record.array(), 0, RECORD_BYTES - Integer.BYTES);
+        record.putInt((int) crc.getValue()).flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Compatta il giornale: scrive una nuova istantanea completa e azzera il giornale.
+     *
+     * @param state stato corrente della partita, comprensivo di tutte le risposte date
+     * @throws IOException se la scrittura fallisce
+     */
+    public synchronized void checkpoint(GameSessionState state) throws IOException {
+        byte[] snapshot = GameSessionCodec.encode(state);
+        GameSessionCodec.write(snapshotFile, snapshot);
+        closeChannel();
+        channel = FileChannel.open(journalFile(snapshotFile),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(checksum(snapshot)).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+    }
+
+    /**
+     * Chiude il giornale lasciando su disco istantanea e record, che restano recuperabili.
+     */
+    @Override
+    public synchronized void close() {
+        closeChannel();
+    }
+
+    /**
+     * Chiude il giornale ed elimina istantanea e giornale: la partita è conclusa e non va più recuperata.
+     */
+    public synchronized void discard() {
+        closeChannel();
+        delete(snapshotFile);
+    }
+
+    /**
+     * Ricostruisce lo stato di una partita interrotta dall'istantanea e dal relativo giornale.
+     * <p>
+     * Se il giornale manca, è di un'altra istantanea o è danneggiato, vengono applicati solo i record validi
+     * precedenti (eventualmente nessuno). L'indice della domanda corrente avanza oltre l'ultima domanda
+     * a cui è stata data risposta.
+     *
+     * @param snapshotFile file dell'istantanea
+     * @return lo stato ricostruito
+     * @throws IOException se l'istantanea non è leggibile o non è valida
+     */
+    public static GameSessionState recover(Path snapshotFile) throws IOException {
+        byte[] snapshot = Files.readAllBytes(snapshotFile);
+        GameSessionState state = GameSessionCodec.decode(snapshot);
+
+        byte[] journal;
+        try {
+            journal = Files.readAllBytes(journalFile(snapshotFile));
+        } catch (NoSuchFileException e) {
+            return state;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(journal);
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != checksum(snapshot)) {
+            return state;
+        }
+
+        List<Question> questions = state.questions();
+        Map<Question, Integer> answers = new LinkedHashMap<>(state.domandaRisposte());
+        int currentQuestionIndex = state.currentQuestionIndex();
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= RECORD_BYTES) {
+            int start = buffer.position();
+            byte type = buffer.get();
+            int questionIndex = buffer.getInt();
+            int answerIndex = buffer.getInt();
+            crc.reset();
+            crc.update(journal, start, RECORD_BYTES - Integer.BYTES);
+            if (type != ANSWER || buffer.getInt() != (int) crc.getValue()
+                    || questionIndex < 0 || questionIndex >= questions.size()) {
+                break;
+            }
+            answers.put(questions.get(questionIndex), answerIndex);
+            currentQuestionIndex = Math.max(currentQuestionIndex, questionIndex + 1);
+        }
+        return new GameSessionState(state.user(), questions, answers, currentQuestionIndex,
+                state.questionStartTime(), state.scorePerQuestion(), state.gameParams());
+    }
+
+    /**
+     * Elimina l'istantanea indicata e il relativo giornale, se presenti.
+     *
+     * @param snapshotFile file dell'istantanea
+     */
+    public static void delete(Path snapshotFile) {
+        try {
+            Files.deleteIfExists(journalFile(snapshotFile));
+            Files.deleteIfExists(snapshotFile);
+        } catch (IOException e) {
+            SystemLogger.log("Could not delete interrupted session " + snapshotFile, e);
+        }
+    }
+
+    private static Path journalFile(Path snapshotFile) {
+        return snapshotFile.resolveSibling(snapshotFile.getFileName() + ".journal");
+    }
+
+    private static int checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (channel == null) {
+            throw new IOException("Session journal is closed");
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            SystemLogger.log("Could not close session journal", e);
+        }
+        channel = null;
+    }
+}
@@ -0,0 +1,95 @@
+package it.unisa.diem.wordageddon_g16.utility;
+
+import it.unisa.diem.wordageddon_g16.utility.metrics.Metrics;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura le fasi dell'avvio dell'applicazione, dall'avvio della JVM alla prima vista mostrata.
+ * <p>
+ * Ogni chiamata a {@link #mark(String)} registra la fine di una fase; {@link #report()} stampa un riepilogo
+ * con la durata di ciascuna fase e il tempo trascorso dall'avvio del processo, e registra le durate
+ * nei timer {@code startup.<fase>} di {@link Metrics}. Il riepilogo viene prodotto una sola volta.
+ * <p>
+ * Con la proprietà {@link Config.Props#STARTUP_PROFILE} abilitata (modalità di misura dell'avvio) il riepilogo
+ * riporta anche il numero di classi caricate in ciascuna fase e se la JVM sta usando un archivio CDS,
+ * così da confrontare l'avvio con e senza l'archivio generato dal profilo Maven {@code appcds}.
+ * Il conteggio delle classi richiede il modulo {@code java.management} e viene effettuato solo in questa modalità.
+ */
+public final class StartupTimer {
+    private record Mark(String phase, long millis, long classes) {}
+
+    private static final boolean PROFILING = Boolean.parseBoolean(Config.get(Config.Props.STARTUP_PROFILE));
+    private static final List<Mark> marks = new ArrayList<>();
+    private static boolean reported;
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Registra la conclusione di una fase di avvio.
+     *
+     * @param phase nome della fase appena conclusa
+     */
+    public static synchronized void mark(String phase) {
+        if (!reported) {
+            marks.add(new Mark(phase, System.currentTimeMillis(), PROFILING ? loadedClasses() : 0));
+        }
+    }
+
+    /**
+     * Indica se è attiva la modalità di misura dell'avvio.
+     *
+     * @return {@code true} se la proprietà {@link Config.Props#STARTUP_PROFILE} è abilitata
+     */
+    public static boolean isProfiling() {
+        return PROFILING;
+    }
+
+    /**
+     * Stampa il riepilogo delle fasi registrate e le aggiunge alle metriche.
+     * <p>
+     * La prima fase viene misurata dall'avvio del processo, se il sistema operativo lo rende disponibile.
+     * Le chiamate successive alla prima non hanno effetto.
+     */
+    public static synchronized void report() {
+        if (reported || marks.isEmpty()) {
+            return;
+        }
+        reported = true;
+        long origin = ProcessHandle.current().info().startInstant()
+                .map(Instant::toEpochMilli)
+                .orElse(marks.getFirst().millis());
+
+        StringBuilder sb = new StringBuilder("Avvio dell'applicazione:\n");
+        long previous = origin;
+        long previousClasses = 0;
+        for (Mark mark : marks) {
+            long elapsed = Math.max(mark.millis() - previous, 0);
+            Metrics.timer("startup." + mark.phase()).record(TimeUnit.MILLISECONDS.toNanos(elapsed));
+            sb.append(String.format("  %-12s %6d ms", mark.phase(), elapsed));
+            if (PROFILING) {
+                sb.append(String.format(" %6d classi", mark.classes() - previousClasses));
+            }
+            sb.append(System.lineSeparator());
+            previous = mark.millis();
+            previousClasses = mark.classes();
+        }
+        sb.append(String.format("  %-12s %6d ms", "totale", previous - origin));
+        if (PROFILING) {
+            sb.append(String.format(" %6d classi%n", previousClasses));
+            // La JVM HotSpot riporta "sharing" in java.vm.info quando le classi vengono lette da un archivio CDS
+            boolean sharing = System.getProperty("java.vm.info", "").contains("sharing");
+            sb.append("  CDS: ").append(sharing ? "attivo" : "non attivo");
+        }
+        System.out.println(sb);
+    }
+
+    private static long loadedClasses() {
+        return ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+    }
+}
@@ -7,7 +7,14 @@ import java.util.logging.*;
  * Logger centralizzato per la gestione degli errori nell'applicazione.
  * <p>
  * Configura un {@link Logger} personalizzato che scrive solo messaggi di livello {@code SEVERE}
- * in un file chiamato {@code error.log}, evitando l'output sulla console. Include anche lo stack trace.
+ * su file, evitando l'output sulla console. Include anche lo stack trace.
+ * <p>
+ * La scrittura è asincrona: i record vengono accodati in un {@link AsyncLogHandler} e scritti da un thread
+ * dedicato, così che i thread chiamanti non attendano l'I/O su disco. I file di log ruotano al raggiungimento
+ * della dimensione massima. Il comportamento è configurabile tramite le proprietà
+ * {@link Config.Props#LOG_FILE}, {@link Config.Props#LOG_MAX_BYTES}, {@link Config.Props#LOG_FILE_COUNT},
+ * {@link Config.Props#LOG_BUFFER_SIZE} e {@link Config.Props#LOG_OVERFLOW_POLICY}; in assenza di un valore
+ * valido si usano i valori di default.
  */
 public class SystemLogger {
     /**
@@ -17,6 +24,13 @@ public class SystemLogger {
      */
     private static final Logger logger = Logger.getLogger(SystemLogger.class.getName());
 
+    private static final String DEFAULT_LOG_FILE = "error%g.log";
+    private static final int DEFAULT_MAX_BYTES = 5 * 1024 * 1024;
+    private static final int DEFAULT_FILE_COUNT = 3;
+    private static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private static AsyncLogHandler asyncHandler;
+
     /**
      * Registra un errore con un messaggio personalizzato e una {@link Throwable}.
      *
@@ -36,6 +50,48 @@ public class SystemLogger {
         logger.log(Level.SEVERE, "An error occurred", e);
     }
 
+    /**
+     * Scrive i record ancora in coda e chiude i file di log.
+     * <p>
+     * Viene invocato alla chiusura dell'applicazione e, comunque, da un hook di arresto della JVM.
+     * I record registrati successivamente vengono ignorati.
+     */
+    public static synchronized void shutdown() {
+        if (asyncHandler != null) {
+            logger.removeHandler(asyncHandler);
+            asyncHandler.close();
+            asyncHandler = null;
+        }
+    }
+
+    /**
+     * Legge una proprietà intera positiva dalla configurazione.
+     * <p>
+     * Non può fare affidamento sul caricamento completo di {@link Config}: in caso di errore durante la lettura
+     * di {@code config.properties}, {@code Config} registra l'errore tramite questa classe prima di aver terminato
+     * la propria inizializzazione.
+     *
+     * @param key          proprietà da leggere
+     * @param defaultValue valore usato se la proprietà è assente o non valida
+     * @return il valore configurato o quello di default
+     */
+    private static int intProperty(Config.Props key, int defaultValue) {
+        try {
+            int value = Integer.parseInt(Config.get(key).trim());
+            return value > 0 ? value : defaultValue;
+        } catch (RuntimeException e) {
+            return defaultValue;
+        }
+    }
+
+    private static AsyncLogHandler.OverflowPolicy overflowPolicy() {
+        try {
+            return AsyncLogHandler.OverflowPolicy.valueOf(Config.get(Config.Props.LOG_OVERFLOW_POLICY).trim().toUpperCase());
+        } catch (RuntimeException e) {
+            return AsyncLogHandler.OverflowPolicy.DROP_OLDEST;
+        }
+    }
+
     static {
         try {
             // Imposta livello minimo a SEVERE (errori ed eccezioni)
@@ -47,8 +103,12 @@ public class SystemLogger {
                 logger.removeHandler(h);
             }
 
-            // Crea un FileHandler che scrive su "error.log"
-            FileHandler fileHandler = new FileHandler("error.log");
+            // Crea un FileHandler a rotazione: il file corrente è quello con indice 0
+            String pattern = Config.get(Config.Props.LOG_FILE);
+            FileHandler fileHandler = new FileHandler(pattern == null || pattern.isBlank() ? DEFAULT_LOG_FILE : pattern,
+                    intProperty(Config.Props.LOG_MAX_BYTES, DEFAULT_MAX_BYTES),
+                    intProperty(Config.Props.LOG_FILE_COUNT, DEFAULT_FILE_COUNT),
+                    true);
             fileHandler.setLevel(Level.SEVERE);
 
             // Formatter semplice per scrivere solo stacktrace
@@ -71,8 +131,12 @@ public class SystemLogger {
                 }
             });
 
-            logger.addHandler(fileHandler);
+            // La scrittura su file avviene su un thread dedicato
+            asyncHandler = new AsyncLogHandler(fileHandler, intProperty(Config.Props.LOG_BUFFER_SIZE, DEFAULT_BUFFER_SIZE),
+                    overflowPolicy());
+            logger.addHandler(asyncHandler);
             logger.setUseParentHandlers(false); // evita stampa su console
+            Runtime.getRuntime().addShutdownHook(new Thread(SystemLogger::shutdown, "log-shutdown"));
 
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -0,0 +1,24 @@
+package it.unisa.diem.wordageddon_g16.utility;
+
+/**
+ * Callback del ciclo di vita di una vista, implementabili dai controller caricati tramite {@link ViewLoader}.
+ * <p>
+ * Poiché le viste possono essere mantenute in cache e riutilizzate, {@code initialize} del controller viene eseguito
+ * una sola volta, eventualmente in anticipo su un thread in background. Tutto ciò che dipende dallo stato corrente
+ * dell'applicazione (utente autenticato, dati del database) va quindi caricato in {@link #onShow()}, che viene
+ * invocato sul JavaFX Application Thread ogni volta che la vista diventa visibile.
+ */
+public interface ViewLifecycle {
+
+    /**
+     * Invocato ogni volta che la vista viene mostrata, dopo essere stata impostata come radice della scena.
+     */
+    default void onShow() {
+    }
+
+    /**
+     * Invocato quando la vista viene sostituita da un'altra, per fermare timer e rilasciare risorse.
+     */
+    default void onHide() {
+    }
+}
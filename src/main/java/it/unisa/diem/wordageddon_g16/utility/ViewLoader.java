@@ -1,10 +1,18 @@
 package it.unisa.diem.wordageddon_g16.utility;
 
+import it.unisa.diem.wordageddon_g16.utility.jfr.ViewLoadEvent;
+import it.unisa.diem.wordageddon_g16.utility.metrics.Metrics;
+import it.unisa.diem.wordageddon_g16.utility.metrics.Timer;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.stage.Stage;
 import javafx.util.Callback;
 
 import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Utility per il caricamento dinamico delle viste FXML nell'applicazione.
@@ -12,13 +20,38 @@ import java.io.IOException;
  * Gestisce l'associazione tra controller e viste, permette di impostare lo {@link Stage} principale,
  * e fornisce metodi statici per cambiare scena visualizzata. Utilizza {@link FXMLLoader} per caricare le viste
  * e una {@link Callback} per creare i controller corretti.
+ * </p>
+ * Le viste prive di stato proprio vengono mantenute in una cache LRU, di dimensione massima
+ * {@link Config.Props#VIEW_CACHE_SIZE}, e riutilizzate alle navigazioni successive senza analizzare nuovamente l'FXML.
+ * Dopo ogni navigazione, le viste che probabilmente verranno aperte subito dopo vengono precaricate su un thread
+ * in background (disattivabile con {@link Config.Props#VIEW_PRELOAD}). I controller che implementano
+ * {@link ViewLifecycle} vengono notificati quando la loro vista viene mostrata o nascosta.
+ * <p>
+ * La cache è accessibile solo dal JavaFX Application Thread.
  */
 public class ViewLoader {
+    private static final int DEFAULT_CACHE_SIZE = 4;
+
+    /**
+     * Vista già caricata: radice del grafo della scena e relativo controller.
+     */
+    private record LoadedView(Parent root, Object controller) {}
+
     private static Callback<Class<?>, Object> controllerFactory;
     private static Stage stage;
     private static View currentView;
     private static Object currentController;
 
+    private static final Map<View, LoadedView> cache = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<View, LoadedView> eldest) {
+            return size() > cacheSize();
+        }
+    };
+    private static final Set<View> preloading = EnumSet.noneOf(View.class);
+    private static int cacheGeneration;
+    private static ExecutorService preloader;
+
     public static View getCurrentView() {
         return currentView;
     }
@@ -30,31 +63,51 @@ public class ViewLoader {
     /**
      * Enumerazione delle viste disponibili nell'applicazione.
      * <p>
-     * Ogni valore corrisponde al nome del file FXML da caricare.
+     * Ogni valore corrisponde al nome del file FXML da caricare e indica se la vista può essere mantenuta in cache.
+     * La vista di gioco non viene mai riutilizzata, poiché ogni partita richiede un controller nuovo.
      * Utilizzato dal metodo {@link ViewLoader#load(ViewLoader.View)}.
      */
     public enum View{
 
-        AUTH("authentication"),
-        MENU("menu"),
-        GAME("game"),
-        USER_PANEL("userPanel"),
-        LEADERBOARD("leaderboard");
+        AUTH("authentication", true),
+        MENU("menu", true),
+        GAME("game", false),
+        USER_PANEL("userPanel", true),
+        LEADERBOARD("leaderboard", true);
 
         private final String viewName;
+        private final boolean cacheable;
 
         /**
          * Costruttore della Enum {@code ViewLoader}.
          *
-         * @param viewName nome del file FXML da caricare
+         * @param viewName  nome del file FXML da caricare
+         * @param cacheable {@code true} se la vista può essere riutilizzata tra una navigazione e l'altra
          */
-        View(String viewName) {
+        View(String viewName, boolean cacheable) {
             this.viewName = viewName;
+            this.cacheable = cacheable;
         }
 
         public String get() {
             return viewName;
         }
+
+        public boolean isCacheable() {
+            return cacheable;
+        }
+
+        /**
+         * Restituisce le viste raggiungibili direttamente da questa, da precaricare dopo averla mostrata.
+         *
+         * @return viste probabilmente richieste alla prossima navigazione
+         */
+        List<View> likelyNext() {
+            return switch (this) {
+                case AUTH, GAME, USER_PANEL, LEADERBOARD -> List.of(MENU);
+                case MENU -> List.of(LEADERBOARD, USER_PANEL);
+            };
+        }
     }
 
     /**
@@ -81,12 +134,17 @@ public class ViewLoader {
     /**
      * Carica la vista FXML indicata e la imposta come radice della scena corrente.
      * <p>
-     * Utilizza il {@link FXMLLoader} con la factory dei controller e aggiorna la scena dello {@link Stage}
-     * con il contenuto corrispondente alla vista richiesta.
+     * Se la vista è presente in cache viene riutilizzata; altrimenti viene caricata tramite {@link FXMLLoader}
+     * con la factory dei controller e, se riutilizzabile, aggiunta alla cache.
+     * </p>
+     * <p>
+     *     Prima del cambio di vista invoca {@link ViewLifecycle#onHide()} sul controller corrente e, dopo,
+     *     {@link ViewLifecycle#onShow()} sul nuovo controller. Infine avvia il precaricamento delle viste
+     *     raggiungibili da quella mostrata.
      * </p>
      * <p>
-     *     Invoca il metodo {@code close()} del controller corrente, se esiste,
-     *     per permettere una corretta pulizia delle risorse prima di caricare la nuova vista.
+     *     La durata del caricamento viene registrata in {@link Metrics} con il nome {@code view.load.<VISTA>}
+     *     e, se abilitato, tramite l'evento JFR {@link ViewLoadEvent}.
      * </p>
      *
      * @param view vista da caricare (uno dei valori di {@link ViewLoader.View})
@@ -97,28 +155,120 @@ public class ViewLoader {
         if (controllerFactory == null || stage == null) {
             throw new IllegalStateException("ViewLoader not properly initialized.");
         }
+        Timer timer = Metrics.timer("view.load." + view.name());
+        long start = timer.start();
+        ViewLoadEvent event = new ViewLoadEvent();
+        event.begin();
         try {
-            // Invocazione del metodo close() del controller corrente, se esiste
-            if (currentController != null) {
+            if (currentController instanceof ViewLifecycle lifecycle) {
                 try {
-                    currentController.getClass().getMethod("close").invoke(currentController);
-                } catch (NoSuchMethodException ex) {
-                    // Il controller non ha close(): tutto ok, nessuna azione
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                    SystemLogger.log("Error invoking close method on current controller: ", ex);
+                    lifecycle.onHide();
+                } catch (RuntimeException ex) {
+                    SystemLogger.log("Error hiding view " + currentView + ": ", ex);
                 }
             }
 
-            // Caricamento della nuova vista
-            FXMLLoader fxmlLoader = new FXMLLoader(ViewLoader.class.getResource(Resources.RES_PATH+"fxml/" + view.get() + ".fxml"));
-            fxmlLoader.setControllerFactory(controllerFactory);
+            LoadedView loaded = view.isCacheable() ? cache.get(view) : null;
+            event.cached = loaded != null;
+            Metrics.counter(loaded != null ? "view.cache.hit" : "view.cache.miss").increment();
+            if (loaded == null) {
+                loaded = parse(view);
+                if (view.isCacheable()) {
+                    cache.put(view, loaded);
+                }
+            }
 
-            stage.getScene().setRoot(fxmlLoader.load());
-            currentController = fxmlLoader.getController();
+            stage.getScene().setRoot(loaded.root());
+            currentController = loaded.controller();
             currentView = view;
+            if (currentController instanceof ViewLifecycle lifecycle) {
+                lifecycle.onShow();
+            }
+            event.success = true;
         } catch (IOException e) {
             throw new RuntimeException("Failed to load FXML view: " + view.get(), e);
+        } finally {
+            timer.stop(start);
+            if (event.shouldCommit()) {
+                event.view = view.name();
+                event.commit();
+            }
+        }
+        preload(view.likelyNext());
+    }
+
+    /**
+     * Precarica in background le viste indicate, se riutilizzabili e non già in cache.
+     * <p>
+     * L'FXML viene analizzato e il controller inizializzato su un thread dedicato; la vista viene poi
+     * aggiunta alla cache sul JavaFX Application Thread. Gli errori vengono registrati e ignorati:
+     * la vista verrà caricata normalmente alla prima navigazione.
+     *
+     * @param views viste da precaricare
+     */
+    public static void preload(Collection<View> views) {
+        if (!Boolean.parseBoolean(Objects.requireNonNullElse(Config.get(Config.Props.VIEW_PRELOAD), "true"))
+                || controllerFactory == null || cacheSize() == 0) {
+            return;
+        }
+        for (View view : views) {
+            if (!view.isCacheable() || cache.containsKey(view) || !preloading.add(view)) {
+                continue;
+            }
+            int generation = cacheGeneration;
+            preloader().execute(() -> {
+                LoadedView loaded = null;
+                try {
+                    loaded = parse(view);
+                } catch (IOException | RuntimeException e) {
+                    SystemLogger.log("Could not preload view " + view.get(), e);
+                }
+                LoadedView result = loaded;
+                Platform.runLater(() -> {
+                    preloading.remove(view);
+                    // Scarta le viste precaricate prima di un'invalidazione della cache
+                    if (result != null && generation == cacheGeneration) {
+                        cache.putIfAbsent(view, result);
+                    }
+                });
+            });
+        }
+    }
+
+    /**
+     * Svuota la cache delle viste.
+     * <p>
+     * Va invocato quando cambia lo stato da cui dipendono i controller in cache, ad esempio al logout.
+     * La vista correntemente mostrata resta visibile; le viste in corso di precaricamento vengono scartate.
+     */
+    public static void invalidateCache() {
+        cache.clear();
+        cacheGeneration++;
+    }
+
+    private static LoadedView parse(View view) throws IOException {
+        FXMLLoader fxmlLoader = new FXMLLoader(ViewLoader.class.getResource(Resources.RES_PATH+"fxml/" + view.get() + ".fxml"));
+        fxmlLoader.setControllerFactory(controllerFactory);
+        Parent root = fxmlLoader.load();
+        return new LoadedView(root, fxmlLoader.getController());
+    }
+
+    private static int cacheSize() {
+        try {
+            return Math.max(Integer.parseInt(Config.get(Config.Props.VIEW_CACHE_SIZE).trim()), 0);
+        } catch (RuntimeException e) {
+            return DEFAULT_CACHE_SIZE;
+        }
+    }
+
+    private static synchronized ExecutorService preloader() {
+        if (preloader == null) {
+            preloader = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "view-preloader");
+                thread.setDaemon(true);
+                return thread;
+            });
         }
+        return preloader;
     }
-}
\ No newline at end of file
+}
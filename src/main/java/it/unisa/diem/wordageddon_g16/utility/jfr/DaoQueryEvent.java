@@ -0,0 +1,35 @@
+package it.unisa.diem.wordageddon_g16.utility.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Evento JFR emesso per ogni query o aggiornamento eseguito da un {@link it.unisa.diem.wordageddon_g16.db.JdbcDAO}.
+ * <p>
+ * Disabilitato per default: viene registrato solo con il profilo {@code wordageddon.jfc}.
+ */
+@Name("it.unisa.diem.wordageddon.DaoQuery")
+@Label("DAO Query")
+@Category({"Wordageddon", "Database"})
+@Description("Query o aggiornamento eseguito sul database")
+@Enabled(false)
+@StackTrace(false)
+public class DaoQueryEvent extends Event {
+    @Label("Operation")
+    @Description("Metrica dell'operazione del DAO, db.<DAO>.<operazione>")
+    public String operation;
+
+    @Label("SQL")
+    @Description("Forma normalizzata della query")
+    public String sql;
+
+    @Label("Update")
+    @Description("true per INSERT, UPDATE e DELETE")
+    public boolean update;
+
+    @Label("Row Count")
+    @Description("Righe restituite o modificate, -1 se non determinabile")
+    public long rowCount;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,28 @@
+package it.unisa.diem.wordageddon_g16.utility.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Evento JFR emesso alla generazione di una domanda da parte del {@link it.unisa.diem.wordageddon_g16.services.GameService}.
+ * <p>
+ * Disabilitato per default: viene registrato solo con il profilo {@code wordageddon.jfc}.
+ */
+@Name("it.unisa.diem.wordageddon.QuestionGeneration")
+@Label("Question Generation")
+@Category({"Wordageddon", "Partita"})
+@Description("Generazione di una domanda della partita")
+@Enabled(false)
+@StackTrace(false)
+public class QuestionGenerationEvent extends Event {
+    @Label("Question Type")
+    public String questionType;
+
+    @Label("Single Document")
+    public boolean single;
+
+    @Label("Difficulty")
+    public String difficulty;
+
+    @Label("Document Count")
+    public int documentCount;
+}
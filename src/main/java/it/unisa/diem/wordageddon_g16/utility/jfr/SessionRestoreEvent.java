@@ -0,0 +1,53 @@
+package it.unisa.diem.wordageddon_g16.utility.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Evento JFR emesso alla lettura da disco di una sessione di gioco interrotta.
+ * <p>
+ * L'esito indica cosa è stato fatto della sessione letta: soltanto con {@link #OFFERED} la partita viene proposta
+ * all'utente per la ripresa, negli altri casi il file viene eliminato.
+ * <p>
+ * Disabilitato per default: viene registrato solo con il profilo {@code wordageddon.jfc}.
+ */
+@Name("it.unisa.diem.wordageddon.SessionRestore")
+@Label("Session Restore")
+@Category({"Wordageddon", "Sessione"})
+@Description("Lettura di una partita interrotta")
+@Enabled(false)
+@StackTrace(false)
+public class SessionRestoreEvent extends Event {
+    /**
+     * Sessione dell'utente autenticato, proposta per la ripresa.
+     */
+    public static final String OFFERED = "OFFERED";
+    /**
+     * Sessione leggibile ma di un altro utente, scartata.
+     */
+    public static final String OTHER_USER = "OTHER_USER";
+    /**
+     * File illeggibile, corrotto o in un formato non supportato, scartato.
+     */
+    public static final String UNREADABLE = "UNREADABLE";
+
+    @Label("User")
+    public String user;
+
+    @Label("Difficulty")
+    public String difficulty;
+
+    @Label("Question Count")
+    public int questionCount;
+
+    @Label("Answered")
+    @Description("Domande già affrontate al momento del salvataggio")
+    public int answered;
+
+    @Label("Success")
+    @Description("true se il file è stato letto correttamente")
+    public boolean success;
+
+    @Label("Outcome")
+    @Description("OFFERED, OTHER_USER o UNREADABLE")
+    public String outcome;
+}
@@ -0,0 +1,32 @@
+package it.unisa.diem.wordageddon_g16.utility.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Evento JFR emesso al salvataggio su disco di una sessione di gioco interrotta.
+ * <p>
+ * Disabilitato per default: viene registrato solo con il profilo {@code wordageddon.jfc}.
+ */
+@Name("it.unisa.diem.wordageddon.SessionSave")
+@Label("Session Save")
+@Category({"Wordageddon", "Sessione"})
+@Description("Salvataggio di una partita interrotta")
+@Enabled(false)
+@StackTrace(false)
+public class SessionSaveEvent extends Event {
+    @Label("User")
+    public String user;
+
+    @Label("Difficulty")
+    public String difficulty;
+
+    @Label("Question Count")
+    public int questionCount;
+
+    @Label("Answered")
+    @Description("Domande già affrontate al momento del salvataggio")
+    public int answered;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,25 @@
+package it.unisa.diem.wordageddon_g16.utility.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Evento JFR emesso al ricalcolo delle WDM di tutti i documenti dopo una modifica delle stopword.
+ * <p>
+ * Disabilitato per default: viene registrato solo con il profilo {@code wordageddon.jfc}.
+ */
+@Name("it.unisa.diem.wordageddon.StopWordRecalculation")
+@Label("Stop Word Recalculation")
+@Category({"Wordageddon", "Analisi"})
+@Description("Ricalcolo delle WDM dopo la modifica delle stopword")
+@Enabled(false)
+@StackTrace(false)
+public class StopWordRecalculationEvent extends Event {
+    @Label("Document Count")
+    public int documentCount;
+
+    @Label("Stop Words")
+    public int stopWordCount;
+
+    @Label("Failed Documents")
+    public int failedDocuments;
+}
@@ -0,0 +1,26 @@
+package it.unisa.diem.wordageddon_g16.utility.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Evento JFR emesso al caricamento di una vista FXML da parte del {@link it.unisa.diem.wordageddon_g16.utility.ViewLoader}.
+ * <p>
+ * Disabilitato per default: viene registrato solo con il profilo {@code wordageddon.jfc}.
+ */
+@Name("it.unisa.diem.wordageddon.ViewLoad")
+@Label("View Load")
+@Category({"Wordageddon", "Interfaccia"})
+@Description("Caricamento di una vista FXML")
+@Enabled(false)
+@StackTrace(false)
+public class ViewLoadEvent extends Event {
+    @Label("View")
+    public String view;
+
+    @Label("Cached")
+    @Description("Vista riutilizzata dalla cache, senza analizzare l'FXML")
+    public boolean cached;
+
+    @Label("Success")
+    public boolean success;
+}
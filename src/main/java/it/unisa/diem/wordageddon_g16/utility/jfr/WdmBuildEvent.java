@@ -0,0 +1,30 @@
+package it.unisa.diem.wordageddon_g16.utility.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Evento JFR emesso alla costruzione di una {@link it.unisa.diem.wordageddon_g16.models.WDM} a partire dal testo di un documento.
+ * <p>
+ * Disabilitato per default: viene registrato solo con il profilo {@code wordageddon.jfc}.
+ */
+@Name("it.unisa.diem.wordageddon.WdmBuild")
+@Label("WDM Build")
+@Category({"Wordageddon", "Analisi"})
+@Description("Lettura e tokenizzazione di un documento")
+@Enabled(false)
+@StackTrace(false)
+public class WdmBuildEvent extends Event {
+    @Label("Document Id")
+    public String documentId;
+
+    @Label("Word Count")
+    @Description("Parole significative, escluse le stopword")
+    public int wordCount;
+
+    @Label("Distinct Words")
+    public int distinctWords;
+
+    @Label("Stop Words")
+    @Description("Dimensione dell'insieme di stopword usato per l'analisi")
+    public int stopWordCount;
+}
@@ -0,0 +1,37 @@
+package it.unisa.diem.wordageddon_g16.utility.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contatore monotono crescente, sicuro per l'uso concorrente.
+ * <p>
+ * Basato su {@link LongAdder}: gli incrementi da thread diversi non si contendono la stessa cella di memoria.
+ */
+public class Counter {
+    private final LongAdder value = new LongAdder();
+
+    /**
+     * Incrementa il contatore di uno.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Incrementa il contatore della quantità indicata.
+     *
+     * @param amount quantità da aggiungere
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * Restituisce il valore corrente del contatore.
+     *
+     * @return numero di incrementi registrati
+     */
+    public long get() {
+        return value.sum();
+    }
+}
@@ -0,0 +1,118 @@
+package it.unisa.diem.wordageddon_g16.utility.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Istogramma a bucket log-lineari in stile HDR, sicuro per l'uso concorrente.
+ * <p>
+ * I valori sono raggruppati per potenza di due e ogni potenza è divisa in bucket lineari:
+ * l'errore relativo sui percentili resta intorno al 3% su tutto l'intervallo dei {@code long} non negativi, con
+ * una memoria fissa di circa 15 KB e una registrazione che costa un incremento atomico.
+ * </p>
+ * I valori negativi vengono registrati come zero.
+ */
+public class Histogram {
+    /** Bucket lineari per ogni potenza di due (deve essere una potenza di due). */
+    static final int SUB_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+    private final AtomicLongArray buckets = new AtomicLongArray((65 - SUB_BUCKET_BITS) * (SUB_BUCKETS / 2));
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Registra un valore.
+     *
+     * @param value valore da registrare
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets.incrementAndGet(bucketIndex(v));
+        count.increment();
+        sum.add(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * Restituisce un'istantanea coerente dei valori registrati fino a questo momento.
+     *
+     * @return istantanea dell'istogramma
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        return new Snapshot(counts, total, sum.sum(), max.get());
+    }
+
+    /**
+     * Calcola l'indice del bucket che contiene il valore: i valori minori di {@value #SUB_BUCKETS} hanno un bucket
+     * ciascuno, i successivi sono divisi in {@value #SUB_BUCKETS}/2 bucket per potenza di due.
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) (value >>> exponent) - SUB_BUCKETS / 2;
+        return exponent * (SUB_BUCKETS / 2) + SUB_BUCKETS / 2 + subBucket;
+    }
+
+    /**
+     * Restituisce il valore più alto rappresentato dal bucket indicato.
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKETS / 2) / (SUB_BUCKETS / 2);
+        long subBucket = (index - SUB_BUCKETS / 2) % (SUB_BUCKETS / 2) + SUB_BUCKETS / 2;
+        long bound = (subBucket + 1) << exponent;
+        // L'ultimo bucket arriva fino a Long.MAX_VALUE
+        return bound <= 0 ? Long.MAX_VALUE : bound - 1;
+    }
+
+    /**
+     * Istantanea immutabile di un {@link Histogram}.
+     *
+     * @param counts numero di valori per ogni bucket
+     * @param count  numero totale di valori registrati
+     * @param sum    somma dei valori registrati
+     * @param max    valore massimo registrato
+     */
+    public record Snapshot(long[] counts, long count, long sum, long max) {
+        /**
+         * Calcola il percentile richiesto.
+         *
+         * @param percentile percentile compreso tra 0 e 100
+         * @return limite superiore del bucket che contiene il percentile, oppure 0 se l'istogramma è vuoto
+         */
+        public long percentile(double percentile) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Restituisce la media dei valori registrati.
+         *
+         * @return media, oppure 0 se l'istogramma è vuoto
+         */
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+    }
+}
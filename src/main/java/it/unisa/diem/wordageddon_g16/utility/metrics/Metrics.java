@@ -0,0 +1,173 @@
+package it.unisa.diem.wordageddon_g16.utility.metrics;
+
+import it.unisa.diem.wordageddon_g16.utility.Config;
+import it.unisa.diem.wordageddon_g16.utility.SystemLogger;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro centralizzato delle metriche dell'applicazione.
+ * <p>
+ * Mantiene contatori ({@link Counter}), timer ({@link Timer}) e istogrammi ({@link Histogram}) identificati da un nome,
+ * creati al primo utilizzo. Le metriche sono pensate per i percorsi critici (query al database, tokenizzazione,
+ * generazione delle domande, caricamento delle viste): registrare un valore costa pochi incrementi atomici.
+ * </p>
+ * <p>
+ * Se abilitato tramite {@link Config.Props#METRICS_ENABLED}, un thread in background aggiunge periodicamente
+ * un'istantanea di tutte le metriche al file {@link Config.Props#METRICS_FILE}, ogni
+ * {@link Config.Props#METRICS_INTERVAL} secondi.
+ * </p>
+ */
+public class Metrics {
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService reporter;
+
+    /**
+     * Costruttore privato per impedire l'istanziazione della classe di utilità.
+     */
+    private Metrics() {}
+
+    /**
+     * Restituisce il contatore con il nome indicato, creandolo se non esiste.
+     *
+     * @param name nome della metrica
+     * @return il contatore associato al nome
+     */
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, _ -> new Counter());
+    }
+
+    /**
+     * Restituisce il timer con il nome indicato, creandolo se non esiste.
+     *
+     * @param name nome della metrica
+     * @return il timer associato al nome
+     */
+    public static Timer timer(String name) {
+        return timers.computeIfAbsent(name, _ -> new Timer());
+    }
+
+    /**
+     * Restituisce l'istogramma con il nome indicato, creandolo se non esiste.
+     *
+     * @param name nome della metrica
+     * @return l'istogramma associato al nome
+     */
+    public static Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, _ -> new Histogram());
+    }
+
+    /**
+     * Restituisce i nomi dei timer registrati finora, in ordine alfabetico.
+     *
+     * @return insieme non modificabile dei nomi dei timer
+     */
+    public static SortedSet<String> timerNames() {
+        return Collections.unmodifiableSortedSet(new TreeSet<>(timers.keySet()));
+    }
+
+    /**
+     * Avvia la scrittura periodica delle istantanee su file, se abilitata in configurazione.
+     * <p>
+     * Chiamate successive alla prima non hanno effetto.
+     */
+    public static synchronized void startReporter() {
+        if (reporter != null || !Boolean.parseBoolean(Config.get(Config.Props.METRICS_ENABLED))) {
+            return;
+        }
+        long interval = Long.parseLong(Config.get(Config.Props.METRICS_INTERVAL));
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(Metrics::dump, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Arresta la scrittura periodica, scrivendo un'ultima istantanea.
+     */
+    public static synchronized void stopReporter() {
+        if (reporter == null) {
+            return;
+        }
+        reporter.shutdownNow();
+        reporter = null;
+        dump();
+    }
+
+    /**
+     * Aggiunge un'istantanea di tutte le metriche al file configurato.
+     * <p>
+     * In caso di errore di scrittura, registra l'evento tramite {@link SystemLogger}.
+     */
+    public static void dump() {
+        try {
+            Files.writeString(Path.of(Config.get(Config.Props.METRICS_FILE)), snapshot(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            SystemLogger.log("Could not write metrics snapshot", e);
+        }
+    }
+
+    /**
+     * Produce un'istantanea testuale di tutte le metriche registrate, ordinate per nome.
+     * <p>
+     * Le durate dei timer sono espresse in millisecondi.
+     *
+     * @return l'istantanea formattata, una metrica per riga
+     */
+    public static String snapshot() {
+        StringWriter buffer = new StringWriter();
+        PrintWriter out = new PrintWriter(buffer);
+        out.printf("=== %s ===%n", LocalDateTime.now());
+        new TreeMap<>(counters).forEach((name, counter) ->
+                out.printf("counter   %-70s count=%d%n", name, counter.get()));
+        new TreeMap<>(timers).forEach((name, timer) -> {
+            Histogram.Snapshot s = timer.snapshot();
+            out.printf("timer     %-70s count=%d mean=%.3fms p50=%.3fms p90=%.3fms p99=%.3fms max=%.3fms%n",
+                    name, s.count(), s.mean() / 1e6, s.percentile(50) / 1e6, s.percentile(90) / 1e6,
+                    s.percentile(99) / 1e6, s.max() / 1e6);
+        });
+        new TreeMap<>(histograms).forEach((name, histogram) -> {
+            Histogram.Snapshot s = histogram.snapshot();
+            out.printf("histogram %-70s count=%d mean=%.1f p50=%d p90=%d p99=%d max=%d%n",
+                    name, s.count(), s.mean(), s.percentile(50), s.percentile(90), s.percentile(99), s.max());
+        });
+        out.flush();
+        return buffer.toString();
+    }
+
+    /**
+     * Riduce una query SQL alla sua "forma", usata come nome delle metriche del database.
+     * <p>
+     * Gli spazi consecutivi vengono compattati e i letterali numerici o stringa sostituiti da {@code ?},
+     * così che query che differiscono solo per i valori confluiscano nella stessa metrica.
+     *
+     * @param sql la query SQL
+     * @return la forma normalizzata della query
+     */
+    public static String sqlShape(String sql) {
+        return sql.strip()
+                .replaceAll("\\s+", " ")
+                .replaceAll("'(?:[^']|'')*'", "?")
+                .replaceAll("\\b\\d+\\b", "?");
+    }
+}
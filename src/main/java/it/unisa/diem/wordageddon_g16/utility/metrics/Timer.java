@@ -0,0 +1,75 @@
+package it.unisa.diem.wordageddon_g16.utility.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Misura la durata di un'operazione e la registra in un {@link Histogram} espresso in nanosecondi.
+ * <p>
+ * Uso tipico:
+ * <pre>{@code
+ * long start = timer.start();
+ * try {
+ *     ...
+ * } finally {
+ *     timer.stop(start);
+ * }
+ * }</pre>
+ */
+public class Timer {
+    private final Histogram histogram = new Histogram();
+
+    /**
+     * Restituisce l'istante di inizio della misura.
+     *
+     * @return valore di {@link System#nanoTime()} da passare a {@link #stop(long)}
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Conclude una misura iniziata con {@link #start()}.
+     *
+     * @param start istante di inizio restituito da {@link #start()}
+     * @return durata misurata in nanosecondi
+     */
+    public long stop(long start) {
+        long elapsed = System.nanoTime() - start;
+        histogram.record(elapsed);
+        return elapsed;
+    }
+
+    /**
+     * Registra direttamente una durata già misurata.
+     *
+     * @param nanos durata in nanosecondi
+     */
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    /**
+     * Esegue l'operazione indicata misurandone la durata, anche in caso di eccezione.
+     *
+     * @param action operazione da misurare
+     * @param <R>    tipo del risultato
+     * @return il risultato dell'operazione
+     */
+    public <R> R time(Supplier<R> action) {
+        long start = start();
+        try {
+            return action.get();
+        } finally {
+            stop(start);
+        }
+    }
+
+    /**
+     * Restituisce un'istantanea delle durate registrate, in nanosecondi.
+     *
+     * @return istantanea dell'istogramma delle durate
+     */
+    public Histogram.Snapshot snapshot() {
+        return histogram.snapshot();
+    }
+}
@@ -3,6 +3,9 @@ module it.unisa.diem.wordageddongruppo_16 {
     requires javafx.fxml;
     requires java.sql;
     requires java.desktop;
+    requires java.management;
+    requires jdk.jfr;
+    requires jdk.httpserver;
 
     opens it.unisa.diem.wordageddon_g16 to javafx.fxml;
     opens it.unisa.diem.wordageddon_g16.controllers to javafx.fxml;
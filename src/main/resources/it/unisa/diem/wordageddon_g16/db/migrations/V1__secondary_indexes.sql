@@ -0,0 +1,7 @@
+-- Storico del pannello utente, classifica e pagine per cursore: filtro per utente e ordinamento per data
+-- serviti dallo stesso indice. Le query per utente e difficoltà ne usano il prefisso (user).
+CREATE INDEX IF NOT EXISTS idx_gamereport_user_timestamp ON GameReport(user, timestamp);
+
+-- Documenti di un report: la chiave primaria di Content inizia da document e non è utilizzabile
+-- per cercare le righe di un report. L'indice include document, così la lettura non tocca la tabella.
+CREATE INDEX IF NOT EXISTS idx_content_report ON Content(report, document);
@@ -0,0 +1,11 @@
+-- Blocco successivo di righe da copiare, a partire dall'ultimo identificativo già presente nella nuova tabella.
+-- Il parametro è il numero massimo di righe del blocco.
+INSERT INTO GameReport_new (id, user, timestamp, difficulty, max_time, used_time, question_count, score)
+SELECT id, user, timestamp, difficulty,
+       CAST(substr(max_time, 1, 2) AS INTEGER) * 60 + CAST(substr(max_time, 4, 2) AS INTEGER),
+       CAST(substr(used_time, 1, 2) AS INTEGER) * 60 + CAST(substr(used_time, 4, 2) AS INTEGER),
+       question_count, score
+FROM GameReport
+WHERE id > (SELECT COALESCE(MAX(id), 0) FROM GameReport_new)
+ORDER BY id
+LIMIT ?
@@ -0,0 +1,13 @@
+-- Durate in secondi interi al posto delle stringhe MM:SS. SQLite non permette di cambiare tipo e vincoli
+-- di una colonna: la tabella viene ricostruita (vedi SchemaMigrator.ChunkedMigration). La nuova tabella può
+-- esistere già, con parte delle righe, se una migrazione precedente è stata interrotta.
+CREATE TABLE IF NOT EXISTS GameReport_new(
+                               id INTEGER PRIMARY KEY AUTOINCREMENT,
+                               user TEXT REFERENCES User(name) ON DELETE CASCADE NOT NULL ,
+                               timestamp DATETIME DEFAULT  CURRENT_TIMESTAMP NOT NULL ,
+                               difficulty TEXT NOT NULL CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD')),
+                               max_time INTEGER NOT NULL CHECK (typeof(max_time) = 'integer' AND max_time >= 0),
+                               used_time INTEGER NOT NULL CHECK (typeof(used_time) = 'integer' AND used_time >= 0),
+                               question_count INTEGER NOT NULL CHECK (question_count > 0),
+                               score INTEGER NOT NULL CHECK (score >= 0)
+);
@@ -0,0 +1,10 @@
+-- Sostituzione della tabella originale, eseguita con le foreign key disabilitate così che l'eliminazione
+-- non cancelli a cascata le righe di Content: le righe sono state copiate con i loro identificativi.
+DROP TABLE GameReport;
+ALTER TABLE GameReport_new RENAME TO GameReport;
+
+-- Gli indici vengono eliminati insieme alla tabella originale
+CREATE INDEX IF NOT EXISTS idx_gamereport_user_timestamp ON GameReport(user, timestamp);
+
+-- Statistiche sui tempi per difficoltà: aggregazione letta interamente dall'indice, già raggruppata
+CREATE INDEX IF NOT EXISTS idx_gamereport_difficulty_used_time ON GameReport(difficulty, used_time);
@@ -0,0 +1,6 @@
+-- Avanzamento delle importazioni di archivi (vedi HistoryArchive): posizione nel file dopo l'ultimo blocco
+-- importato, -1 a importazione completata. Aggiornata nella stessa transazione di ogni blocco.
+CREATE TABLE IF NOT EXISTS ArchiveImport(
+    archive  TEXT PRIMARY KEY,
+    position INTEGER NOT NULL
+);
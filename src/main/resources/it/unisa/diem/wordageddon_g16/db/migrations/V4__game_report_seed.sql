@@ -0,0 +1,2 @@
+-- Seme da cui è stata generata la partita (vedi GameService#newSession): NULL per le partite precedenti.
+ALTER TABLE GameReport ADD COLUMN seed INTEGER;
@@ -0,0 +1,12 @@
+-- Partite della sfida del giorno (vedi DailyChallengeService): una per giorno e difficoltà, con parametri e domande
+-- codificati da GameSessionCodec#encodeChallenge.
+CREATE TABLE IF NOT EXISTS DailyChallenge(
+    day        TEXT NOT NULL,
+    difficulty TEXT NOT NULL CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD')),
+    seed       INTEGER NOT NULL,
+    bundle     BLOB NOT NULL,
+    PRIMARY KEY (day, difficulty)
+);
+
+-- Le partite di una sfida sono quelle con il suo seme e la sua difficoltà: l'indice ne rende diretta la classifica.
+CREATE INDEX IF NOT EXISTS idx_gamereport_seed ON GameReport(seed, difficulty);
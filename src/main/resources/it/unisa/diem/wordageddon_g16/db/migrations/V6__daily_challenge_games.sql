@@ -0,0 +1,14 @@
+-- Giorno della sfida a cui appartiene la partita (vedi JDBCGameReportDAO#insert): NULL per le partite normali.
+-- Le partite della sfida del giorno hanno una classifica propria e non entrano in quelle globale e per difficoltà.
+ALTER TABLE GameReport ADD COLUMN challenge_day TEXT;
+
+-- Le partite già giocate sono quelle con il seme e la difficoltà di una sfida
+UPDATE GameReport SET challenge_day = (
+    SELECT c.day FROM DailyChallenge c WHERE c.seed = GameReport.seed AND c.difficulty = GameReport.difficulty
+) WHERE seed IS NOT NULL;
+
+-- La classifica della sfida ora seleziona le partite per giorno: l'indice sul seme non serve più
+DROP INDEX IF EXISTS idx_gamereport_seed;
+CREATE INDEX IF NOT EXISTS idx_gamereport_challenge ON GameReport(challenge_day, difficulty);
+-- Il salvataggio di una partita cerca la sfida con il suo seme
+CREATE INDEX IF NOT EXISTS idx_dailychallenge_seed ON DailyChallenge(seed, difficulty);
@@ -0,0 +1,203 @@
+package it.unisa.diem.wordageddon_g16.db;
+
+import it.unisa.diem.wordageddon_g16.db.contracts.DailyChallengeDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.DocumentDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.GameReportDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.StopWordDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.UserDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.WdmDAO;
+import it.unisa.diem.wordageddon_g16.models.*;
+import it.unisa.diem.wordageddon_g16.services.LeaderboardService;
+import it.unisa.diem.wordageddon_g16.utility.Config;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica con {@code EXPLAIN QUERY PLAN} che ogni query filtrata dei DAO usi un indice.
+ * <p>
+ * Ogni test esegue le operazioni di un DAO su un database temporaneo, con lo schema all'ultima versione, e subito
+ * dopo ciascuna verifica il piano dell'ultima query eseguita dall'operazione ({@link JdbcDAO#executedStatements()}).
+ * Al termine viene controllato che nessuna operazione con una clausola {@code WHERE} sia rimasta senza verifica.
+ */
+class QueryPlanTest {
+    /**
+     * Operazioni il cui piano è stato verificato, come nomi delle metriche {@code db.<DAO>.<operazione>}.
+     */
+    private static final Set<String> VERIFIED = ConcurrentHashMap.newKeySet();
+
+    @TempDir
+    Path dir;
+
+    private JdbcRepository repository;
+    private Connection conn;
+    private User player;
+    private Document document;
+    private GameReport report;
+
+    @BeforeEach
+    void setUp() throws IOException, SQLException {
+        Path documents = Files.createDirectory(dir.resolve("documents"));
+        String dbUrl = "jdbc:sqlite:" + dir.resolve("plans.sqlite");
+        System.setProperty(Config.Props.DB_URL.get(), dbUrl);
+        System.setProperty(Config.Props.DOCUMENTS_DIR.get(), documents + "/");
+        repository = new JdbcRepository();
+        conn = DriverManager.getConnection(dbUrl);
+
+        UserDAO userDAO = repository.getDAO("user");
+        userDAO.insert(new User("admin", "password", true));
+        player = new User("player", "password", false);
+        userDAO.insert(player);
+
+        Files.writeString(documents.resolve("plan.txt"), "il gatto e il cane giocano nel parco con il gatto");
+        WDM wdm = new WDM(new Document("plan.txt", "plan.txt", 1), Set.of());
+        document = wdm.getDocument();
+        repository.<Document, DocumentDAO>getDAO("document").insert(document);
+        repository.<WDM, WdmDAO>getDAO("wdm").insert(wdm);
+
+        report = new GameReport(player, List.of(document), LocalDateTime.of(2025, 1, 1, 0, 0), Difficulty.EASY,
+                Duration.ofMinutes(5), Duration.ofMinutes(2), 10, 5, 42L);
+        repository.<GameReport, GameReportDAO>getDAO("gameReport").insert(report);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+        repository.close();
+        System.clearProperty(Config.Props.DB_URL.get());
+        System.clearProperty(Config.Props.DOCUMENTS_DIR.get());
+    }
+
+    @AfterAll
+    static void everyFilteredOperationIsVerified() {
+        Set<String> unverified = new TreeSet<>();
+        JdbcDAO.executedStatements().forEach((operation, sql) -> {
+            if (sql.toUpperCase(Locale.ROOT).contains(" WHERE ") && !VERIFIED.contains(operation)) {
+                unverified.add(operation);
+            }
+        });
+        assertEquals(Set.of(), unverified, "DAO operations without a query plan check");
+    }
+
+    @Test
+    void userQueriesUseIndexes() throws SQLException {
+        UserDAO userDAO = repository.getDAO("user");
+
+        userDAO.selectBy(player.getName());
+        assertUsesIndex(JDBCUserDAO.class, "selectBy");
+        userDAO.update(player);
+        assertUsesIndex(JDBCUserDAO.class, "update");
+        userDAO.delete(player);
+        assertUsesIndex(JDBCUserDAO.class, "delete");
+    }
+
+    @Test
+    void documentQueriesUseIndexes() throws SQLException {
+        DocumentDAO documentDAO = repository.getDAO("document");
+
+        documentDAO.selectBy(document.filename());
+        assertUsesIndex(JDBCDocumentDAO.class, "selectBy");
+        documentDAO.update(document);
+        assertUsesIndex(JDBCDocumentDAO.class, "update");
+        documentDAO.delete(document);
+        assertUsesIndex(JDBCDocumentDAO.class, "delete");
+    }
+
+    @Test
+    void stopWordQueriesUseIndexes() throws SQLException {
+        StopWordDAO stopWordDAO = repository.getDAO("stopWord");
+
+        stopWordDAO.insert("il");
+        stopWordDAO.delete("il");
+        assertUsesIndex(JDBCStopWordDAO.class, "delete");
+    }
+
+    @Test
+    void wdmQueriesUseIndexes() throws SQLException {
+        WdmDAO wdmDAO = repository.getDAO("wdm");
+
+        WDM wdm = wdmDAO.selectBy(document).orElseThrow();
+        assertUsesIndex(JDBCWdmDAO.class, "selectBy");
+        wdmDAO.delete(wdm);
+        assertUsesIndex(JDBCWdmDAO.class, "delete");
+    }
+
+    @Test
+    void gameReportQueriesUseIndexes() throws SQLException {
+        GameReportDAO gameReportDAO = repository.getDAO("gameReport");
+
+        assertUsesIndex(JDBCGameReportDAO.class, "insert");
+        assertTrue(gameReportDAO.selectBy(player, Timestamp.valueOf(report.timestamp())).isPresent());
+        assertUsesIndex(JDBCGameReportDAO.class, "selectBy");
+        assertUsesIndex(JDBCGameReportDAO.class, "selectContent");
+        gameReportDAO.update(report);
+        assertUsesIndex(JDBCGameReportDAO.class, "update");
+        gameReportDAO.selectPageByUser(player, null, 1);
+        assertUsesIndex(JDBCGameReportDAO.class, "selectFirstPageByUser");
+        assertUsesIndex(JDBCGameReportDAO.class, "selectDocuments");
+        gameReportDAO.selectPageByUser(player, report.timestamp().plusDays(1), 1);
+        assertUsesIndex(JDBCGameReportDAO.class, "selectPageByUser");
+        gameReportDAO.delete(report);
+        assertUsesIndex(JDBCGameReportDAO.class, "delete");
+    }
+
+    @Test
+    void leaderboardQueriesUseIndexes() throws SQLException {
+        LeaderboardService leaderboardService = new AppContext(repository).getLeaderboardService();
+
+        leaderboardService.getGloablLeaderboard();
+        assertUsesIndex(JDBCGameReportDAO.class, "selectWhere");
+        leaderboardService.getLeaderboardByDifficulty(Difficulty.EASY);
+        assertUsesIndex(JDBCGameReportDAO.class, "selectWhere");
+        leaderboardService.getTimeStatsByDifficulty();
+        assertUsesIndex(JDBCGameReportDAO.class, "selectTimeStatsByDifficulty");
+    }
+
+    @Test
+    void dailyChallengeQueriesUseIndexes() throws SQLException {
+        DailyChallengeDAO dailyChallengeDAO = repository.getDAO("dailyChallenge");
+        LocalDate day = report.timestamp().toLocalDate();
+        GameParams params = new GameParams(Difficulty.EASY, List.of(document), Duration.ofMinutes(5), 1, 42L);
+        DailyChallenge challenge = new DailyChallenge(day, params,
+                List.of(Question.create("Domanda?", List.of("1", "2", "3", "4"), 0)));
+
+        dailyChallengeDAO.insert(challenge);
+        dailyChallengeDAO.selectBy(day, Difficulty.EASY);
+        assertUsesIndex(JDBCDailyChallengeDAO.class, "selectBy");
+        dailyChallengeDAO.selectLeaderboard(day);
+        assertUsesIndex(JDBCDailyChallengeDAO.class, "selectLeaderboard");
+        dailyChallengeDAO.delete(challenge);
+        assertUsesIndex(JDBCDailyChallengeDAO.class, "delete");
+    }
+
+    /**
+     * Verifica che l'ultima query eseguita dall'operazione non legga per intero alcuna tabella.
+     */
+    private void assertUsesIndex(Class<? extends JdbcDAO<?>> dao, String operation) throws SQLException {
+        String name = "db." + dao.getSimpleName() + "." + operation;
+        String sql = JdbcDAO.executedStatements().get(name);
+        assertNotNull(sql, name + " was not executed");
+        assertEquals(List.of(), QueryPlans.fullScans(conn, sql), name + ": " + sql);
+        VERIFIED.add(name);
+    }
+}
@@ -0,0 +1,197 @@
+package it.unisa.diem.wordageddon_g16.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test delle migrazioni dello schema, in particolare della ricostruzione a blocchi di {@code GameReport}
+ * (migrazione 2) interrotta e ripresa.
+ */
+class SchemaMigratorTest {
+    /**
+     * Schema alla versione 1: durate in formato {@code MM:SS} e indici secondari della migrazione 1.
+     */
+    private static final String VERSION_1_SCHEMA = """
+            CREATE TABLE User(
+                name TEXT PRIMARY KEY,
+                password TEXT NOT NULL,
+                isAdmin BOOLEAN NOT NULL DEFAULT FALSE
+            );
+            CREATE TABLE GameReport(
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user TEXT REFERENCES User(name) ON DELETE CASCADE NOT NULL,
+                timestamp DATETIME DEFAULT CURRENT_TIMESTAMP NOT NULL,
+                difficulty TEXT NOT NULL CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD')),
+                max_time TIME NOT NULL,
+                used_time TIME NOT NULL,
+                question_count INTEGER NOT NULL CHECK (question_count > 0),
+                score INTEGER NOT NULL CHECK (score >= 0)
+            );
+            CREATE TABLE Document(
+                id TEXT PRIMARY KEY,
+                title TEXT NOT NULL DEFAULT id,
+                word_count INTEGER NOT NULL CHECK (word_count > 0)
+            );
+            CREATE TABLE Content(
+                document INTEGER REFERENCES Document(id) ON DELETE CASCADE NOT NULL,
+                report INTEGER REFERENCES GameReport(id) ON DELETE CASCADE NOT NULL,
+                PRIMARY KEY (document, report)
+            );
+            CREATE TABLE WDM(
+                document TEXT REFERENCES Document(id) ON DELETE CASCADE,
+                word TEXT NOT NULL CHECK (LENGTH(word) > 0),
+                occurrences INTEGER NOT NULL CHECK (occurrences >= 0),
+                PRIMARY KEY (document, word)
+            );
+            CREATE TABLE StopWord(
+                word TEXT PRIMARY KEY CHECK (LENGTH(word) > 0)
+            );
+            CREATE INDEX idx_gamereport_user_timestamp ON GameReport(user, timestamp);
+            CREATE INDEX idx_content_report ON Content(report, document);
+            PRAGMA user_version = 1;
+            """;
+
+    /**
+     * Numero di partite della tabella sintetica, molte più di quelle copiate in un blocco.
+     */
+    private static final int REPORTS = 20_000;
+
+    /**
+     * Partita che impedisce la copia: riferisce un utente inesistente.
+     */
+    private static final int BROKEN_REPORT = 12_345;
+
+    @TempDir
+    Path dir;
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("test.sqlite"));
+        execute("PRAGMA foreign_keys = ON");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void emptyDatabaseIsInitialisedAtLatestVersion() throws SQLException {
+        SchemaMigrator.migrate(conn);
+
+        assertEquals(SchemaMigrator.latestVersion(), SchemaMigrator.currentVersion(conn));
+        assertEquals(0, count("SELECT COUNT(*) FROM GameReport"));
+    }
+
+    @Test
+    void interruptedRewriteResumesFromCopiedRows() throws SQLException {
+        createVersion1();
+        // Riga non copiabile a metà tabella: la migrazione si interrompe dopo aver copiato i blocchi precedenti
+        execute("PRAGMA foreign_keys = OFF");
+        execute("UPDATE GameReport SET user = 'fantasma' WHERE id = " + BROKEN_REPORT);
+        execute("PRAGMA foreign_keys = ON");
+
+        assertThrows(SQLException.class, () -> SchemaMigrator.migrate(conn));
+
+        assertEquals(1, SchemaMigrator.currentVersion(conn));
+        long copied = count("SELECT COUNT(*) FROM GameReport_new");
+        assertTrue(copied > 0 && copied < BROKEN_REPORT, "copied rows: " + copied);
+        assertEquals(copied, count("SELECT MAX(id) FROM GameReport_new"));
+        assertEquals(REPORTS, count("SELECT COUNT(*) FROM GameReport"));
+
+        // Dopo la correzione la copia riprende dalla prima riga mancante
+        execute("UPDATE GameReport SET user = 'mario' WHERE id = " + BROKEN_REPORT);
+        SchemaMigrator.migrate(conn);
+
+        assertEquals(SchemaMigrator.latestVersion(), SchemaMigrator.currentVersion(conn));
+        assertEquals(0, count("SELECT COUNT(*) FROM sqlite_master WHERE name = 'GameReport_new'"));
+        assertEquals(REPORTS, count("SELECT COUNT(*) FROM GameReport"));
+        assertEquals(REPORTS, count("SELECT COUNT(DISTINCT id) FROM GameReport"));
+        assertEquals(REPORTS, count("SELECT COUNT(*) FROM GameReport WHERE max_time = 90 AND typeof(used_time) = 'integer'"));
+        assertEquals(REPORTS, count("SELECT COUNT(*) FROM Content JOIN GameReport ON GameReport.id = Content.report"));
+        assertEquals(59, count("SELECT used_time FROM GameReport WHERE id = 59"));
+        assertEquals(2, count("SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND tbl_name = 'GameReport'"
+                + " AND name IN ('idx_gamereport_user_timestamp', 'idx_gamereport_difficulty_used_time')"));
+
+        // I nuovi identificativi proseguono dopo quelli copiati
+        execute("INSERT INTO GameReport (user, difficulty, max_time, used_time, question_count, score)"
+                + " VALUES ('mario', 'EASY', 90, 30, 5, 10)");
+        assertEquals(REPORTS + 1, count("SELECT MAX(id) FROM GameReport"));
+    }
+
+    @Test
+    void rebuildWithDanglingReferencesIsRolledBack() throws SQLException {
+        createVersion1();
+        execute("PRAGMA foreign_keys = OFF");
+        execute("INSERT INTO Content (document, report) VALUES ('alfa.txt', " + (REPORTS + 1) + ")");
+        execute("PRAGMA foreign_keys = ON");
+
+        SQLException e = assertThrows(SQLException.class, () -> SchemaMigrator.migrate(conn));
+
+        assertTrue(e.getCause().getMessage().contains("Content"), e.getCause().getMessage());
+        assertEquals(1, SchemaMigrator.currentVersion(conn));
+        assertEquals(REPORTS, count("SELECT COUNT(*) FROM GameReport WHERE typeof(max_time) = 'text'"));
+        assertEquals(1, count("PRAGMA foreign_keys"));
+
+        execute("DELETE FROM Content WHERE report = " + (REPORTS + 1));
+        SchemaMigrator.migrate(conn);
+
+        assertEquals(SchemaMigrator.latestVersion(), SchemaMigrator.currentVersion(conn));
+        assertEquals(REPORTS, count("SELECT COUNT(*) FROM GameReport WHERE typeof(max_time) = 'integer'"));
+    }
+
+    /**
+     * Crea un database alla versione 1 con {@value #REPORTS} partite, ciascuna con un documento.
+     */
+    private void createVersion1() throws SQLException {
+        try (var stmt = conn.createStatement()) {
+            stmt.executeUpdate(VERSION_1_SCHEMA);
+        }
+        execute("INSERT INTO User (name, password, isAdmin) VALUES ('mario', 'segreta', 1)");
+        execute("INSERT INTO Document (id, title, word_count) VALUES ('alfa.txt', 'Alfa', 100)");
+        conn.setAutoCommit(false);
+        try (PreparedStatement report = conn.prepareStatement("INSERT INTO GameReport"
+                + " (id, user, difficulty, max_time, used_time, question_count, score) VALUES (?, 'mario', 'EASY', '01:30', ?, 5, 10)");
+             PreparedStatement content = conn.prepareStatement("INSERT INTO Content (document, report) VALUES ('alfa.txt', ?)")) {
+            for (int id = 1; id <= REPORTS; id++) {
+                report.setInt(1, id);
+                report.setString(2, String.format("00:%02d", id % 60));
+                report.addBatch();
+                content.setInt(1, id);
+                content.addBatch();
+            }
+            report.executeBatch();
+            content.executeBatch();
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (var stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private long count(String sql) throws SQLException {
+        try (var stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+}
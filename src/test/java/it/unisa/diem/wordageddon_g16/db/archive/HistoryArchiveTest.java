@@ -0,0 +1,123 @@
+package it.unisa.diem.wordageddon_g16.db.archive;
+
+import it.unisa.diem.wordageddon_g16.db.SchemaMigrator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test dell'esportazione e importazione dello storico, in particolare del rifiuto di blocchi con lunghezze non valide.
+ */
+class HistoryArchiveTest {
+    @TempDir
+    Path dir;
+
+    private Connection source;
+    private Connection target;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        source = open("source.sqlite");
+        target = open("target.sqlite");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        source.close();
+        target.close();
+    }
+
+    @Test
+    void exportedArchiveIsImported() throws IOException, SQLException {
+        try (var stmt = source.createStatement()) {
+            stmt.executeUpdate("INSERT INTO User (name, password, isAdmin) VALUES ('mario', 'segreta', 1)");
+            stmt.executeUpdate("INSERT INTO Document (id, title, word_count) VALUES ('alfa.txt', 'Alfa', 100)");
+            stmt.executeUpdate("WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < 20000)"
+                    + " INSERT INTO GameReport (id, user, difficulty, max_time, used_time, question_count, score, challenge_day)"
+                    + " SELECT i, 'mario', 'EASY', 90, i % 90, 5, i % 50, CASE WHEN i % 7 = 0 THEN '2025-01-01' END FROM n");
+            stmt.executeUpdate("INSERT INTO Content (document, report) SELECT 'alfa.txt', id FROM GameReport");
+        }
+        Path archive = dir.resolve("history.wgar");
+
+        HistoryArchive.export(source, archive, 2);
+        Map<String, Long> rows = HistoryArchive.importArchive(target, archive, 2);
+
+        assertEquals(20_000L, rows.get("GameReport"));
+        assertEquals(20_000L, rows.get("Content"));
+        assertEquals(20_000 / 7, count("SELECT COUNT(*) FROM GameReport WHERE challenge_day = '2025-01-01'"));
+    }
+
+    @Test
+    void invalidBlockLengthsAreRejected() throws IOException, SQLException {
+        int[][] headers = {
+                // righe, lunghezza non compressa, lunghezza compressa
+                {1, 16, -1},
+                {1, 16, Integer.MAX_VALUE},
+                {1, 16, 0},
+                {1, -1, 16},
+                {1, ColumnBlock.MAX_RAW_BYTES + 1, 16},
+                {0, 16, 16},
+                {-1, 16, 16},
+                {Integer.MAX_VALUE, 16, 16},
+        };
+        for (int[] header : headers) {
+            Path archive = dir.resolve("forged.wgar");
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(archive))) {
+                out.writeInt(0x57474152); // "WGAR"
+                out.writeByte(HistoryArchive.VERSION);
+                out.writeLong(0);
+                out.writeLong(0);
+                out.writeInt(SchemaMigrator.currentVersion(target));
+                out.writeByte(ArchiveTable.USER.ordinal());
+                out.writeInt(header[0]);
+                out.writeInt(header[1]);
+                out.writeInt(header[2]);
+                out.writeInt(0);
+                out.write(new byte[16]);
+                out.writeByte(0xFF);
+            }
+
+            IOException e = assertThrows(IOException.class, () -> HistoryArchive.importArchive(target, archive, 1));
+            assertTrue(e.getMessage().startsWith("Invalid block header"), e.getMessage());
+        }
+    }
+
+    @Test
+    void decodeRejectsInvalidRawLength() {
+        for (int rawLength : new int[]{-1, ColumnBlock.MAX_RAW_BYTES + 1}) {
+            var encoded = new ColumnBlock.Encoded(ArchiveTable.USER, 1, rawLength, new byte[0], 0);
+
+            assertThrows(IOException.class, () -> ColumnBlock.decode(encoded));
+        }
+    }
+
+    private Connection open(String name) throws SQLException {
+        Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve(name));
+        try (var stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = ON");
+        }
+        SchemaMigrator.migrate(conn);
+        return conn;
+    }
+
+    private long count(String sql) throws SQLException {
+        try (var stmt = target.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+}
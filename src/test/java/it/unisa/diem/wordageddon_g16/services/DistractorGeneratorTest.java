@@ -0,0 +1,114 @@
+package it.unisa.diem.wordageddon_g16.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test della generazione delle opzioni delle domande numeriche.
+ */
+class DistractorGeneratorTest {
+
+    @Test
+    void optionsAreDistinctAndContainCorrectOnce() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int correct = 0; correct < 50; correct++) {
+            int[] options = DistractorGenerator.options(correct, 3, 4, random);
+
+            assertEquals(4, options.length);
+            assertEquals(4, Arrays.stream(options).distinct().count(), Arrays.toString(options));
+            int value = correct;
+            assertEquals(1, Arrays.stream(options).filter(option -> option == value).count());
+        }
+    }
+
+    @Test
+    void distractorsStayWithinWindow() {
+        SplittableRandom random = new SplittableRandom(2);
+        for (int i = 0; i < 1_000; i++) {
+            for (int option : DistractorGenerator.options(100, 5, 4, random)) {
+                assertTrue(option >= 95 && option <= 105, "out of window: " + option);
+            }
+        }
+    }
+
+    @Test
+    void windowIsShiftedNearZero() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int correct = 0; correct <= 3; correct++) {
+            for (int i = 0; i < 1_000; i++) {
+                for (int option : DistractorGenerator.options(correct, 3, 4, random)) {
+                    // Finestra spostata verso l'alto: sempre 2 * maxDelta candidati non negativi
+                    assertTrue(option >= 0 && option <= 6, "out of window: " + option);
+                }
+            }
+        }
+    }
+
+    @Test
+    void fullWindowUsesEveryCandidate() {
+        int[] options = DistractorGenerator.options(10, 2, 5, new SplittableRandom(4));
+
+        Arrays.sort(options);
+        assertArrayEquals(new int[]{8, 9, 10, 11, 12}, options);
+    }
+
+    @Test
+    void everyCandidateCanBeChosen() {
+        SplittableRandom random = new SplittableRandom(5);
+        boolean[] seen = new boolean[7];
+        for (int i = 0; i < 1_000; i++) {
+            for (int option : DistractorGenerator.options(3, 3, 2, random)) {
+                seen[option] = true;
+            }
+        }
+        for (int value = 0; value < seen.length; value++) {
+            assertTrue(seen[value], "never chosen: " + value);
+        }
+    }
+
+    @Test
+    void correctAnswerPositionVaries() {
+        SplittableRandom random = new SplittableRandom(6);
+        boolean[] positions = new boolean[4];
+        for (int i = 0; i < 1_000; i++) {
+            int[] options = DistractorGenerator.options(20, 3, 4, random);
+            for (int p = 0; p < options.length; p++) {
+                if (options[p] == 20) {
+                    positions[p] = true;
+                }
+            }
+        }
+        for (boolean position : positions) {
+            assertTrue(position);
+        }
+    }
+
+    @Test
+    void sameSeedGivesSameOptions() {
+        SplittableRandom first = new SplittableRandom(42);
+        SplittableRandom second = new SplittableRandom(42);
+        for (int correct = 0; correct < 20; correct++) {
+            assertArrayEquals(DistractorGenerator.options(correct, 3, 4, first),
+                    DistractorGenerator.options(correct, 3, 4, second));
+        }
+    }
+
+    @Test
+    void singleOptionIsCorrectValue() {
+        assertArrayEquals(new int[]{7}, DistractorGenerator.options(7, 0, 1, new SplittableRandom(7)));
+    }
+
+    @Test
+    void invalidArgumentsAreRejected() {
+        SplittableRandom random = new SplittableRandom(8);
+
+        assertThrows(IllegalArgumentException.class, () -> DistractorGenerator.options(-1, 3, 4, random));
+        assertThrows(IllegalArgumentException.class, () -> DistractorGenerator.options(5, 3, 0, random));
+        // La finestra di 2 * maxDelta candidati non basta per count - 1 valori errati
+        assertThrows(IllegalArgumentException.class, () -> DistractorGenerator.options(5, 1, 4, random));
+    }
+}
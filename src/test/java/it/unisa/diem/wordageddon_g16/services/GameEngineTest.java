@@ -0,0 +1,285 @@
+package it.unisa.diem.wordageddon_g16.services;
+
+import it.unisa.diem.wordageddon_g16.models.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test delle regole della fase delle domande, con un orologio fatto avanzare manualmente.
+ */
+class GameEngineTest {
+    private static final Instant START = Instant.parse("2025-03-14T10:00:00Z");
+    private static final int SCORE_PER_QUESTION = 10;
+
+    private ManualClock clock;
+    private User user;
+    private GameSession session;
+    private List<Question> questions;
+
+    @BeforeEach
+    void setUp() {
+        clock = new ManualClock(START);
+        user = new User("mario", "segreta", false);
+        List<Document> documents = List.of(new Document("alfa.txt", "Alfa", 120));
+        session = new GameSession(new GameParams(Difficulty.MEDIUM, documents, Duration.ofSeconds(60), 4, 42L));
+        questions = List.of(
+                Question.create("Domanda 1", List.of("a", "b", "c"), 0),
+                Question.create("Domanda 2", List.of("a", "b", "c"), 1),
+                Question.create("Domanda 3", List.of("a", "b", "c"), 2),
+                Question.create("Domanda 4", List.of("a", "b"), 1));
+    }
+
+    @Test
+    void correctAnswerScoresPoints() {
+        GameEngine engine = engine();
+        engine.start();
+        engine.currentQuestion();
+
+        GameEngine.Outcome outcome = engine.answer(0);
+
+        assertTrue(outcome.correct());
+        assertFalse(outcome.skipped());
+        assertFalse(outcome.timedOut());
+        assertEquals(10, outcome.points());
+        assertEquals(10, engine.getScore());
+        assertEquals(1, engine.getCorrectCount());
+        assertEquals(1, engine.getCurrentIndex());
+    }
+
+    @Test
+    void wrongAnswerAndSkipScoreNothing() {
+        GameEngine engine = engine();
+        engine.start();
+        engine.currentQuestion();
+
+        GameEngine.Outcome wrong = engine.answer(2);
+        engine.currentQuestion();
+        GameEngine.Outcome skipped = engine.skip();
+
+        assertFalse(wrong.correct());
+        assertEquals(0, wrong.points());
+        assertTrue(skipped.skipped());
+        assertEquals(0, skipped.points());
+        assertEquals(0, engine.getScore());
+        assertEquals(0, engine.getCorrectCount());
+        assertEquals(1, engine.getSkippedCount());
+        assertEquals(Map.of(questions.get(0), 2, questions.get(1), GameEngine.SKIPPED), engine.getAnswers());
+    }
+
+    @Test
+    void answerWithinGraceIsAccepted() {
+        GameEngine engine = engine();
+        engine.start();
+        engine.currentQuestion();
+        clock.advance(GameEngine.QUESTION_TIME_LIMIT.plusMillis(500));
+
+        GameEngine.Outcome outcome = engine.answer(0);
+
+        assertFalse(outcome.timedOut());
+        assertEquals(10, outcome.points());
+    }
+
+    @Test
+    void lateAnswerCountsAsSkipped() {
+        GameEngine engine = engine();
+        engine.start();
+        engine.currentQuestion();
+        clock.advance(GameEngine.QUESTION_TIME_LIMIT.plusMillis(501));
+
+        GameEngine.Outcome outcome = engine.answer(0);
+
+        assertTrue(outcome.timedOut());
+        assertTrue(outcome.skipped());
+        assertEquals(0, outcome.points());
+        assertEquals(0, engine.getScore());
+        assertEquals(1, engine.getSkippedCount());
+        assertEquals(GameEngine.SKIPPED, engine.getAnswers().get(questions.get(0)));
+    }
+
+    @Test
+    void timeLimitRestartsForEachQuestion() {
+        GameEngine engine = engine();
+        engine.start();
+        engine.currentQuestion();
+        clock.advance(Duration.ofSeconds(10));
+        engine.answer(0);
+        engine.currentQuestion();
+        clock.advance(Duration.ofSeconds(10));
+
+        GameEngine.Outcome outcome = engine.answer(1);
+
+        assertFalse(outcome.timedOut());
+        assertEquals(20, engine.getScore());
+    }
+
+    @Test
+    void invalidAnswerIsRejected() {
+        GameEngine engine = engine();
+        engine.start();
+        engine.currentQuestion();
+
+        assertThrows(IndexOutOfBoundsException.class, () -> engine.answer(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> engine.answer(-1));
+        assertEquals(0, engine.getCurrentIndex());
+    }
+
+    @Test
+    void questionsRequireStartedGame() {
+        GameEngine engine = engine();
+
+        assertThrows(IllegalStateException.class, engine::currentQuestion);
+        assertThrows(IllegalStateException.class, () -> engine.answer(0));
+        assertThrows(IllegalStateException.class, engine::skip);
+        assertThrows(IllegalStateException.class, engine::finish);
+    }
+
+    @Test
+    void finishedGameRejectsAnswers() {
+        GameEngine engine = engine();
+        engine.start();
+        playAll(engine, 0, 1, 0, 1);
+
+        assertTrue(engine.isFinished());
+        assertThrows(IllegalStateException.class, engine::currentQuestion);
+        assertThrows(IllegalStateException.class, () -> engine.answer(0));
+    }
+
+    @Test
+    void invalidConstructionIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new GameEngine(user, session, List.of(), 10, clock));
+        assertThrows(IllegalArgumentException.class, () -> new GameEngine(user, session, questions, -1, clock));
+    }
+
+    @Test
+    void finishBuildsReport() {
+        GameEngine engine = engine();
+        engine.start();
+        playAll(engine, 0, 1, 0, 1);
+
+        GameReport report = engine.finish();
+
+        assertEquals(user, report.user());
+        assertEquals(session.getDocuments(), report.documents());
+        assertEquals(Difficulty.MEDIUM, report.difficulty());
+        assertEquals(GameEngine.QUESTION_TIME_LIMIT.multipliedBy(4), report.maxTime());
+        assertEquals(Duration.ofSeconds(8), report.usedTime());
+        assertEquals(LocalDateTime.ofInstant(START.plusSeconds(8), ZoneOffset.UTC), report.timestamp());
+        assertEquals(4, report.questionCount());
+        assertEquals(30, report.score());
+        assertEquals(42L, report.seed());
+    }
+
+    @Test
+    void finishIsIdempotentAndEndsGame() {
+        GameEngine engine = engine();
+        engine.start();
+        engine.currentQuestion();
+        engine.answer(0);
+
+        GameReport report = engine.finish();
+        clock.advance(Duration.ofSeconds(30));
+
+        assertSame(report, engine.finish());
+        assertTrue(engine.isFinished());
+        assertEquals(10, report.score());
+        assertEquals(4, report.questionCount());
+    }
+
+    @Test
+    void stateRoundTrip() {
+        GameEngine engine = engine();
+        engine.start();
+        engine.currentQuestion();
+        engine.answer(0);
+        engine.currentQuestion();
+        engine.skip();
+        engine.currentQuestion();
+        engine.answer(0);
+
+        GameSessionState state = engine.toState();
+        GameEngine restored = GameEngine.restore(state, session, clock);
+
+        assertEquals(3, state.currentQuestionIndex());
+        assertEquals(LocalDateTime.ofInstant(START, ZoneOffset.UTC), state.questionStartTime());
+        assertEquals(engine.getAnswers(), restored.getAnswers());
+        assertEquals(engine.getCurrentIndex(), restored.getCurrentIndex());
+        assertEquals(10, restored.getScore());
+        assertEquals(1, restored.getCorrectCount());
+        assertEquals(1, restored.getSkippedCount());
+        assertEquals(SCORE_PER_QUESTION, restored.getScorePerQuestion());
+    }
+
+    @Test
+    void restoredGameKeepsOriginalStartTime() {
+        GameEngine engine = engine();
+        engine.start();
+        engine.currentQuestion();
+        engine.answer(0);
+        GameSessionState state = engine.toState();
+        clock.advance(Duration.ofMinutes(5));
+
+        GameEngine restored = GameEngine.restore(state, session, clock);
+        restored.start();
+        restored.currentQuestion();
+        restored.answer(1);
+
+        assertEquals(20, restored.getScore());
+        assertEquals(Duration.ofMinutes(5), restored.finish().usedTime());
+    }
+
+    private GameEngine engine() {
+        return new GameEngine(user, session, questions, SCORE_PER_QUESTION, clock);
+    }
+
+    /**
+     * Risponde a tutte le domande, lasciando passare due secondi per ciascuna.
+     */
+    private void playAll(GameEngine engine, int... answers) {
+        for (int answer : answers) {
+            engine.currentQuestion();
+            clock.advance(Duration.ofSeconds(2));
+            engine.answer(answer);
+        }
+    }
+
+    /**
+     * Orologio che avanza solo quando richiesto dal test.
+     */
+    private static final class ManualClock extends Clock {
+        private Instant now;
+
+        private ManualClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
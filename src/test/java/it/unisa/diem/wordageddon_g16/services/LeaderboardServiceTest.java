@@ -0,0 +1,98 @@
+package it.unisa.diem.wordageddon_g16.services;
+
+import it.unisa.diem.wordageddon_g16.db.JdbcRepository;
+import it.unisa.diem.wordageddon_g16.db.contracts.DailyChallengeDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.DocumentDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.GameReportDAO;
+import it.unisa.diem.wordageddon_g16.db.contracts.UserDAO;
+import it.unisa.diem.wordageddon_g16.models.*;
+import it.unisa.diem.wordageddon_g16.utility.Config;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test della separazione tra le classifiche e le partite della sfida del giorno.
+ */
+class LeaderboardServiceTest {
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 1);
+    private static final long CHALLENGE_SEED = 42L;
+
+    @TempDir
+    Path dir;
+
+    private JdbcRepository repository;
+    private GameReportDAO gameReportDAO;
+    private User player;
+    private Document document;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path documents = Files.createDirectory(dir.resolve("documents"));
+        System.setProperty(Config.Props.DB_URL.get(), "jdbc:sqlite:" + dir.resolve("leaderboard.sqlite"));
+        System.setProperty(Config.Props.DOCUMENTS_DIR.get(), documents + "/");
+        repository = new JdbcRepository();
+        gameReportDAO = repository.getDAO("gameReport");
+
+        UserDAO userDAO = repository.getDAO("user");
+        userDAO.insert(new User("admin", "password", true));
+        player = new User("player", "password", false);
+        userDAO.insert(player);
+        document = new Document("sfida.txt", "Sfida", 10);
+        repository.<Document, DocumentDAO>getDAO("document").insert(document);
+
+        GameParams params = new GameParams(Difficulty.EASY, List.of(document), Duration.ofMinutes(5), 1, CHALLENGE_SEED);
+        repository.<DailyChallenge, DailyChallengeDAO>getDAO("dailyChallenge").insert(new DailyChallenge(DAY, params,
+                List.of(Question.create("Domanda?", List.of("1", "2", "3", "4"), 0))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+        System.clearProperty(Config.Props.DB_URL.get());
+        System.clearProperty(Config.Props.DOCUMENTS_DIR.get());
+    }
+
+    @Test
+    void challengeGamesOnlyCountInChallengeLeaderboard() {
+        save(1, Difficulty.EASY, 10, 7L);
+        save(2, Difficulty.EASY, 100, CHALLENGE_SEED);
+        save(3, Difficulty.EASY, 90, CHALLENGE_SEED);
+        // Stesso seme ma altra difficoltà: non è la partita della sfida
+        save(4, Difficulty.MEDIUM, 20, CHALLENGE_SEED);
+
+        LeaderboardService leaderboardService = new AppContext(repository).getLeaderboardService();
+        LeaderboardService.LeaderboardEntry global = entryOf(leaderboardService.getGloablLeaderboard());
+        assertEquals(2, global.gamesPlayed());
+        assertEquals(30, global.totalScore());
+        LeaderboardService.LeaderboardEntry easy = entryOf(leaderboardService.getLeaderboardByDifficulty(Difficulty.EASY));
+        assertEquals(1, easy.gamesPlayed());
+        assertEquals(10, easy.totalScore());
+
+        List<DailyChallengeEntry> challenge = repository.<DailyChallenge, DailyChallengeDAO>getDAO("dailyChallenge")
+                .selectLeaderboard(DAY);
+        assertEquals(List.of(new DailyChallengeEntry("player", Difficulty.EASY, 100, Duration.ofMinutes(1), 2)), challenge);
+    }
+
+    private void save(int minute, Difficulty difficulty, int score, long seed) {
+        gameReportDAO.insert(new GameReport(player, List.of(document), LocalDateTime.of(2025, 1, 1, 12, minute),
+                difficulty, Duration.ofMinutes(5), Duration.ofMinutes(1), 5, score, seed));
+    }
+
+    private LeaderboardService.LeaderboardEntry entryOf(List<LeaderboardService.LeaderboardEntry> leaderboard) {
+        return leaderboard.stream()
+                .filter(entry -> entry.username().equals(player.getName()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
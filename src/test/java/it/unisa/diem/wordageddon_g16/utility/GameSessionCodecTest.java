@@ -0,0 +1,272 @@
+package it.unisa.diem.wordageddon_g16.utility;
+
+import it.unisa.diem.wordageddon_g16.models.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test della codifica binaria di {@link GameSessionState} e {@link DailyChallenge}.
+ */
+class GameSessionCodecTest {
+    private static final int SESSION_MAGIC = 0x57475353;
+    private static final int CHALLENGE_MAGIC = 0x57474443;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void sessionRoundTrip() throws IOException {
+        GameSessionState state = state(1234L);
+
+        GameSessionState decoded = GameSessionCodec.decode(GameSessionCodec.encode(state));
+
+        assertSameState(state, decoded);
+        assertEquals(1234L, decoded.gameParams().getSeed());
+    }
+
+    @Test
+    void sessionWithoutSeedOrStartTimeRoundTrip() throws IOException {
+        GameSessionState state = state(null);
+        state = new GameSessionState(state.user(), state.questions(), Map.of(), 0, null,
+                state.scorePerQuestion(), state.gameParams());
+
+        GameSessionState decoded = GameSessionCodec.decode(GameSessionCodec.encode(state));
+
+        assertSameState(state, decoded);
+        assertNull(decoded.gameParams().getSeed());
+        assertNull(decoded.questionStartTime());
+    }
+
+    @Test
+    void passwordIsNotEncoded() throws IOException {
+        byte[] data = GameSessionCodec.encode(state(1L));
+
+        assertFalse(new String(data, StandardCharsets.ISO_8859_1).contains("segreta"));
+        assertNull(GameSessionCodec.decode(data).user().getPassword());
+    }
+
+    @Test
+    void decodesVersion1() throws IOException {
+        GameSessionState expected = state(null);
+
+        GameSessionState decoded = GameSessionCodec.decode(encodeVersion1(expected));
+
+        assertSameState(expected, decoded);
+        assertNull(decoded.gameParams().getSeed());
+    }
+
+    @Test
+    void rejectsBadMagic() {
+        byte[] data = GameSessionCodec.encode(state(1L));
+        data[0] ^= 0x01;
+
+        assertThrows(IOException.class, () -> GameSessionCodec.decode(data));
+    }
+
+    @Test
+    void rejectsUnsupportedVersion() {
+        byte[] data = GameSessionCodec.encode(state(1L));
+        data[Integer.BYTES] = (byte) (GameSessionCodec.VERSION + 1);
+
+        IOException e = assertThrows(IOException.class, () -> GameSessionCodec.decode(data));
+        assertTrue(e.getMessage().contains("version"));
+    }
+
+    @Test
+    void rejectsChecksumMismatch() {
+        byte[] data = GameSessionCodec.encode(state(1L));
+        data[data.length / 2] ^= 0x01;
+
+        IOException e = assertThrows(IOException.class, () -> GameSessionCodec.decode(data));
+        assertTrue(e.getMessage().contains("checksum"));
+    }
+
+    @Test
+    void rejectsTruncatedData() {
+        byte[] data = GameSessionCodec.encode(state(1L));
+
+        assertThrows(IOException.class, () -> GameSessionCodec.decode(Arrays.copyOf(data, data.length - 1)));
+        assertThrows(IOException.class, () -> GameSessionCodec.decode(Arrays.copyOf(data, 5)));
+    }
+
+    @Test
+    void writeAndReadFile() throws IOException {
+        Path file = dir.resolve("session.bin");
+        GameSessionState state = state(7L);
+
+        GameSessionCodec.write(file, state);
+        GameSessionCodec.write(file, state);
+
+        assertSameState(state, GameSessionCodec.read(file));
+        try (var files = Files.list(dir)) {
+            assertEquals(List.of(file), files.toList(), "no temporary file must be left behind");
+        }
+    }
+
+    @Test
+    void challengeRoundTrip() throws IOException {
+        GameSessionState state = state(99L);
+        DailyChallenge challenge = new DailyChallenge(LocalDate.of(2025, 3, 14), state.gameParams(), state.questions());
+
+        DailyChallenge decoded = GameSessionCodec.decodeChallenge(GameSessionCodec.encodeChallenge(challenge));
+
+        assertEquals(challenge.day(), decoded.day());
+        assertEquals(challenge.questions(), decoded.questions());
+        assertSameParams(challenge.params(), decoded.params());
+        assertEquals(99L, decoded.params().getSeed());
+    }
+
+    @Test
+    void challengeAndSessionFormatsAreNotInterchangeable() {
+        GameSessionState state = state(99L);
+        DailyChallenge challenge = new DailyChallenge(LocalDate.of(2025, 3, 14), state.gameParams(), state.questions());
+
+        assertThrows(IOException.class, () -> GameSessionCodec.decode(GameSessionCodec.encodeChallenge(challenge)));
+        assertThrows(IOException.class, () -> GameSessionCodec.decodeChallenge(GameSessionCodec.encode(state)));
+    }
+
+    @Test
+    void challengeRejectsUnsupportedVersion() {
+        GameSessionState state = state(99L);
+        byte[] data = GameSessionCodec.encodeChallenge(
+                new DailyChallenge(LocalDate.of(2025, 3, 14), state.gameParams(), state.questions()));
+        data[Integer.BYTES] = (byte) (GameSessionCodec.CHALLENGE_VERSION + 1);
+
+        assertThrows(IOException.class, () -> GameSessionCodec.decodeChallenge(data));
+    }
+
+    @Test
+    void challengeRejectsMalformedBody() {
+        // Contenuto con checksum valido ma troncato a metà dei parametri
+        byte[] data = frame(CHALLENGE_MAGIC, GameSessionCodec.CHALLENGE_VERSION, new byte[]{0, 0, 0, 0, 0, 0, 0, 1, 4});
+
+        assertThrows(IOException.class, () -> GameSessionCodec.decodeChallenge(data));
+    }
+
+    /**
+     * Stato di una partita a metà: la prima domanda ha una risposta, la seconda è stata saltata.
+     */
+    static GameSessionState state(Long seed) {
+        List<Document> documents = List.of(
+                new Document("alfa.txt", "Alfa", 120),
+                new Document("beta.txt", "Beta è più lunga", null));
+        GameParams params = new GameParams(Difficulty.MEDIUM, documents, Duration.ofSeconds(90), 3, seed);
+        List<Question> questions = List.of(
+                Question.create("Quante volte compare \"casa\"?", List.of("1", "2", "3", "4"), 2),
+                Question.create("Quale parola è la più frequente?", List.of("cane", "gatto", "topo", "città"), 0),
+                Question.create("In quale documento compare \"mare\"?", List.of("Alfa", "Beta è più lunga"), 1));
+        Map<Question, Integer> answers = new LinkedHashMap<>();
+        answers.put(questions.get(0), 2);
+        answers.put(questions.get(1), -1);
+        return new GameSessionState(new User("mario", "segreta", true), questions, answers, 2,
+                LocalDateTime.of(2025, 3, 14, 10, 30, 15, 123_456_789), 20, params);
+    }
+
+    static void assertSameState(GameSessionState expected, GameSessionState actual) {
+        assertEquals(expected.user().getName(), actual.user().getName());
+        assertEquals(expected.user().isAdmin(), actual.user().isAdmin());
+        assertEquals(expected.questions(), actual.questions());
+        assertEquals(expected.domandaRisposte(), actual.domandaRisposte());
+        assertEquals(expected.currentQuestionIndex(), actual.currentQuestionIndex());
+        assertEquals(expected.questionStartTime(), actual.questionStartTime());
+        assertEquals(expected.scorePerQuestion(), actual.scorePerQuestion());
+        assertSameParams(expected.gameParams(), actual.gameParams());
+    }
+
+    private static void assertSameParams(GameParams expected, GameParams actual) {
+        assertEquals(expected.getDifficulty(), actual.getDifficulty());
+        assertEquals(expected.getQuestionCount(), actual.getQuestionCount());
+        assertEquals(expected.getTimer(), actual.getTimer());
+        assertEquals(expected.getSeed(), actual.getSeed());
+        assertEquals(expected.getDocuments().size(), actual.getDocuments().size());
+        for (int i = 0; i < expected.getDocuments().size(); i++) {
+            Document document = expected.getDocuments().get(i);
+            Document decoded = actual.getDocuments().get(i);
+            assertEquals(document.filename(), decoded.filename());
+            assertEquals(document.title(), decoded.title());
+            assertEquals(document.wordCount(), decoded.wordCount());
+        }
+    }
+
+    /**
+     * Codifica lo stato nel formato della versione 1, che non prevedeva il seme tra i parametri.
+     */
+    private static byte[] encodeVersion1(GameSessionState state) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(payload)) {
+            writeString(out, state.user().getName());
+            out.writeBoolean(state.user().isAdmin());
+            GameParams params = state.gameParams();
+            writeString(out, params.getDifficulty().name());
+            writeVarInt(out, params.getQuestionCount());
+            out.writeLong(params.getTimer().toMillis());
+            writeVarInt(out, params.getDocuments().size());
+            for (Document document : params.getDocuments()) {
+                writeString(out, document.filename());
+                writeString(out, document.title());
+                writeVarInt(out, document.wordCount() == null ? 0 : document.wordCount() + 1);
+            }
+            writeVarInt(out, state.currentQuestionIndex());
+            writeVarInt(out, state.scorePerQuestion());
+            out.writeBoolean(true);
+            out.writeLong(state.questionStartTime().toLocalDate().toEpochDay());
+            out.writeLong(state.questionStartTime().toLocalTime().toNanoOfDay());
+            writeVarInt(out, state.questions().size());
+            for (Question question : state.questions()) {
+                writeString(out, question.text());
+                writeVarInt(out, question.answers().size());
+                for (String answer : question.answers()) {
+                    writeString(out, answer);
+                }
+                writeVarInt(out, question.correctAnswerIndex());
+                Integer given = state.domandaRisposte().get(question);
+                writeVarInt(out, given == null ? 0 : given + 2);
+            }
+        }
+        return frame(SESSION_MAGIC, 1, payload.toByteArray());
+    }
+
+    private static byte[] frame(int magic, int version, byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return ByteBuffer.allocate(Integer.BYTES * 3 + 1 + body.length)
+                .putInt(magic)
+                .put((byte) version)
+                .putInt(body.length)
+                .put(body)
+                .putInt((int) crc.getValue())
+                .array();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+}
@@ -0,0 +1,89 @@
+package it.unisa.diem.wordageddon_g16.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test dell'estrazione di indici distinti.
+ */
+class IndexSamplerTest {
+
+    @Test
+    void sampleIsDistinctAndInRange() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 200; i++) {
+            int[] indices = IndexSampler.sample(1_000, 50, random);
+
+            assertEquals(50, indices.length);
+            assertEquals(50, Arrays.stream(indices).distinct().count());
+            assertTrue(Arrays.stream(indices).allMatch(index -> index >= 0 && index < 1_000));
+        }
+    }
+
+    @Test
+    void sampleOfWholeRangeIsPermutation() {
+        SplittableRandom random = new SplittableRandom(2);
+        for (int size = 0; size <= 20; size++) {
+            int[] indices = IndexSampler.sample(size, size, random);
+
+            Arrays.sort(indices);
+            assertArrayEquals(IntStream.range(0, size).toArray(), indices);
+        }
+    }
+
+    @Test
+    void samplerIsExhaustedAfterEveryIndex() {
+        IndexSampler sampler = new IndexSampler(5, new SplittableRandom(3));
+        boolean[] seen = new boolean[5];
+        for (int i = 0; i < 5; i++) {
+            assertTrue(sampler.hasNext());
+            int index = sampler.next();
+            assertFalse(seen[index], "drawn twice: " + index);
+            seen[index] = true;
+        }
+
+        assertFalse(sampler.hasNext());
+        assertThrows(NoSuchElementException.class, sampler::next);
+    }
+
+    @Test
+    void emptySample() {
+        assertEquals(0, IndexSampler.sample(0, 0, new SplittableRandom(4)).length);
+        assertEquals(0, IndexSampler.sample(10, 0, new SplittableRandom(4)).length);
+        assertFalse(new IndexSampler(0, new SplittableRandom(4)).hasNext());
+    }
+
+    @Test
+    void sameSeedGivesSameSequence() {
+        assertArrayEquals(IndexSampler.sample(10_000, 100, new SplittableRandom(42)),
+                IndexSampler.sample(10_000, 100, new SplittableRandom(42)));
+    }
+
+    @Test
+    void everyIndexCanComeFirst() {
+        SplittableRandom random = new SplittableRandom(5);
+        int[] counts = new int[6];
+        for (int i = 0; i < 6_000; i++) {
+            counts[IndexSampler.sample(6, 1, random)[0]]++;
+        }
+        // Distribuzione uniforme attesa: circa 1000 estrazioni per indice
+        for (int count : counts) {
+            assertTrue(count > 800 && count < 1_200, Arrays.toString(counts));
+        }
+    }
+
+    @Test
+    void invalidArgumentsAreRejected() {
+        SplittableRandom random = new SplittableRandom(6);
+
+        assertThrows(IllegalArgumentException.class, () -> IndexSampler.sample(5, 6, random));
+        assertThrows(IllegalArgumentException.class, () -> IndexSampler.sample(5, -1, random));
+        assertThrows(IllegalArgumentException.class, () -> new IndexSampler(-1, random));
+    }
+}
@@ -0,0 +1,202 @@
+package it.unisa.diem.wordageddon_g16.utility;
+
+import it.unisa.diem.wordageddon_g16.models.GameSessionState;
+import it.unisa.diem.wordageddon_g16.models.Question;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static it.unisa.diem.wordageddon_g16.utility.GameSessionCodecTest.assertSameState;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test del giornale delle risposte e del recupero di una partita interrotta.
+ */
+class SessionJournalTest {
+    /**
+     * Dimensione di un record del giornale: tipo, indice della domanda, risposta e CRC32.
+     */
+    private static final int RECORD_BYTES = 13;
+
+    @TempDir
+    Path dir;
+
+    private Path snapshot;
+    private Path journal;
+    private GameSessionState initial;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = dir.resolve("session.bin");
+        journal = dir.resolve("session.bin.journal");
+        GameSessionState state = GameSessionCodecTest.state(42L);
+        // Partita appena iniziata: nessuna risposta data
+        initial = new GameSessionState(state.user(), state.questions(), Map.of(), 0, state.questionStartTime(),
+                state.scorePerQuestion(), state.gameParams());
+    }
+
+    @Test
+    void recoverWithoutAnswersReturnsSnapshot() throws IOException {
+        SessionJournal.open(snapshot, initial).close();
+
+        assertSameState(initial, SessionJournal.recover(snapshot));
+    }
+
+    @Test
+    void recoverAppliesAppendedAnswers() throws IOException {
+        try (SessionJournal sessionJournal = SessionJournal.open(snapshot, initial)) {
+            sessionJournal.append(0, 3);
+            sessionJournal.append(1, -1);
+        }
+
+        GameSessionState recovered = SessionJournal.recover(snapshot);
+
+        assertEquals(answers(3, -1), recovered.domandaRisposte());
+        assertEquals(2, recovered.currentQuestionIndex());
+        assertEquals(initial.questions(), recovered.questions());
+        assertEquals(initial.questionStartTime(), recovered.questionStartTime());
+    }
+
+    @Test
+    void checkpointCompactsJournal() throws IOException {
+        try (SessionJournal sessionJournal = SessionJournal.open(snapshot, initial)) {
+            sessionJournal.append(0, 3);
+            sessionJournal.checkpoint(withAnswers(answers(3), 1));
+            assertEquals(8, Files.size(journal), "checkpoint must leave only the journal header");
+            sessionJournal.append(1, 0);
+        }
+
+        GameSessionState recovered = SessionJournal.recover(snapshot);
+
+        assertEquals(answers(3, 0), recovered.domandaRisposte());
+        assertEquals(2, recovered.currentQuestionIndex());
+    }
+
+    @Test
+    void truncatedFinalRecordIsIgnored() throws IOException {
+        try (SessionJournal sessionJournal = SessionJournal.open(snapshot, initial)) {
+            sessionJournal.append(0, 3);
+            sessionJournal.append(1, 1);
+        }
+        byte[] bytes = Files.readAllBytes(journal);
+        Files.write(journal, Arrays.copyOf(bytes, bytes.length - 5));
+
+        GameSessionState recovered = SessionJournal.recover(snapshot);
+
+        assertEquals(answers(3), recovered.domandaRisposte());
+        assertEquals(1, recovered.currentQuestionIndex());
+    }
+
+    @Test
+    void corruptedFinalRecordIsIgnored() throws IOException {
+        try (SessionJournal sessionJournal = SessionJournal.open(snapshot, initial)) {
+            sessionJournal.append(0, 3);
+            sessionJournal.append(1, 1);
+        }
+        byte[] bytes = Files.readAllBytes(journal);
+        // Risposta dell'ultimo record modificata senza aggiornarne il CRC
+        bytes[bytes.length - RECORD_BYTES + 8] ^= 0x01;
+        Files.write(journal, bytes);
+
+        GameSessionState recovered = SessionJournal.recover(snapshot);
+
+        assertEquals(answers(3), recovered.domandaRisposte());
+        assertEquals(1, recovered.currentQuestionIndex());
+    }
+
+    @Test
+    void recordWithInvalidQuestionIndexStopsReplay() throws IOException {
+        try (SessionJournal sessionJournal = SessionJournal.open(snapshot, initial)) {
+            sessionJournal.append(0, 3);
+            sessionJournal.append(initial.questions().size(), 0);
+            sessionJournal.append(1, 1);
+        }
+
+        assertEquals(answers(3), SessionJournal.recover(snapshot).domandaRisposte());
+    }
+
+    @Test
+    void journalWithBadMagicIsIgnored() throws IOException {
+        try (SessionJournal sessionJournal = SessionJournal.open(snapshot, initial)) {
+            sessionJournal.append(0, 3);
+        }
+        byte[] bytes = Files.readAllBytes(journal);
+        bytes[0] ^= 0x01;
+        Files.write(journal, bytes);
+
+        assertSameState(initial, SessionJournal.recover(snapshot));
+    }
+
+    @Test
+    void journalOfAnotherSnapshotIsIgnored() throws IOException {
+        try (SessionJournal sessionJournal = SessionJournal.open(snapshot, initial)) {
+            sessionJournal.append(0, 3);
+        }
+        // Crash tra la scrittura di una nuova istantanea e l'azzeramento del giornale
+        GameSessionState newer = withAnswers(answers(1), 1);
+        GameSessionCodec.write(snapshot, newer);
+
+        assertSameState(newer, SessionJournal.recover(snapshot));
+    }
+
+    @Test
+    void missingJournalReturnsSnapshot() throws IOException {
+        GameSessionCodec.write(snapshot, initial);
+
+        assertSameState(initial, SessionJournal.recover(snapshot));
+    }
+
+    @Test
+    void badSnapshotIsRejected() throws IOException {
+        SessionJournal.open(snapshot, initial).close();
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[0] ^= 0x01;
+        Files.write(snapshot, bytes);
+
+        assertThrows(IOException.class, () -> SessionJournal.recover(snapshot));
+    }
+
+    @Test
+    void appendAfterCloseFails() throws IOException {
+        SessionJournal sessionJournal = SessionJournal.open(snapshot, initial);
+        sessionJournal.close();
+
+        assertThrows(IOException.class, () -> sessionJournal.append(0, 1));
+    }
+
+    @Test
+    void discardDeletesSnapshotAndJournal() throws IOException {
+        SessionJournal sessionJournal = SessionJournal.open(snapshot, initial);
+        sessionJournal.append(0, 3);
+
+        sessionJournal.discard();
+
+        assertFalse(Files.exists(snapshot));
+        assertFalse(Files.exists(journal));
+    }
+
+    /**
+     * Risposte date alle prime domande, nell'ordine indicato.
+     */
+    private Map<Question, Integer> answers(int... given) {
+        Map<Question, Integer> answers = new LinkedHashMap<>();
+        List<Question> questions = initial.questions();
+        for (int i = 0; i < given.length; i++) {
+            answers.put(questions.get(i), given[i]);
+        }
+        return answers;
+    }
+
+    private GameSessionState withAnswers(Map<Question, Integer> answers, int currentQuestionIndex) {
+        return new GameSessionState(initial.user(), initial.questions(), answers, currentQuestionIndex,
+                initial.questionStartTime(), initial.scorePerQuestion(), initial.gameParams());
+    }
+}